@@ -5,6 +5,7 @@ import com.arangodb.ArangoDB;
 import com.arangodb.ArangoDatabase;
 import com.arangodb.entity.DocumentCreateEntity;
 import com.arangodb.entity.DocumentUpdateEntity;
+import com.arangodb.entity.MultiDocumentEntity;
 import com.arangodb.entity.ReplicationFactor;
 import com.arangodb.model.CollectionCreateOptions;
 import com.arangodb.model.CollectionPropertiesOptions;
@@ -12,11 +13,14 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import site.ycsb.DB;
 import site.ycsb.DBException;
+import site.ycsb.EdgeRecord;
 import site.ycsb.Status;
+import site.ycsb.VertexRecord;
 
 
 import java.net.URI;
 import java.util.*;
+import java.util.concurrent.locks.ReentrantLock;
 
 public class ArangoDBClient extends DB {
 
@@ -24,6 +28,14 @@ public class ArangoDBClient extends DB {
   private final Logger log = LoggerFactory.getLogger(getClass());
   ArangoDatabase db;
 
+  /**
+   * Guards {@link #sharedDb}. A lock rather than synchronized, which would pin the carriers of
+   * the virtual threads waiting for the first connection.
+   */
+  private static final ReentrantLock CONNECT_LOCK = new ReentrantLock();
+  /** The database connected by the first instance, shared by all of them. */
+  private static ArangoDatabase sharedDb;
+
 
   @Override
   public void init() throws DBException {
@@ -44,19 +56,22 @@ public class ArangoDBClient extends DB {
       }
       System.out.println("DBURI: " + props.getProperty("DBURI"));
 
-      URI uri = new URI(props.getProperty("DBURI"));
-
-      System.out.println("Connecting to ArangoDB database with params: " + uri.getHost() + ":" + uri.getPort());
-      ArangoDB arangodb = new ArangoDB.Builder()
-          .host(uri.getHost(), uri.getPort())
-          .build();
-      System.out.println("ArangoDB client initialized successfully");
-      this.db = arangodb.db("ycsb");
-      if (!db.exists()) {
-        arangodb.createDatabase("ycsb");
-        this.db = arangodb.db("ycsb");
+      CONNECT_LOCK.lock();
+      try {
+        if (sharedDb == null) {
+          URI uri = new URI(props.getProperty("DBURI"));
+
+          System.out.println("Connecting to ArangoDB database with params: " + uri.getHost() + ":" + uri.getPort());
+          ArangoDB arangodb = new ArangoDB.Builder()
+              .host(uri.getHost(), uri.getPort())
+              .build();
+          System.out.println("ArangoDB client initialized successfully");
+          ArangoDatabase database = arangodb.db("ycsb");
+          if (!database.exists()) {
+            arangodb.createDatabase("ycsb");
+            database = arangodb.db("ycsb");
 //        int replicationFactor = props.getProperty("REPLICATION_FACTOR") != null ? Integer.parseInt(props.getProperty("REPLICATION_FACTOR")) : 1;
-        // Set collection options
+            // Set collection options
 //        CollectionPropertiesOptions options = new CollectionPropertiesOptions()
 //            .replicationFactor(ReplicationFactor.of(replicationFactor))  // replication factor of 3
 //            .writeConcern(replicationFactor);      // optional, how many copies must be written
@@ -68,8 +83,14 @@ public class ArangoDBClient extends DB {
 //        db.collection("vertices").changeProperties(options);
 //        db.collection("edges").changeProperties(options);
 
+          }
+          System.out.println("Connected to ArangoDB database successfully");
+          sharedDb = database;
+        }
+        this.db = sharedDb;
+      } finally {
+        CONNECT_LOCK.unlock();
       }
-      System.out.println("Connected to ArangoDB database successfully");
 
     }catch (Exception e){
       System.out.println("Failed to initialize ArangoDB client: " + e.getMessage());
@@ -81,10 +102,7 @@ public class ArangoDBClient extends DB {
   public Status addVertex(String label, String id, Map<String, String> properties) {
     int status = 0;
     try {
-      Map<String, String> vertex = new HashMap<>();
-
-      vertex.put("_key", id);
-      vertex.putAll(properties);
+      Map<String, String> vertex = vertexDocument(id, properties);
       DocumentCreateEntity<Void> result = db.collection("vertices").insertDocument(vertex);
 //      System.out.println("Inserted vertex with id: " + result.getKey());
       return Status.OK;
@@ -97,11 +115,7 @@ public class ArangoDBClient extends DB {
   public Status addEdge(String label, String id, String from, String to, Map<String, String> properties) {
     int status = 0;
     try {
-      Map<String, String> edge = new HashMap<>();
-      edge.put("_key", id);
-      edge.put("_from", "vertices/" + from);
-      edge.put("_to", "vertices/" + to);
-      edge.putAll(properties);
+      Map<String, String> edge = edgeDocument(id, from, to, properties);
       db.collection("edges").insertDocument(edge);
       return Status.OK;
     } catch (Exception e) {
@@ -109,6 +123,61 @@ public class ArangoDBClient extends DB {
     }
 
   }
+
+  @Override
+  public Status addVertices(List<VertexRecord> vertices) {
+    try {
+      List<Map<String, String>> documents = new ArrayList<>(vertices.size());
+      for (VertexRecord v : vertices) {
+        documents.add(vertexDocument(v.getId(), v.getProperties()));
+      }
+      MultiDocumentEntity<DocumentCreateEntity<Void>> result = db.collection("vertices").insertDocuments(documents);
+      if (!result.getErrors().isEmpty()) {
+        System.out.println("Errors in addVertices: " + result.getErrors().get(0).getErrorMessage());
+        return Status.ERROR;
+      }
+      return Status.OK;
+    } catch (Exception e) {
+      System.out.println("Exception in addVertices: " + e.getMessage());
+      return Status.ERROR;
+    }
+  }
+
+  @Override
+  public Status addEdges(List<EdgeRecord> edges) {
+    try {
+      List<Map<String, String>> documents = new ArrayList<>(edges.size());
+      for (EdgeRecord e : edges) {
+        documents.add(edgeDocument(e.getId(), e.getFrom(), e.getTo(), e.getProperties()));
+      }
+      MultiDocumentEntity<DocumentCreateEntity<Void>> result = db.collection("edges").insertDocuments(documents);
+      if (!result.getErrors().isEmpty()) {
+        System.out.println("Errors in addEdges: " + result.getErrors().get(0).getErrorMessage());
+        return Status.ERROR;
+      }
+      return Status.OK;
+    } catch (Exception e) {
+      System.out.println("Exception in addEdges: " + e.getMessage());
+      return Status.ERROR;
+    }
+  }
+
+  private static Map<String, String> vertexDocument(String id, Map<String, String> properties) {
+    Map<String, String> vertex = new HashMap<>();
+    vertex.put("_key", id);
+    properties.forEach(vertex::put);
+    return vertex;
+  }
+
+  private static Map<String, String> edgeDocument(String id, String from, String to,
+                                                  Map<String, String> properties) {
+    Map<String, String> edge = new HashMap<>();
+    edge.put("_key", id);
+    edge.put("_from", "vertices/" + from);
+    edge.put("_to", "vertices/" + to);
+    properties.forEach(edge::put);
+    return edge;
+  }
   @Override
   public Status getVertexCount() {
     try {
@@ -0,0 +1,90 @@
+/**
+ * Copyright (c) 2025 YCSB contributors. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+
+
+package site.ycsb;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The arrival times of the operations of an open loop run, shared by all client threads.
+ * Every thread claims the next arrival before each operation, waits for it and measures the
+ * operation from it, so a slow response delays only the thread waiting for it: the arrivals
+ * it misses are claimed by the other threads, late if all of them are busy, and their wait
+ * shows in the Intended- latencies instead of lowering the offered load. The number of
+ * operations in flight is therefore bounded by the number of client threads.
+ * <p>
+ * Arrivals are either evenly spaced or a Poisson process, whose gaps are drawn
+ * independently by the claiming threads. The schedule starts at the first claim.
+ */
+public final class ArrivalSchedule {
+  /** The arrival process, the name of its {@link Client#ARRIVAL_PROPERTY} value. */
+  public enum Process {
+    FIXED,
+    POISSON,
+  }
+
+  /** Returned by {@link #next()} once all the operations were claimed. */
+  public static final long END = Long.MIN_VALUE;
+
+  private static final long UNSET = Long.MIN_VALUE;
+
+  private final Process process;
+  private final double intervalNanos;
+  private final long operations;
+  private final AtomicLong claimed = new AtomicLong();
+  private final AtomicLong start = new AtomicLong(UNSET);
+  /** For a Poisson process, the offset of the next arrival from the start. */
+  private final AtomicLong next = new AtomicLong();
+
+  /**
+   * @param process The arrival process.
+   * @param opsPerSecond The arrival rate.
+   * @param operations The number of arrivals, 0 for no limit.
+   */
+  public ArrivalSchedule(Process process, double opsPerSecond, long operations) {
+    if (!(opsPerSecond > 0)) {
+      throw new IllegalArgumentException("An open loop schedule needs a positive target, not " + opsPerSecond);
+    }
+    this.process = process;
+    this.intervalNanos = 1e9 / opsPerSecond;
+    this.operations = operations;
+  }
+
+  /**
+   * Claim the next arrival.
+   *
+   * @return Its {@link System#nanoTime()}, or {@link #END} once all the operations were claimed.
+   */
+  public long next() {
+    long n = claimed.getAndIncrement();
+    if (operations > 0 && n >= operations) {
+      return END;
+    }
+    long origin = start.get();
+    if (origin == UNSET) {
+      start.compareAndSet(UNSET, System.nanoTime());
+      origin = start.get();
+    }
+    if (process == Process.FIXED) {
+      return origin + (long) (n * intervalNanos);
+    }
+    long gap = (long) (-Math.log(1 - ThreadLocalRandom.current().nextDouble()) * intervalNanos);
+    return origin + next.getAndAdd(gap);
+  }
+}
@@ -0,0 +1,299 @@
+/**
+ * Copyright (c) 2025 YCSB contributors. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+
+package site.ycsb;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A dataset converted from a JSON array of objects into a compact binary file that is read
+ * through memory mapping, without any JSON parsing.
+ * <p>
+ * Layout, all integers big endian:
+ * <pre>
+ *   header   : magic "YGRB", int version
+ *   records  : int length, then length bytes of
+ *              unsigned short field count, and per field
+ *              unsigned short key id, int value length (-1 for null), UTF-8 value bytes
+ *   keys     : unsigned short key count, then every key in modified UTF-8
+ *   index    : int slot count, then the offset of every {@link #STRIDE}-th record
+ *   trailer  : long record count, long keys offset, long index offset, int stride, magic
+ * </pre>
+ * Property names are dictionary encoded: the records refer to them by their position in the
+ * key table, which is decoded once when the file is opened.
+ * <p>
+ * The converter can be run on its own to prepare a dataset ahead of time:
+ * <pre>
+ *   java -cp ... site.ycsb.BinaryRecordFile vertices.json [vertices.json.ybin]
+ * </pre>
+ */
+public final class BinaryRecordFile implements RecordFile {
+  /** Extension of the binary file written next to a JSON dataset. */
+  public static final String EXTENSION = ".ybin";
+
+  /** Number of records between two indexed offsets. */
+  public static final int STRIDE = 4096;
+
+  static final int MAGIC = 0x59475242; // "YGRB"
+  static final int VERSION = 1;
+  static final int HEADER_LENGTH = 8;
+  static final int TRAILER_LENGTH = 32;
+
+  private final String filename;
+  private final long count;
+  private final long dataEnd;
+  private final int stride;
+  private final long[] offsets;
+  private final String[] keys;
+
+  private BinaryRecordFile(String filename, long count, long dataEnd, int stride, long[] offsets, String[] keys) {
+    this.filename = filename;
+    this.count = count;
+    this.dataEnd = dataEnd;
+    this.stride = stride;
+    this.offsets = offsets;
+    this.keys = keys;
+  }
+
+  /**
+   * Open a binary dataset file.
+   *
+   * @param filename The binary file.
+   * @return The dataset.
+   * @throws IOException if the file cannot be read or is not a binary dataset.
+   */
+  public static BinaryRecordFile open(String filename) throws IOException {
+    try (RandomAccessFile file = new RandomAccessFile(filename, "r")) {
+      long length = file.length();
+      if (length < HEADER_LENGTH + TRAILER_LENGTH) {
+        throw new IOException(filename + " is not a binary dataset");
+      }
+      file.seek(0);
+      if (file.readInt() != MAGIC) {
+        throw new IOException(filename + " is not a binary dataset");
+      }
+      int version = file.readInt();
+      if (version != VERSION) {
+        throw new IOException("Unsupported binary dataset version " + version + " in " + filename);
+      }
+      file.seek(length - TRAILER_LENGTH);
+      long count = file.readLong();
+      long keysOffset = file.readLong();
+      long indexOffset = file.readLong();
+      int stride = file.readInt();
+      if (file.readInt() != MAGIC) {
+        throw new IOException(filename + " is truncated");
+      }
+
+      DataInputStream in = new DataInputStream(Channels.newInputStream(file.getChannel().position(keysOffset)));
+      String[] keys = new String[in.readUnsignedShort()];
+      for (int i = 0; i < keys.length; i++) {
+        keys[i] = PropertyMap.symbol(in.readUTF());
+      }
+      file.getChannel().position(indexOffset);
+      in = new DataInputStream(Channels.newInputStream(file.getChannel()));
+      long[] offsets = new long[in.readInt()];
+      for (int i = 0; i < offsets.length; i++) {
+        offsets[i] = in.readLong();
+      }
+      return new BinaryRecordFile(filename, count, keysOffset, stride, offsets, keys);
+    }
+  }
+
+  /**
+   * @return true if the file starts with the binary dataset magic number.
+   */
+  public static boolean isBinary(String filename) {
+    File f = new File(filename);
+    if (f.length() < HEADER_LENGTH + TRAILER_LENGTH) {
+      return false;
+    }
+    try (RandomAccessFile file = new RandomAccessFile(f, "r")) {
+      return file.readInt() == MAGIC;
+    } catch (IOException e) {
+      return false;
+    }
+  }
+
+  /**
+   * Convert a JSON array of objects into a binary dataset. The output is written to a
+   * temporary file that is moved into place once complete, so that a reader never sees a
+   * partially written dataset.
+   *
+   * @param jsonFile The JSON array to convert.
+   * @param binaryFile The binary file to write.
+   * @return The number of converted records.
+   * @throws IOException if a file cannot be read or written.
+   */
+  public static long convert(String jsonFile, String binaryFile) throws IOException {
+    File target = new File(binaryFile);
+    File temp = File.createTempFile(target.getName(), ".tmp", target.getAbsoluteFile().getParentFile());
+    try {
+      long count = write(jsonFile, temp);
+      Files.move(temp.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      return count;
+    } finally {
+      if (temp.exists() && !temp.delete()) {
+        System.err.println("Failed to delete " + temp);
+      }
+    }
+  }
+
+  private static long write(String jsonFile, File binaryFile) throws IOException {
+    Map<String, Integer> keyIds = new HashMap<>();
+    List<String> keys = new ArrayList<>();
+    long[] offsets = new long[64];
+    long count = 0;
+    long position = HEADER_LENGTH;
+
+    ByteArrayOutputStream body = new ByteArrayOutputStream(256);
+    DataOutputStream record = new DataOutputStream(body);
+    JsonObjectStreamer streamer = new JsonObjectStreamer(jsonFile);
+    try (DataOutputStream out = new DataOutputStream(
+        new BufferedOutputStream(new FileOutputStream(binaryFile), 1 << 16))) {
+      out.writeInt(MAGIC);
+      out.writeInt(VERSION);
+
+      Map<String, String> object;
+      while ((object = streamer.nextObject()) != null) {
+        if (object.size() > 0xFFFF) {
+          throw new IOException("Record " + count + " of " + jsonFile + " has too many properties");
+        }
+        body.reset();
+        record.writeShort(object.size());
+        for (Map.Entry<String, String> field : object.entrySet()) {
+          Integer id = keyIds.get(field.getKey());
+          if (id == null) {
+            // The dictionary is prefixed with its size as an unsigned short.
+            if (keys.size() >= 0xFFFF) {
+              throw new IOException(jsonFile + " has more than 65535 distinct property names");
+            }
+            id = keys.size();
+            keyIds.put(field.getKey(), id);
+            keys.add(field.getKey());
+          }
+          record.writeShort(id);
+          if (field.getValue() == null) {
+            record.writeInt(-1);
+          } else {
+            byte[] value = field.getValue().getBytes(StandardCharsets.UTF_8);
+            record.writeInt(value.length);
+            record.write(value);
+          }
+        }
+
+        if (count % STRIDE == 0) {
+          int slot = (int) (count / STRIDE);
+          if (slot == offsets.length) {
+            offsets = Arrays.copyOf(offsets, offsets.length * 2);
+          }
+          offsets[slot] = position;
+        }
+        out.writeInt(body.size());
+        body.writeTo(out);
+        position += 4 + body.size();
+        count++;
+      }
+
+      long keysOffset = position;
+      body.reset();
+      record.writeShort(keys.size());
+      for (String key : keys) {
+        record.writeUTF(key);
+      }
+      body.writeTo(out);
+      long indexOffset = keysOffset + body.size();
+      int slots = (int) ((count + STRIDE - 1) / STRIDE);
+      out.writeInt(slots);
+      for (int i = 0; i < slots; i++) {
+        out.writeLong(offsets[i]);
+      }
+      out.writeLong(count);
+      out.writeLong(keysOffset);
+      out.writeLong(indexOffset);
+      out.writeInt(STRIDE);
+      out.writeInt(MAGIC);
+    } finally {
+      streamer.close();
+    }
+    return count;
+  }
+
+  @Override
+  public String getFilename() {
+    return filename;
+  }
+
+  @Override
+  public long size() {
+    return count;
+  }
+
+  @Override
+  public BinaryRecordReader open(long record) throws IOException {
+    return open(record, BinaryRecordReader.WINDOW);
+  }
+
+  BinaryRecordReader open(long record, int window) throws IOException {
+    if (record < 0 || record > count) {
+      throw new IndexOutOfBoundsException("Record " + record + " outside of [0, " + count + "]");
+    }
+    if (record == count) {
+      return new BinaryRecordReader(filename, keys, dataEnd, dataEnd, window);
+    }
+    int slot = (int) (record / stride);
+    BinaryRecordReader reader = new BinaryRecordReader(filename, keys, offsets[slot], dataEnd, window);
+    reader.skip(record - (long) slot * stride);
+    return reader;
+  }
+
+  @Override
+  public BinaryRecordReader openAt(long position) throws IOException {
+    if (position < HEADER_LENGTH || position > dataEnd) {
+      throw new IndexOutOfBoundsException("Position " + position + " outside of the records of " + filename);
+    }
+    return new BinaryRecordReader(filename, keys, position, dataEnd, BinaryRecordReader.WINDOW);
+  }
+
+  public static void main(String[] args) throws IOException {
+    if (args.length < 1 || args.length > 2) {
+      System.err.println("Usage: java site.ycsb.BinaryRecordFile <json file> [binary file]");
+      System.exit(1);
+    }
+    String target = args.length == 2 ? args[1] : args[0] + EXTENSION;
+    long start = System.nanoTime();
+    long count = convert(args[0], target);
+    System.out.printf("Converted %d records from %s to %s in %d ms%n", count, args[0], target,
+        (System.nanoTime() - start) / 1000000);
+  }
+}
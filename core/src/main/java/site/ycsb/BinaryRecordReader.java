@@ -0,0 +1,150 @@
+/**
+ * Copyright (c) 2025 YCSB contributors. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+
+package site.ycsb;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Reads the records of a {@link BinaryRecordFile} through a sliding memory mapped window.
+ * The window is remapped whenever the next record does not fit in it, so files larger than
+ * the 2GB limit of a single mapping are supported. A reader is not thread safe.
+ */
+public final class BinaryRecordReader implements RecordReader {
+  /** Default size of the mapped window. */
+  static final int WINDOW = 64 << 20;
+
+  private final RandomAccessFile file;
+  private final FileChannel channel;
+  private final String[] keys;
+  private final long dataEnd;
+  private final int windowSize;
+
+  private MappedByteBuffer window;
+  private long windowStart;
+  private long position;
+  private byte[] scratch = new byte[256];
+
+  BinaryRecordReader(String filename, String[] keys, long position, long dataEnd, int windowSize)
+      throws IOException {
+    this.file = new RandomAccessFile(filename, "r");
+    this.channel = file.getChannel();
+    this.keys = keys;
+    this.position = position;
+    this.dataEnd = dataEnd;
+    this.windowSize = windowSize;
+  }
+
+  /**
+   * Make sure the {@code length} bytes at the current position are mapped and return their
+   * offset inside the window.
+   */
+  private int map(int length) throws IOException {
+    if (position + length > dataEnd) {
+      throw new IOException("Truncated record at offset " + position);
+    }
+    if (window == null || position < windowStart || position + length > windowStart + window.limit()) {
+      long size = Math.min(Math.max(windowSize, length), dataEnd - position);
+      window = channel.map(FileChannel.MapMode.READ_ONLY, position, size);
+      windowStart = position;
+    }
+    return (int) (position - windowStart);
+  }
+
+  @Override
+  public Map<String, String> nextObject() throws IOException {
+    if (position >= dataEnd) {
+      return null;
+    }
+    int offset = next();
+    Map<String, String> object = new HashMap<>((window.getShort(offset) & 0xFFFF) * 4 / 3 + 1);
+    decode(offset, object);
+    return object;
+  }
+
+  @Override
+  public boolean nextObject(PropertyMap into) throws IOException {
+    if (position >= dataEnd) {
+      return false;
+    }
+    into.clear();
+    decode(next(), into);
+    return true;
+  }
+
+  /**
+   * Map the next record, move past it and return its offset inside the window.
+   */
+  private int next() throws IOException {
+    int offset = map(4);
+    int length = window.getInt(offset);
+    position += 4;
+    offset = map(length);
+    position += length;
+    return offset;
+  }
+
+  private void decode(int offset, Map<String, String> object) {
+    MappedByteBuffer buffer = window;
+    int fields = buffer.getShort(offset) & 0xFFFF;
+    offset += 2;
+    for (int i = 0; i < fields; i++) {
+      String key = keys[buffer.getShort(offset) & 0xFFFF];
+      int valueLength = buffer.getInt(offset + 2);
+      offset += 6;
+      String value = null;
+      if (valueLength >= 0) {
+        if (valueLength > scratch.length) {
+          scratch = new byte[Math.max(valueLength, scratch.length * 2)];
+        }
+        buffer.position(offset);
+        buffer.get(scratch, 0, valueLength);
+        value = new String(scratch, 0, valueLength, StandardCharsets.UTF_8);
+        offset += valueLength;
+      }
+      object.put(key, value);
+    }
+  }
+
+  @Override
+  public long skip(long objects) throws IOException {
+    long skipped = 0;
+    while (skipped < objects && position < dataEnd) {
+      int offset = map(4);
+      position += 4 + (long) window.getInt(offset);
+      skipped++;
+    }
+    return skipped;
+  }
+
+  @Override
+  public long position() {
+    return position;
+  }
+
+  @Override
+  public void close() throws IOException {
+    window = null;
+    file.close();
+  }
+}
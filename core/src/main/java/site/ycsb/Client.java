@@ -28,47 +28,11 @@ import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.lang.reflect.Method;
 import java.util.*;
 import java.util.Map.Entry;
 import java.util.concurrent.CountDownLatch;
-import java.util.concurrent.TimeUnit;
-
-/**
- * Turn seconds remaining into more useful units.
- * i.e. if there are hours or days worth of seconds, use them.
- */
-final class RemainingFormatter {
-  private RemainingFormatter() {
-    // not used
-  }
-
-  public static StringBuilder format(long seconds) {
-    StringBuilder time = new StringBuilder();
-    long days = TimeUnit.SECONDS.toDays(seconds);
-    if (days > 0) {
-      time.append(days).append(days == 1 ? " day " : " days ");
-      seconds -= TimeUnit.DAYS.toSeconds(days);
-    }
-    long hours = TimeUnit.SECONDS.toHours(seconds);
-    if (hours > 0) {
-      time.append(hours).append(hours == 1 ? " hour " : " hours ");
-      seconds -= TimeUnit.HOURS.toSeconds(hours);
-    }
-    /* Only include minute granularity if we're < 1 day. */
-    if (days < 1) {
-      long minutes = TimeUnit.SECONDS.toMinutes(seconds);
-      if (minutes > 0) {
-        time.append(minutes).append(minutes == 1 ? " minute " : " minutes ");
-        seconds -= TimeUnit.MINUTES.toSeconds(seconds);
-      }
-    }
-    /* Only bother to include seconds if we're < 1 minute */
-    if (time.length() == 0) {
-      time.append(seconds).append(time.length() == 1 ? " second " : " seconds ");
-    }
-    return time;
-  }
-}
+import java.util.concurrent.ThreadFactory;
 
 /**
  * Main class for executing YCSB.
@@ -129,6 +93,41 @@ public final class Client {
    */
   public static final String TARGET_PROPERTY = "target";
 
+  /**
+   * How the transaction phase paces its operations: "closed" (the default) has every thread
+   * wait for the response to an operation before its next one, spacing them by the thread's
+   * share of the target; "open" issues them on a shared {@link ArrivalSchedule} at the target
+   * rate whether or not earlier operations completed, measuring each from its arrival.
+   */
+  public static final String SCHEDULER_PROPERTY = "scheduler";
+
+  /**
+   * The default pacing of the transaction phase.
+   */
+  public static final String SCHEDULER_PROPERTY_DEFAULT = "closed";
+
+  /**
+   * The arrival process of an open loop run, "fixed" for evenly spaced arrivals or "poisson".
+   */
+  public static final String ARRIVAL_PROPERTY = "scheduler.arrival";
+
+  /**
+   * The default arrival process of an open loop run.
+   */
+  public static final String ARRIVAL_PROPERTY_DEFAULT = "fixed";
+
+  /**
+   * What runs the client threads: "platform" (the default) for one operating system thread
+   * each, or "virtual" for virtual threads, so that thousands of clients blocked on I/O fit in
+   * one JVM. Virtual threads need Java 21; older runtimes fall back to platform threads.
+   */
+  public static final String CLIENT_EXECUTOR_PROPERTY = "clientexecutor";
+
+  /**
+   * The default for what runs the client threads.
+   */
+  public static final String CLIENT_EXECUTOR_PROPERTY_DEFAULT = "platform";
+
   /**
    * The maximum amount of time (in seconds) for which the benchmark will be run.
    */
@@ -240,6 +239,9 @@ public final class Client {
       exporter.write("OVERALL", "RunTime(ms)", runtime);
       double throughput = 1000.0 * (opcount) / (runtime);
       exporter.write("OVERALL", "Throughput(ops/sec)", throughput);
+      if (LoadProgress.getLoadProgress().isActive()) {
+        LoadProgress.getLoadProgress().export(exporter, runtime);
+      }
 
       final Map<String, Long[]> gcs = Utils.getGCStatst();
       long totalGCCount = 0;
@@ -332,8 +334,9 @@ public final class Client {
     try (final TraceScope span = tracer.newScope(CLIENT_WORKLOAD_SPAN)) {
 
       final Map<Thread, ClientThread> threads = new HashMap<>(threadcount);
+      final ThreadFactory threadFactory = clientThreadFactory(props);
       for (ClientThread client : clients) {
-        threads.put(new Thread(tracer.wrap(client, "ClientThread")), client);
+        threads.put(threadFactory.newThread(tracer.wrap(client, "ClientThread")), client);
       }
 
       st = System.currentTimeMillis();
@@ -422,6 +425,11 @@ public final class Client {
         threadcount = opcount;
         System.out.println("Warning: the threadcount is bigger than recordcount, the threadcount will be recordcount!");
       }
+      ArrivalSchedule schedule = dotransactions ? createSchedule(props, opcount) : null;
+      if (schedule != null) {
+        // The schedule paces the threads and counts the operations of all of them.
+        targetperthreadperms = -1;
+      }
       for (int threadid = 0; threadid < threadcount; threadid++) {
         DB db;
         try {
@@ -439,11 +447,15 @@ public final class Client {
         if (threadid < opcount % threadcount) {
           ++threadopcount;
         }
+        if (schedule != null) {
+          threadopcount = 0;
+        }
 
         ClientThread t = new ClientThread(db, dotransactions, workload, props, threadopcount, targetperthreadperms,
             completeLatch);
         t.setThreadId(threadid);
         t.setThreadCount(threadcount);
+        t.setSchedule(schedule);
         clients.add(t);
       }
 
@@ -455,6 +467,38 @@ public final class Client {
     return clients;
   }
 
+  /**
+   * @return The arrival schedule of an open loop run, or null for a closed loop one.
+   */
+  private static ArrivalSchedule createSchedule(Properties props, int opcount) {
+    String scheduler = props.getProperty(SCHEDULER_PROPERTY, SCHEDULER_PROPERTY_DEFAULT);
+    if (scheduler.equals(SCHEDULER_PROPERTY_DEFAULT)) {
+      return null;
+    }
+    if (!scheduler.equals("open")) {
+      System.out.println("Unknown " + SCHEDULER_PROPERTY + " \"" + scheduler + "\", expected closed or open");
+      System.exit(0);
+    }
+    String arrival = props.getProperty(ARRIVAL_PROPERTY, ARRIVAL_PROPERTY_DEFAULT);
+    ArrivalSchedule.Process process = null;
+    for (ArrivalSchedule.Process p : ArrivalSchedule.Process.values()) {
+      if (p.name().equalsIgnoreCase(arrival)) {
+        process = p;
+      }
+    }
+    int target = Integer.parseInt(props.getProperty(TARGET_PROPERTY, "0"));
+    if (process == null || target <= 0) {
+      System.out.println("An open loop run needs a target and a " + ARRIVAL_PROPERTY
+          + " of fixed or poisson, not " + target + " and \"" + arrival + "\"");
+      System.exit(0);
+    }
+    if (props.getProperty(Measurements.MEASUREMENT_INTERVAL, "op").equals("op")) {
+      System.err.println("Warning: the latencies from the scheduled arrivals are only reported with "
+          + Measurements.MEASUREMENT_INTERVAL + "=intended or both");
+    }
+    return new ArrivalSchedule(process, target, opcount);
+  }
+
   private static Tracer getTracer(Properties props, Workload workload) {
     return new Tracer.Builder("YCSB " + workload.getClass().getSimpleName())
         .conf(getHTraceConfiguration(props))
@@ -484,6 +528,32 @@ public final class Client {
     return HTraceConfiguration.fromMap(filteredProperties);
   }
 
+  /**
+   * @return The factory of the threads running the {@link ClientThread}s. Virtual threads are
+   * created through reflection, since the client is built for Java 8.
+   */
+  private static ThreadFactory clientThreadFactory(Properties props) {
+    String executor = props.getProperty(CLIENT_EXECUTOR_PROPERTY, CLIENT_EXECUTOR_PROPERTY_DEFAULT);
+    if (executor.equals(CLIENT_EXECUTOR_PROPERTY_DEFAULT)) {
+      return Thread::new;
+    }
+    if (!executor.equals("virtual")) {
+      System.out.println("Unknown " + CLIENT_EXECUTOR_PROPERTY + " \"" + executor + "\", expected platform or virtual");
+      System.exit(0);
+    }
+    try {
+      Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+      Method factory = Class.forName("java.lang.Thread$Builder").getMethod("factory");
+      ThreadFactory virtual = (ThreadFactory) factory.invoke(builder);
+      // Preview builds of Java 19 and 20 only fail once a thread is created.
+      virtual.newThread(() -> { });
+      return virtual;
+    } catch (ReflectiveOperationException | UnsupportedOperationException e) {
+      System.err.println("Warning: virtual threads need Java 21, running the clients on platform threads");
+      return Thread::new;
+    }
+  }
+
   private static Thread setupWarningThread() {
     //show a warning message that creating the workload is taking a while
     //but only do so if it is taking longer than 2 seconds
@@ -43,6 +43,7 @@ public class ClientThread implements Runnable {
   private Object workloadstate;
   private Properties props;
   private long targetOpsTickNs;
+  private ArrivalSchedule schedule;
   private final Measurements measurements;
 
   /**
@@ -81,6 +82,13 @@ public class ClientThread implements Runnable {
     threadcount = threadCount;
   }
 
+  /**
+   * Issue the transactions at the arrivals of an open loop schedule instead of throttling.
+   */
+  public void setSchedule(final ArrivalSchedule schedule) {
+    this.schedule = schedule;
+  }
+
   public int getOpsDone() {
     return opsdone;
   }
@@ -119,6 +127,14 @@ public class ClientThread implements Runnable {
         long startTimeNanos = System.nanoTime();
 
         while (((opcount == 0) || (opsdone < opcount)) && !workload.isStopRequested()) {
+          if (schedule != null) {
+            long arrival = schedule.next();
+            if (arrival == ArrivalSchedule.END) {
+              break;
+            }
+            sleepUntil(arrival);
+            measurements.setIntendedStartTimeNs(arrival);
+          }
 
           if (!workload.doTransaction(db, workloadstate)) {
             break;
@@ -130,7 +146,7 @@ public class ClientThread implements Runnable {
         }
       } else {
         System.out.println("Load parameter is true. Loading data from the vertex and edge files.");
-        workload.loadData(db, props);
+        workload.loadData(db, props, workloadstate);
       }
     } catch (Exception e) {
       e.printStackTrace();
@@ -18,10 +18,12 @@
 package site.ycsb;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
 import java.util.Vector;
+import java.util.function.Supplier;
 
 /**
  * A layer for accessing a database to be benchmarked. Each thread in the client
@@ -48,6 +50,46 @@ public abstract class DB {
    */
   private Properties properties = new Properties();
 
+  /**
+   * The outcome of an operation that a binding completes after its call returned, see
+   * {@link #defer()}.
+   */
+  public interface Completion {
+    /**
+     * Report the outcome of the operation. May be called from any thread, once.
+     */
+    void complete(Status status);
+  }
+
+  private static final Completion UNMEASURED = status -> { };
+
+  /**
+   * Creates the completion of the operation being called, installed by {@link DBWrapper}.
+   */
+  private Supplier<Completion> completions;
+
+  void setCompletions(Supplier<Completion> completions) {
+    this.completions = completions;
+  }
+
+  /**
+   * Complete the operation being called asynchronously: the binding returns
+   * {@link Status#BATCHED_OK} once the request is sent and calls {@link Completion#complete}
+   * with the real outcome when the response arrives. The operation is then measured from its
+   * call to its completion instead of to the return of the call. Only the single element
+   * operations, not the batches, can be deferred: a binding deferring its insertions must
+   * override the batch insertions too, which otherwise call them.
+   * <p>
+   * Workloads take {@link Status#BATCHED_OK} as an acknowledgement and hand the element to
+   * later operations at once, so the binding must send the later writes to an element only
+   * once its outstanding write completed.
+   *
+   * @throws IllegalStateException if called during a batch or outside of an operation.
+   */
+  protected final Completion defer() {
+    return completions == null ? UNMEASURED : completions.get();
+  }
+
   /**
    * Set the properties for this DB.
    */
@@ -80,6 +122,46 @@ public abstract class DB {
   //CREATE
   public abstract Status addVertex(String label, String id, Map<String, String> properties);
   public abstract Status addEdge(String label, String id,  String from, String to, Map<String, String> properties);
+
+  /**
+   * Insert a batch of vertices. The default implementation inserts them one at a time through
+   * addVertex(); bindings with a bulk insert API should override it.
+   * <p>
+   * The load phase reuses the records, their property maps and the list once the call
+   * returns, so implementations must not keep references to them.
+   *
+   * @param vertices The vertices to insert.
+   * @return OK if every vertex was inserted, otherwise the status of the first failed insert.
+   */
+  public Status addVertices(List<VertexRecord> vertices) {
+    Status result = Status.OK;
+    for (VertexRecord v : vertices) {
+      Status status = addVertex(v.getLabel(), v.getId(), v.getProperties());
+      if (result.isOk() && !status.isOk()) {
+        result = status;
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Insert a batch of edges. The default implementation inserts them one at a time through
+   * addEdge(); bindings with a bulk insert API should override it. As with
+   * {@link #addVertices(List)}, the records are reused once the call returns.
+   *
+   * @param edges The edges to insert.
+   * @return OK if every edge was inserted, otherwise the status of the first failed insert.
+   */
+  public Status addEdges(List<EdgeRecord> edges) {
+    Status result = Status.OK;
+    for (EdgeRecord e : edges) {
+      Status status = addEdge(e.getLabel(), e.getId(), e.getFrom(), e.getTo(), e.getProperties());
+      if (result.isOk() && !status.isOk()) {
+        result = status;
+      }
+    }
+    return result;
+  }
   //READ
   public abstract Status getVertexCount();
   public abstract Status getEdgeCount();
@@ -96,6 +178,34 @@ public abstract class DB {
   public abstract Status removeVertexProperty(String id, String key);
   public abstract Status removeEdgeProperty(String id, String key);
 
+  /**
+   * Wait until a vertex property written with {@link #setVertexProperty(String, String, String)}
+   * can be read back through the read path of the database, which may be a replica or a
+   * different driver than the one the write went through. Implementations poll the read path
+   * with backoff and give up after a timeout of their own. The time this call takes is
+   * reported as the VISIBILITY_LAG measurement, so the write is acknowledged by
+   * {@link #awaitWrites(String)} first.
+   *
+   * @param id The vertex.
+   * @param key The property written.
+   * @param value The value written, unique to this probe.
+   * @return OK once the value is visible, NOT_FOUND if it was not visible before the timeout,
+   *     NOT_IMPLEMENTED if the binding cannot probe visibility.
+   */
+  public Status awaitVertexProperty(String id, String key, String value) {
+    return Status.NOT_IMPLEMENTED;
+  }
+
+  /**
+   * Wait until the database acknowledged the writes to an element that were deferred with
+   * {@link #defer()} and are still outstanding. Bindings that do not defer writes have nothing
+   * to wait for.
+   *
+   * @param id The element.
+   */
+  public void awaitWrites(String id) {
+  }
+
 
 
 
@@ -50,6 +50,8 @@ public class DBWrapper extends DB {
 
   private final String scopeAddVertex;
   private final String scopeAddEdge;
+  private final String scopeAddVertices;
+  private final String scopeAddEdges;
   private final String scopeGetVertexCount;
   private final String scopeGetEdgeCount;
   private final String scopeGetVertexWithProperty;
@@ -61,18 +63,29 @@ public class DBWrapper extends DB {
   private final String scopeRemoveEdge;
   private final String scopeRemoveVertexProperty;
   private final String scopeRemoveEdgeProperty;
+  private final String scopeAwaitVertexProperty;
 
-
+  /**
+   * The single element operation being called, for {@link #deferCurrent()}; null between the
+   * operations and during a batch, which cannot be deferred.
+   */
+  private String currentOp;
+  private long currentIntendedStart;
+  private long currentStart;
+  private boolean deferred;
 
   public DBWrapper(final DB db, final Tracer tracer) {
     this.db = db;
     measurements = Measurements.getMeasurements();
     this.tracer = tracer;
+    db.setCompletions(this::deferCurrent);
     final String simple = db.getClass().getSimpleName();
     scopeStringCleanup = simple + "#cleanup";
     scopeStringInit = simple + "#init";
     scopeAddVertex = simple + "#addVertex";
     scopeAddEdge = simple + "#addEdge";
+    scopeAddVertices = simple + "#addVertices";
+    scopeAddEdges = simple + "#addEdges";
     scopeGetVertexCount = simple + "#getVertexCount";
     scopeGetEdgeCount = simple + "#getEdgeCount";
     scopeGetVertexWithProperty = simple + "#getVertexWithProperty";
@@ -84,6 +97,7 @@ public class DBWrapper extends DB {
     scopeRemoveEdge = simple + "#removeEdge";
     scopeRemoveVertexProperty = simple + "#removeVertexProperty";
     scopeRemoveEdgeProperty = simple + "#removeEdgeProperty";
+    scopeAwaitVertexProperty = simple + "#awaitVertexProperty";
 
   }
 
@@ -101,8 +115,7 @@ public class DBWrapper extends DB {
     return db.getProperties();
   }
 
-  private void measure(String op, Status result, long intendedStartTimeNanos,
-                       long startTimeNanos, long endTimeNanos) {
+  private String measurementName(String op, Status result) {
     String measurementName = op;
     if (result == null || !result.isOk()) {
       if (this.reportLatencyForEachError ||
@@ -112,11 +125,88 @@ public class DBWrapper extends DB {
         measurementName = op + "-FAILED";
       }
     }
+    return measurementName;
+  }
+
+  /**
+   * Start measuring an operation, which the binding may {@link DB#defer()}.
+   *
+   * @return The start time of the operation.
+   */
+  private long begin(String op, long intendedStartTimeNanos) {
+    deferred = false;
+    currentOp = op;
+    currentIntendedStart = intendedStartTimeNanos;
+    currentStart = System.nanoTime();
+    return currentStart;
+  }
+
+  /**
+   * Measure an operation once its call returned, unless the binding deferred it.
+   */
+  private void end(String op, Status result, long intendedStartTimeNanos, long startTimeNanos) {
+    currentOp = null;
+    if (deferred) {
+      deferred = false;
+      return;
+    }
+    measure(op, result, intendedStartTimeNanos, startTimeNanos, System.nanoTime());
+    measurements.reportStatus(op, result);
+  }
+
+  private DB.Completion deferCurrent() {
+    if (currentOp == null) {
+      throw new IllegalStateException("DB.defer() called outside of a single element operation");
+    }
+    deferred = true;
+    final String op = currentOp;
+    final long ist = currentIntendedStart;
+    final long st = currentStart;
+    return status -> {
+      measure(op, status, ist, st, System.nanoTime());
+      measurements.reportStatus(op, status);
+    };
+  }
+
+  private void measure(String op, Status result, long intendedStartTimeNanos,
+                       long startTimeNanos, long endTimeNanos) {
+    String measurementName = measurementName(op, result);
     measurements.measure(measurementName,
         (int) ((endTimeNanos - startTimeNanos) / 1000));
     measurements.measureIntended(measurementName,
         (int) ((endTimeNanos - intendedStartTimeNanos) / 1000));
   }
+
+  /**
+   * Start measuring a batch, which the binding may not {@link DB#defer()}.
+   *
+   * @return The start time of the batch.
+   */
+  private long beginBatch() {
+    currentOp = null;
+    return System.nanoTime();
+  }
+
+  /**
+   * Measure a batch of items both as one op + "_BATCH" operation and, amortized over the
+   * items, as one op per item so the per item latencies stay comparable with unbatched runs.
+   */
+  private void measureBatch(String op, int items, Status result, long intendedStartTimeNanos,
+                            long startTimeNanos, long endTimeNanos) {
+    measure(op + "_BATCH", result, intendedStartTimeNanos, startTimeNanos, endTimeNanos);
+    measurements.reportStatus(op + "_BATCH", result);
+    if (items == 0) {
+      return;
+    }
+    String measurementName = measurementName(op, result);
+    int latency = (int) ((endTimeNanos - startTimeNanos) / 1000 / items);
+    int intendedLatency = (int) ((endTimeNanos - intendedStartTimeNanos) / 1000 / items);
+    for (int i = 0; i < items; i++) {
+      measurements.measure(measurementName, latency);
+      measurements.measureIntended(measurementName, intendedLatency);
+      measurements.reportStatus(op, result);
+    }
+  }
   /**
    * Initialize any state for this DB.
    * Called once per DB instance; there is one DB instance per client thread.
@@ -163,33 +253,47 @@ public class DBWrapper extends DB {
     public Status addVertex(String table, String vertexId, Map<String, String> properties) {
       try (final TraceScope span = tracer.newScope(scopeAddVertex)) {
         long ist = measurements.getIntendedStartTimeNs();
-        long st = System.nanoTime();
+        long st = begin("ADD_VERTEX", ist);
         Status res = db.addVertex(table, vertexId, properties);
-        long en = System.nanoTime();
-        measure("ADD_VERTEX", res, ist, st, en);
-        measurements.reportStatus("ADD_VERTEX", res);
+        end("ADD_VERTEX", res, ist, st);
         return res;
       }
     }
     public Status addEdge(String table, String fromVertexId, String toVertexId, String label, Map<String, String> properties) {
       try (final TraceScope span = tracer.newScope(scopeAddEdge)) {
         long ist = measurements.getIntendedStartTimeNs();
-        long st = System.nanoTime();
+        long st = begin("ADD_EDGE", ist);
         Status res = db.addEdge(table, fromVertexId, toVertexId, label, properties);
+        end("ADD_EDGE", res, ist, st);
+        return res;
+      }
+    }
+    public Status addVertices(List<VertexRecord> vertices) {
+      try (final TraceScope span = tracer.newScope(scopeAddVertices)) {
+        long ist = measurements.getIntendedStartTimeNs();
+        long st = beginBatch();
+        Status res = db.addVertices(vertices);
         long en = System.nanoTime();
-        measure("ADD_EDGE", res, ist, st, en);
-        measurements.reportStatus("ADD_EDGE", res);
+        measureBatch("ADD_VERTEX", vertices.size(), res, ist, st, en);
+        return res;
+      }
+    }
+    public Status addEdges(List<EdgeRecord> edges) {
+      try (final TraceScope span = tracer.newScope(scopeAddEdges)) {
+        long ist = measurements.getIntendedStartTimeNs();
+        long st = beginBatch();
+        Status res = db.addEdges(edges);
+        long en = System.nanoTime();
+        measureBatch("ADD_EDGE", edges.size(), res, ist, st, en);
         return res;
       }
     }
     public Status getVertexCount() {
       try (final TraceScope span = tracer.newScope(scopeGetVertexCount)) {
         long ist = measurements.getIntendedStartTimeNs();
-        long st = System.nanoTime();
+        long st = begin("GET_VERTEX_COUNT", ist);
         Status res = db.getVertexCount();
-        long en = System.nanoTime();
-        measure("GET_VERTEX_COUNT", res, ist, st, en);
-        measurements.reportStatus("GET_VERTEX_COUNT", res);
+        end("GET_VERTEX_COUNT", res, ist, st);
         return res;
       }
     }
@@ -197,11 +301,9 @@ public class DBWrapper extends DB {
     public Status getEdgeCount() {
       try (final TraceScope span = tracer.newScope(scopeGetEdgeCount)) {
         long ist = measurements.getIntendedStartTimeNs();
-        long st = System.nanoTime();
+        long st = begin("GET_EDGE_COUNT", ist);
         Status res = db.getEdgeCount();
-        long en = System.nanoTime();
-        measure("GET_EDGE_COUNT", res, ist, st, en);
-        measurements.reportStatus("GET_EDGE_COUNT", res);
+        end("GET_EDGE_COUNT", res, ist, st);
         return res;
       }
     }
@@ -209,11 +311,9 @@ public class DBWrapper extends DB {
     public Status getEdgeLabels() {
       try (final TraceScope span = tracer.newScope(scopeGetEdgesWithLabel)) {
         long ist = measurements.getIntendedStartTimeNs();
-        long st = System.nanoTime();
+        long st = begin("GET_EDGE_LABELS", ist);
         Status res = db.getEdgeLabels();
-        long en = System.nanoTime();
-        measure("GET_EDGE_LABELS", res, ist, st, en);
-        measurements.reportStatus("GET_EDGE_LABELS", res);
+        end("GET_EDGE_LABELS", res, ist, st);
         return res;
       }
     }
@@ -221,33 +321,27 @@ public class DBWrapper extends DB {
     public Status getVertexWithProperty(String key, String value) {
       try (final TraceScope span = tracer.newScope(scopeGetVertexWithProperty)) {
         long ist = measurements.getIntendedStartTimeNs();
-        long st = System.nanoTime();
+        long st = begin("GET_VERTEX_WITH_PROPERTY", ist);
         Status res = db.getVertexWithProperty(key, value);
-        long en = System.nanoTime();
-        measure("GET_VERTEX_WITH_PROPERTY", res, ist, st, en);
-        measurements.reportStatus("GET_VERTEX_WITH_PROPERTY", res);
+        end("GET_VERTEX_WITH_PROPERTY", res, ist, st);
         return res;
       }
     }
     public Status getEdgeWithProperty(String key, String value) {
       try (final TraceScope span = tracer.newScope(scopeGetEdgeWithProperty)) {
         long ist = measurements.getIntendedStartTimeNs();
-        long st = System.nanoTime();
+        long st = begin("GET_EDGE_WITH_PROPERTY", ist);
         Status res = db.getEdgeWithProperty(key, value);
-        long en = System.nanoTime();
-        measure("GET_EDGE_WITH_PROPERTY", res, ist, st, en);
-        measurements.reportStatus("GET_EDGE_WITH_PROPERTY", res);
+        end("GET_EDGE_WITH_PROPERTY", res, ist, st);
         return res;
       }
     }
     public Status getEdgesWithLabel(String label) {
       try (final TraceScope span = tracer.newScope(scopeGetEdgesWithLabel)) {
         long ist = measurements.getIntendedStartTimeNs();
-        long st = System.nanoTime();
+        long st = begin("GET_EDGES_WITH_LABEL", ist);
         Status res = db.getEdgesWithLabel(label);
-        long en = System.nanoTime();
-        measure("GET_EDGES_WITH_LABEL", res, ist, st, en);
-        measurements.reportStatus("GET_EDGES_WITH_LABEL", res);
+        end("GET_EDGES_WITH_LABEL", res, ist, st);
         return res;
       }
     }
@@ -255,22 +349,18 @@ public class DBWrapper extends DB {
     public Status setVertexProperty(String vertexId, String key, String value) {
       try (final TraceScope span = tracer.newScope(scopeSetVertexProperty)) {
         long ist = measurements.getIntendedStartTimeNs();
-        long st = System.nanoTime();
+        long st = begin("SET_VERTEX_PROPERTY", ist);
         Status res = db.setVertexProperty(vertexId, key, value);
-        long en = System.nanoTime();
-        measure("SET_VERTEX_PROPERTY", res, ist, st, en);
-        measurements.reportStatus("SET_VERTEX_PROPERTY", res);
+        end("SET_VERTEX_PROPERTY", res, ist, st);
         return res;
       }
     }
     public Status setEdgeProperty(String edgeId, String key, String value) {
       try (final TraceScope span = tracer.newScope(scopeSetEdgeProperty)) {
         long ist = measurements.getIntendedStartTimeNs();
-        long st = System.nanoTime();
+        long st = begin("SET_EDGE_PROPERTY", ist);
         Status res = db.setEdgeProperty(edgeId, key, value);
-        long en = System.nanoTime();
-        measure("SET_EDGE_PROPERTY", res, ist, st, en);
-        measurements.reportStatus("SET_EDGE_PROPERTY", res);
+        end("SET_EDGE_PROPERTY", res, ist, st);
         return res;
       }
 
@@ -279,22 +369,18 @@ public class DBWrapper extends DB {
     public Status removeVertex(String vertexId) {
       try (final TraceScope span = tracer.newScope(scopeRemoveVertex)) {
         long ist = measurements.getIntendedStartTimeNs();
-        long st = System.nanoTime();
+        long st = begin("REMOVE_VERTEX", ist);
         Status res = db.removeVertex(vertexId);
-        long en = System.nanoTime();
-        measure("REMOVE_VERTEX", res, ist, st, en);
-        measurements.reportStatus("REMOVE_VERTEX", res);
+        end("REMOVE_VERTEX", res, ist, st);
         return res;
       }
     }
     public Status removeEdge(String edgeId) {
       try (final TraceScope span = tracer.newScope(scopeRemoveEdge)) {
         long ist = measurements.getIntendedStartTimeNs();
-        long st = System.nanoTime();
+        long st = begin("REMOVE_EDGE", ist);
         Status res = db.removeEdge(edgeId);
-        long en = System.nanoTime();
-        measure("REMOVE_EDGE", res, ist, st, en);
-        measurements.reportStatus("REMOVE_EDGE", res);
+        end("REMOVE_EDGE", res, ist, st);
         return res;
       }
     }
@@ -302,22 +388,30 @@ public class DBWrapper extends DB {
     public Status removeVertexProperty(String vertexId, String key) {
       try (final TraceScope span = tracer.newScope(scopeRemoveVertexProperty)) {
         long ist = measurements.getIntendedStartTimeNs();
-        long st = System.nanoTime();
+        long st = begin("REMOVE_VERTEX_PROPERTY", ist);
         Status res = db.removeVertexProperty(vertexId, key);
-        long en = System.nanoTime();
-        measure("REMOVE_VERTEX_PROPERTY", res, ist, st, en);
-        measurements.reportStatus("REMOVE_VERTEX_PROPERTY", res);
+        end("REMOVE_VERTEX_PROPERTY", res, ist, st);
         return res;
       }
     }
     public Status removeEdgeProperty(String edgeId, String key) {
       try (final TraceScope span = tracer.newScope(scopeRemoveEdgeProperty)) {
         long ist = measurements.getIntendedStartTimeNs();
-        long st = System.nanoTime();
+        long st = begin("REMOVE_EDGE_PROPERTY", ist);
         Status res = db.removeEdgeProperty(edgeId, key);
-        long en = System.nanoTime();
-        measure("REMOVE_EDGE_PROPERTY", res, ist, st, en);
-        measurements.reportStatus("REMOVE_EDGE_PROPERTY", res);
+        end("REMOVE_EDGE_PROPERTY", res, ist, st);
+        return res;
+      }
+    }
+
+    public Status awaitVertexProperty(String vertexId, String key, String value) {
+      try (final TraceScope span = tracer.newScope(scopeAwaitVertexProperty)) {
+        // The lag is measured from the acknowledgement of the write, not from its enqueueing.
+        db.awaitWrites(vertexId);
+        long ist = measurements.getIntendedStartTimeNs();
+        long st = begin("VISIBILITY_LAG", ist);
+        Status res = db.awaitVertexProperty(vertexId, key, value);
+        end("VISIBILITY_LAG", res, ist, st);
         return res;
       }
     }
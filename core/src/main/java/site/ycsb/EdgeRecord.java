@@ -0,0 +1,85 @@
+/**
+ * Copyright (c) 2025 YCSB contributors. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+
+package site.ycsb;
+
+import java.util.Map;
+
+/**
+ * An edge to insert, as passed to {@link DB#addEdges(java.util.List)}. The load phase reuses
+ * its records: a record created with {@link #EdgeRecord()} owns a {@link PropertyMap} and is
+ * {@link #reset reset} for every edge it carries.
+ */
+public class EdgeRecord {
+  private String label;
+  private String id;
+  private String from;
+  private String to;
+  private final Map<String, String> properties;
+
+  public EdgeRecord(String label, String id, String from, String to, Map<String, String> properties) {
+    this.label = label;
+    this.id = id;
+    this.from = from;
+    this.to = to;
+    this.properties = properties;
+  }
+
+  /**
+   * Create an empty record to be filled with {@link #reset}.
+   */
+  public EdgeRecord() {
+    this(null, null, null, null, new PropertyMap());
+  }
+
+  /**
+   * Start over with another edge and no properties.
+   */
+  public void reset(String newLabel, String newId, String newFrom, String newTo) {
+    this.label = newLabel;
+    this.id = newId;
+    this.from = newFrom;
+    this.to = newTo;
+    properties.clear();
+  }
+
+  public String getLabel() {
+    return label;
+  }
+
+  public String getId() {
+    return id;
+  }
+
+  /**
+   * @return The ID of the source vertex.
+   */
+  public String getFrom() {
+    return from;
+  }
+
+  /**
+   * @return The ID of the target vertex.
+   */
+  public String getTo() {
+    return to;
+  }
+
+  public Map<String, String> getProperties() {
+    return properties;
+  }
+}
@@ -0,0 +1,439 @@
+/**
+ * Copyright (c) 2025 YCSB contributors. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+
+package site.ycsb;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+
+/**
+ * A memory mapped, randomly addressable list of the vertex or edge IDs inserted by the load
+ * phase. Opening a registry maps the file without reading it, so startup time and heap use do
+ * not depend on the number of IDs, and {@link #get(long)} only materializes the requested ID.
+ * <p>
+ * Layout, all integers big endian:
+ * <pre>
+ *   header : magic "YIDR", int version, long count, long index offset
+ *   ids    : the UTF-8 bytes of every ID, back to back
+ *   index  : count + 1 longs, the offset of every ID relative to the first one, then the end
+ * </pre>
+ * Registries are written per load thread with a {@link Writer} and concatenated with
+ * {@link #merge(List, String)}. A text file with one ID per line, as written by earlier
+ * versions, is converted the first time it is opened.
+ */
+public final class IdRegistry implements Closeable {
+  static final int MAGIC = 0x59494452; // "YIDR"
+  static final int VERSION = 1;
+  static final int HEADER_LENGTH = 24;
+
+  /** Size of one mapped chunk of the ID bytes or of the index. */
+  private static final long CHUNK = 1L << 30;
+  /** Bytes the ID chunks overlap, so that most IDs can be read from a single chunk. */
+  private static final int OVERLAP = 1 << 16;
+
+  private static final IdRegistry EMPTY = new IdRegistry(null, 0, new MappedByteBuffer[0], new MappedByteBuffer[0]);
+
+  private final RandomAccessFile file;
+  private final long count;
+  private final MappedByteBuffer[] ids;
+  private final MappedByteBuffer[] index;
+
+  private IdRegistry(RandomAccessFile file, long count, MappedByteBuffer[] ids, MappedByteBuffer[] index) {
+    this.file = file;
+    this.count = count;
+    this.ids = ids;
+    this.index = index;
+  }
+
+  /**
+   * @return A registry without any ID.
+   */
+  public static IdRegistry empty() {
+    return EMPTY;
+  }
+
+  /**
+   * Map a registry file. A missing file is an empty registry.
+   *
+   * @param filename The registry file.
+   * @return The registry.
+   * @throws IOException if the file cannot be read or converted.
+   */
+  public static IdRegistry open(String filename) throws IOException {
+    File f = new File(filename);
+    if (!f.exists()) {
+      return EMPTY;
+    }
+    if (!isRegistry(f)) {
+      convertText(f);
+    }
+    RandomAccessFile file = new RandomAccessFile(f, "r");
+    try {
+      if (file.readInt() != MAGIC) {
+        throw new IOException(filename + " is not an ID registry");
+      }
+      int version = file.readInt();
+      if (version != VERSION) {
+        throw new IOException("Unsupported ID registry version " + version + " in " + filename);
+      }
+      long count = file.readLong();
+      long indexOffset = file.readLong();
+      FileChannel channel = file.getChannel();
+      MappedByteBuffer[] ids = map(channel, HEADER_LENGTH, indexOffset - HEADER_LENGTH, OVERLAP);
+      MappedByteBuffer[] index = map(channel, indexOffset, (count + 1) * 8, 0);
+      return new IdRegistry(file, count, ids, index);
+    } catch (IOException e) {
+      file.close();
+      throw e;
+    }
+  }
+
+  private static MappedByteBuffer[] map(FileChannel channel, long start, long length, int overlap)
+      throws IOException {
+    MappedByteBuffer[] chunks = new MappedByteBuffer[(int) Math.max(1, (length + CHUNK - 1) / CHUNK)];
+    for (int i = 0; i < chunks.length; i++) {
+      long offset = i * CHUNK;
+      long size = Math.min(CHUNK + overlap, length - offset);
+      chunks[i] = channel.map(FileChannel.MapMode.READ_ONLY, start + offset, Math.max(0, size));
+    }
+    return chunks;
+  }
+
+  private static boolean isRegistry(File f) throws IOException {
+    if (f.length() < HEADER_LENGTH) {
+      return false;
+    }
+    try (DataInputStream in = new DataInputStream(new FileInputStream(f))) {
+      return in.readInt() == MAGIC;
+    }
+  }
+
+  /**
+   * Replace a text file holding one ID per line with the equivalent registry.
+   */
+  private static void convertText(File f) throws IOException {
+    File temp = new File(f.getPath() + ".tmp");
+    try (BufferedReader in = new BufferedReader(new FileReader(f)); Writer out = new Writer(temp.getPath())) {
+      String line;
+      while ((line = in.readLine()) != null) {
+        out.add(line.trim());
+      }
+    }
+    Files.move(temp.toPath(), f.toPath(), StandardCopyOption.REPLACE_EXISTING);
+  }
+
+  /**
+   * @return The number of IDs.
+   */
+  public long size() {
+    return count;
+  }
+
+  /**
+   * @return true if the registry holds no ID.
+   */
+  public boolean isEmpty() {
+    return count == 0;
+  }
+
+  private long offset(long i) {
+    long position = i * 8;
+    return index[(int) (position / CHUNK)].getLong((int) (position % CHUNK));
+  }
+
+  /**
+   * Return one ID. This is thread safe.
+   *
+   * @param i The position of the ID, in {@code [0, size())}.
+   * @return The ID.
+   */
+  public String get(long i) {
+    if (i < 0 || i >= count) {
+      throw new IndexOutOfBoundsException("ID " + i + " outside of [0, " + count + ")");
+    }
+    long start = offset(i);
+    int length = (int) (offset(i + 1) - start);
+    byte[] bytes = new byte[length];
+    if (length <= OVERLAP) {
+      MappedByteBuffer chunk = ids[(int) (start / CHUNK)];
+      int position = (int) (start % CHUNK);
+      for (int j = 0; j < length; j++) {
+        bytes[j] = chunk.get(position + j);
+      }
+    } else {
+      try {
+        file.getChannel().read(ByteBuffer.wrap(bytes), HEADER_LENGTH + start);
+      } catch (IOException e) {
+        throw new IllegalStateException("Failed to read ID " + i, e);
+      }
+    }
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  @Override
+  public void close() throws IOException {
+    if (file != null) {
+      file.close();
+    }
+  }
+
+  /**
+   * Concatenate registries, in order, into a new registry. The parts are left in place. The
+   * registry is written to a temporary file first and then moved over the target, so that a
+   * process still mapping the previous registry keeps seeing it intact.
+   *
+   * @param parts The registry files to concatenate; missing files are skipped.
+   * @param filename The registry to write.
+   * @throws IOException if a file cannot be read or written, or a part is not a registry that
+   *     was closed properly, such as the part of a writer that crashed.
+   */
+  public static void merge(List<String> parts, String filename) throws IOException {
+    File temp = new File(filename + ".tmp");
+    try {
+      merge(parts, temp);
+    } catch (IOException e) {
+      temp.delete();
+      throw e;
+    }
+    Files.move(temp.toPath(), new File(filename).toPath(), StandardCopyOption.REPLACE_EXISTING);
+  }
+
+  private static void merge(List<String> parts, File temp) throws IOException {
+    long count = 0;
+    long idBytes = 0;
+    try (RandomAccessFile out = new RandomAccessFile(temp, "rw")) {
+      out.setLength(0);
+      FileChannel target = out.getChannel();
+      target.position(HEADER_LENGTH);
+      for (String part : parts) {
+        if (!new File(part).exists()) {
+          continue;
+        }
+        try (RandomAccessFile in = new RandomAccessFile(part, "r")) {
+          long[] header = readPartHeader(in, part);
+          count += header[0];
+          long length = header[1] - HEADER_LENGTH;
+          FileChannel source = in.getChannel();
+          for (long position = 0; position < length;) {
+            position += source.transferTo(HEADER_LENGTH + position, length - position, target);
+          }
+          idBytes += length;
+        }
+      }
+
+      DataOutputStream index = new DataOutputStream(new BufferedOutputStream(
+          new FileOutputStream(out.getFD()), 1 << 16));
+      long base = 0;
+      for (String part : parts) {
+        if (!new File(part).exists()) {
+          continue;
+        }
+        try (RandomAccessFile in = new RandomAccessFile(part, "r")) {
+          long[] header = readPartHeader(in, part);
+          long partCount = header[0];
+          long indexOffset = header[1];
+          in.seek(indexOffset);
+          DataInputStream offsets = new DataInputStream(new BufferedInputStream(
+              new FileInputStream(in.getFD()), 1 << 16));
+          for (long i = 0; i < partCount; i++) {
+            index.writeLong(base + offsets.readLong());
+          }
+          base += offsets.readLong();
+        }
+      }
+      index.writeLong(base);
+      index.flush();
+
+      out.seek(0);
+      out.writeInt(MAGIC);
+      out.writeInt(VERSION);
+      out.writeLong(count);
+      out.writeLong(HEADER_LENGTH + idBytes);
+    }
+  }
+
+  /**
+   * Read and check the header of a part to merge. A writer only fills in the header when it
+   * is closed, and the index then ends the file, so a part left by a writer that was not
+   * closed is rejected rather than merged as garbage.
+   *
+   * @return The count and the index offset of the part.
+   */
+  private static long[] readPartHeader(RandomAccessFile in, String part) throws IOException {
+    if (in.length() < HEADER_LENGTH) {
+      throw new IOException(part + " is not an ID registry");
+    }
+    in.seek(0);
+    if (in.readInt() != MAGIC) {
+      throw new IOException(part + " is not an ID registry, or its writer was not closed");
+    }
+    int version = in.readInt();
+    if (version != VERSION) {
+      throw new IOException("Unsupported ID registry version " + version + " in " + part);
+    }
+    long count = in.readLong();
+    long indexOffset = in.readLong();
+    if (count < 0 || indexOffset < HEADER_LENGTH || indexOffset + (count + 1) * 8 != in.length()) {
+      throw new IOException("Corrupt ID registry " + part + ": " + count + " IDs with the index at "
+          + indexOffset + " in " + in.length() + " bytes");
+    }
+    return new long[]{count, indexOffset};
+  }
+
+  /**
+   * Appends IDs to a new registry file. The offsets are spooled to a temporary file and
+   * appended to the registry when the writer is closed. A writer is not thread safe.
+   */
+  public static final class Writer implements Closeable {
+    private final String filename;
+    private final File indexFile;
+    private final FileOutputStream idsFile;
+    private final FileOutputStream offsetsFile;
+    private final DataOutputStream ids;
+    private final DataOutputStream index;
+    private long count;
+    private long offset;
+
+    public Writer(String filename) throws IOException {
+      this.filename = filename;
+      this.indexFile = new File(filename + ".idx");
+      this.idsFile = new FileOutputStream(filename, false);
+      this.ids = new DataOutputStream(new BufferedOutputStream(idsFile, 1 << 16));
+      this.ids.write(new byte[HEADER_LENGTH]);
+      this.offsetsFile = new FileOutputStream(indexFile, false);
+      this.index = new DataOutputStream(new BufferedOutputStream(offsetsFile, 1 << 16));
+    }
+
+    /**
+     * Reopen a registry file to append to it after its first IDs, as recorded by
+     * {@link #size()} and {@link #bytes()} after a {@link #sync()}. Anything written after that
+     * point is discarded. The file may have been left open or closed by the previous writer.
+     */
+    public Writer(String filename, long count, long bytes) throws IOException {
+      this.filename = filename;
+      this.indexFile = new File(filename + ".idx");
+      if (!indexFile.exists()) {
+        // The previous writer was closed and moved the offsets into the registry, move them back.
+        try (RandomAccessFile in = new RandomAccessFile(filename, "r");
+             FileChannel out = new FileOutputStream(indexFile).getChannel()) {
+          in.seek(16);
+          long indexOffset = in.readLong();
+          FileChannel source = in.getChannel();
+          for (long position = 0; position < count * 8;) {
+            position += source.transferTo(indexOffset + position, count * 8 - position, out);
+          }
+        }
+      }
+      truncate(new File(filename), HEADER_LENGTH + bytes);
+      truncate(indexFile, count * 8);
+      this.idsFile = new FileOutputStream(filename, true);
+      this.ids = new DataOutputStream(new BufferedOutputStream(idsFile, 1 << 16));
+      this.offsetsFile = new FileOutputStream(indexFile, true);
+      this.index = new DataOutputStream(new BufferedOutputStream(offsetsFile, 1 << 16));
+      this.count = count;
+      this.offset = bytes;
+    }
+
+    private static void truncate(File f, long length) throws IOException {
+      try (RandomAccessFile file = new RandomAccessFile(f, "rw")) {
+        if (file.length() < length) {
+          throw new IOException(f + " is shorter than the position to resume from");
+        }
+        file.setLength(length);
+      }
+    }
+
+    /**
+     * Append one ID.
+     */
+    public void add(String id) throws IOException {
+      byte[] bytes = (id == null ? "" : id).getBytes(StandardCharsets.UTF_8);
+      index.writeLong(offset);
+      ids.write(bytes);
+      offset += bytes.length;
+      count++;
+    }
+
+    /**
+     * @return The number of IDs written so far.
+     */
+    public long size() {
+      return count;
+    }
+
+    /**
+     * @return The number of ID bytes written so far.
+     */
+    public long bytes() {
+      return offset;
+    }
+
+    /**
+     * Force the IDs written so far to disk.
+     */
+    public void sync() throws IOException {
+      ids.flush();
+      index.flush();
+      idsFile.getFD().sync();
+      offsetsFile.getFD().sync();
+    }
+
+    @Override
+    public void close() throws IOException {
+      try {
+        index.writeLong(offset);
+        index.close();
+        try (FileChannel in = new FileInputStream(indexFile).getChannel()) {
+          ids.flush();
+          long size = in.size();
+          for (long position = 0; position < size;) {
+            position += in.transferTo(position, size - position, Channels.newChannel(ids));
+          }
+        }
+        ids.close();
+        try (RandomAccessFile out = new RandomAccessFile(filename, "rw")) {
+          out.writeInt(MAGIC);
+          out.writeInt(VERSION);
+          out.writeLong(count);
+          out.writeLong(HEADER_LENGTH + offset);
+        }
+      } finally {
+        if (!indexFile.delete()) {
+          System.err.println("Failed to delete " + indexFile);
+        }
+      }
+    }
+  }
+}
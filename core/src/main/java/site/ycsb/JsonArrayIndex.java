@@ -0,0 +1,175 @@
+/**
+ * Copyright (c) 2025 YCSB contributors. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+
+package site.ycsb;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+/**
+ * A sparse index over a file holding one JSON array of objects. The file is scanned once
+ * with a byte level state machine (no JSON parsing) that records the total number of
+ * objects and the byte offset of every {@link #STRIDE}-th object. This is enough to open a
+ * {@link JsonObjectStreamer} positioned at any record, so that the array can be split into
+ * byte ranges aligned on object boundaries and loaded by several threads at once.
+ */
+public final class JsonArrayIndex implements RecordFile {
+  /** Number of objects between two indexed offsets. */
+  public static final int STRIDE = 4096;
+
+  private final String filename;
+  private final long[] offsets;
+  private final long count;
+  private final long end;
+  private final long length;
+
+  private JsonArrayIndex(String filename, long[] offsets, long count, long end, long length) {
+    this.filename = filename;
+    this.offsets = offsets;
+    this.count = count;
+    this.end = end;
+    this.length = length;
+  }
+
+  /**
+   * Scan a JSON array file and build its index.
+   *
+   * @param filename The file to index.
+   * @return The index.
+   * @throws IOException if the file cannot be read or is not a JSON array.
+   */
+  public static JsonArrayIndex build(String filename) throws IOException {
+    long[] offsets = new long[64];
+    long count = 0;
+    long position = 0;
+    long end = -1;
+    int depth = 0;
+    boolean inString = false;
+    boolean escaped = false;
+    boolean seenArray = false;
+
+    byte[] buffer = new byte[1 << 20];
+    try (InputStream in = new FileInputStream(filename)) {
+      int read;
+      while ((read = in.read(buffer)) != -1) {
+        for (int i = 0; i < read; i++, position++) {
+          byte b = buffer[i];
+          if (inString) {
+            if (escaped) {
+              escaped = false;
+            } else if (b == '\\') {
+              escaped = true;
+            } else if (b == '"') {
+              inString = false;
+            }
+          } else if (b == '"') {
+            inString = true;
+          } else if (b == '[' || b == '{') {
+            if (!seenArray) {
+              if (b != '[') {
+                throw new IOException("Expected JSON array in " + filename);
+              }
+              seenArray = true;
+            } else if (depth == 1) {
+              if (b != '{') {
+                throw new IOException("Expected JSON object at offset " + position + " in " + filename);
+              }
+              if (count % STRIDE == 0) {
+                int slot = (int) (count / STRIDE);
+                if (slot == offsets.length) {
+                  offsets = Arrays.copyOf(offsets, offsets.length * 2);
+                }
+                offsets[slot] = position;
+              }
+              count++;
+            }
+            depth++;
+          } else if (b == ']' || b == '}') {
+            depth--;
+            if (depth == 0 && end < 0) {
+              end = position;
+            }
+          }
+        }
+      }
+    }
+    if (!seenArray || end < 0) {
+      throw new IOException("Expected JSON array in " + filename);
+    }
+    int slots = (int) ((count + STRIDE - 1) / STRIDE);
+    return new JsonArrayIndex(filename, Arrays.copyOf(offsets, slots), count, end, position);
+  }
+
+  @Override
+  public long size() {
+    return count;
+  }
+
+  /**
+   * @return The length of the indexed file in bytes.
+   */
+  public long length() {
+    return length;
+  }
+
+  @Override
+  public String getFilename() {
+    return filename;
+  }
+
+  @Override
+  public JsonObjectStreamer open(long record) throws IOException {
+    if (record < 0 || record > count) {
+      throw new IndexOutOfBoundsException("Record " + record + " outside of [0, " + count + "]");
+    }
+    if (record == count) {
+      return new JsonObjectStreamer(filename, end);
+    }
+    int slot = (int) (record / STRIDE);
+    JsonObjectStreamer streamer = new JsonObjectStreamer(filename, offsets[slot]);
+    streamer.skip(record - (long) slot * STRIDE);
+    return streamer;
+  }
+
+  @Override
+  public JsonObjectStreamer openAt(long position) throws IOException {
+    if (position < 0 || position > length) {
+      throw new IndexOutOfBoundsException("Position " + position + " outside of [0, " + length + "]");
+    }
+    return new JsonObjectStreamer(filename, position);
+  }
+
+  /**
+   * Split the records {@code [start, start + total)} into {@code parts} contiguous slices
+   * of (almost) equal size and return the bounds of one of them.
+   *
+   * @param start The first record of the range to split.
+   * @param total The number of records in the range.
+   * @param parts The number of slices.
+   * @param part The slice to return, in {@code [0, parts)}.
+   * @return A two element array holding the first record and the record count of the slice.
+   */
+  public static long[] slice(long start, long total, int parts, int part) {
+    long size = total / parts;
+    long remainder = total % parts;
+    long first = start + part * size + Math.min(part, remainder);
+    long length = size + (part < remainder ? 1 : 0);
+    return new long[]{first, length};
+  }
+}
@@ -4,39 +4,117 @@ import org.apache.htrace.shaded.fasterxml.jackson.core.JsonFactory;
 import org.apache.htrace.shaded.fasterxml.jackson.core.JsonParser;
 import org.apache.htrace.shaded.fasterxml.jackson.core.JsonToken;
 
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
 import java.util.HashMap;
 import java.util.Map;
 
-public class JsonObjectStreamer {
+public class JsonObjectStreamer implements RecordReader {
   private final JsonParser parser;
   private final JsonFactory factory;
+  private final long start;
 
   public JsonObjectStreamer(String filename) throws IOException {
     factory = new JsonFactory();
+    start = 0;
     parser = factory.createParser(new File(filename));
     if (parser.nextToken() != JsonToken.START_ARRAY) {
       throw new IOException("Expected JSON array");
     }
   }
 
+  /**
+   * Stream the objects of a JSON array starting at a byte offset inside the array. The
+   * offset must point at the opening brace of an element (see {@link JsonArrayIndex}) or just
+   * past the end of one (see {@link #position()}); the remainder of the file is read as if it
+   * were the tail of a fresh array.
+   */
+  public JsonObjectStreamer(String filename, long offset) throws IOException {
+    factory = new JsonFactory();
+    FileInputStream file = new FileInputStream(filename);
+    try {
+      file.getChannel().position(offset);
+    } catch (IOException e) {
+      file.close();
+      throw e;
+    }
+    BufferedInputStream buffered = new BufferedInputStream(file, 1 << 16);
+    // Skip the separator left after the previous element.
+    long skipped = 0;
+    while (true) {
+      buffered.mark(1);
+      int b = buffered.read();
+      if (b != ',' && b != ' ' && b != '\t' && b != '\r' && b != '\n') {
+        buffered.reset();
+        break;
+      }
+      skipped++;
+    }
+    // The parser counts the '[' prepended below.
+    start = offset + skipped - 1;
+    InputStream in = new SequenceInputStream(new ByteArrayInputStream(new byte[]{'['}), buffered);
+    parser = factory.createParser(in);
+    if (parser.nextToken() != JsonToken.START_ARRAY) {
+      throw new IOException("Expected JSON array");
+    }
+  }
+
+  @Override
   public Map<String, String> nextObject() throws IOException {
     if (parser.nextToken() != JsonToken.START_OBJECT) {
       return null; // end of array
     }
 
     Map<String, String> properties = new HashMap<>();
+    readFields(properties);
+    return properties;
+  }
+
+  @Override
+  public boolean nextObject(PropertyMap into) throws IOException {
+    if (parser.nextToken() != JsonToken.START_OBJECT) {
+      return false;
+    }
+    into.clear();
+    readFields(into);
+    return true;
+  }
+
+  /**
+   * Read the fields of the current object. The parser interns field names, so they already
+   * are {@link PropertyMap#symbol(String) symbols}.
+   */
+  private void readFields(Map<String, String> properties) throws IOException {
     while (parser.nextToken() != JsonToken.END_OBJECT) {
       String fieldName = parser.getCurrentName();
       parser.nextToken();
       String value = parser.getValueAsString();
       properties.put(fieldName, value);
     }
-    return properties;
   }
 
+  @Override
+  public long skip(long objects) throws IOException {
+    long skipped = 0;
+    while (skipped < objects && parser.nextToken() == JsonToken.START_OBJECT) {
+      parser.skipChildren();
+      skipped++;
+    }
+    return skipped;
+  }
+
+  @Override
+  public long position() {
+    return start + parser.getCurrentLocation().getByteOffset();
+  }
+
+  @Override
   public void close() throws IOException {
     parser.close();
   }
-}
\ No newline at end of file
+}
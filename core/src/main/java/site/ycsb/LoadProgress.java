@@ -0,0 +1,220 @@
+/**
+ * Copyright (c) 2025 YCSB contributors. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+
+package site.ycsb;
+
+import site.ycsb.measurements.exporter.MeasurementsExporter;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.text.DecimalFormat;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Live counters of the load phase. The load is a single {@link Workload#loadData} call per
+ * client thread, so the operation counts of {@link ClientThread} stay at zero until it ends;
+ * the workload reports its progress here instead, {@link StatusThread} prints it with every
+ * status line and {@link Client} exports the ingest throughput once the load is over.
+ * <p>
+ * The counters are only shown once the workload announced a load with {@link #start}.
+ * <p>
+ * Load threads can also report the bytes they allocated on the heap, as measured by the JVM
+ * for each thread, which is exported per parsed record to track the garbage the ingest path
+ * produces.
+ */
+public final class LoadProgress {
+  private static final LoadProgress INSTANCE = new LoadProgress();
+
+  private final LongAdder parsedVertices = new LongAdder();
+  private final LongAdder parsedEdges = new LongAdder();
+  private final LongAdder issuedVertices = new LongAdder();
+  private final LongAdder issuedEdges = new LongAdder();
+  private final LongAdder acknowledgedVertices = new LongAdder();
+  private final LongAdder acknowledgedEdges = new LongAdder();
+  private final LongAdder bytesRead = new LongAdder();
+  private final LongAdder allocatedBytes = new LongAdder();
+
+  private volatile boolean active;
+  private volatile long plannedVertices;
+  private volatile long plannedEdges;
+  private volatile long startNanos;
+
+  // Snapshot of the previous status line, only touched by the status thread.
+  private long lastNanos;
+  private long lastVertices;
+  private long lastEdges;
+
+  private LoadProgress() {
+  }
+
+  /**
+   * @return The progress of the load of this process.
+   */
+  public static LoadProgress getLoadProgress() {
+    return INSTANCE;
+  }
+
+  /**
+   * Announce a load and the number of records it is going to insert.
+   */
+  public void start(long vertices, long edges) {
+    plannedVertices = vertices;
+    plannedEdges = edges;
+    startNanos = System.nanoTime();
+    lastNanos = startNanos;
+    active = true;
+  }
+
+  /**
+   * @return Whether a load was announced.
+   */
+  public boolean isActive() {
+    return active;
+  }
+
+  public void parsed(boolean edge) {
+    (edge ? parsedEdges : parsedVertices).increment();
+  }
+
+  public void issued(boolean edge, int records) {
+    (edge ? issuedEdges : issuedVertices).add(records);
+  }
+
+  public void acknowledged(boolean edge, int records) {
+    (edge ? acknowledgedEdges : acknowledgedVertices).add(records);
+  }
+
+  public void read(long bytes) {
+    bytesRead.add(bytes);
+  }
+
+  /**
+   * @return The bytes allocated so far by the calling thread, or -1 if the JVM does not
+   *     measure them.
+   */
+  public static long threadAllocatedBytes() {
+    ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+    if (!(threads instanceof com.sun.management.ThreadMXBean)) {
+      return -1;
+    }
+    com.sun.management.ThreadMXBean allocation = (com.sun.management.ThreadMXBean) threads;
+    if (!allocation.isThreadAllocatedMemorySupported() || !allocation.isThreadAllocatedMemoryEnabled()) {
+      return -1;
+    }
+    return allocation.getThreadAllocatedBytes(Thread.currentThread().getId());
+  }
+
+  /**
+   * Account for the bytes the calling thread allocated since it called
+   * {@link #threadAllocatedBytes()}.
+   */
+  public void allocatedSince(long before) {
+    long now = threadAllocatedBytes();
+    if (before >= 0 && now >= before) {
+      allocatedBytes.add(now - before);
+    }
+  }
+
+  public long getAllocatedBytes() {
+    return allocatedBytes.sum();
+  }
+
+  public long getAcknowledgedVertices() {
+    return acknowledgedVertices.sum();
+  }
+
+  public long getAcknowledgedEdges() {
+    return acknowledgedEdges.sum();
+  }
+
+  public long getBytesRead() {
+    return bytesRead.sum();
+  }
+
+  /**
+   * @return The estimated seconds until every planned record is acknowledged, at the average
+   *     rate so far, or -1 if nothing was acknowledged yet.
+   */
+  private long remainingSeconds(long acknowledged, long elapsedNanos) {
+    if (acknowledged == 0 || elapsedNanos <= 0) {
+      return -1;
+    }
+    long remaining = Math.max(0, plannedVertices + plannedEdges - acknowledged);
+    return (long) Math.ceil(remaining * (elapsedNanos / 1e9) / acknowledged);
+  }
+
+  /**
+   * Format the progress for a status line, with the insert rates since the previous call.
+   */
+  String getSummary() {
+    long now = System.nanoTime();
+    long vertices = acknowledgedVertices.sum();
+    long edges = acknowledgedEdges.sum();
+    double interval = Math.max(1, now - lastNanos) / 1e9;
+    DecimalFormat d = new DecimalFormat("#.##");
+
+    StringBuilder msg = new StringBuilder(" [LOAD: ");
+    msg.append("vertices ").append(vertices).append('/').append(plannedVertices)
+        .append(" (parsed ").append(parsedVertices.sum()).append(", issued ").append(issuedVertices.sum())
+        .append("), ");
+    msg.append("edges ").append(edges).append('/').append(plannedEdges)
+        .append(" (parsed ").append(parsedEdges.sum()).append(", issued ").append(issuedEdges.sum())
+        .append("), ");
+    msg.append(d.format(bytesRead.sum() / 1048576.0)).append(" MB read; ");
+    msg.append(d.format((vertices - lastVertices) / interval)).append(" vertices/sec, ")
+        .append(d.format((edges - lastEdges) / interval)).append(" edges/sec");
+    long remaining = remainingSeconds(vertices + edges, now - startNanos);
+    if (remaining >= 0) {
+      msg.append("; est completion in ").append(RemainingFormatter.format(remaining));
+    }
+    msg.append(']');
+
+    lastNanos = now;
+    lastVertices = vertices;
+    lastEdges = edges;
+    return msg.toString();
+  }
+
+  /**
+   * Export the totals and ingest throughput of the load.
+   *
+   * @param exporter The exporter to write to.
+   * @param runtimeMs The duration of the load.
+   */
+  void export(MeasurementsExporter exporter, long runtimeMs) throws IOException {
+    long vertices = acknowledgedVertices.sum();
+    long edges = acknowledgedEdges.sum();
+    double seconds = Math.max(1, runtimeMs) / 1000.0;
+    exporter.write("LOAD", "Vertices", vertices);
+    exporter.write("LOAD", "Edges", edges);
+    exporter.write("LOAD", "VerticesIssued", issuedVertices.sum());
+    exporter.write("LOAD", "EdgesIssued", issuedEdges.sum());
+    exporter.write("LOAD", "BytesRead", bytesRead.sum());
+    long parsed = parsedVertices.sum() + parsedEdges.sum();
+    if (allocatedBytes.sum() > 0 && parsed > 0) {
+      exporter.write("LOAD", "AllocatedBytes", allocatedBytes.sum());
+      exporter.write("LOAD", "AllocatedBytesPerRecord", allocatedBytes.sum() / (double) parsed);
+    }
+    exporter.write("LOAD", "Throughput(records/sec)", (vertices + edges) / seconds);
+    exporter.write("LOAD", "VertexThroughput(records/sec)", vertices / seconds);
+    exporter.write("LOAD", "EdgeThroughput(records/sec)", edges / seconds);
+    exporter.write("LOAD", "Throughput(MB/sec)", bytesRead.sum() / 1048576.0 / seconds);
+    exporter.write("LOAD", "EstimatedRemaining(sec)",
+        Math.max(0, remainingSeconds(vertices + edges, System.nanoTime() - startNanos)));
+  }
+}
@@ -0,0 +1,234 @@
+/**
+ * Copyright (c) 2025 YCSB contributors. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+
+package site.ycsb;
+
+import site.ycsb.measurements.Measurements;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Splits a {@link RecordFile} into contiguous partitions, one per client thread, and reads all
+ * of them ahead on a single background thread. Every partition has a {@link RingBuffer} with
+ * one producer and one consumer of its own, so the client threads never contend with each
+ * other when taking objects, and a thread only ever sees the records of its own partition.
+ * <p>
+ * A client thread finding its buffer empty while its partition still has objects records the
+ * wait under the given measurement name, so that stalls show up in the results. A run without
+ * any stall was not limited by the reader.
+ */
+public class PartitionedPrefetcher implements Closeable {
+  /** How long the producer sleeps when every buffer is full. */
+  private static final long PRODUCER_WAIT_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+  private final Partition[] partitions;
+  private final String stallMeasurement;
+  private final Measurements measurements;
+  private final Thread producer;
+
+  private volatile boolean closed;
+  private volatile IOException failure;
+
+  /**
+   * Open the partitions and start reading ahead.
+   *
+   * @param file The records to split.
+   * @param parts The number of partitions.
+   * @param capacity The number of objects read ahead for every partition.
+   * @param stallMeasurement The measurement client stalls are recorded under.
+   * @throws IOException if a partition cannot be opened.
+   */
+  public PartitionedPrefetcher(RecordFile file, int parts, int capacity, String stallMeasurement)
+      throws IOException {
+    this.partitions = new Partition[parts];
+    this.stallMeasurement = stallMeasurement;
+    this.measurements = Measurements.getMeasurements();
+    try {
+      for (int i = 0; i < parts; i++) {
+        long[] slice = JsonArrayIndex.slice(0, file.size(), parts, i);
+        partitions[i] = new Partition(file.open(slice[0]), slice[1], capacity);
+      }
+    } catch (IOException e) {
+      closeSources();
+      throw e;
+    }
+    this.producer = new Thread(this::produce, "prefetch-" + stallMeasurement);
+    this.producer.setDaemon(true);
+    this.producer.start();
+  }
+
+  /**
+   * @param part The partition, in {@code [0, parts)}.
+   * @return The reader over the partition, which must only be used by a single thread at a time.
+   */
+  public RecordReader get(int part) {
+    return partitions[part];
+  }
+
+  private void produce() {
+    try {
+      boolean active = true;
+      while (!closed && active) {
+        active = false;
+        boolean progress = false;
+        for (Partition partition : partitions) {
+          if (!partition.done) {
+            progress |= partition.fill();
+            active = true;
+          }
+        }
+        if (active && !progress) {
+          LockSupport.parkNanos(PRODUCER_WAIT_NANOS);
+        }
+      }
+    } catch (IOException e) {
+      failure = e;
+    } finally {
+      for (Partition partition : partitions) {
+        partition.done = true;
+      }
+    }
+  }
+
+  /**
+   * @return The number of times a client thread found its buffer empty.
+   */
+  public long getStalls() {
+    long stalls = 0;
+    for (Partition partition : partitions) {
+      stalls += partition.stalls;
+    }
+    return stalls;
+  }
+
+  @Override
+  public void close() throws IOException {
+    closed = true;
+    try {
+      producer.join(TimeUnit.SECONDS.toMillis(1));
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    closeSources();
+  }
+
+  private void closeSources() throws IOException {
+    for (Partition partition : partitions) {
+      if (partition != null) {
+        partition.source.close();
+      }
+    }
+  }
+
+  /**
+   * The records of one partition. The producer owns the source and the object it could not
+   * buffer yet; the client thread only polls the buffer.
+   */
+  private final class Partition implements RecordReader {
+    private final RecordReader source;
+    private final RingBuffer<Map<String, String>> buffer;
+    private long remaining;
+    private Map<String, String> pending;
+    private volatile boolean done;
+    private volatile long stalls;
+
+    Partition(RecordReader source, long count, int capacity) {
+      this.source = source;
+      this.remaining = count;
+      this.buffer = new RingBuffer<>(capacity);
+    }
+
+    /**
+     * Move objects from the source to the buffer until it is full.
+     *
+     * @return Whether any object was buffered.
+     */
+    boolean fill() throws IOException {
+      boolean progress = false;
+      while (true) {
+        if (pending == null) {
+          if (remaining == 0 || (pending = source.nextObject()) == null) {
+            done = true;
+            return progress;
+          }
+          remaining--;
+        }
+        if (!buffer.offer(pending)) {
+          return progress;
+        }
+        pending = null;
+        progress = true;
+      }
+    }
+
+    @Override
+    public Map<String, String> nextObject() throws IOException {
+      Map<String, String> object = buffer.poll();
+      if (object != null) {
+        return object;
+      }
+      long start = System.nanoTime();
+      while (true) {
+        // Read done before polling, so that an object published just before done is not missed.
+        boolean finished = done;
+        object = buffer.poll();
+        if (object != null) {
+          break;
+        }
+        if (finished) {
+          if (failure != null) {
+            throw new IOException("Failed to read ahead", failure);
+          }
+          return null;
+        }
+        Thread.yield();
+      }
+      stalls++;
+      measurements.measure(stallMeasurement, (int) ((System.nanoTime() - start) / 1000));
+      return object;
+    }
+
+    @Override
+    public long skip(long objects) throws IOException {
+      long skipped = 0;
+      while (skipped < objects && nextObject() != null) {
+        skipped++;
+      }
+      return skipped;
+    }
+
+    /**
+     * @return The position of the source, which is ahead of the objects returned so far by up
+     *     to the read ahead depth.
+     */
+    @Override
+    public long position() {
+      return source.position();
+    }
+
+    /**
+     * Does nothing, the partitions are closed with the prefetcher.
+     */
+    @Override
+    public void close() {
+    }
+  }
+}
@@ -0,0 +1,204 @@
+/**
+ * Copyright (c) 2025 YCSB contributors. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+
+package site.ycsb;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+/**
+ * A small insertion ordered map of property names to values, backed by two arrays and meant
+ * to be cleared and refilled for every record instead of allocating a new map. Records hold a
+ * handful of properties, so a linear scan beats hashing; the names come from a small fixed
+ * vocabulary and are canonicalized with {@link #symbol(String)} by the readers, so the scan
+ * mostly compares references.
+ * <p>
+ * {@link #forEach(BiConsumer)} and the indexed accessors iterate without allocating, unlike
+ * {@link #entrySet()}. A map is not thread safe.
+ */
+public final class PropertyMap extends AbstractMap<String, String> {
+  private static final int INITIAL_CAPACITY = 8;
+
+  private String[] keys;
+  private String[] values;
+  private int size;
+
+  public PropertyMap() {
+    this(INITIAL_CAPACITY);
+  }
+
+  public PropertyMap(int capacity) {
+    keys = new String[Math.max(1, capacity)];
+    values = new String[keys.length];
+  }
+
+  /**
+   * Canonicalize a property name, so that equal names read from any source are the same
+   * instance. This is {@link String#intern()}, which is also what the JSON parser applies to
+   * field names.
+   */
+  public static String symbol(String name) {
+    return name == null ? null : name.intern();
+  }
+
+  private int indexOf(Object key) {
+    for (int i = 0; i < size; i++) {
+      if (keys[i] == key) {
+        return i;
+      }
+    }
+    if (key != null) {
+      for (int i = 0; i < size; i++) {
+        if (key.equals(keys[i])) {
+          return i;
+        }
+      }
+    }
+    return -1;
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  /**
+   * @return The name of the i-th property, in insertion order.
+   */
+  public String getKey(int i) {
+    if (i >= size) {
+      throw new IndexOutOfBoundsException("Property " + i + " of " + size);
+    }
+    return keys[i];
+  }
+
+  /**
+   * @return The value of the i-th property, in insertion order.
+   */
+  public String getValue(int i) {
+    if (i >= size) {
+      throw new IndexOutOfBoundsException("Property " + i + " of " + size);
+    }
+    return values[i];
+  }
+
+  @Override
+  public boolean containsKey(Object key) {
+    return indexOf(key) >= 0;
+  }
+
+  @Override
+  public String get(Object key) {
+    int i = indexOf(key);
+    return i < 0 ? null : values[i];
+  }
+
+  @Override
+  public String put(String key, String value) {
+    int i = indexOf(key);
+    if (i >= 0) {
+      String previous = values[i];
+      values[i] = value;
+      return previous;
+    }
+    if (size == keys.length) {
+      keys = Arrays.copyOf(keys, size * 2);
+      values = Arrays.copyOf(values, size * 2);
+    }
+    keys[size] = key;
+    values[size] = value;
+    size++;
+    return null;
+  }
+
+  @Override
+  public String remove(Object key) {
+    int i = indexOf(key);
+    if (i < 0) {
+      return null;
+    }
+    String previous = values[i];
+    System.arraycopy(keys, i + 1, keys, i, size - i - 1);
+    System.arraycopy(values, i + 1, values, i, size - i - 1);
+    size--;
+    keys[size] = null;
+    values[size] = null;
+    return previous;
+  }
+
+  /**
+   * Remove every property, keeping the arrays for the next record.
+   */
+  @Override
+  public void clear() {
+    Arrays.fill(keys, 0, size, null);
+    Arrays.fill(values, 0, size, null);
+    size = 0;
+  }
+
+  @Override
+  public void forEach(BiConsumer<? super String, ? super String> action) {
+    for (int i = 0; i < size; i++) {
+      action.accept(keys[i], values[i]);
+    }
+  }
+
+  @Override
+  public Set<Entry<String, String>> entrySet() {
+    return new AbstractSet<Entry<String, String>>() {
+      @Override
+      public int size() {
+        return size;
+      }
+
+      @Override
+      public Iterator<Entry<String, String>> iterator() {
+        return new Iterator<Entry<String, String>>() {
+          private int next;
+
+          @Override
+          public boolean hasNext() {
+            return next < size;
+          }
+
+          @Override
+          public Entry<String, String> next() {
+            if (next >= size) {
+              throw new NoSuchElementException();
+            }
+            Entry<String, String> entry = new SimpleImmutableEntry<>(keys[next], values[next]);
+            next++;
+            return entry;
+          }
+
+          @Override
+          public void remove() {
+            if (next == 0) {
+              throw new IllegalStateException();
+            }
+            PropertyMap.this.remove(keys[--next]);
+          }
+        };
+      }
+    };
+  }
+}
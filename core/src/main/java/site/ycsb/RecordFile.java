@@ -0,0 +1,56 @@
+/**
+ * Copyright (c) 2025 YCSB contributors. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+
+package site.ycsb;
+
+import java.io.IOException;
+
+/**
+ * A dataset file holding an array of vertex or edge objects that can be read from any
+ * record, so that it can be split into slices loaded by several threads at once.
+ */
+public interface RecordFile {
+  /**
+   * @return The file the records are read from.
+   */
+  String getFilename();
+
+  /**
+   * @return The number of records in the file.
+   */
+  long size();
+
+  /**
+   * Open a reader whose first {@link RecordReader#nextObject()} returns the record at the
+   * given position.
+   *
+   * @param record The zero based index of the first record to return, in {@code [0, size()]}.
+   * @return A reader positioned at the record.
+   * @throws IOException if the file cannot be read.
+   */
+  RecordReader open(long record) throws IOException;
+
+  /**
+   * Open a reader at a byte offset previously returned by {@link RecordReader#position()}, which
+   * resumes reading without scanning the records before it.
+   *
+   * @param position A position of a reader over this file.
+   * @return A reader whose first object is the one following the position.
+   * @throws IOException if the file cannot be read.
+   */
+  RecordReader openAt(long position) throws IOException;
+}
@@ -0,0 +1,89 @@
+/**
+ * Copyright (c) 2025 YCSB contributors. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+
+package site.ycsb;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Opens dataset files, preferring their binary form. A file named on the command line may be
+ * either a JSON array or a {@link BinaryRecordFile}. For a JSON array the binary file
+ * {@code <file>.ybin} next to it is used when it is at least as recent as the JSON file;
+ * otherwise it is created on first use, when conversion is enabled, so that later runs over
+ * the same dataset skip JSON parsing entirely.
+ */
+public final class RecordFiles {
+  private RecordFiles() {
+    // utility class
+  }
+
+  /**
+   * Open a dataset file for random access by record.
+   *
+   * @param filename The JSON or binary dataset file.
+   * @param convert Whether to create the binary form of a JSON file when it is missing.
+   * @return The dataset.
+   * @throws IOException if the file cannot be read.
+   */
+  public static RecordFile open(String filename, boolean convert) throws IOException {
+    BinaryRecordFile binary = binary(filename, convert);
+    return binary != null ? binary : JsonArrayIndex.build(filename);
+  }
+
+  /**
+   * Open a dataset file for reading from its first record.
+   *
+   * @param filename The JSON or binary dataset file.
+   * @param convert Whether to create the binary form of a JSON file when it is missing.
+   * @return A reader positioned at the first record.
+   * @throws IOException if the file cannot be read.
+   */
+  public static RecordReader stream(String filename, boolean convert) throws IOException {
+    BinaryRecordFile binary = binary(filename, convert);
+    return binary != null ? binary.open(0) : new JsonObjectStreamer(filename);
+  }
+
+  private static BinaryRecordFile binary(String filename, boolean convert) throws IOException {
+    if (BinaryRecordFile.isBinary(filename)) {
+      return BinaryRecordFile.open(filename);
+    }
+    File json = new File(filename);
+    File sidecar = new File(filename + BinaryRecordFile.EXTENSION);
+    if (sidecar.exists() && sidecar.lastModified() >= json.lastModified()) {
+      try {
+        return BinaryRecordFile.open(sidecar.getPath());
+      } catch (IOException e) {
+        System.err.println("Ignoring unreadable " + sidecar + ": " + e.getMessage());
+      }
+    }
+    if (!convert) {
+      return null;
+    }
+    try {
+      long start = System.nanoTime();
+      long count = BinaryRecordFile.convert(filename, sidecar.getPath());
+      System.out.printf("Converted %d records of %s to %s in %d ms%n", count, filename, sidecar,
+          (System.nanoTime() - start) / 1000000);
+      return BinaryRecordFile.open(sidecar.getPath());
+    } catch (IOException e) {
+      // e.g. a read only dataset directory, fall back to parsing the JSON file.
+      System.err.println("Failed to convert " + filename + " to " + sidecar + ": " + e.getMessage());
+      return null;
+    }
+  }
+}
@@ -0,0 +1,64 @@
+/**
+ * Copyright (c) 2025 YCSB contributors. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+
+package site.ycsb;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * A forward only stream over the vertex or edge objects of a dataset file, or of a
+ * {@link site.ycsb.generator.SyntheticGraph}. Every object is returned as a flat map of
+ * property names to string values.
+ */
+public interface RecordReader extends Closeable {
+  /**
+   * @return The next object, or null once the stream is exhausted.
+   */
+  Map<String, String> nextObject() throws IOException;
+
+  /**
+   * Read the next object into a map reused across objects, which readers can fill without
+   * allocating a map of their own.
+   *
+   * @param into The map to clear and fill with the properties of the object.
+   * @return False once the stream is exhausted, in which case the map is left untouched.
+   */
+  default boolean nextObject(PropertyMap into) throws IOException {
+    Map<String, String> object = nextObject();
+    if (object == null) {
+      return false;
+    }
+    into.clear();
+    into.putAll(object);
+    return true;
+  }
+
+  /**
+   * Skip over the next objects without materializing them.
+   *
+   * @return The number of objects actually skipped.
+   */
+  long skip(long objects) throws IOException;
+
+  /**
+   * @return The byte offset in the file just past the last object read or skipped, or for
+   * records that are not read from a file, the number of the next record.
+   */
+  long position();
+}
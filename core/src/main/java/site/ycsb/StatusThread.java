@@ -176,6 +176,11 @@ public class StatusThread extends Thread {
 
     msg.append(Measurements.getMeasurements().getSummary());
 
+    LoadProgress load = LoadProgress.getLoadProgress();
+    if (load.isActive()) {
+      msg.append(load.getSummary());
+    }
+
     System.err.println(msg);
 
     if (standardstatus) {
@@ -0,0 +1,65 @@
+/**
+ * Copyright (c) 2025 YCSB contributors. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+
+package site.ycsb;
+
+import java.util.Map;
+
+/**
+ * A vertex to insert, as passed to {@link DB#addVertices(java.util.List)}. The load phase
+ * reuses its records: a record created with {@link #VertexRecord()} owns a
+ * {@link PropertyMap} and is {@link #reset reset} for every vertex it carries.
+ */
+public class VertexRecord {
+  private String label;
+  private String id;
+  private final Map<String, String> properties;
+
+  public VertexRecord(String label, String id, Map<String, String> properties) {
+    this.label = label;
+    this.id = id;
+    this.properties = properties;
+  }
+
+  /**
+   * Create an empty record to be filled with {@link #reset}.
+   */
+  public VertexRecord() {
+    this(null, null, new PropertyMap());
+  }
+
+  /**
+   * Start over with another vertex and no properties.
+   */
+  public void reset(String newLabel, String newId) {
+    this.label = newLabel;
+    this.id = newId;
+    properties.clear();
+  }
+
+  public String getLabel() {
+    return label;
+  }
+
+  public String getId() {
+    return id;
+  }
+
+  public Map<String, String> getProperties() {
+    return properties;
+  }
+}
@@ -59,6 +59,7 @@ public abstract class Workload {
     REMOVE_EDGE,
     REMOVE_VERTEX_PROPERTY,
     REMOVE_EDGE_PROPERTY,
+    PROBE_VISIBILITY,
   }
   
   /**
@@ -73,7 +74,7 @@ public abstract class Workload {
    * will be shared among all threads, this is the place to create any state that is specific
    * to one thread. To be clear, this means the returned object should be created anew on each
    * call to initThread(); do not return the same object multiple times.
-   * The returned object will be passed to invocations of doInsert() and doTransaction()
+   * The returned object will be passed to invocations of loadData() and doTransaction()
    * for this thread. There should be no side effects from this call; all state should be encapsulated
    * in the returned object. If you have no state to retain for this thread, return null. (But if you have
    * no state to retain for this thread, probably you don't need to override initThread().)
@@ -93,9 +94,11 @@ public abstract class Workload {
   }
 
   /**
-   * Load the data from the vertex and edge files supplied with the parameters.
+   * Load the data from the vertex and edge files supplied with the parameters. Called once by
+   * every client thread during the load phase, so each thread should only load its own share of
+   * the data, identified through the threadstate returned by initThread().
    */
-  public abstract void loadData(DB db, Properties props);
+  public abstract void loadData(DB db, Properties props, Object threadstate);
   /**
    * Do one transaction operation. Because it will be called concurrently from multiple client threads, this
    * function must be thread safe. However, avoid synchronized, or the threads will block waiting for each
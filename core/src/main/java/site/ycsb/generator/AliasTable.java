@@ -0,0 +1,107 @@
+/**
+ * Copyright (c) 2025 YCSB contributors. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+
+package site.ycsb.generator;
+
+import java.util.SplittableRandom;
+
+/**
+ * Draws indexes with given weights in constant time, with Walker's alias method as laid out by
+ * Vose. Every index owns a column of height {@code 1 / n}, filled to its own probability and
+ * topped up with an alias: one uniform number picks the column and whether the draw lands in
+ * its own part or in the alias. Drawing neither allocates nor scans the weights.
+ */
+public final class AliasTable {
+  private final double[] probability;
+  private final int[] alias;
+
+  /**
+   * @param weights The non-negative weights of the indexes, not all zero.
+   * @throws IllegalArgumentException if a weight is negative or they are all zero.
+   */
+  public AliasTable(double[] weights) {
+    int n = weights.length;
+    double sum = 0;
+    for (double weight : weights) {
+      if (!(weight >= 0) || Double.isInfinite(weight)) {
+        throw new IllegalArgumentException("Invalid weight " + weight);
+      }
+      sum += weight;
+    }
+    if (!(sum > 0)) {
+      throw new IllegalArgumentException("No positive weight");
+    }
+    probability = new double[n];
+    alias = new int[n];
+    double[] scaled = new double[n];
+    int[] small = new int[n];
+    int[] large = new int[n];
+    int smalls = 0;
+    int larges = 0;
+    for (int i = 0; i < n; i++) {
+      scaled[i] = weights[i] * n / sum;
+      if (scaled[i] < 1) {
+        small[smalls++] = i;
+      } else {
+        large[larges++] = i;
+      }
+    }
+    while (smalls > 0 && larges > 0) {
+      int s = small[--smalls];
+      int l = large[--larges];
+      probability[s] = scaled[s];
+      alias[s] = l;
+      scaled[l] += scaled[s] - 1;
+      if (scaled[l] < 1) {
+        small[smalls++] = l;
+      } else {
+        large[larges++] = l;
+      }
+    }
+    // What is left is full up to rounding errors.
+    while (larges > 0) {
+      probability[large[--larges]] = 1;
+    }
+    while (smalls > 0) {
+      probability[small[--smalls]] = 1;
+    }
+  }
+
+  /**
+   * @return The number of indexes.
+   */
+  public int size() {
+    return probability.length;
+  }
+
+  /**
+   * @param u A uniform number in {@code [0, 1)}.
+   * @return The index it selects.
+   */
+  public int next(double u) {
+    double column = u * probability.length;
+    int i = Math.min((int) column, probability.length - 1);
+    return column - i < probability[i] ? i : alias[i];
+  }
+
+  /**
+   * @return An index drawn with the given random number generator.
+   */
+  public int next(SplittableRandom random) {
+    return next(random.nextDouble());
+  }
+}
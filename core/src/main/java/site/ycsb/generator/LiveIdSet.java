@@ -0,0 +1,153 @@
+/**
+ * Copyright (c) 2025 YCSB contributors. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+
+package site.ycsb.generator;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The IDs of the elements a run inserted and has not removed yet, shared by all client
+ * threads without locks. IDs live in slots of a chunked array: an ID is only
+ * {@link #add added} once the database acknowledged its insert, and slots only change with
+ * compare-and-set, so an ID is handed out by {@link #remove()} to exactly one thread.
+ * <p>
+ * Removal and {@link #sample() sampling} probe random slots, which takes O(1) expected
+ * probes as long as most slots are occupied. To keep them so, inserts refill the slots
+ * emptied by removals once more than half of the slots are empty. Only a set that is
+ * emptied by removals alone becomes sparse, in which case probing falls back to a scan.
+ */
+public final class LiveIdSet {
+  /** Slots per chunk. */
+  static final int CHUNK_SIZE = 1 << 14;
+  /** Maximum number of chunks, for a capacity of {@value}*{@link #CHUNK_SIZE} slots. */
+  private static final int MAX_CHUNKS = 1 << 17;
+  /** Random probes before scanning. */
+  private static final int PROBES = 32;
+
+  private final AtomicReferenceArray<AtomicReferenceArray<String>> chunks =
+      new AtomicReferenceArray<>(MAX_CHUNKS);
+  /** The number of slots handed out so far, the live ones and the emptied ones. */
+  private final AtomicLong tail = new AtomicLong();
+  private final LongAdder live = new LongAdder();
+
+  private AtomicReferenceArray<String> chunk(long slot) {
+    int index = (int) (slot / CHUNK_SIZE);
+    if (index >= MAX_CHUNKS) {
+      throw new IllegalStateException("More than " + (long) MAX_CHUNKS * CHUNK_SIZE + " IDs");
+    }
+    AtomicReferenceArray<String> chunk = chunks.get(index);
+    if (chunk == null) {
+      chunks.compareAndSet(index, null, new AtomicReferenceArray<>(CHUNK_SIZE));
+      chunk = chunks.get(index);
+    }
+    return chunk;
+  }
+
+  /**
+   * Make the ID of an acknowledged insert available to {@link #remove()} and {@link #sample()}.
+   */
+  public void add(String id) {
+    if (id == null) {
+      throw new NullPointerException("id");
+    }
+    long slots = tail.get();
+    if (live.sum() * 2 < slots) {
+      ThreadLocalRandom random = ThreadLocalRandom.current();
+      for (int i = 0; i < PROBES; i++) {
+        long slot = random.nextLong(slots);
+        if (chunk(slot).compareAndSet((int) (slot % CHUNK_SIZE), null, id)) {
+          live.increment();
+          return;
+        }
+      }
+    }
+    // A slot handed out here may have been refilled by a concurrent add in the meantime.
+    while (true) {
+      long slot = tail.getAndIncrement();
+      if (chunk(slot).compareAndSet((int) (slot % CHUNK_SIZE), null, id)) {
+        live.increment();
+        return;
+      }
+    }
+  }
+
+  /**
+   * Take a random live ID out of the set.
+   *
+   * @return The ID, now owned by the caller, or null if the set is empty.
+   */
+  public String remove() {
+    return find(true);
+  }
+
+  /**
+   * @return A random live ID, left in the set, or null if the set is empty.
+   */
+  public String sample() {
+    return find(false);
+  }
+
+  private String find(boolean take) {
+    long slots = tail.get();
+    if (slots == 0 || live.sum() <= 0) {
+      return null;
+    }
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+    for (int i = 0; i < PROBES; i++) {
+      String id = claim(random.nextLong(slots), take);
+      if (id != null) {
+        return id;
+      }
+    }
+    long start = random.nextLong(slots);
+    for (long i = 0; i < slots; i++) {
+      String id = claim((start + i) % slots, take);
+      if (id != null) {
+        return id;
+      }
+    }
+    return null;
+  }
+
+  private String claim(long slot, boolean take) {
+    AtomicReferenceArray<String> chunk = chunk(slot);
+    int offset = (int) (slot % CHUNK_SIZE);
+    String id = chunk.get(offset);
+    if (id == null || !take) {
+      return id;
+    }
+    if (chunk.compareAndSet(offset, id, null)) {
+      live.decrement();
+      return id;
+    }
+    return null;
+  }
+
+  /**
+   * @return The number of live IDs; exact only while no thread updates the set.
+   */
+  public long size() {
+    return live.sum();
+  }
+
+  public boolean isEmpty() {
+    return size() <= 0;
+  }
+}
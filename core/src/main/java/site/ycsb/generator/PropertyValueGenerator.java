@@ -0,0 +1,300 @@
+/**
+ * Copyright (c) 2025 YCSB contributors. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+
+package site.ycsb.generator;
+
+import java.util.Properties;
+import java.util.SplittableRandom;
+
+/**
+ * Values of an indexed property, such as the {@code searchKey} of the core workload, drawn so
+ * that a lookup by value matches a controlled number of elements whatever the size of the
+ * graph. The model has a fixed set of {@link #cardinality()} distinct values, value {@code i}
+ * being a pure function of the seed and of {@code i}, and a popularity distribution over them.
+ * The load assigns values with it and lookups query values drawn from it, so the expected
+ * number of matches per lookup is {@code elements * sum(p_i^2)}: {@code elements / cardinality}
+ * for uniform popularity, more for a skewed one.
+ * <p>
+ * Given a target selectivity, the cardinality is derived from the number of elements so that
+ * lookups match that many elements on average. The value of an element is derived from the
+ * seed and its ID, so it does not depend on which thread loads it; lookups draw from the
+ * {@link SplittableRandom} of the calling thread.
+ * <p>
+ * The model is configured with the following properties:
+ * <UL>
+ * <LI><b>searchkey.selectivity</b>: the expected number of elements matching a lookup; when
+ * set, it determines the cardinality (default: unset)
+ * <LI><b>searchkey.cardinality</b>: the number of distinct values (default: 1000)
+ * <LI><b>searchkey.length</b>: the length of the values, at least enough letters to tell all
+ * values apart (default: 8)
+ * <LI><b>searchkey.distribution</b>: the popularity of the values, uniform or zipfian
+ * (default: uniform)
+ * <LI><b>searchkey.zipfianconstant</b>: the skew of the zipfian popularity, in (0, 1)
+ * (default: 0.99)
+ * <LI><b>searchkey.seed</b>: the seed of the values (default: 0)
+ * </ul>
+ */
+public final class PropertyValueGenerator {
+  public static final String SELECTIVITY_PROPERTY = "searchkey.selectivity";
+  public static final String CARDINALITY_PROPERTY = "searchkey.cardinality";
+  public static final String CARDINALITY_PROPERTY_DEFAULT = "1000";
+  public static final String LENGTH_PROPERTY = "searchkey.length";
+  public static final String LENGTH_PROPERTY_DEFAULT = "8";
+  public static final String DISTRIBUTION_PROPERTY = "searchkey.distribution";
+  public static final String DISTRIBUTION_PROPERTY_DEFAULT = "uniform";
+  public static final String ZIPFIAN_CONSTANT_PROPERTY = "searchkey.zipfianconstant";
+  public static final String ZIPFIAN_CONSTANT_PROPERTY_DEFAULT = "0.99";
+  public static final String SEED_PROPERTY = "searchkey.seed";
+  public static final String SEED_PROPERTY_DEFAULT = "0";
+
+  /** The largest cardinality, which bounds the search for the one meeting a selectivity. */
+  static final int MAX_CARDINALITY = 1 << 26;
+  /** Values are cached up to this cardinality and built on every draw beyond it. */
+  private static final int MAX_CACHED = 1 << 16;
+  /** The number of leading terms of the zipfian sums that are added up rather than integrated. */
+  private static final int EXACT_TERMS = 1 << 12;
+  private static final String LETTERS = "abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ";
+
+  private final long seed;
+  private final int cardinality;
+  private final int length;
+  /** The number of leading letters spelling out the value number. */
+  private final int digits;
+  private final String[] cache;
+  private final double expectedMatches;
+
+  private final boolean zipfian;
+  private final double theta;
+  private final double zetan;
+  private final double alpha;
+  private final double eta;
+
+  /**
+   * Build the model of a property.
+   *
+   * @param p The workload properties.
+   * @param elements The number of elements carrying the property, which the selectivity is
+   *     relative to.
+   * @param stream Separates the values of properties configured alike, such as those of
+   *     vertices and edges.
+   * @throws IllegalArgumentException if a property is out of range.
+   */
+  public PropertyValueGenerator(Properties p, long elements, long stream) {
+    seed = SyntheticGraph.mix64(Long.parseLong(p.getProperty(SEED_PROPERTY, SEED_PROPERTY_DEFAULT)) ^ stream);
+    String distribution = p.getProperty(DISTRIBUTION_PROPERTY, DISTRIBUTION_PROPERTY_DEFAULT);
+    if (!distribution.equals("uniform") && !distribution.equals("zipfian")) {
+      throw new IllegalArgumentException("Unknown " + DISTRIBUTION_PROPERTY + " \"" + distribution + "\"");
+    }
+    theta = Double.parseDouble(p.getProperty(ZIPFIAN_CONSTANT_PROPERTY, ZIPFIAN_CONSTANT_PROPERTY_DEFAULT));
+    if (!(theta > 0 && theta < 1)) {
+      throw new IllegalArgumentException(ZIPFIAN_CONSTANT_PROPERTY + " must be in (0, 1)");
+    }
+    elements = Math.max(1, elements);
+    String selectivity = p.getProperty(SELECTIVITY_PROPERTY);
+    int n;
+    if (selectivity == null) {
+      n = Integer.parseInt(p.getProperty(CARDINALITY_PROPERTY, CARDINALITY_PROPERTY_DEFAULT));
+    } else if (distribution.equals("uniform")) {
+      double target = Double.parseDouble(selectivity);
+      n = (int) Math.max(1, Math.min(MAX_CARDINALITY, Math.round(elements / target)));
+    } else {
+      n = zipfianCardinality(elements, Double.parseDouble(selectivity), theta);
+    }
+    if (n < 1 || n > MAX_CARDINALITY) {
+      throw new IllegalArgumentException(CARDINALITY_PROPERTY + " must be in [1, " + MAX_CARDINALITY + "]");
+    }
+    cardinality = n;
+    zipfian = distribution.equals("zipfian") && n > 1;
+
+    int needed = 1;
+    for (long reach = LETTERS.length(); reach < n; reach *= LETTERS.length()) {
+      needed++;
+    }
+    digits = needed;
+    length = Math.max(needed, Integer.parseInt(p.getProperty(LENGTH_PROPERTY, LENGTH_PROPERTY_DEFAULT)));
+
+    if (zipfian) {
+      double[] sums = zetas(n, theta);
+      zetan = sums[0];
+      alpha = 1 / (1 - theta);
+      eta = (1 - Math.pow(2.0 / n, 1 - theta)) / (1 - (1 + Math.pow(0.5, theta)) / zetan);
+      expectedMatches = elements * sums[1] / (zetan * zetan);
+    } else {
+      zetan = 0;
+      alpha = 0;
+      eta = 0;
+      expectedMatches = (double) elements / n;
+    }
+
+    cache = new String[Math.min(n, MAX_CACHED)];
+    for (int i = 0; i < cache.length; i++) {
+      cache[i] = build(i);
+    }
+  }
+
+  /**
+   * @return {@code sum(i^-theta)} and {@code sum(i^-2 theta)} for i in [1, n]. The first
+   *     {@link #EXACT_TERMS} terms are summed and the rest integrated with the midpoint rule,
+   *     whose error there is below 1e-8 of the sums, so that a sum costs the same at any n.
+   */
+  private static double[] zetas(int n, double theta) {
+    double zeta = 0;
+    double squares = 0;
+    int exact = Math.min(n, EXACT_TERMS);
+    for (int i = 1; i <= exact; i++) {
+      double p = Math.pow(i, -theta);
+      zeta += p;
+      squares += p * p;
+    }
+    if (n > exact) {
+      zeta += integral(exact + 0.5, n + 0.5, theta);
+      squares += integral(exact + 0.5, n + 0.5, 2 * theta);
+    }
+    return new double[]{zeta, squares};
+  }
+
+  /**
+   * @return The integral of {@code x^-s} over [a, b].
+   */
+  private static double integral(double a, double b, double s) {
+    if (s == 1) {
+      return Math.log(b / a);
+    }
+    return (Math.pow(b, 1 - s) - Math.pow(a, 1 - s)) / (1 - s);
+  }
+
+  private static double matches(long elements, int n, double theta) {
+    double[] sums = zetas(n, theta);
+    return elements * sums[1] / (sums[0] * sums[0]);
+  }
+
+  /**
+   * Find the smallest cardinality whose zipfian popularity matches at most {@code target}
+   * elements per lookup. Matches fall as values are added, so the cardinality is doubled until
+   * it meets the target and then bisected. A skew concentrating more than {@code target}
+   * matches on the most popular values alone cannot be met below {@link #MAX_CARDINALITY},
+   * which is used with a warning.
+   */
+  private static int zipfianCardinality(long elements, double target, double theta) {
+    if (matches(elements, MAX_CARDINALITY, theta) > target) {
+      System.err.println("WARNING: " + SELECTIVITY_PROPERTY + "=" + target + " cannot be met with "
+          + ZIPFIAN_CONSTANT_PROPERTY + "=" + theta + " and " + elements + " elements, using "
+          + CARDINALITY_PROPERTY + "=" + MAX_CARDINALITY + " matching "
+          + Math.round(matches(elements, MAX_CARDINALITY, theta)) + " elements per lookup");
+      return MAX_CARDINALITY;
+    }
+    // matches(low) > target >= matches(high)
+    int low = 0;
+    int high = 1;
+    while (matches(elements, high, theta) > target) {
+      low = high;
+      high = (int) Math.min(MAX_CARDINALITY, 2L * high);
+    }
+    while (high - low > 1) {
+      int middle = (int) ((low + (long) high) >>> 1);
+      if (matches(elements, middle, theta) > target) {
+        low = middle;
+      } else {
+        high = middle;
+      }
+    }
+    return high;
+  }
+
+  private String build(int i) {
+    char[] chars = new char[length];
+    int radix = LETTERS.length();
+    long number = i;
+    for (int c = 0; c < digits; c++) {
+      chars[c] = LETTERS.charAt((int) (number % radix));
+      number /= radix;
+    }
+    long padding = SyntheticGraph.mix64(seed + i);
+    for (int c = digits; c < length; c++) {
+      if (padding == 0) {
+        padding = SyntheticGraph.mix64(padding + seed + c);
+      }
+      chars[c] = LETTERS.charAt((int) Long.remainderUnsigned(padding, radix));
+      padding = Long.divideUnsigned(padding, radix);
+    }
+    return new String(chars);
+  }
+
+  /**
+   * @return The number of distinct values.
+   */
+  public int cardinality() {
+    return cardinality;
+  }
+
+  /**
+   * @return The average number of elements a lookup of a value drawn by {@link #next} matches.
+   */
+  public double expectedMatches() {
+    return expectedMatches;
+  }
+
+  /**
+   * @param i The number of the value, in {@code [0, cardinality())}; lower numbers are more
+   *     popular under a skewed distribution.
+   * @return The value.
+   */
+  public String value(int i) {
+    return i < cache.length ? cache[i] : build(i);
+  }
+
+  /**
+   * Map a uniform number in {@code [0, 1)} to the number of a value, following the popularity
+   * of the values.
+   */
+  int index(double u) {
+    if (!zipfian) {
+      return (int) (u * cardinality);
+    }
+    double uz = u * zetan;
+    if (uz < 1) {
+      return 0;
+    }
+    if (uz < 1 + Math.pow(0.5, theta)) {
+      return 1;
+    }
+    return (int) Math.min(cardinality - 1, (long) (cardinality * Math.pow(eta * u - eta + 1, alpha)));
+  }
+
+  /**
+   * @return A value drawn with the random number generator of the calling thread.
+   */
+  public String next(SplittableRandom random) {
+    return value(index(random.nextDouble()));
+  }
+
+  /**
+   * @return A random number generator for a client thread, reproducible for a given seed and
+   *     thread number.
+   */
+  public SplittableRandom threadRandom(int thread) {
+    return new SplittableRandom(SyntheticGraph.mix64(seed + thread * 0x9e3779b97f4a7c15L));
+  }
+
+  /**
+   * @return The value of the element with the given ID, the same on every run with the same seed.
+   */
+  public String forElement(String id) {
+    long hash = SyntheticGraph.mix64(seed ^ (id.hashCode() * 0x9e3779b97f4a7c15L));
+    return value(index((hash >>> 11) * 0x1.0p-53));
+  }
+}
@@ -0,0 +1,415 @@
+/**
+ * Copyright (c) 2025 YCSB contributors. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+
+package site.ycsb.generator;
+
+import site.ycsb.PropertyMap;
+import site.ycsb.RecordFile;
+import site.ycsb.RecordReader;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.SplittableRandom;
+
+/**
+ * A property graph synthesized on the fly, as a replacement for the vertex and edge files of
+ * the load phase. Every record is a pure function of the seed and of its record number: it is
+ * generated from a {@link SplittableRandom} seeded with both, so any slice of the graph can be
+ * generated by any thread, a run is reproducible whatever the thread count, and a reader can be
+ * opened at any record without generating the ones before it.
+ * <p>
+ * Vertex {@code i} has the ID {@code v<i>}, edge {@code j} the ID {@code e<j>}. Edge endpoints
+ * are drawn among the first {@link #getVertexCount()} vertices, either uniformly or with the
+ * R-MAT recursive matrix model, which yields the skewed, power-law like degree distribution of
+ * real graphs. Labels are drawn from a weighted list and properties follow a simple schema of
+ * {@code name:type:size} entries, where the type is {@code string} (random letters of the given
+ * length) or {@code int} (a number below the given bound).
+ * <p>
+ * The graph is configured with the following properties:
+ * <UL>
+ * <LI><b>synthetic.vertexcount</b>: the number of vertices (default: 1000000)
+ * <LI><b>synthetic.edgecount</b>: the number of edges (default: 16 times the vertex count)
+ * <LI><b>synthetic.seed</b>: the seed of the graph (default: 0)
+ * <LI><b>synthetic.degreedistribution</b>: how edge endpoints are drawn, rmat or uniform
+ * (default: rmat)
+ * <LI><b>synthetic.rmat</b>: the probabilities a, b and c of the R-MAT quadrants; d is the
+ * remainder (default: 0.57,0.19,0.19)
+ * <LI><b>synthetic.vertexlabels</b>: the vertex labels with optional weights, e.g.
+ * {@code person:3,company:1} (default: vertex)
+ * <LI><b>synthetic.edgelabels</b>: the edge labels with optional weights (default: edge)
+ * <LI><b>synthetic.vertexproperties</b>: the vertex property schema
+ * (default: name:string:16,age:int:100)
+ * <LI><b>synthetic.edgeproperties</b>: the edge property schema (default: weight:int:1000)
+ * </ul>
+ */
+public final class SyntheticGraph {
+  public static final String VERTEX_COUNT_PROPERTY = "synthetic.vertexcount";
+  public static final String VERTEX_COUNT_PROPERTY_DEFAULT = "1000000";
+  public static final String EDGE_COUNT_PROPERTY = "synthetic.edgecount";
+  public static final String SEED_PROPERTY = "synthetic.seed";
+  public static final String SEED_PROPERTY_DEFAULT = "0";
+  public static final String DEGREE_DISTRIBUTION_PROPERTY = "synthetic.degreedistribution";
+  public static final String DEGREE_DISTRIBUTION_PROPERTY_DEFAULT = "rmat";
+  public static final String RMAT_PROPERTY = "synthetic.rmat";
+  public static final String RMAT_PROPERTY_DEFAULT = "0.57,0.19,0.19";
+  public static final String VERTEX_LABELS_PROPERTY = "synthetic.vertexlabels";
+  public static final String VERTEX_LABELS_PROPERTY_DEFAULT = "vertex";
+  public static final String EDGE_LABELS_PROPERTY = "synthetic.edgelabels";
+  public static final String EDGE_LABELS_PROPERTY_DEFAULT = "edge";
+  public static final String VERTEX_PROPERTIES_PROPERTY = "synthetic.vertexproperties";
+  public static final String VERTEX_PROPERTIES_PROPERTY_DEFAULT = "name:string:16,age:int:100";
+  public static final String EDGE_PROPERTIES_PROPERTY = "synthetic.edgeproperties";
+  public static final String EDGE_PROPERTIES_PROPERTY_DEFAULT = "weight:int:1000";
+
+  /** Edges per vertex when the edge count is not given, as in the Graph 500 benchmark. */
+  private static final long EDGE_FACTOR = 16;
+  /** Seeds of consecutive records, spread over the whole range of longs. */
+  private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+  /** Separates the random streams of vertices and edges with the same record number. */
+  private static final long EDGE_STREAM = 0x632be59bd9b4e019L;
+
+  private final long vertexCount;
+  private final long edgeCount;
+  private final long seed;
+  private final boolean rmat;
+  private final double a;
+  private final double ab;
+  private final double abc;
+  private final int scale;
+  private final String[] vertexLabels;
+  private final double[] vertexLabelWeights;
+  private final String[] edgeLabels;
+  private final double[] edgeLabelWeights;
+  private final List<String[]> vertexProperties;
+  private final List<String[]> edgeProperties;
+
+  /**
+   * Configure a graph.
+   *
+   * @param p The properties described in the class documentation.
+   * @throws IllegalArgumentException if a property is malformed.
+   */
+  public SyntheticGraph(Properties p) {
+    vertexCount = Long.parseLong(p.getProperty(VERTEX_COUNT_PROPERTY, VERTEX_COUNT_PROPERTY_DEFAULT));
+    if (vertexCount < 1) {
+      throw new IllegalArgumentException(VERTEX_COUNT_PROPERTY + " must be at least 1");
+    }
+    edgeCount = Long.parseLong(p.getProperty(EDGE_COUNT_PROPERTY, String.valueOf(vertexCount * EDGE_FACTOR)));
+    seed = Long.parseLong(p.getProperty(SEED_PROPERTY, SEED_PROPERTY_DEFAULT));
+
+    String distribution = p.getProperty(DEGREE_DISTRIBUTION_PROPERTY, DEGREE_DISTRIBUTION_PROPERTY_DEFAULT);
+    if (distribution.equals("rmat")) {
+      rmat = true;
+    } else if (distribution.equals("uniform")) {
+      rmat = false;
+    } else {
+      throw new IllegalArgumentException("Unknown " + DEGREE_DISTRIBUTION_PROPERTY + " \"" + distribution + "\"");
+    }
+    String[] quadrants = p.getProperty(RMAT_PROPERTY, RMAT_PROPERTY_DEFAULT).split(",");
+    if (quadrants.length != 3) {
+      throw new IllegalArgumentException(RMAT_PROPERTY + " must hold the three probabilities a,b,c");
+    }
+    a = Double.parseDouble(quadrants[0].trim());
+    ab = a + Double.parseDouble(quadrants[1].trim());
+    abc = ab + Double.parseDouble(quadrants[2].trim());
+    if (a < 0 || ab < a || abc < ab || abc > 1) {
+      throw new IllegalArgumentException(RMAT_PROPERTY + " must hold probabilities summing to at most 1");
+    }
+    scale = 64 - Long.numberOfLeadingZeros(vertexCount - 1);
+
+    List<String> labels = new ArrayList<>();
+    vertexLabelWeights = parseLabels(p.getProperty(VERTEX_LABELS_PROPERTY, VERTEX_LABELS_PROPERTY_DEFAULT), labels);
+    vertexLabels = labels.toArray(new String[0]);
+    labels.clear();
+    edgeLabelWeights = parseLabels(p.getProperty(EDGE_LABELS_PROPERTY, EDGE_LABELS_PROPERTY_DEFAULT), labels);
+    edgeLabels = labels.toArray(new String[0]);
+    vertexProperties = parseSchema(p.getProperty(VERTEX_PROPERTIES_PROPERTY, VERTEX_PROPERTIES_PROPERTY_DEFAULT));
+    edgeProperties = parseSchema(p.getProperty(EDGE_PROPERTIES_PROPERTY, EDGE_PROPERTIES_PROPERTY_DEFAULT));
+  }
+
+  /**
+   * Parse {@code label[:weight],...} into the labels and their cumulative probabilities.
+   */
+  private static double[] parseLabels(String spec, List<String> labels) {
+    List<Double> weights = new ArrayList<>();
+    double total = 0;
+    for (String entry : spec.split(",")) {
+      String[] parts = entry.trim().split(":");
+      double weight = parts.length > 1 ? Double.parseDouble(parts[1]) : 1;
+      if (parts[0].isEmpty() || weight <= 0) {
+        throw new IllegalArgumentException("Invalid label \"" + entry + "\" in \"" + spec + "\"");
+      }
+      labels.add(parts[0]);
+      total += weight;
+      weights.add(total);
+    }
+    double[] cumulative = new double[weights.size()];
+    for (int i = 0; i < cumulative.length; i++) {
+      cumulative[i] = weights.get(i) / total;
+    }
+    return cumulative;
+  }
+
+  /**
+   * Parse {@code name:type:size,...} into {name, type, size} triples.
+   */
+  private static List<String[]> parseSchema(String spec) {
+    List<String[]> schema = new ArrayList<>();
+    if (spec.trim().isEmpty()) {
+      return schema;
+    }
+    for (String entry : spec.split(",")) {
+      String[] parts = entry.trim().split(":");
+      if (parts.length != 3 || !(parts[1].equals("string") || parts[1].equals("int"))
+          || Long.parseLong(parts[2]) < 1) {
+        throw new IllegalArgumentException("Invalid property \"" + entry + "\" in \"" + spec
+            + "\", expected name:string:length or name:int:bound");
+      }
+      parts[0] = PropertyMap.symbol(parts[0]);
+      schema.add(parts);
+    }
+    return schema;
+  }
+
+  public long getVertexCount() {
+    return vertexCount;
+  }
+
+  public long getEdgeCount() {
+    return edgeCount;
+  }
+
+  /**
+   * @return The vertices of the graph.
+   */
+  public RecordFile vertices() {
+    return new Records(false, 0, vertexCount);
+  }
+
+  /**
+   * @return The edges of the graph.
+   */
+  public RecordFile edges() {
+    return new Records(true, 0, edgeCount);
+  }
+
+  /**
+   * @return An endless stream of new vertices, following the last vertex of the graph.
+   */
+  public RecordFile moreVertices() {
+    return new Records(false, vertexCount, Long.MAX_VALUE - vertexCount);
+  }
+
+  /**
+   * @return An endless stream of new edges between vertices of the graph, following its last edge.
+   */
+  public RecordFile moreEdges() {
+    return new Records(true, edgeCount, Long.MAX_VALUE - edgeCount);
+  }
+
+  /**
+   * Generate one record.
+   *
+   * @param edge Whether to generate an edge or a vertex.
+   * @param number The record number.
+   * @return The record, with the keys of the JSON dataset files.
+   */
+  public Map<String, String> generate(boolean edge, long number) {
+    Map<String, String> record = new HashMap<>();
+    generate(edge, number, record);
+    return record;
+  }
+
+  /**
+   * Generate one record into an existing map.
+   *
+   * @param edge Whether to generate an edge or a vertex.
+   * @param number The record number.
+   * @param record The map receiving the properties of the record.
+   */
+  public void generate(boolean edge, long number, Map<String, String> record) {
+    SplittableRandom random = new SplittableRandom(mix64(seed + number * GOLDEN_GAMMA) ^ (edge ? EDGE_STREAM : 0));
+    if (edge) {
+      record.put("_id", "e" + number);
+      record.put("_type", pick(edgeLabels, edgeLabelWeights, random));
+      long from;
+      long to;
+      if (rmat) {
+        // Redraw the pairs that fall outside the graph when the vertex count is not a power of 2.
+        long[] pair;
+        do {
+          pair = rmatPair(random);
+        } while (pair[0] >= vertexCount || pair[1] >= vertexCount);
+        from = pair[0];
+        to = pair[1];
+      } else {
+        from = random.nextLong(vertexCount);
+        to = random.nextLong(vertexCount);
+      }
+      record.put("_outV", "v" + from);
+      record.put("_inV", "v" + to);
+      properties(edgeProperties, random, record);
+    } else {
+      record.put("_id", "v" + number);
+      record.put("_type", pick(vertexLabels, vertexLabelWeights, random));
+      properties(vertexProperties, random, record);
+    }
+  }
+
+  /**
+   * The finalizer of SplitMix64, so that neighbouring records get unrelated random streams
+   * rather than overlapping ones.
+   */
+  static long mix64(long z) {
+    z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+    z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+    return z ^ (z >>> 31);
+  }
+
+  /**
+   * Draw a cell of the {@code 2^scale} square adjacency matrix by descending into one of its
+   * four quadrants per bit.
+   */
+  private long[] rmatPair(SplittableRandom random) {
+    long from = 0;
+    long to = 0;
+    for (int bit = 0; bit < scale; bit++) {
+      double r = random.nextDouble();
+      from <<= 1;
+      to <<= 1;
+      if (r >= abc) {
+        from |= 1;
+        to |= 1;
+      } else if (r >= ab) {
+        from |= 1;
+      } else if (r >= a) {
+        to |= 1;
+      }
+    }
+    return new long[]{from, to};
+  }
+
+  private static String pick(String[] labels, double[] cumulative, SplittableRandom random) {
+    double r = random.nextDouble();
+    for (int i = 0; i < labels.length - 1; i++) {
+      if (r < cumulative[i]) {
+        return labels[i];
+      }
+    }
+    return labels[labels.length - 1];
+  }
+
+  private static void properties(List<String[]> schema, SplittableRandom random, Map<String, String> record) {
+    for (String[] property : schema) {
+      long size = Long.parseLong(property[2]);
+      if (property[1].equals("int")) {
+        record.put(property[0], String.valueOf(random.nextLong(size)));
+      } else {
+        char[] value = new char[(int) size];
+        for (int i = 0; i < value.length; i++) {
+          value[i] = (char) ('a' + random.nextInt(26));
+        }
+        record.put(property[0], new String(value));
+      }
+    }
+  }
+
+  /**
+   * A range of vertex or edge records. The position of a reader is the number of the next
+   * record it returns, relative to the range.
+   */
+  private final class Records implements RecordFile {
+    private final boolean edge;
+    private final long first;
+    private final long count;
+
+    Records(boolean edge, long first, long count) {
+      this.edge = edge;
+      this.first = first;
+      this.count = count;
+    }
+
+    @Override
+    public String getFilename() {
+      return "synthetic:" + (edge ? "edges" : "vertices") + "?seed=" + seed + "&vertices=" + vertexCount
+          + "&edges=" + edgeCount + "&first=" + first;
+    }
+
+    @Override
+    public long size() {
+      return count;
+    }
+
+    @Override
+    public RecordReader open(long record) {
+      if (record < 0 || record > count) {
+        throw new IndexOutOfBoundsException("Record " + record + " outside of [0, " + count + "]");
+      }
+      return new Reader(record);
+    }
+
+    @Override
+    public RecordReader openAt(long position) {
+      return open(position);
+    }
+
+    private final class Reader implements RecordReader {
+      private long next;
+
+      Reader(long next) {
+        this.next = next;
+      }
+
+      @Override
+      public Map<String, String> nextObject() {
+        if (next >= count) {
+          return null;
+        }
+        return generate(edge, first + next++);
+      }
+
+      @Override
+      public boolean nextObject(PropertyMap into) {
+        if (next >= count) {
+          return false;
+        }
+        into.clear();
+        generate(edge, first + next++, into);
+        return true;
+      }
+
+      @Override
+      public long skip(long objects) {
+        long skipped = Math.min(objects, count - next);
+        next += skipped;
+        return skipped;
+      }
+
+      @Override
+      public long position() {
+        return next;
+      }
+
+      @Override
+      public void close() {
+      }
+    }
+  }
+}
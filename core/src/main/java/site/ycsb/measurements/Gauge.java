@@ -0,0 +1,58 @@
+/**
+ * Copyright (c) 2025 YCSB contributors. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+
+
+package site.ycsb.measurements;
+
+import site.ycsb.measurements.exporter.MeasurementsExporter;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Keeps the mean and the maximum of the samples of a level, such as a queue depth, which
+ * unlike a latency is not worth a histogram.
+ */
+final class Gauge {
+  private final String name;
+  private final LongAdder samples = new LongAdder();
+  private final LongAdder sum = new LongAdder();
+  private final AtomicLong max = new AtomicLong(Long.MIN_VALUE);
+
+  Gauge(String name) {
+    this.name = name;
+  }
+
+  void sample(long value) {
+    samples.increment();
+    sum.add(value);
+    long current = max.get();
+    while (value > current && !max.compareAndSet(current, value)) {
+      current = max.get();
+    }
+  }
+
+  void exportMeasurements(MeasurementsExporter exporter) throws IOException {
+    long count = samples.sum();
+    exporter.write(name, "Samples", count);
+    if (count > 0) {
+      exporter.write(name, "Mean", (double) sum.sum() / count);
+      exporter.write(name, "Max", max.get());
+    }
+  }
+}
@@ -68,6 +68,7 @@ public class Measurements {
 
   private final ConcurrentHashMap<String, OneMeasurement> opToMesurementMap;
   private final ConcurrentHashMap<String, OneMeasurement> opToIntendedMesurementMap;
+  private final ConcurrentHashMap<String, Gauge> gauges = new ConcurrentHashMap<>();
   private final MeasurementType measurementType;
   private final int measurementInterval;
   private final Properties props;
@@ -239,6 +240,18 @@ public class Measurements {
     return m;
   }
 
+  /**
+   * Report a sample of a level, such as the number of requests in flight, which is exported
+   * as the mean and the maximum of its samples rather than as a latency histogram.
+   */
+  public void gauge(String name, long value) {
+    Gauge g = gauges.get(name);
+    if (g == null) {
+      g = gauges.computeIfAbsent(name, Gauge::new);
+    }
+    g.sample(value);
+  }
+
   /**
    * Report a return code for a single DB operation.
    */
@@ -262,6 +275,9 @@ public class Measurements {
     for (OneMeasurement measurement : opToIntendedMesurementMap.values()) {
       measurement.exportMeasurements(exporter);
     }
+    for (Gauge gauge : gauges.values()) {
+      gauge.exportMeasurements(exporter);
+    }
   }
 
   /**
@@ -0,0 +1,481 @@
+/**
+ * Copyright (c) 2025 YCSB contributors. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+
+package site.ycsb.workloads;
+
+import site.ycsb.IdRegistry;
+import site.ycsb.PropertyMap;
+import site.ycsb.RecordReader;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * The topology of the loaded graph, kept by the client so that the transaction phase can pick
+ * edge endpoints, neighbours and degree weighted vertices without asking the database.
+ * <p>
+ * Vertices are numbered densely: the loaded ones by their position in the {@link IdRegistry},
+ * the ones added by the run after them, and a dictionary of open addressing over int arrays
+ * maps IDs to numbers. The loaded edges are stored in compressed sparse row form, once by
+ * source and once by target, as an array of offsets per vertex into an array of neighbours.
+ * <p>
+ * That form cannot grow, so the edges added by the run are kept in preallocated arrays and
+ * threaded onto lock free per vertex lists instead. Room for the additions is reserved when
+ * the index is built; vertices and edges added beyond it are simply not indexed. Removals
+ * only mark vertices and edges dead, and the loaded edges are never removed, since the run
+ * only removes the elements it inserted itself.
+ */
+final class AdjacencyIndex {
+  /** The number returned for unknown IDs. */
+  static final int NONE = -1;
+  /** The largest number of vertices or edges, which keeps the dictionary table addressable. */
+  static final int MAX_SIZE = 1 << 29;
+  /** Random draws before giving up on finding a live vertex. */
+  private static final int TRIES = 32;
+
+  private final Dictionary vertices;
+  /** The edges added by the run, the loaded ones have no ID in the index. */
+  private final Dictionary edges;
+  private final AtomicLongArray removedVertices;
+  private final AtomicLongArray removedEdges;
+
+  private final int[] outOffsets;
+  private final int[] outTargets;
+  private final int[] inOffsets;
+  private final int[] inSources;
+
+  /** Endpoints of the added edges, plus one so that zero means not published yet. */
+  private final AtomicIntegerArray edgeFrom;
+  private final AtomicIntegerArray edgeTo;
+  /** Heads of the per vertex lists of added edges, plus one so that zero ends a list. */
+  private final AtomicIntegerArray outHeads;
+  private final AtomicIntegerArray inHeads;
+  /** Links of the lists, published by the compare-and-set of the head. */
+  private final int[] outNext;
+  private final int[] inNext;
+
+  private AdjacencyIndex(Dictionary vertices, int edgeAdditions, int[] from, int[] to, int count) {
+    int loaded = vertices.loaded();
+    this.vertices = vertices;
+    this.edges = new Dictionary(null, edgeAdditions);
+    this.removedVertices = new AtomicLongArray((vertices.capacity() + 63) / 64);
+    this.removedEdges = new AtomicLongArray((edgeAdditions + 63) / 64);
+    this.outOffsets = offsets(from, count, loaded);
+    this.outTargets = neighbours(from, to, count, outOffsets);
+    this.inOffsets = offsets(to, count, loaded);
+    this.inSources = neighbours(to, from, count, inOffsets);
+    this.edgeFrom = new AtomicIntegerArray(edgeAdditions);
+    this.edgeTo = new AtomicIntegerArray(edgeAdditions);
+    this.outHeads = new AtomicIntegerArray(vertices.capacity());
+    this.inHeads = new AtomicIntegerArray(vertices.capacity());
+    this.outNext = new int[edgeAdditions];
+    this.inNext = new int[edgeAdditions];
+  }
+
+  /**
+   * Build the index of a loaded graph. Edges whose endpoints are not in the registry, such as
+   * the ones whose insert failed, are left out.
+   *
+   * @param loaded The IDs of the loaded vertices.
+   * @param reader The loaded edges.
+   * @param count The number of edges to read.
+   * @param vertexAdditions Room for the vertices added by the run.
+   * @param edgeAdditions Room for the edges added by the run.
+   * @return The index.
+   * @throws IOException if the edges cannot be read.
+   */
+  static AdjacencyIndex build(IdRegistry loaded, RecordReader reader, long count, int vertexAdditions,
+                              int edgeAdditions) throws IOException {
+    if (loaded.size() + vertexAdditions > MAX_SIZE || count > MAX_SIZE || edgeAdditions > MAX_SIZE) {
+      throw new IllegalArgumentException("Too many vertices or edges to index");
+    }
+    Dictionary vertices = new Dictionary(loaded, vertexAdditions);
+    int[] from = new int[(int) count];
+    int[] to = new int[(int) count];
+    int indexed = 0;
+    PropertyMap fields = new PropertyMap();
+    for (long read = 0; read < count && reader.nextObject(fields); read++) {
+      int source = vertices.indexOf(fields.get("_outV"));
+      int target = vertices.indexOf(fields.get("_inV"));
+      if (source != NONE && target != NONE) {
+        from[indexed] = source;
+        to[indexed] = target;
+        indexed++;
+      }
+    }
+    return new AdjacencyIndex(vertices, edgeAdditions, from, to, indexed);
+  }
+
+  private static int[] offsets(int[] keys, int count, int vertices) {
+    int[] offsets = new int[vertices + 1];
+    for (int i = 0; i < count; i++) {
+      offsets[keys[i] + 1]++;
+    }
+    for (int v = 0; v < vertices; v++) {
+      offsets[v + 1] += offsets[v];
+    }
+    return offsets;
+  }
+
+  private static int[] neighbours(int[] keys, int[] values, int count, int[] offsets) {
+    int[] next = Arrays.copyOf(offsets, offsets.length - 1);
+    int[] neighbours = new int[count];
+    for (int i = 0; i < count; i++) {
+      neighbours[next[keys[i]]++] = values[i];
+    }
+    return neighbours;
+  }
+
+  /**
+   * @return The number of loaded edges in the index.
+   */
+  int loadedEdges() {
+    return outTargets.length;
+  }
+
+  /**
+   * @return The number of the vertex with the given ID, or {@link #NONE}.
+   */
+  int indexOf(String id) {
+    return id == null ? NONE : vertices.indexOf(id);
+  }
+
+  /**
+   * Index a vertex the run inserted.
+   */
+  void addVertex(String id) {
+    vertices.add(id);
+  }
+
+  /**
+   * Mark a vertex removed, so that it is not chosen again.
+   */
+  void removeVertex(String id) {
+    int v = indexOf(id);
+    if (v != NONE) {
+      set(removedVertices, v);
+    }
+  }
+
+  /**
+   * Undo {@link #removeVertex}, for a vertex the database failed to remove.
+   */
+  void restoreVertex(String id) {
+    int v = indexOf(id);
+    if (v != NONE) {
+      clear(removedVertices, v);
+    }
+  }
+
+  /**
+   * Index an edge the run inserted between two indexed vertices.
+   */
+  void addEdge(String id, String from, String to) {
+    int source = indexOf(from);
+    int target = indexOf(to);
+    if (source == NONE || target == NONE) {
+      return;
+    }
+    int e = edges.add(id);
+    if (e == NONE) {
+      return;
+    }
+    edgeFrom.set(e, source + 1);
+    edgeTo.set(e, target + 1);
+    push(outHeads, outNext, source, e);
+    push(inHeads, inNext, target, e);
+  }
+
+  private static void push(AtomicIntegerArray heads, int[] next, int v, int e) {
+    int head;
+    do {
+      head = heads.get(v);
+      next[e] = head;
+    } while (!heads.compareAndSet(v, head, e + 1));
+  }
+
+  /**
+   * Mark an edge the run inserted removed.
+   */
+  void removeEdge(String id) {
+    int e = edges.indexOf(id);
+    if (e != NONE) {
+      set(removedEdges, e);
+    }
+  }
+
+  /**
+   * @return Whether the vertex has an edge that was not removed, in either direction.
+   */
+  boolean hasEdges(String id) {
+    int v = indexOf(id);
+    if (v == NONE) {
+      return false;
+    }
+    return loadedDegree(v) > 0 || liveEdge(outHeads.get(v), outNext) || liveEdge(inHeads.get(v), inNext);
+  }
+
+  private boolean liveEdge(int link, int[] next) {
+    for (; link != 0; link = next[link - 1]) {
+      if (!test(removedEdges, link - 1)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private int loadedDegree(int v) {
+    if (v >= vertices.loaded()) {
+      return 0;
+    }
+    return outOffsets[v + 1] - outOffsets[v] + inOffsets[v + 1] - inOffsets[v];
+  }
+
+  /**
+   * @return A vertex drawn uniformly from the live ones, or null if none was found.
+   */
+  String randomVertex(SplittableRandom random) {
+    int count = vertices.size();
+    if (count == 0) {
+      return null;
+    }
+    for (int i = 0; i < TRIES; i++) {
+      String id = live(random.nextInt(count));
+      if (id != null) {
+        return id;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Draw the target of a random edge, which picks a vertex with a probability proportional to
+   * its in-degree, as preferential attachment does.
+   *
+   * @return The vertex, or a uniformly drawn one if the graph has no edges.
+   */
+  String weightedVertex(SplittableRandom random) {
+    int loadedEdges = outTargets.length;
+    int count = loadedEdges + edges.size();
+    if (count == 0) {
+      return randomVertex(random);
+    }
+    for (int i = 0; i < TRIES; i++) {
+      int e = random.nextInt(count);
+      if (e < loadedEdges) {
+        String id = live(outTargets[e]);
+        if (id != null) {
+          return id;
+        }
+      } else if (!test(removedEdges, e - loadedEdges)) {
+        String id = live(edgeTo.get(e - loadedEdges) - 1);
+        if (id != null) {
+          return id;
+        }
+      }
+    }
+    return randomVertex(random);
+  }
+
+  /**
+   * @return A live neighbour of the vertex across an edge in either direction, or null if it
+   *     has none or is not indexed.
+   */
+  String randomNeighbour(String id, SplittableRandom random) {
+    int v = indexOf(id);
+    if (v == NONE) {
+      return null;
+    }
+    int loadedOut = 0;
+    int loadedIn = 0;
+    if (v < vertices.loaded()) {
+      loadedOut = outOffsets[v + 1] - outOffsets[v];
+      loadedIn = inOffsets[v + 1] - inOffsets[v];
+    }
+    int addedOut = length(outHeads.get(v), outNext);
+    int addedIn = length(inHeads.get(v), inNext);
+    int degree = loadedOut + loadedIn + addedOut + addedIn;
+    if (degree == 0) {
+      return null;
+    }
+    for (int i = 0; i < TRIES; i++) {
+      int k = random.nextInt(degree);
+      String neighbour;
+      if (k < loadedOut) {
+        neighbour = live(outTargets[outOffsets[v] + k]);
+      } else if ((k -= loadedOut) < loadedIn) {
+        neighbour = live(inSources[inOffsets[v] + k]);
+      } else if ((k -= loadedIn) < addedOut) {
+        neighbour = follow(outHeads.get(v), outNext, k, edgeTo);
+      } else {
+        neighbour = follow(inHeads.get(v), inNext, k - addedOut, edgeFrom);
+      }
+      if (neighbour != null) {
+        return neighbour;
+      }
+    }
+    return null;
+  }
+
+  private static int length(int link, int[] next) {
+    int length = 0;
+    for (; link != 0; link = next[link - 1]) {
+      length++;
+    }
+    return length;
+  }
+
+  /**
+   * @return The live far end of the k-th edge of a list, or null if it was removed.
+   */
+  private String follow(int link, int[] next, int k, AtomicIntegerArray ends) {
+    for (; k > 0 && link != 0; k--) {
+      link = next[link - 1];
+    }
+    if (link == 0 || test(removedEdges, link - 1)) {
+      return null;
+    }
+    return live(ends.get(link - 1) - 1);
+  }
+
+  /**
+   * @return The ID of a vertex, or null if it was removed or is not published yet.
+   */
+  private String live(int v) {
+    return v < 0 || test(removedVertices, v) ? null : vertices.id(v);
+  }
+
+  private static boolean test(AtomicLongArray bits, int i) {
+    return (bits.get(i >>> 6) & (1L << i)) != 0;
+  }
+
+  private static void set(AtomicLongArray bits, int i) {
+    long word;
+    do {
+      word = bits.get(i >>> 6);
+    } while ((word & (1L << i)) == 0 && !bits.compareAndSet(i >>> 6, word, word | (1L << i)));
+  }
+
+  private static void clear(AtomicLongArray bits, int i) {
+    long word;
+    do {
+      word = bits.get(i >>> 6);
+    } while ((word & (1L << i)) != 0 && !bits.compareAndSet(i >>> 6, word, word & ~(1L << i)));
+  }
+
+  /**
+   * Numbers IDs densely: the IDs of a registry first, then the ones added later, up to a
+   * fixed capacity. Lookups go through a table of open addressing holding number plus one,
+   * which additions fill with compare-and-set, so that both run without locks.
+   */
+  private static final class Dictionary {
+    private final IdRegistry loadedIds;
+    private final int loaded;
+    private final int capacity;
+    /** Hashes of the registry IDs, so that probing only decodes IDs whose hash matches. */
+    private final int[] loadedHashes;
+    private final AtomicReferenceArray<String> addedIds;
+    private final AtomicInteger size;
+    private final AtomicIntegerArray table;
+    private final int mask;
+
+    Dictionary(IdRegistry loadedIds, int additions) {
+      this.loadedIds = loadedIds;
+      this.loaded = loadedIds == null ? 0 : (int) loadedIds.size();
+      this.capacity = loaded + additions;
+      this.loadedHashes = new int[loaded];
+      this.addedIds = new AtomicReferenceArray<>(additions);
+      this.size = new AtomicInteger(loaded);
+      int slots = (int) Long.highestOneBit(Math.max(16, capacity) * 4L - 1);
+      this.table = new AtomicIntegerArray(slots);
+      this.mask = slots - 1;
+      for (int v = 0; v < loaded; v++) {
+        loadedHashes[v] = hash(loadedIds.get(v));
+        insert(v, loadedHashes[v]);
+      }
+    }
+
+    private static int hash(String id) {
+      int h = id.hashCode() * 0x9E3779B9;
+      return h ^ (h >>> 16);
+    }
+
+    private void insert(int v, int hash) {
+      for (int slot = hash & mask; ; slot = (slot + 1) & mask) {
+        if (table.compareAndSet(slot, 0, v + 1)) {
+          return;
+        }
+      }
+    }
+
+    int loaded() {
+      return loaded;
+    }
+
+    int capacity() {
+      return capacity;
+    }
+
+    /**
+     * @return The number of IDs handed out, some of which may not be published yet.
+     */
+    int size() {
+      return Math.min(size.get(), capacity);
+    }
+
+    /**
+     * @return The number of the ID, or {@link #NONE} if it has no room left.
+     */
+    int add(String id) {
+      int v = size.getAndIncrement();
+      if (v >= capacity) {
+        return NONE;
+      }
+      addedIds.set(v - loaded, id);
+      insert(v, hash(id));
+      return v;
+    }
+
+    int indexOf(String id) {
+      int hash = hash(id);
+      for (int slot = hash & mask; ; slot = (slot + 1) & mask) {
+        int entry = table.get(slot);
+        if (entry == 0) {
+          return NONE;
+        }
+        int v = entry - 1;
+        boolean equal = v < loaded ? loadedHashes[v] == hash && id.equals(loadedIds.get(v))
+            : id.equals(addedIds.get(v - loaded));
+        if (equal) {
+          return v;
+        }
+      }
+    }
+
+    /**
+     * @return The ID, or null if it is not published yet.
+     */
+    String id(int v) {
+      return v < loaded ? loadedIds.get(v) : addedIds.get(v - loaded);
+    }
+  }
+}
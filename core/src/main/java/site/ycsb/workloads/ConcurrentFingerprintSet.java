@@ -0,0 +1,114 @@
+/**
+ * Copyright (c) 2025 YCSB contributors. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+
+package site.ycsb.workloads;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A fixed capacity, lock free set of 64 bit string fingerprints, used to track which vertex
+ * IDs the database has acknowledged during a pipelined load. Its table of 8 byte slots is
+ * the power of two holding at least twice the expected elements, hence 16 to 32 bytes per
+ * expected element, and it never stores the strings themselves. Two IDs sharing a fingerprint are treated
+ * as the same ID; with 64 bit fingerprints this is negligible for any realistic dataset.
+ * <p>
+ * The table is open addressed with linear probing. Once it is three quarters full further
+ * additions are dropped and reported as such, so lookups stay fast and callers fall back to
+ * treating the missing IDs as unknown.
+ */
+final class ConcurrentFingerprintSet {
+  private static final int MAX_CAPACITY = 1 << 30;
+
+  private final AtomicLongArray slots;
+  private final int mask;
+  private final int limit;
+  private final AtomicInteger size = new AtomicInteger();
+
+  /**
+   * @param expected The number of elements the set should be able to hold.
+   */
+  ConcurrentFingerprintSet(long expected) {
+    long capacity = Long.highestOneBit(Math.max(16, expected * 2 - 1)) << 1;
+    capacity = Math.min(capacity, MAX_CAPACITY);
+    slots = new AtomicLongArray((int) capacity);
+    mask = (int) capacity - 1;
+    limit = (int) (capacity / 4 * 3);
+  }
+
+  /**
+   * 64 bit FNV-1a over the UTF-16 code units, followed by the MurmurHash3 finalizer to spread
+   * the low bits used for the table index. Zero marks an empty slot and is remapped.
+   */
+  static long fingerprint(String s) {
+    long h = 0xcbf29ce484222325L;
+    for (int i = 0; i < s.length(); i++) {
+      h ^= s.charAt(i);
+      h *= 0x100000001b3L;
+    }
+    h ^= h >>> 33;
+    h *= 0xff51afd7ed558ccdL;
+    h ^= h >>> 33;
+    h *= 0xc4ceb9fe1a85ec53L;
+    h ^= h >>> 33;
+    return h == 0 ? 1 : h;
+  }
+
+  /**
+   * @return false if the set is full and the element could not be added.
+   */
+  boolean add(String s) {
+    long fp = fingerprint(s);
+    int i = (int) fp & mask;
+    while (true) {
+      long current = slots.get(i);
+      if (current == fp) {
+        return true;
+      }
+      if (current == 0) {
+        if (size.get() >= limit) {
+          return false;
+        }
+        if (slots.compareAndSet(i, 0, fp)) {
+          size.incrementAndGet();
+          return true;
+        }
+        continue; // lost the race for this slot, look at it again
+      }
+      i = (i + 1) & mask;
+    }
+  }
+
+  boolean contains(String s) {
+    long fp = fingerprint(s);
+    int i = (int) fp & mask;
+    while (true) {
+      long current = slots.get(i);
+      if (current == fp) {
+        return true;
+      }
+      if (current == 0) {
+        return false;
+      }
+      i = (i + 1) & mask;
+    }
+  }
+
+  int size() {
+    return size.get();
+  }
+}
@@ -17,20 +17,24 @@
 
 package site.ycsb.workloads;
 
-import org.apache.htrace.shaded.fasterxml.jackson.core.JsonFactory;
-import org.apache.htrace.shaded.fasterxml.jackson.core.JsonParser;
-import org.apache.htrace.shaded.fasterxml.jackson.core.JsonToken;
 import site.ycsb.*;
 import site.ycsb.generator.*;
 import site.ycsb.generator.UniformLongGenerator;
 import site.ycsb.measurements.Measurements;
 import sun.security.util.ArrayUtil;
 
-import java.io.BufferedWriter;
 import java.io.File;
-import java.io.FileWriter;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Phaser;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
 
 /**
  * The core benchmark scenario. Represents a set of clients doing simple CRUD operations. The
@@ -45,14 +49,27 @@ import java.util.*;
  * <LI><b>readallfields</b>: should reads read all fields (true) or just one (false) (default: true)
  * <LI><b>writeallfields</b>: should updates and read/modify/writes update all fields (true) or just
  * one (false) (default: false)
- * <LI><b>readproportion</b>: what proportion of operations should be reads (default: 0.95)
- * <LI><b>updateproportion</b>: what proportion of operations should be updates (default: 0.05)
- * <LI><b>insertproportion</b>: what proportion of operations should be inserts (default: 0)
- * <LI><b>scanproportion</b>: what proportion of operations should be scans (default: 0)
- * <LI><b>readmodifywriteproportion</b>: what proportion of operations should be read a record,
- * modify it, write it back (default: 0)
+ * <LI><b>createproportion</b>: the weight of each ADD_* operation (default: 0.95)
+ * <LI><b>readproportion</b>: the weight of each GET_* operation (default: 0)
+ * <LI><b>updateproportion</b>: the weight of each SET_* operation (default: 0.05)
+ * <LI><b>deleteproportion</b>: the weight of each REMOVE_* operation (default: 0)
+ * <LI><b>op.&lt;NAME&gt;.proportion</b>: the weight of the {@link Workload.Operation} NAME,
+ * overriding the one of its group, e.g. op.GET_VERTEX_WITH_PROPERTY.proportion
+ * <LI><b>op.PROBE_VISIBILITY.proportion</b>: the weight of the visibility probe, which sets
+ * the visibilityProbe property of a vertex to a unique value and waits until the database
+ * serves it back, reporting the wait as VISIBILITY_LAG; it is in no group (default: 0)
  * <LI><b>requestdistribution</b>: what distribution should be used to select the records to operate
- * on - uniform, zipfian, hotspot, sequential, exponential or latest (default: uniform)
+ * on - uniform, zipfian, scrambledzipfian, hotspot, sequential, exponential or latest (default: uniform).
+ * The set and remove property operations draw the index of a loaded vertex or edge from it, see
+ * {@link IdChooser}
+ * <LI><b>zipfianconstant</b>: the constant of the zipfian distributions (default: 0.99)
+ * <LI><b>hotspotdatafraction</b>: for hotspot, the fraction of the records in the hot set
+ * (default: 0.2)
+ * <LI><b>hotspotopnfraction</b>: for hotspot, the fraction of the operations on the hot set
+ * (default: 0.8)
+ * <LI><b>exponential.percentile</b>/<b>exponential.frac</b>: for exponential, the percentage of
+ * the operations on the given fraction of the most recently loaded records (default: 95 and
+ * 0.8571428571)
  * <LI><b>minscanlength</b>: for scans, what is the minimum number of records to scan (default: 1)
  * <LI><b>maxscanlength</b>: for scans, what is the maximum number of records to scan (default: 1000)
  * <LI><b>scanlengthdistribution</b>: for scans, what distribution should be used to choose the
@@ -70,17 +87,93 @@ import java.util.*;
  * order ("hashed") (default: hashed)
  * <LI><b>fieldnameprefix</b>: what should be a prefix for field names, the shorter may decrease the
  * required storage size (default: "field")
+ * <LI><b>loadsource</b>: where the load phase reads its vertices and edges, "file" for
+ * loadVertexFile and loadEdgeFile or "synthetic" for a {@link SyntheticGraph} generated on the
+ * fly, configured by the synthetic.* properties (default: file)
+ * <LI><b>loadVertexFile</b>: JSON array of vertices inserted during the load phase
+ * <LI><b>loadEdgeFile</b>: JSON array of edges inserted during the load phase
+ * <LI><b>loadbatchsize</b>: the number of vertices or edges sent to the database in one
+ * addVertices/addEdges call during the load phase; 1 inserts them one at a time (default: 1)
+ * <LI><b>binarycache</b>: convert the JSON dataset files to the binary format of
+ * {@link BinaryRecordFile} on first use and read the {@code <file>.ybin} copy on later runs
+ * instead of parsing JSON (default: true)
+ * <LI><b>loadpipeline</b>: load vertices and edges at the same time, inserting every edge as
+ * soon as the database acknowledged both of its endpoints (default: false)
+ * <LI><b>vertexAddFile</b>/<b>edgeAddFile</b>: JSON arrays of the vertices and edges created
+ * by the transaction phase; with a synthetic load source they default to new records following
+ * the synthetic graph
+ * <LI><b>prefetchbuffer</b>: the number of objects of vertexAddFile and edgeAddFile read ahead
+ * by a background thread during the transaction phase, shared out between the client threads;
+ * the time client threads spend waiting on an empty buffer is reported as
+ * PREFETCH_STALL_VERTEX/PREFETCH_STALL_EDGE (default: 4096)
+ * <LI><b>partitionids</b>: have every client thread update and remove properties of its own
+ * contiguous slice of the loaded vertices and edges only, rather than of all of them
+ * (default: false)
+ * <LI><b>searchkey.*</b>: the model of the searchKey values assigned by the load and queried
+ * by the transaction phase, which sets the number of vertices or edges a lookup by value
+ * matches, see {@link PropertyValueGenerator}
+ * <LI><b>adjacencyindex</b>: keep the topology of the graph in memory during the transaction
+ * phase, built from the loaded part of loadEdgeFile or of the synthetic graph; ADD_EDGE then
+ * connects live vertices instead of the endpoints in edgeAddFile and REMOVE_VERTEX only
+ * removes vertices without edges, so that no operation fails on a missing vertex or leaves
+ * edges behind (default: false)
+ * <LI><b>adjacencyindex.triadprobability</b>: with adjacencyindex, the probability that
+ * ADD_EDGE closes a triangle by connecting a vertex to a neighbour of one of its neighbours;
+ * the other edges point to a vertex drawn in proportion to its in-degree (default: 0.5)
+ * <LI><b>load.checkpointinterval</b>: the number of records after which a load thread records
+ * how far it got in the load checkpoint; 0 disables checkpoints (default: 100000)
+ * <LI><b>load.checkpointfile</b>: the load checkpoint (default: ./Load.checkpoint)
+ * <LI><b>load.resume</b>: resume an interrupted load from the load checkpoint (default: false)
+ * <LI><b>trace.record</b>: record every transaction operation sent to the database, with its
+ * arguments and its start time, to one binary trace per client thread named
+ * {@code <trace.record>.<thread>}, for {@link TraceReplayWorkload} to send the same operations
+ * to another database (default: no trace)
  * </ul>
+ * <p>
+ * The load phase is partitioned across the client threads: the records
+ * {@code [insertstart, insertstart + insertcount)} of each file are split into one contiguous
+ * slice per thread, every thread loads its vertex slice, waits for the other threads to finish
+ * their vertices and then loads its edge slice. Each thread writes the IDs it loaded to its own
+ * part file and the parts are merged into {@code Vertices.loaded}/{@code Edges.loaded} once all
+ * threads are done, next to {@code Load.parameters}, which records how many vertices and edges
+ * the load sized the searchKey models for so that the transaction phase sizes them alike.
+ * <p>
+ * With <b>loadpipeline</b> the two phases overlap instead: every thread reads its edge slice
+ * at the same pace as its vertex slice, and an edge whose endpoints have not been
+ * acknowledged yet is parked until they are, or until every thread has loaded its vertices.
+ * <p>
+ * A partitioned load (but not a pipelined one) periodically saves, per thread, the byte offset
+ * in each load file, the number of records sent and acknowledged and the size of the thread's
+ * ID registry. If the load is interrupted, the checkpoint and the per thread registries are
+ * kept, and running the same load again with <b>load.resume</b> seeks every thread straight
+ * to its last checkpoint, so at most one checkpoint interval of records is inserted twice.
+ * <p>
+ * A write is acknowledged when the binding returns {@link Status#BATCHED_OK} as well as
+ * {@link Status#OK}: a binding that defers its writes, such as GRACE with grace.async,
+ * acknowledges them once they are queued. The ID registries, the load progress, the
+ * acknowledged counts of the load checkpoint, the vertices an edge of a pipelined load waits
+ * for and the elements inserted by the transaction phase then include writes still in flight;
+ * the binding orders the later writes to an element behind them, and their failures are only
+ * reported in the measurements of their operations. A checkpoint of an interrupted load may
+ * thus cover writes that never reached the database.
+ * <p>
+ * The transaction phase keeps the mutable state of every client thread in its
+ * {@link ThreadState}: a random number generator, the generators choosing the vertices and
+ * edges to update and the thread's own partition of vertexAddFile and edgeAddFile, so that the
+ * client threads do not contend with each other outside of the database.
  */
 public class CoreWorkload extends Workload {
   /**
    * The name of the database table to run queries against.
    */
-  public static LinkedList<String> loadedVertices = new LinkedList<>();
-  public static LinkedList<String> loadedEdges = new LinkedList<>();
+  public static IdRegistry loadedVertices = IdRegistry.empty();
+  public static IdRegistry loadedEdges = IdRegistry.empty();
 
-  public static LinkedList<String> insertedVertices = new LinkedList<>();
-  public static LinkedList<String> insertedEdges = new LinkedList<>();
+  /**
+   * The vertices and edges the transaction phase inserted and has not removed yet.
+   */
+  public static final LiveIdSet insertedVertices = new LiveIdSet();
+  public static final LiveIdSet insertedEdges = new LiveIdSet();
 
 
   /**
@@ -121,248 +214,1106 @@ public class CoreWorkload extends Workload {
    */
   public static final String DELETE_PROPORTION_PROPERTY_DEFAULT = "0.0";
 
-  protected DiscreteGenerator operationchooser;
+  /**
+   * The name of the property for the distribution of the elements operations are applied to.
+   */
+  public static final String REQUEST_DISTRIBUTION_PROPERTY = "requestdistribution";
+
+  /**
+   * The default distribution of the elements operations are applied to.
+   */
+  public static final String REQUEST_DISTRIBUTION_PROPERTY_DEFAULT = "uniform";
+
+  /**
+   * The name of the property for the constant of the zipfian distributions.
+   */
+  public static final String ZIPFIAN_CONSTANT_PROPERTY = "zipfianconstant";
+
+  /**
+   * The name of the property for the fraction of the elements in the hot set.
+   */
+  public static final String HOTSPOT_DATA_FRACTION = "hotspotdatafraction";
+
+  /**
+   * The default fraction of the elements in the hot set.
+   */
+  public static final String HOTSPOT_DATA_FRACTION_DEFAULT = "0.2";
+
+  /**
+   * The name of the property for the fraction of the operations on the hot set.
+   */
+  public static final String HOTSPOT_OPN_FRACTION = "hotspotopnfraction";
+
+  /**
+   * The default fraction of the operations on the hot set.
+   */
+  public static final String HOTSPOT_OPN_FRACTION_DEFAULT = "0.8";
+
+  /**
+   * The name of the property for the percentage of operations on the exponential.frac most
+   * recent elements.
+   */
+  public static final String EXPONENTIAL_PERCENTILE_PROPERTY = "exponential.percentile";
+
+  /**
+   * The default percentage of operations on the most recent elements.
+   */
+  public static final String EXPONENTIAL_PERCENTILE_DEFAULT = "95";
+
+  /**
+   * The name of the property for the fraction of the elements receiving exponential.percentile
+   * of the operations.
+   */
+  public static final String EXPONENTIAL_FRAC_PROPERTY = "exponential.frac";
+
+  /**
+   * The default fraction of the most recent elements.
+   */
+  public static final String EXPONENTIAL_FRAC_DEFAULT = "0.8571428571"; // 1/7
+
+  /**
+   * The name of the property for the JSON array of vertices to insert in the load phase.
+   */
+  public static final String LOAD_VERTEX_FILE_PROPERTY = "loadVertexFile";
+
+  /**
+   * The name of the property for the JSON array of edges to insert in the load phase.
+   */
+  public static final String LOAD_EDGE_FILE_PROPERTY = "loadEdgeFile";
+
+  /**
+   * The name of the property selecting where the load phase reads its records from.
+   */
+  public static final String LOAD_SOURCE_PROPERTY = "loadsource";
+
+  /**
+   * The default load source, the vertex and edge files.
+   */
+  public static final String LOAD_SOURCE_PROPERTY_DEFAULT = "file";
+
+  /**
+   * The name of the property for the number of records inserted per batch in the load phase.
+   */
+  public static final String LOAD_BATCH_SIZE_PROPERTY = "loadbatchsize";
+
+  /**
+   * The default number of records inserted per batch in the load phase.
+   */
+  public static final String LOAD_BATCH_SIZE_PROPERTY_DEFAULT = "1";
+
+  /**
+   * The name of the property controlling whether JSON dataset files are converted to, and read
+   * from, their binary form.
+   */
+  public static final String BINARY_CACHE_PROPERTY = "binarycache";
+
+  /**
+   * The default for whether JSON dataset files are converted to their binary form.
+   */
+  public static final String BINARY_CACHE_PROPERTY_DEFAULT = "true";
+
+  /**
+   * The name of the property enabling the pipelined load of vertices and edges.
+   */
+  public static final String LOAD_PIPELINE_PROPERTY = "loadpipeline";
+
+  /**
+   * The default for whether vertices and edges are loaded pipelined.
+   */
+  public static final String LOAD_PIPELINE_PROPERTY_DEFAULT = "false";
+
+  /**
+   * The name of the property for the number of objects read ahead from the add files.
+   */
+  public static final String PREFETCH_BUFFER_PROPERTY = "prefetchbuffer";
+
+  /**
+   * The default number of objects read ahead from the add files.
+   */
+  public static final String PREFETCH_BUFFER_PROPERTY_DEFAULT = "4096";
+
+  /**
+   * The name of the property for partitioning the loaded IDs between the client threads.
+   */
+  public static final String PARTITION_IDS_PROPERTY = "partitionids";
+
+  /**
+   * The default for partitioning the loaded IDs between the client threads.
+   */
+  public static final String PARTITION_IDS_PROPERTY_DEFAULT = "false";
+
+  /**
+   * The name of the property for keeping an adjacency index during the transaction phase.
+   */
+  public static final String ADJACENCY_INDEX_PROPERTY = "adjacencyindex";
+
+  /**
+   * The default for keeping an adjacency index during the transaction phase.
+   */
+  public static final String ADJACENCY_INDEX_PROPERTY_DEFAULT = "false";
+
+  /**
+   * The name of the property for the probability that an added edge closes a triangle.
+   */
+  public static final String TRIAD_PROBABILITY_PROPERTY = "adjacencyindex.triadprobability";
+
+  /**
+   * The default probability that an added edge closes a triangle.
+   */
+  public static final String TRIAD_PROBABILITY_PROPERTY_DEFAULT = "0.5";
+
+  /**
+   * Room for added vertices and edges in the adjacency index when operationcount does not
+   * bound them.
+   */
+  private static final int ADJACENCY_DEFAULT_ADDITIONS = 1 << 20;
+
+  /**
+   * Separate the searchKey values of vertices and edges.
+   */
+  private static final long VERTEX_VALUES_STREAM = 0;
+  private static final long EDGE_VALUES_STREAM = 0x632be59bd9b4e019L;
+
+  /**
+   * Vertices REMOVE_VERTEX looks at for one without edges.
+   */
+  private static final int REMOVE_VERTEX_CANDIDATES = 4;
+
+  /**
+   * The smallest number of objects read ahead for a client thread.
+   */
+  private static final int MIN_PREFETCH_PER_THREAD = 16;
+
+  /**
+   * The name of the property for the number of records between two load checkpoints.
+   */
+  public static final String LOAD_CHECKPOINT_INTERVAL_PROPERTY = "load.checkpointinterval";
+
+  /**
+   * The default number of records between two load checkpoints.
+   */
+  public static final String LOAD_CHECKPOINT_INTERVAL_PROPERTY_DEFAULT = "100000";
+
+  /**
+   * The name of the property for the load checkpoint file.
+   */
+  public static final String LOAD_CHECKPOINT_FILE_PROPERTY = "load.checkpointfile";
+
+  /**
+   * The default load checkpoint file.
+   */
+  public static final String LOAD_CHECKPOINT_FILE_PROPERTY_DEFAULT = "./Load.checkpoint";
+
+  /**
+   * The name of the property for resuming an interrupted load.
+   */
+  public static final String LOAD_RESUME_PROPERTY = "load.resume";
+
+  /**
+   * The default for resuming an interrupted load.
+   */
+  public static final String LOAD_RESUME_PROPERTY_DEFAULT = "false";
+
+  /**
+   * The name of the property for the prefix of the operation traces recorded by the
+   * transaction phase.
+   */
+  public static final String TRACE_RECORD_PROPERTY = "trace.record";
+
+  /**
+   * The vertex property the PROBE_VISIBILITY operation writes and waits for.
+   */
+  public static final String VISIBILITY_PROBE_KEY = "visibilityProbe";
+
+  /**
+   * The number of edges a thread parks before it stops reading further edges.
+   */
+  private static final int PIPELINE_MAX_PARKED = 1 << 16;
 
-  private RandomPropertyGenerator propertyPool = new RandomPropertyGenerator(1000, 8); // 1000 random strings, each length 8
+  /**
+   * How long a thread waits before retrying its parked edges when it has nothing else to do.
+   */
+  private static final long PIPELINE_WAIT_NANOS = 200000;
+
+  /**
+   * The {@link IdRegistry} the IDs of the loaded vertices are written to.
+   */
+  public static final String VERTEX_ID_FILE = "./Vertices.loaded";
+
+  /**
+   * The {@link IdRegistry} the IDs of the loaded edges are written to.
+   */
+  public static final String EDGE_ID_FILE = "./Edges.loaded";
+
+  /**
+   * The parameters of the completed load, written next to the ID registries, from which the
+   * transaction phase sizes the searchKey models exactly as the load did.
+   */
+  public static final String LOAD_PARAMETERS_FILE = "./Load.parameters";
+
+  protected OperationChooser operationchooser;
+
+  private boolean dotransactions;
+  private IdChooser vertexChooser;
+  private IdChooser edgeChooser;
+  private boolean partitionIds;
+  private RecordFile vertexAddFile;
+  private RecordFile edgeAddFile;
+  private int prefetch;
+  private PartitionedPrefetcher vertexAdds;
+  private PartitionedPrefetcher edgeAdds;
+  private AdjacencyIndex adjacency;
+  private double triadProbability;
+  private SyntheticGraph syntheticGraph;
+  private RecordFile vertexIndex;
+  private RecordFile edgeIndex;
+  private long insertStart;
+  private long vertexInsertCount;
+  private long edgeInsertCount;
+  private int loadBatchSize;
+  private int loadThreadCount;
+  private Phaser loadPhaser;
+  private boolean loadPipeline;
+  private ConcurrentFingerprintSet acknowledgedVertices;
+  private AtomicInteger pendingVertexThreads;
+  private long checkpointInterval;
+  private String checkpointFile;
+  private boolean resume;
+  private LoadCheckpoint checkpoint;
+  private volatile boolean loadFailed;
+  private String tracePrefix;
+  private final AtomicLong traceStart = new AtomicLong();
+  private final Queue<ThreadState> tracedThreads = new ConcurrentLinkedQueue<>();
 
+  /**
+   * State of one client thread, created by {@link #initThread(Properties, int, int)}.
+   */
+  public static final class ThreadState {
+    private final int threadId;
+    private final int threadCount;
+    private SplittableRandom random;
+    private IdRegistry.Writer vertexWriter;
+    private IdRegistry.Writer edgeWriter;
+    private IdChooser vertexChooser;
+    private IdChooser edgeChooser;
+    private RecordReader vertexAdds;
+    private RecordReader edgeAdds;
+    private OperationTrace.Writer traceWriter;
+    private TraceRecordingDB traceRecorder;
+    private long probes;
+    /** Whether the thread counts in {@link #pendingVertexThreads}. */
+    private boolean vertexPending;
+
+    ThreadState(int threadId, int threadCount) {
+      this.threadId = threadId;
+      this.threadCount = threadCount;
+    }
 
+    public int getThreadId() {
+      return threadId;
+    }
 
-  public void ProcessVertexFile(DB db, Properties props) throws IOException{
-    String vertexFile = props.getProperty("loadVertexFile", "UNDEF");
-    if (vertexFile == "UNDEF"){
-      throw new RuntimeException("Vertex file not supplied in parameters");
+    public int getThreadCount() {
+      return threadCount;
     }
-    System.out.println("Loading vertex data from: "+ vertexFile);
-    JsonFactory factory = new JsonFactory();
-    File file = new File(vertexFile);
-    long totalBytes = file.length();
-    try (JsonParser parser = factory.createParser(file)) {
-      if (parser.nextToken() != JsonToken.START_ARRAY) {
-        throw new IOException("Expected JSON array");
-      }
+  }
 
-      while (parser.nextToken() == JsonToken.START_OBJECT) {
-        String id = null;
-        String type = null;
-        Map<String, String> properties = new HashMap<>();
+  private PropertyValueGenerator vertexValues;
+  private PropertyValueGenerator edgeValues;
+  private final Map<String, String> typeLabels = new ConcurrentHashMap<>();
 
-        while (parser.nextToken() != JsonToken.END_OBJECT) {
-          String fieldName = parser.getCurrentName();
-          parser.nextToken();
-          String value = parser.getValueAsString();
 
-          switch (fieldName) {
-            case "_id":
-              id = value;
-              break;
-            case "_type":
-              type = value+"Type";
-              break;
-            default:
-              properties.put(fieldName, value);
-              break;
-          }
 
+  public void ProcessVertexFile(DB db, ThreadState state) throws IOException{
+    long[] slice = JsonArrayIndex.slice(insertStart, vertexInsertCount, state.threadCount, state.threadId);
+    LoadCheckpoint.Cursor cursor = checkpoint == null ? null : checkpoint.get(state.threadId, false);
+    long done = cursor == null ? 0 : cursor.getRecords();
+    long acknowledged = cursor == null ? 0 : cursor.getAcknowledged();
+    System.out.println("Loading vertex data from: " + vertexIndex.getFilename() + " records [" + slice[0] + ", "
+        + (slice[0] + slice[1]) + ")" + (done > 0 ? ", resuming after " + done : ""));
+    RecordReader streamer = done > 0 ? vertexIndex.openAt(cursor.getPosition()) : vertexIndex.open(slice[0]);
+    List<VertexRecord> batch = new ArrayList<>(loadBatchSize);
+    VertexRecord[] pool = vertexPool();
+    PropertyMap fields = new PropertyMap();
+    long checkpointed = done;
+    try {
+      for (long remaining = slice[1] - done; remaining > 0; remaining--) {
+        if (!nextRecord(streamer, false, fields)) {
+          break;
         }
-        properties.put("searchKey", propertyPool.next());
-        appendVertexID(id);
-        db.addVertex(type, id, properties);
-
-//        // --- Progress bar ---
-//        long currentBytes = parser.getCurrentLocation().getByteOffset();
-//        int percent = (int) ((currentBytes * 100.0) / totalBytes);
-//        System.out.printf("\rVertices load progress: %d%%", percent);
-
-//        // Example: store ID for fast lookup and keep properties in memory only if needed
-//        if (id != null) {
-//          loadedVertices.add(id);  // IDs used for reads
-//          updateVertexIds.add(id);   // IDs used for deletes
-//        }
+        VertexRecord vertex = toVertex(fields, pool[batch.size()]);
+        appendVertexID(state, vertex.getId());
+        batch.add(vertex);
+        done++;
+        if (batch.size() == loadBatchSize) {
+          acknowledged += insertVertices(db, batch);
+          if (checkpoint != null && done - checkpointed >= checkpointInterval) {
+            saveCheckpoint(state, false, done, streamer, acknowledged);
+            checkpointed = done;
+          }
+        }
+      }
+      acknowledged += insertVertices(db, batch);
+      if (checkpoint != null && done != checkpointed) {
+        saveCheckpoint(state, false, done, streamer, acknowledged);
+      }
+    } finally {
+      streamer.close();
+    }
+  }
+
 
-        // Properties map can be used immediately or stored somewhere
-        // e.g., db.addVertex(table, id, properties);
+
+  public void ProcessEdgeFile(DB db, ThreadState state) throws IOException{
+    long[] slice = JsonArrayIndex.slice(insertStart, edgeInsertCount, state.threadCount, state.threadId);
+    LoadCheckpoint.Cursor cursor = checkpoint == null ? null : checkpoint.get(state.threadId, true);
+    long done = cursor == null ? 0 : cursor.getRecords();
+    long acknowledged = cursor == null ? 0 : cursor.getAcknowledged();
+    System.out.println("Loading edge data from: " + edgeIndex.getFilename() + " records [" + slice[0] + ", "
+        + (slice[0] + slice[1]) + ")" + (done > 0 ? ", resuming after " + done : ""));
+    RecordReader streamer = done > 0 ? edgeIndex.openAt(cursor.getPosition()) : edgeIndex.open(slice[0]);
+    List<EdgeRecord> batch = new ArrayList<>(loadBatchSize);
+    EdgeRecord[] pool = edgePool();
+    PropertyMap fields = new PropertyMap();
+    long checkpointed = done;
+    try {
+      for (long remaining = slice[1] - done; remaining > 0; remaining--) {
+        if (!nextRecord(streamer, true, fields)) {
+          break;
+        }
+        EdgeRecord edge = toEdge(fields, pool[batch.size()]);
+        appendEdgeID(state, edge.getId());
+        batch.add(edge);
+        done++;
+        if (batch.size() == loadBatchSize) {
+          acknowledged += insertEdges(db, batch);
+          if (checkpoint != null && done - checkpointed >= checkpointInterval) {
+            saveCheckpoint(state, true, done, streamer, acknowledged);
+            checkpointed = done;
+          }
+        }
+      }
+      acknowledged += insertEdges(db, batch);
+      if (checkpoint != null && done != checkpointed) {
+        saveCheckpoint(state, true, done, streamer, acknowledged);
       }
+    } finally {
+      streamer.close();
     }
   }
 
+  /**
+   * Read the next record of a load file into a reused map and account for it in the
+   * {@link LoadProgress}.
+   *
+   * @return False once the file is exhausted.
+   */
+  private boolean nextRecord(RecordReader reader, boolean edge, PropertyMap into) throws IOException {
+    long position = reader.position();
+    if (!reader.nextObject(into)) {
+      return false;
+    }
+    LoadProgress progress = LoadProgress.getLoadProgress();
+    progress.parsed(edge);
+    if (syntheticGraph == null) {
+      progress.read(reader.position() - position);
+    }
+    return true;
+  }
+
+  /**
+   * @return The records a thread fills with the vertices of one batch.
+   */
+  private VertexRecord[] vertexPool() {
+    VertexRecord[] pool = new VertexRecord[loadBatchSize];
+    for (int i = 0; i < pool.length; i++) {
+      pool[i] = new VertexRecord();
+    }
+    return pool;
+  }
 
+  /**
+   * @return The records a thread fills with the edges of one batch.
+   */
+  private EdgeRecord[] edgePool() {
+    EdgeRecord[] pool = new EdgeRecord[loadBatchSize];
+    for (int i = 0; i < pool.length; i++) {
+      pool[i] = new EdgeRecord();
+    }
+    return pool;
+  }
 
-  public void ProcessEdgeFile(DB db, Properties props) throws IOException{
-    String edgeFile = props.getProperty("loadEdgeFile", "UNDEF");
-    if (edgeFile == "UNDEF"){
-      throw new RuntimeException("Edge file not supplied in parameters");
+  /**
+   * The label stored for a "_type" of the load files, cached so that every record of the same
+   * type shares one label instead of concatenating a new one.
+   */
+  private String typeLabel(String type) {
+    if (type == null) {
+      return null;
     }
-    System.out.println("Loading edge data from: "+ edgeFile);
-    JsonFactory factory = new JsonFactory();
-    File file = new File(edgeFile);
-    long totalBytes = file.length();
-    try (JsonParser parser = factory.createParser(file)) {
-      if (parser.nextToken() != JsonToken.START_ARRAY) {
-        throw new IOException("Expected JSON array");
-      }
+    String label = typeLabels.get(type);
+    if (label == null) {
+      label = type + "Type";
+      typeLabels.putIfAbsent(type, label);
+    }
+    return label;
+  }
 
-      while (parser.nextToken() == JsonToken.START_OBJECT) {
-        String id = null;
-        String type = null;
-        String from = null;
-        String to= null;
-        Map<String, String> properties = new HashMap<>();
+  private VertexRecord toVertex(PropertyMap fields, VertexRecord vertex) {
+    vertex.reset(typeLabel(fields.get("_type")), fields.get("_id"));
+    Map<String, String> properties = vertex.getProperties();
+
+    for (int i = 0; i < fields.size(); i++) {
+      String fieldName = fields.getKey(i);
+      switch (fieldName) {
+        case "_id":
+        case "_type":
+          break;
+        default:
+          properties.put(fieldName, fields.getValue(i));
+          break;
+      }
+    }
+    properties.put("searchKey", vertexValues.forElement(String.valueOf(vertex.getId())));
+    return vertex;
+  }
 
-        while (parser.nextToken() != JsonToken.END_OBJECT) {
-          String fieldName = parser.getCurrentName();
-          parser.nextToken();
-          String value = parser.getValueAsString();
+  private EdgeRecord toEdge(PropertyMap fields, EdgeRecord edge) {
+    edge.reset(typeLabel(fields.get("_type")), fields.get("_id"), fields.get("_outV"), fields.get("_inV"));
+    Map<String, String> properties = edge.getProperties();
+
+    for (int i = 0; i < fields.size(); i++) {
+      String fieldName = fields.getKey(i);
+      switch (fieldName) {
+        case "_id":
+        case "_type":
+        case "_outV":
+        case "_inV":
+          break;
+        default:
+          properties.put(fieldName, fields.getValue(i));
+          break;
+      }
+    }
+    properties.put("searchKey", edgeValues.forElement(String.valueOf(edge.getId())));
+    return edge;
+  }
 
-          switch (fieldName) {
-            case "_id":
-              id = value;
-              break;
-            case "_type":
-              type = value+"Type";
-              break;
-            case "_outV":
-              from = value;
-              break;
-            case "_inV":
-              to = value;
-              break;
-            default:
-              properties.put(fieldName, value);
+  /**
+   * Load the vertex and edge slices of a thread at the same time. Vertices are inserted in
+   * batches and their IDs recorded in {@link #acknowledgedVertices} once the database
+   * acknowledged them. Edges are read at the same pace as the vertices and inserted as soon as
+   * both endpoints are acknowledged; the others are parked and retried as more vertices get
+   * acknowledged. Once every thread has finished its vertices, all parked edges are released, which
+   * covers endpoints that were loaded by an earlier run or failed to insert.
+   */
+  public void ProcessPipelined(DB db, ThreadState state) throws IOException {
+    long[] vertexSlice = JsonArrayIndex.slice(insertStart, vertexInsertCount, state.threadCount, state.threadId);
+    long[] edgeSlice = JsonArrayIndex.slice(insertStart, edgeInsertCount, state.threadCount, state.threadId);
+    System.out.println("Pipelining vertex records [" + vertexSlice[0] + ", " + (vertexSlice[0] + vertexSlice[1])
+        + ") and edge records [" + edgeSlice[0] + ", " + (edgeSlice[0] + edgeSlice[1]) + ")");
+    RecordReader vertices = vertexIndex.open(vertexSlice[0]);
+    RecordReader edges = null;
+    List<VertexRecord> vertexBatch = new ArrayList<>(loadBatchSize);
+    List<EdgeRecord> edgeBatch = new ArrayList<>(loadBatchSize);
+    VertexRecord[] vertexPool = vertexPool();
+    // Parked edges outlive their batch, so edge records are recycled through a free list instead.
+    ArrayDeque<EdgeRecord> spareEdges = new ArrayDeque<>();
+    PropertyMap fields = new PropertyMap();
+    ArrayDeque<EdgeRecord> parked = new ArrayDeque<>();
+    long verticesLeft = vertexSlice[1];
+    long edgesLeft = edgeSlice[1];
+    boolean verticesDone = false;
+    int lastScan = 0;
+    try {
+      edges = edgeIndex.open(edgeSlice[0]);
+      while (!verticesDone || edgesLeft > 0 || !parked.isEmpty()) {
+        boolean progress = false;
+        if (!verticesDone) {
+          while (verticesLeft > 0 && vertexBatch.size() < loadBatchSize) {
+            if (!nextRecord(vertices, false, fields)) {
+              verticesLeft = 0;
               break;
+            }
+            verticesLeft--;
+            VertexRecord vertex = toVertex(fields, vertexPool[vertexBatch.size()]);
+            appendVertexID(state, vertex.getId());
+            vertexBatch.add(vertex);
           }
+          insertVertices(db, vertexBatch);
+          if (verticesLeft == 0) {
+            verticesDone = true;
+            verticesSent(state);
+          }
+          progress = true;
+        }
 
+        // Rescanning the parked edges costs one pass over them, only do it once enough vertices
+        // have been acknowledged since the last pass to make it worthwhile.
+        boolean released = pendingVertexThreads.get() == 0;
+        int acknowledged = acknowledgedVertices.size();
+        if (released || acknowledged - lastScan >= Math.max(loadBatchSize, parked.size() / 8)) {
+          lastScan = acknowledged;
+          for (int i = parked.size(); i > 0; i--) {
+            EdgeRecord edge = parked.poll();
+            if (released || endpointsAcknowledged(edge)) {
+              queueEdge(db, edgeBatch, edge, spareEdges);
+              progress = true;
+            } else {
+              parked.add(edge);
+            }
+          }
         }
-        properties.put("searchKey", propertyPool.next());
-        appendEdgeID(id);
-        db.addEdge(type, id, from , to, properties);
-//
-//        // --- Progress bar ---
-//        long currentBytes = parser.getCurrentLocation().getByteOffset();
-//        int percent = (int) ((currentBytes * 100.0) / totalBytes);
-//        System.out.printf("\rEdges load progress: %d%%", percent);
-
-//        // Example: store ID for fast lookup and keep properties in memory only if needed
-//        if (id != null) {
-//          loadedVertices.add(id);  // IDs used for reads
-//          updateVertexIds.add(id);   // IDs used for deletes
-//        }
 
-        // Properties map can be used immediately or stored somewhere
-        // e.g., db.addVertex(table, id, properties);
+        // Keep the edge stream at the same relative position as the vertex stream.
+        double vertexProgress = vertexSlice[1] == 0 ? 1 : (vertexSlice[1] - verticesLeft) / (double) vertexSlice[1];
+        long edgeTarget = verticesDone ? edgeSlice[1] : (long) (edgeSlice[1] * vertexProgress);
+        while (edgesLeft > 0 && edgeSlice[1] - edgesLeft < edgeTarget && parked.size() < PIPELINE_MAX_PARKED) {
+          if (!nextRecord(edges, true, fields)) {
+            edgesLeft = 0;
+            break;
+          }
+          edgesLeft--;
+          EdgeRecord edge = toEdge(fields, spareEdges.isEmpty() ? new EdgeRecord() : spareEdges.poll());
+          appendEdgeID(state, edge.getId());
+          if (released || endpointsAcknowledged(edge)) {
+            queueEdge(db, edgeBatch, edge, spareEdges);
+          } else {
+            parked.add(edge);
+          }
+          progress = true;
+        }
+
+        if (!progress) {
+          // Only parked edges are left, waiting for the vertices of other threads.
+          spareEdges.addAll(edgeBatch);
+          insertEdges(db, edgeBatch);
+          LockSupport.parkNanos(PIPELINE_WAIT_NANOS);
+        }
+      }
+      insertEdges(db, edgeBatch);
+    } finally {
+      vertices.close();
+      if (edges != null) {
+        edges.close();
       }
     }
   }
 
+  /**
+   * Stop counting a thread in {@link #pendingVertexThreads}, once it sent all its vertices or
+   * gave up; the other threads then no longer park their edges for it.
+   */
+  private void verticesSent(ThreadState state) {
+    if (state.vertexPending) {
+      state.vertexPending = false;
+      pendingVertexThreads.decrementAndGet();
+    }
+  }
 
+  private boolean endpointsAcknowledged(EdgeRecord edge) {
+    return edge.getFrom() != null && edge.getTo() != null
+        && acknowledgedVertices.contains(edge.getFrom()) && acknowledgedVertices.contains(edge.getTo());
+  }
 
-  @Override
-  public void loadData(DB db, Properties props) {
-    try {
-      vertexWriter = new BufferedWriter(new FileWriter("./Vertices.loaded", false));
-      edgeWriter = new BufferedWriter(new FileWriter("./Edges.loaded", false));
+  private void queueEdge(DB db, List<EdgeRecord> batch, EdgeRecord edge, ArrayDeque<EdgeRecord> spare) {
+    batch.add(edge);
+    if (batch.size() == loadBatchSize) {
+      // The records are only reused once the insert returned.
+      spare.addAll(batch);
+      insertEdges(db, batch);
+    }
+  }
 
-    } catch (IOException e) {
-      throw new RuntimeException("Failed to open ID files for writing", e);
+  /**
+   * Send the pending vertices to the database and empty the batch. In a pipelined load the
+   * vertices are recorded as acknowledged if the database accepted the whole batch, or the
+   * binding queued it.
+   *
+   * @return The number of vertices the database acknowledged.
+   */
+  private int insertVertices(DB db, List<VertexRecord> batch) {
+    if (batch.isEmpty()) {
+      return 0;
+    }
+    Status status;
+    if (loadBatchSize == 1) {
+      VertexRecord v = batch.get(0);
+      status = db.addVertex(v.getLabel(), v.getId(), v.getProperties());
+    } else {
+      status = db.addVertices(batch);
+    }
+    LoadProgress progress = LoadProgress.getLoadProgress();
+    progress.issued(false, batch.size());
+    if (status.isOk()) {
+      progress.acknowledged(false, batch.size());
+    }
+    if (acknowledgedVertices != null && status.isOk()) {
+      for (VertexRecord v : batch) {
+        acknowledgedVertices.add(v.getId());
+      }
+    }
+    int acknowledged = status.isOk() ? batch.size() : 0;
+    batch.clear();
+    return acknowledged;
+  }
+
+  /**
+   * Send the pending edges to the database and empty the batch.
+   *
+   * @return The number of edges the database acknowledged.
+   */
+  private int insertEdges(DB db, List<EdgeRecord> batch) {
+    if (batch.isEmpty()) {
+      return 0;
+    }
+    Status status;
+    if (loadBatchSize == 1) {
+      EdgeRecord e = batch.get(0);
+      status = db.addEdge(e.getLabel(), e.getId(), e.getFrom(), e.getTo(), e.getProperties());
+    } else {
+      status = db.addEdges(batch);
+    }
+    LoadProgress progress = LoadProgress.getLoadProgress();
+    progress.issued(true, batch.size());
+    if (status.isOk()) {
+      progress.acknowledged(true, batch.size());
     }
+    int acknowledged = status.isOk() ? batch.size() : 0;
+    batch.clear();
+    return acknowledged;
+  }
 
-    System.out.println("Called load data in core workload. Loading data");
-    try {
-      ProcessVertexFile(db, props);
-      ProcessEdgeFile(db, props);
-    } catch (Exception e)
-    {
-      System.out.println("Error loading data.");
-      e.printStackTrace();
-    } finally {
-        closeWriters(); // <- flush & close buffers
+  /**
+   * Record that a thread sent the first records of its slice, once their IDs are on disk.
+   */
+  private void saveCheckpoint(ThreadState state, boolean edge, long records, RecordReader reader,
+                              long acknowledged) throws IOException {
+    IdRegistry.Writer writer = edge ? state.edgeWriter : state.vertexWriter;
+    writer.sync();
+    checkpoint.update(state.threadId, edge, records, reader.position(), acknowledged, writer.size(), writer.bytes());
+  }
+
+
+
+  @Override
+  public Object initThread(Properties p, int mythreadid, int threadcount) throws WorkloadException {
+    synchronized (this) {
+      if (loadPhaser == null) {
+        // The loader threads register themselves once their initialization succeeded, so that a
+        // thread failing before loadData() cannot hold back the others at the barrier.
+        loadPhaser = new Phaser();
+        loadThreadCount = threadcount;
+        pendingVertexThreads = new AtomicInteger();
+        if (!dotransactions && !loadPipeline && (checkpointInterval > 0 || resume)) {
+          checkpoint = resume
+              ? LoadCheckpoint.resume(checkpointFile, loadParameters(), threadcount)
+              : LoadCheckpoint.create(checkpointFile, loadParameters(), threadcount);
+        }
+        if (dotransactions) {
+          int capacity = Math.max(MIN_PREFETCH_PER_THREAD, (prefetch + threadcount - 1) / threadcount);
+          try {
+            vertexAdds = new PartitionedPrefetcher(vertexAddFile, threadcount, capacity, "PREFETCH_STALL_VERTEX");
+            edgeAdds = new PartitionedPrefetcher(edgeAddFile, threadcount, capacity, "PREFETCH_STALL_EDGE");
+          } catch (IOException e) {
+            throw new WorkloadException("Failed to open the add files", e);
+          }
+        }
+      }
+    }
+    ThreadState state = new ThreadState(mythreadid, threadcount);
+    if (dotransactions) {
+      state.random = vertexValues.threadRandom(mythreadid);
+      if (partitionIds) {
+        long[] vertices = JsonArrayIndex.slice(0, loadedVertices.size(), threadcount, mythreadid);
+        long[] edges = JsonArrayIndex.slice(0, loadedEdges.size(), threadcount, mythreadid);
+        state.vertexChooser = IdChooser.create(loadedVertices, vertices[0], vertices[1], p);
+        state.edgeChooser = IdChooser.create(loadedEdges, edges[0], edges[1], p);
+      } else {
+        state.vertexChooser = vertexChooser.forThread();
+        state.edgeChooser = edgeChooser.forThread();
       }
+      state.vertexAdds = vertexAdds.get(mythreadid);
+      state.edgeAdds = edgeAdds.get(mythreadid);
+      if (tracePrefix != null) {
+        try {
+          state.traceWriter = new OperationTrace.Writer(OperationTrace.filename(tracePrefix, mythreadid),
+              mythreadid, threadcount);
+        } catch (IOException e) {
+          throw new WorkloadException("Failed to create the operation trace", e);
+        }
+        tracedThreads.add(state);
+      }
+    } else {
+      // Last, so that no failure of initThread() leaves the thread registered.
+      loadPhaser.register();
+      pendingVertexThreads.incrementAndGet();
+      state.vertexPending = true;
     }
+    return state;
+  }
 
-  private BufferedWriter vertexWriter;
-  private BufferedWriter edgeWriter;
+  @Override
+  public void loadData(DB db, Properties props, Object threadstate) {
+    ThreadState state = (ThreadState) threadstate;
+    long allocated = LoadProgress.threadAllocatedBytes();
+    try {
+      try {
+        state.vertexWriter = openWriter(VERTEX_ID_FILE, state, false);
+        state.edgeWriter = openWriter(EDGE_ID_FILE, state, true);
+      } catch (IOException e) {
+        throw new RuntimeException("Failed to open ID files for writing", e);
+      }
 
-  private void appendVertexID(String id) {
+      System.out.println("Called load data in core workload. Loading data");
+      try {
+        if (loadPipeline) {
+          ProcessPipelined(db, state);
+        } else {
+          try {
+            ProcessVertexFile(db, state);
+          } finally {
+            // Edges may reference vertices of any partition, wait until every thread loaded its vertices.
+            loadPhaser.arriveAndAwaitAdvance();
+          }
+          ProcessEdgeFile(db, state);
+        }
+      } catch (Exception e) {
+        loadFailed = true;
+        System.out.println("Error loading data.");
+        e.printStackTrace();
+      }
+    } finally {
+      closeWriters(state); // <- flush & close buffers
+      LoadProgress.getLoadProgress().allocatedSince(allocated);
+      // Leave on every path, also before the vertex barrier, which then no longer waits for us.
+      verticesSent(state);
+      loadPhaser.arriveAndDeregister();
+    }
+  }
+
+  private void appendVertexID(ThreadState state, String id) {
     try {
-      vertexWriter.write(id);
-      vertexWriter.newLine();
+      state.vertexWriter.add(id);
     } catch (IOException e) {
       System.err.println("Failed to write vertex ID: " + id);
       e.printStackTrace();
     }
   }
 
-  private void appendEdgeID(String id) {
+  private void appendEdgeID(ThreadState state, String id) {
     try {
-      edgeWriter.write(id);
-      edgeWriter.newLine();
+      state.edgeWriter.add(id);
     } catch (IOException e) {
       System.err.println("Failed to write edge ID: " + id);
       e.printStackTrace();
     }
   }
 
-  public void closeWriters() {
+  public void closeWriters(ThreadState state) {
     try {
-      if (vertexWriter != null) {
-        vertexWriter.flush();
-        vertexWriter.close();
-        vertexWriter = null;
+      if (state.vertexWriter != null) {
+        state.vertexWriter.close();
+        state.vertexWriter = null;
       }
-      if (edgeWriter != null) {
-        edgeWriter.flush();
-        edgeWriter.close();
-        edgeWriter = null;
+      if (state.edgeWriter != null) {
+        state.edgeWriter.close();
+        state.edgeWriter = null;
       }
     } catch (IOException e) {
       e.printStackTrace();
     }
   }
-  private static LinkedList<String> loadIDs(String filename) {
-    LinkedList<String> ids = new LinkedList<>();
-    java.io.File file = new java.io.File(filename);
-    if(file.exists()) {
-      try(java.io.BufferedReader br = new java.io.BufferedReader(new java.io.FileReader(file))) {
-        String line;
-        while((line = br.readLine()) != null) {
-          ids.add(line.trim());
-        }
-      } catch(Exception e) {
-        System.err.println("Failed to load IDs from " + filename);
-        e.printStackTrace();
+
+  /**
+   * Open the ID registry of a thread, continuing it at the checkpoint when resuming.
+   */
+  private IdRegistry.Writer openWriter(String filename, ThreadState state, boolean edge) throws IOException {
+    LoadCheckpoint.Cursor cursor = checkpoint == null ? null : checkpoint.get(state.threadId, edge);
+    if (cursor == null || cursor.getIds() == 0) {
+      return new IdRegistry.Writer(partFile(filename, state.threadId));
+    }
+    return new IdRegistry.Writer(partFile(filename, state.threadId), cursor.getIds(), cursor.getIdBytes());
+  }
+
+  /**
+   * The parameters that determine the slice of every thread, which a resumed load must share
+   * with the load it resumes.
+   */
+  private Properties loadParameters() {
+    Properties parameters = new Properties();
+    parameters.setProperty("vertexfile", vertexIndex.getFilename());
+    parameters.setProperty("edgefile", edgeIndex.getFilename());
+    parameters.setProperty("insertstart", String.valueOf(insertStart));
+    parameters.setProperty("vertexcount", String.valueOf(vertexInsertCount));
+    parameters.setProperty("edgecount", String.valueOf(edgeInsertCount));
+    return parameters;
+  }
+
+  private static String partFile(String filename, int threadId) {
+    return filename + "." + threadId;
+  }
+
+  /**
+   * Concatenate the per thread ID registries, in thread order, into the final registry.
+   */
+  private static void mergeParts(String filename, int parts) throws IOException {
+    List<String> files = new ArrayList<>(parts);
+    for (int i = 0; i < parts; i++) {
+      files.add(partFile(filename, i));
+    }
+    IdRegistry.merge(files, filename);
+    for (String part : files) {
+      File f = new File(part);
+      if (f.exists() && !f.delete()) {
+        System.err.println("Failed to delete " + part);
       }
     }
-    return ids;
   }
 
-  private JsonObjectStreamer vertexStreamer;
-  private JsonObjectStreamer edgeStreamer;
+  @Override
+  public void cleanup() throws WorkloadException {
+    try {
+      loadedVertices.close();
+      loadedEdges.close();
+      if (vertexAdds != null) {
+        vertexAdds.close();
+        edgeAdds.close();
+      }
+      closeTraces();
+      if (dotransactions || loadThreadCount == 0) {
+        return;
+      }
+      if (loadFailed && checkpoint != null) {
+        System.err.println("The load did not complete, keeping " + checkpointFile
+            + " and the per thread ID registries; rerun it with " + LOAD_RESUME_PROPERTY + "=true");
+        return;
+      }
+      mergeParts(VERTEX_ID_FILE, loadThreadCount);
+      mergeParts(EDGE_ID_FILE, loadThreadCount);
+      try (FileOutputStream out = new FileOutputStream(LOAD_PARAMETERS_FILE)) {
+        loadParameters().store(out, "YCSB load parameters");
+      }
+      if (checkpoint != null) {
+        checkpoint.delete();
+      }
+    } catch (IOException e) {
+      throw new WorkloadException("Failed to merge the loaded ID files", e);
+    }
+  }
+
+  private void closeTraces() throws WorkloadException {
+    IOException failure = null;
+    for (ThreadState state : tracedThreads) {
+      if (failure == null && state.traceRecorder != null) {
+        failure = state.traceRecorder.getFailure();
+      }
+      try {
+        state.traceWriter.close();
+      } catch (IOException e) {
+        failure = failure == null ? e : failure;
+      }
+    }
+    if (failure != null) {
+      throw new WorkloadException("Failed to record the operation trace", failure);
+    }
+  }
+
+  private static IdRegistry loadIDs(String filename) throws WorkloadException {
+    try {
+      return IdRegistry.open(filename);
+    } catch (IOException e) {
+      throw new WorkloadException("Failed to open the ID registry " + filename, e);
+    }
+  }
+
+  /**
+   * Index the load files and work out which records this client instance loads.
+   */
+  private void initLoad(Properties p, boolean binaryCache) throws WorkloadException {
+    if (syntheticGraph != null) {
+      vertexIndex = syntheticGraph.vertices();
+      edgeIndex = syntheticGraph.edges();
+    } else {
+      String vertexFile = p.getProperty(LOAD_VERTEX_FILE_PROPERTY);
+      if (vertexFile == null) {
+        throw new WorkloadException("Vertex file not supplied in parameters");
+      }
+      String edgeFile = p.getProperty(LOAD_EDGE_FILE_PROPERTY);
+      if (edgeFile == null) {
+        throw new WorkloadException("Edge file not supplied in parameters");
+      }
+      try {
+        vertexIndex = RecordFiles.open(vertexFile, binaryCache);
+        edgeIndex = RecordFiles.open(edgeFile, binaryCache);
+      } catch (IOException e) {
+        throw new WorkloadException("Failed to index the load files", e);
+      }
+    }
+    insertStart = Long.parseLong(p.getProperty(CREATE_START_PROPERTY, CREATE_START_PROPERTY_DEFAULT));
+    vertexInsertCount = insertCount(p, vertexIndex.size());
+    edgeInsertCount = insertCount(p, edgeIndex.size());
+    loadBatchSize = Integer.parseInt(p.getProperty(LOAD_BATCH_SIZE_PROPERTY, LOAD_BATCH_SIZE_PROPERTY_DEFAULT));
+    if (loadBatchSize < 1) {
+      throw new WorkloadException(LOAD_BATCH_SIZE_PROPERTY + " must be at least 1");
+    }
+    loadPipeline = Boolean.parseBoolean(p.getProperty(LOAD_PIPELINE_PROPERTY, LOAD_PIPELINE_PROPERTY_DEFAULT));
+    checkpointInterval = Long.parseLong(p.getProperty(LOAD_CHECKPOINT_INTERVAL_PROPERTY,
+        LOAD_CHECKPOINT_INTERVAL_PROPERTY_DEFAULT));
+    checkpointFile = p.getProperty(LOAD_CHECKPOINT_FILE_PROPERTY, LOAD_CHECKPOINT_FILE_PROPERTY_DEFAULT);
+    resume = Boolean.parseBoolean(p.getProperty(LOAD_RESUME_PROPERTY, LOAD_RESUME_PROPERTY_DEFAULT));
+    if (resume && loadPipeline) {
+      throw new WorkloadException(LOAD_RESUME_PROPERTY + " is not supported with " + LOAD_PIPELINE_PROPERTY);
+    }
+    if (loadPipeline) {
+      acknowledgedVertices = new ConcurrentFingerprintSet(vertexInsertCount);
+    }
+    initValues(p, vertexInsertCount, edgeInsertCount);
+    LoadProgress.getLoadProgress().start(vertexInsertCount, edgeInsertCount);
+    System.out.printf("Indexed %d vertices and %d edges, loading records from %d%n",
+        vertexIndex.size(), edgeIndex.size(), insertStart);
+  }
+
+  /**
+   * Set up the models of the searchKey values, so that a lookup matches the configured number
+   * of the given vertices or edges.
+   */
+  private void initValues(Properties p, long vertices, long edges) throws WorkloadException {
+    try {
+      vertexValues = new PropertyValueGenerator(p, vertices, VERTEX_VALUES_STREAM);
+      edgeValues = new PropertyValueGenerator(p, edges, EDGE_VALUES_STREAM);
+    } catch (IllegalArgumentException e) {
+      throw new WorkloadException("Invalid searchKey values: " + e.getMessage(), e);
+    }
+    System.out.printf("searchKey: %d vertex values matching %.1f vertices per lookup, %d edge values matching "
+            + "%.1f edges per lookup%n", vertexValues.cardinality(), vertexValues.expectedMatches(),
+        edgeValues.cardinality(), edgeValues.expectedMatches());
+  }
+
+  /**
+   * Set up the searchKey models of the transaction phase for the element counts the load sized
+   * them for, so that lookups query the values the load assigned. A registry written before the
+   * load parameters were kept falls back to the number of loaded IDs.
+   */
+  private void initRunValues(Properties p) throws WorkloadException {
+    long vertices = loadedVertices.size();
+    long edges = loadedEdges.size();
+    if (new File(LOAD_PARAMETERS_FILE).exists()) {
+      Properties saved = new Properties();
+      try (InputStream in = new FileInputStream(LOAD_PARAMETERS_FILE)) {
+        saved.load(in);
+      } catch (IOException e) {
+        throw new WorkloadException("Cannot read the load parameters " + LOAD_PARAMETERS_FILE, e);
+      }
+      vertices = Long.parseLong(saved.getProperty("vertexcount", String.valueOf(vertices)));
+      edges = Long.parseLong(saved.getProperty("edgecount", String.valueOf(edges)));
+    }
+    initValues(p, vertices, edges);
+  }
+
+  /**
+   * The number of records of a load file this client instance inserts, honouring insertcount
+   * and clipped to the records available after insertstart.
+   */
+  private long insertCount(Properties p, long available) {
+    long remaining = Math.max(0, available - insertStart);
+    String count = p.getProperty(CREATE_COUNT_PROPERTY);
+    return count == null ? remaining : Math.min(Long.parseLong(count), remaining);
+  }
 
 
   @Override
   public void init(Properties p) throws WorkloadException {
 
-    operationchooser = createOperationGenerator(p);
+    dotransactions = Boolean.valueOf(p.getProperty(Client.DO_TRANSACTIONS_PROPERTY, String.valueOf(true)));
+    if (dotransactions) {
+      try {
+        operationchooser = createOperationGenerator(p);
+      } catch (IllegalArgumentException e) {
+        throw new WorkloadException("Invalid operation proportions: " + e.getMessage(), e);
+      }
+    }
+    boolean binaryCache = Boolean.parseBoolean(p.getProperty(BINARY_CACHE_PROPERTY, BINARY_CACHE_PROPERTY_DEFAULT));
+    String loadSource = p.getProperty(LOAD_SOURCE_PROPERTY, LOAD_SOURCE_PROPERTY_DEFAULT);
+    if (loadSource.equals("synthetic")) {
+      try {
+        syntheticGraph = new SyntheticGraph(p);
+      } catch (IllegalArgumentException e) {
+        throw new WorkloadException("Invalid synthetic graph: " + e.getMessage(), e);
+      }
+    } else if (!loadSource.equals(LOAD_SOURCE_PROPERTY_DEFAULT)) {
+      throw new WorkloadException("Unknown " + LOAD_SOURCE_PROPERTY + " \"" + loadSource + "\"");
+    }
+    if (!dotransactions) {
+      initLoad(p, binaryCache);
+    }
     // Load previously inserted IDs (if files exist)
-    loadedVertices = loadIDs("./Vertices.loaded");
-    loadedEdges = loadIDs("./Edges.loaded");
+    loadedVertices = loadIDs(VERTEX_ID_FILE);
+    loadedEdges = loadIDs(EDGE_ID_FILE);
     System.out.printf("Loaded %d vertices and %d edges%n", loadedVertices.size(), loadedEdges.size());
+    if (!dotransactions) {
+      return;
+    }
+    initRunValues(p);
+    vertexChooser = IdChooser.create(loadedVertices, p);
+    edgeChooser = IdChooser.create(loadedEdges, p);
+    partitionIds = Boolean.parseBoolean(p.getProperty(PARTITION_IDS_PROPERTY, PARTITION_IDS_PROPERTY_DEFAULT));
+    prefetch = Integer.parseInt(p.getProperty(PREFETCH_BUFFER_PROPERTY, PREFETCH_BUFFER_PROPERTY_DEFAULT));
+    tracePrefix = p.getProperty(TRACE_RECORD_PROPERTY);
 
     try{
-      if(p.getProperty("vertexAddFile") == null){
+      if(p.getProperty("vertexAddFile") == null && syntheticGraph == null){
         throw new WorkloadException("vertexAddFile must be provided for the update workload");
       }
-      if(p.getProperty("edgeAddFile") == null){
+      if(p.getProperty("edgeAddFile") == null && syntheticGraph == null){
         throw new WorkloadException("edgeAddFile must be provided for the update workload");
       }
-      vertexStreamer = new JsonObjectStreamer(p.getProperty("vertexAddFile"));
-      edgeStreamer = new JsonObjectStreamer(p.getProperty("edgeAddFile"));
-
+      // Indexed rather than streamed, so that initThread can split them between the threads.
+      vertexAddFile = p.getProperty("vertexAddFile") == null ? syntheticGraph.moreVertices()
+          : RecordFiles.open(p.getProperty("vertexAddFile"), binaryCache);
+      edgeAddFile = p.getProperty("edgeAddFile") == null ? syntheticGraph.moreEdges()
+          : RecordFiles.open(p.getProperty("edgeAddFile"), binaryCache);
     } catch (IOException e){
-      throw new WorkloadException("Failed to open update workload");
+      throw new WorkloadException("Failed to open update workload", e);
+    }
+    if (Boolean.parseBoolean(p.getProperty(ADJACENCY_INDEX_PROPERTY, ADJACENCY_INDEX_PROPERTY_DEFAULT))) {
+      adjacency = buildAdjacencyIndex(p, binaryCache);
+      triadProbability = Double.parseDouble(p.getProperty(TRIAD_PROBABILITY_PROPERTY,
+          TRIAD_PROBABILITY_PROPERTY_DEFAULT));
     }
 
   }
 
+  /**
+   * Index the topology of the loaded graph, reading the edges of the load range again.
+   */
+  private AdjacencyIndex buildAdjacencyIndex(Properties p, boolean binaryCache) throws WorkloadException {
+    long start = System.nanoTime();
+    long operations = Long.parseLong(p.getProperty(Client.OPERATION_COUNT_PROPERTY, "0"));
+    long additions = operations > 0 ? operations : ADJACENCY_DEFAULT_ADDITIONS;
+    insertStart = Long.parseLong(p.getProperty(CREATE_START_PROPERTY, CREATE_START_PROPERTY_DEFAULT));
+    try {
+      RecordFile loadedEdgeFile;
+      if (syntheticGraph != null) {
+        loadedEdgeFile = syntheticGraph.edges();
+      } else if (p.getProperty(LOAD_EDGE_FILE_PROPERTY) != null) {
+        loadedEdgeFile = RecordFiles.open(p.getProperty(LOAD_EDGE_FILE_PROPERTY), binaryCache);
+      } else {
+        throw new WorkloadException(LOAD_EDGE_FILE_PROPERTY + " must be provided for the " + ADJACENCY_INDEX_PROPERTY);
+      }
+      AdjacencyIndex index;
+      try (RecordReader reader = loadedEdgeFile.open(Math.min(insertStart, loadedEdgeFile.size()))) {
+        index = AdjacencyIndex.build(loadedVertices, reader, insertCount(p, loadedEdgeFile.size()),
+            (int) Math.min(additions, vertexAddFile.size()), (int) Math.min(additions, edgeAddFile.size()));
+      }
+      System.out.printf("Indexed the adjacency of %d edges in %d ms%n", index.loadedEdges(),
+          (System.nanoTime() - start) / 1000000);
+      return index;
+    } catch (IOException | IllegalArgumentException e) {
+      throw new WorkloadException("Failed to build the adjacency index", e);
+    }
+  }
+
   /**
    * Do one transaction operation. Because it will be called concurrently from multiple client
    * threads, this function must be thread safe. However, avoid synchronized, or the threads will block waiting
@@ -371,59 +1322,64 @@ public class CoreWorkload extends Workload {
    */
   @Override
   public boolean doTransaction(DB db, Object threadstate) {
-    String operation = operationchooser.nextString();
-    if(operation == null) {
-      return false;
+    ThreadState state = (ThreadState) threadstate;
+    if (state.traceWriter != null) {
+      if (state.traceRecorder == null) {
+        traceStart.compareAndSet(0, System.nanoTime());
+        state.traceRecorder = new TraceRecordingDB(db, state.traceWriter, traceStart.get());
+      }
+      db = state.traceRecorder;
     }
-
-    switch (operation) {
-      case "ADD_VERTEX":
-        doTransactionAddVertex(db);
+    switch (operationchooser.next(state.random)) {
+      case ADD_VERTEX:
+        doTransactionAddVertex(db, state);
         break;
-      case "ADD_EDGE":
-        doTransactionAddEdge(db);
+      case ADD_EDGE:
+        doTransactionAddEdge(db, state);
         break;
-      case "GET_VERTEX_COUNT":
+      case GET_VERTEX_COUNT:
         doTransactionGetVertexCount(db);
         break;
-      case "GET_EDGE_COUNT":
+      case GET_EDGE_COUNT:
         doTransactionGetEdgeCount(db);
         break;
-      case "GET_EDGE_LABELS":
+      case GET_EDGE_LABELS:
         doTransactionGetEdgeLabels(db);
         break;
-      case "GET_VERTEX_WITH_PROPERTY":
-        doTransactionGetVertexWithProperty(db);
+      case GET_VERTEX_WITH_PROPERTY:
+        doTransactionGetVertexWithProperty(db, state);
         break;
-      case "GET_EDGE_WITH_PROPERTY":
-        doTransactionGetEdgeWithProperty(db);
+      case GET_EDGE_WITH_PROPERTY:
+        doTransactionGetEdgeWithProperty(db, state);
         break;
-      case "GET_EDGES_WITH_LABEL":
-        doTransactionGetEdgesWithLabel(db);
+      case GET_EDGES_WITH_LABEL:
+        doTransactionGetEdgesWithLabel(db, state);
         break;
-      case "SET_VERTEX_PROPERTY":
-        doTransactionSetVertexProperty(db);
+      case SET_VERTEX_PROPERTY:
+        doTransactionSetVertexProperty(db, state);
         break;
-      case "SET_EDGE_PROPERTY":
-        doTransactionSetEdgeProperty(db);
+      case SET_EDGE_PROPERTY:
+        doTransactionSetEdgeProperty(db, state);
         break;
-      case "REMOVE_VERTEX":
+      case REMOVE_VERTEX:
         doTransactionRemoveVertex(db);
         break;
-      case "REMOVE_EDGE":
+      case REMOVE_EDGE:
         doTransactionRemoveEdge(db);
         break;
-        case "REMOVE_VERTEX_PROPERTY":
-        doTransactionRemoveVertexProperty(db);
+      case REMOVE_VERTEX_PROPERTY:
+        doTransactionRemoveVertexProperty(db, state);
+        break;
+      case REMOVE_EDGE_PROPERTY:
+        doTransactionRemoveEdgeProperty(db, state);
         break;
-      case "REMOVE_EDGE_PROPERTY":
-        doTransactionRemoveEdgeProperty(db);
+      case PROBE_VISIBILITY:
+        doTransactionProbeVisibility(db, state);
         break;
       default:
-        doTransactionGetVertexCount(db);
+        throw new IllegalStateException("Unexpected operation");
     }
 
-
     return true;
   }
 
@@ -431,31 +1387,48 @@ public class CoreWorkload extends Workload {
 
 
 
-  public void doTransactionAddVertex(DB db) {
+  public void doTransactionAddVertex(DB db, ThreadState state) {
     try {
-      Map<String, String> obj = vertexStreamer.nextObject();
+      Map<String, String> obj = state.vertexAdds.nextObject();
       if (obj == null) return; // no more vertices
+
       String id = obj.remove("_id");
       String type = "YCSBVertex";
-      insertedVertices.add(id);
-      db.addVertex(type,id, obj);
-      
+      if (db.addVertex(type, id, obj).isOk()) {
+        insertedVertices.add(id);
+        if (adjacency != null) {
+          adjacency.addVertex(id);
+        }
+      }
+
     } catch (IOException e){
       System.out.println("Error fetching next vertex from the update workload");
     }
   }
 
-  public void doTransactionAddEdge(DB db) {
+  public void doTransactionAddEdge(DB db, ThreadState state) {
     try {
-      Map<String, String> obj = edgeStreamer.nextObject();
+      Map<String, String> obj = state.edgeAdds.nextObject();
       if (obj == null) return; // no more edges
 
       String id = obj.remove("_id");
       String type = "YCSBEdge";
       String from = obj.remove("_outV");
       String to = obj.remove("_inV");
-      insertedEdges.add(id);
-      db.addEdge(type, id, from, to, obj);
+      if (adjacency != null) {
+        String source = adjacency.randomVertex(state.random);
+        String target = source == null ? null : chooseTarget(source, state.random);
+        if (target != null) {
+          from = source;
+          to = target;
+        }
+      }
+      if (db.addEdge(type, id, from, to, obj).isOk()) {
+        insertedEdges.add(id);
+        if (adjacency != null) {
+          adjacency.addEdge(id, from, to);
+        }
+      }
     }catch(IOException e){
       System.out.println("Error fetching next edge from the update workload");
     }
@@ -470,52 +1443,122 @@ public class CoreWorkload extends Workload {
   public void doTransactionGetEdgeLabels(DB db) {
     db.getEdgeLabels();
   }
-  public void doTransactionGetVertexWithProperty(DB db) {
-    db.getVertexWithProperty("searchKey", propertyPool.next());
+  public void doTransactionGetVertexWithProperty(DB db, ThreadState state) {
+    db.getVertexWithProperty("searchKey", vertexValues.next(state.random));
   }
-  public void doTransactionGetEdgeWithProperty(DB db) {
-    db.getEdgeWithProperty("searchKey", propertyPool.next());
+  public void doTransactionGetEdgeWithProperty(DB db, ThreadState state) {
+    db.getEdgeWithProperty("searchKey", edgeValues.next(state.random));
   }
-  public void doTransactionGetEdgesWithLabel(DB db) {
-    db.getEdgesWithLabel(propertyPool.next());
+  public void doTransactionGetEdgesWithLabel(DB db, ThreadState state) {
+    db.getEdgesWithLabel(edgeValues.next(state.random));
   }
 
-  public void doTransactionSetVertexProperty(DB db) {
-    String id = loadedVertices.getFirst();
+  public void doTransactionSetVertexProperty(DB db, ThreadState state) {
+    String id = state.vertexChooser.next();
+    if (id == null) {
+      return;
+    }
 
-    db.setVertexProperty(id, "searchKey", propertyPool.next());
+    db.setVertexProperty(id, "searchKey", vertexValues.next(state.random));
 
   }
-  public void doTransactionSetEdgeProperty(DB db) {
-    String id = loadedEdges.getFirst();
-    db.setEdgeProperty(id,"searchKey", propertyPool.next());
+  /**
+   * Write a value no other operation writes to a vertex, then wait until the database serves
+   * it back, see {@link DB#awaitVertexProperty(String, String, String)}.
+   */
+  public void doTransactionProbeVisibility(DB db, ThreadState state) {
+    String id = state.vertexChooser.next();
+    if (id == null) {
+      return;
+    }
+    String value = "probe-" + state.threadId + "-" + state.probes++;
+    if (db.setVertexProperty(id, VISIBILITY_PROBE_KEY, value).isOk()) {
+      db.awaitVertexProperty(id, VISIBILITY_PROBE_KEY, value);
+    }
+  }
+
+  public void doTransactionSetEdgeProperty(DB db, ThreadState state) {
+    String id = state.edgeChooser.next();
+    if (id == null) {
+      return;
+    }
+    db.setEdgeProperty(id,"searchKey", edgeValues.next(state.random));
 
   }
+  /**
+   * Choose the target of an edge added from a vertex: with {@link #triadProbability} a
+   * neighbour of a neighbour, closing a triangle, otherwise a vertex weighted by in-degree.
+   */
+  private String chooseTarget(String source, SplittableRandom random) {
+    if (random.nextDouble() < triadProbability) {
+      String via = adjacency.randomNeighbour(source, random);
+      String target = via == null ? null : adjacency.randomNeighbour(via, random);
+      if (target != null && !target.equals(source)) {
+        return target;
+      }
+    }
+    return adjacency.weightedVertex(random);
+  }
+
+  /**
+   * Remove a random vertex inserted by this run. The vertex is taken out of
+   * {@link #insertedVertices} first, so no other thread removes it too, and put back if the
+   * database failed to remove it. With an adjacency index, vertices that still have edges are
+   * put back and another one is tried, and the removed vertex is no longer chosen as an edge
+   * endpoint.
+   */
   public void doTransactionRemoveVertex(DB db) {
-    if(insertedVertices.isEmpty()){
+    String id = null;
+    for (int i = 0; i < REMOVE_VERTEX_CANDIDATES; i++) {
+      id = insertedVertices.remove();
+      if (id == null || adjacency == null || !adjacency.hasEdges(id)) {
+        break;
+      }
+      insertedVertices.add(id);
+      id = null;
+    }
+    if (id == null) {
       return;
     }
-    String id = insertedVertices.getFirst();
-    db.removeVertex(id);
-    insertedVertices.remove(id);
+    if (adjacency != null) {
+      adjacency.removeVertex(id);
+    }
+    if (!db.removeVertex(id).isOk()) {
+      insertedVertices.add(id);
+      if (adjacency != null) {
+        adjacency.restoreVertex(id);
+      }
+    }
   }
+
+  /**
+   * Remove a random edge inserted by this run, as {@link #doTransactionRemoveVertex} does.
+   */
   public void doTransactionRemoveEdge(DB db) {
-    if(insertedEdges.isEmpty()){
+    String id = insertedEdges.remove();
+    if (id == null) {
       return;
     }
-
-    String id = insertedEdges.getFirst();
-    db.removeEdge(id);
-    insertedEdges.remove(id);
+    if (!db.removeEdge(id).isOk()) {
+      insertedEdges.add(id);
+    } else if (adjacency != null) {
+      adjacency.removeEdge(id);
+    }
   }
 
-  public void doTransactionRemoveVertexProperty(DB db) {
-    String id = loadedVertices.getFirst();
+  public void doTransactionRemoveVertexProperty(DB db, ThreadState state) {
+    String id = state.vertexChooser.next();
+    if (id == null) {
+      return;
+    }
     db.removeVertexProperty(id,"searchKey");
 
   }
-  public void doTransactionRemoveEdgeProperty(DB db) {
-    String id = loadedEdges.getFirst();
+  public void doTransactionRemoveEdgeProperty(DB db, ThreadState state) {
+    String id = state.edgeChooser.next();
+    if (id == null) {
+      return;
+    }
     db.removeEdgeProperty(id, "searchKey");
 
   }
@@ -679,55 +1722,19 @@ public class CoreWorkload extends Workload {
 //  }
 
   /**
-   * Creates a weighted discrete values with database operations for a workload to perform.
-   * Weights/proportions are read from the properties list and defaults are used
-   * when values are not configured.
-   * Current operations are "READ", "UPDATE", "INSERT", "SCAN" and "READMODIFYWRITE".
+   * Creates the chooser of the operations of the transaction phase. Every operation weighs
+   * the proportion of its group (create, read, update or delete) unless its own
+   * {@code op.<NAME>.proportion} is set.
    *
    * @param p The properties list to pull weights from.
-   * @return A generator that can be used to determine the next operation to perform.
-   * @throws IllegalArgumentException if the properties object was null.
+   * @return A chooser that can be used to determine the next operation to perform.
+   * @throws IllegalArgumentException if the properties object was null, or no operation has a
+   *     positive weight.
    */
-  protected static DiscreteGenerator createOperationGenerator(final Properties p) {
+  protected static OperationChooser createOperationGenerator(final Properties p) {
     if (p == null) {
       throw new IllegalArgumentException("Properties object cannot be null");
     }
-    final double createproportion = Double.parseDouble(
-        p.getProperty(CREATE_PROPORTION_PROPERTY, CREATE_PROPORTION_PROPERTY_DEFAULT));
-    final double readproportion = Double.parseDouble(
-        p.getProperty(READ_PROPORTION_PROPERTY, READ_PROPORTION_PROPERTY_DEFAULT));
-    final double updateproportion = Double.parseDouble(
-        p.getProperty(UPDATE_PROPORTION_PROPERTY, UPDATE_PROPORTION_PROPERTY_DEFAULT));
-    final double deleteproportion = Double.parseDouble(
-        p.getProperty(DELETE_PROPORTION_PROPERTY, DELETE_PROPORTION_PROPERTY_DEFAULT));
-
-
-    final DiscreteGenerator operationchooser = new DiscreteGenerator();
-    if (readproportion > 0) {
-      operationchooser.addValue(readproportion, "GET_VERTEX_COUNT");
-      operationchooser.addValue(readproportion, "GET_EDGE_COUNT");
-      operationchooser.addValue(readproportion, "GET_EDGE_LABELS");
-      operationchooser.addValue(readproportion, "GET_VERTEX_WITH_PROPERTY");
-      operationchooser.addValue(readproportion, "GET_EDGE_WITH_PROPERTY");
-      operationchooser.addValue(readproportion, "GET_EDGES_WITH_LABEL");
-    }
-
-    if (updateproportion > 0) {
-      operationchooser.addValue(updateproportion, "SET_VERTEX_PROPERTY");
-      operationchooser.addValue(updateproportion, "SET_EDGE_PROPERTY");
-    }
-
-    if (createproportion > 0) {
-      operationchooser.addValue(createproportion, "ADD_VERTEX");
-      operationchooser.addValue(createproportion, "ADD_EDGE");
-    }
-
-    if (deleteproportion > 0) {
-      operationchooser.addValue(deleteproportion, "REMOVE_VERTEX");
-      operationchooser.addValue(deleteproportion, "REMOVE_EDGE");
-      operationchooser.addValue(deleteproportion, "REMOVE_VERTEX_PROPERTY");
-      operationchooser.addValue(deleteproportion, "REMOVE_EDGE_PROPERTY");
-    }
-    return operationchooser;
+    return new OperationChooser(p);
   }
 }
@@ -0,0 +1,160 @@
+/**
+ * Copyright (c) 2025 YCSB contributors. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+
+package site.ycsb.workloads;
+
+import site.ycsb.IdRegistry;
+import site.ycsb.WorkloadException;
+import site.ycsb.generator.ExponentialGenerator;
+import site.ycsb.generator.HotspotIntegerGenerator;
+import site.ycsb.generator.NumberGenerator;
+import site.ycsb.generator.ScrambledZipfianGenerator;
+import site.ycsb.generator.SequentialGenerator;
+import site.ycsb.generator.UniformLongGenerator;
+import site.ycsb.generator.ZipfianGenerator;
+
+import java.util.Properties;
+import java.util.function.Supplier;
+
+/**
+ * Picks the IDs of loaded vertices or edges by drawing their index in an {@link IdRegistry}
+ * from the {@link NumberGenerator} selected by <b>requestdistribution</b>. The registry keeps
+ * the IDs in load order, so "latest" and "exponential" favour the elements loaded last and
+ * "zipfian" the ones loaded first, while "scrambledzipfian" spreads the popular elements
+ * over the whole ID space.
+ * <p>
+ * The generators keep state that every draw writes, so a chooser is meant to be used by a
+ * single client thread; {@link #forThread()} hands every thread a chooser of its own over the
+ * same IDs without recomputing the distribution constants.
+ */
+final class IdChooser {
+  private final IdRegistry ids;
+  private final long first;
+  private final long items;
+  private final Supplier<NumberGenerator> generators;
+  private final NumberGenerator generator;
+  /** Whether the generator counts back from the last ID rather than from the first one. */
+  private final boolean fromEnd;
+
+  private IdChooser(IdRegistry ids, long first, long items, Supplier<NumberGenerator> generators,
+                    boolean fromEnd) {
+    this.ids = ids;
+    this.first = first;
+    this.items = items;
+    this.generators = generators;
+    this.generator = generators.get();
+    this.fromEnd = fromEnd;
+  }
+
+  /**
+   * Create a chooser over the IDs of a registry.
+   *
+   * @param ids The registry to choose from.
+   * @param p The workload properties.
+   * @throws WorkloadException if the request distribution is unknown.
+   */
+  static IdChooser create(IdRegistry ids, Properties p) throws WorkloadException {
+    return create(ids, 0, ids.size(), p);
+  }
+
+  /**
+   * Create a chooser over a contiguous range of the IDs of a registry, such as the slice of
+   * the ID space owned by one client thread.
+   *
+   * @param ids The registry to choose from.
+   * @param first The index of the first ID of the range.
+   * @param items The number of IDs in the range.
+   * @param p The workload properties.
+   * @throws WorkloadException if the request distribution is unknown.
+   */
+  static IdChooser create(IdRegistry ids, long first, long items, Properties p) throws WorkloadException {
+    String distribution = p.getProperty(CoreWorkload.REQUEST_DISTRIBUTION_PROPERTY,
+        CoreWorkload.REQUEST_DISTRIBUTION_PROPERTY_DEFAULT);
+    long last = Math.max(0, items - 1);
+    double zipfianConstant = Double.parseDouble(p.getProperty(CoreWorkload.ZIPFIAN_CONSTANT_PROPERTY,
+        String.valueOf(ZipfianGenerator.ZIPFIAN_CONSTANT)));
+    boolean fromEnd = false;
+    Supplier<NumberGenerator> generators;
+    switch (distribution) {
+      case "uniform":
+        generators = () -> new UniformLongGenerator(0, last);
+        break;
+      case "sequential":
+        generators = () -> new SequentialGenerator(0, last);
+        break;
+      case "latest":
+      case "zipfian":
+        // "latest" is a zipfian distribution counted from the last ID.
+        fromEnd = distribution.equals("latest");
+        if (items < 2) {
+          generators = () -> new UniformLongGenerator(0, last);
+        } else {
+          double zetan = ZipfianGenerator.zetastatic(items, zipfianConstant);
+          generators = () -> new ZipfianGenerator(0, last, zipfianConstant, zetan);
+        }
+        break;
+      case "scrambledzipfian":
+        if (items < 2) {
+          generators = () -> new UniformLongGenerator(0, last);
+        } else {
+          double zeta = ScrambledZipfianGenerator.zeta(zipfianConstant);
+          generators = () -> new ScrambledZipfianGenerator(0, last, zipfianConstant, zeta);
+        }
+        break;
+      case "hotspot":
+        double hotsetFraction = Double.parseDouble(p.getProperty(CoreWorkload.HOTSPOT_DATA_FRACTION,
+            CoreWorkload.HOTSPOT_DATA_FRACTION_DEFAULT));
+        double hotOpnFraction = Double.parseDouble(p.getProperty(CoreWorkload.HOTSPOT_OPN_FRACTION,
+            CoreWorkload.HOTSPOT_OPN_FRACTION_DEFAULT));
+        generators = () -> new HotspotIntegerGenerator(0, last, hotsetFraction, hotOpnFraction);
+        break;
+      case "exponential":
+        double percentile = Double.parseDouble(p.getProperty(CoreWorkload.EXPONENTIAL_PERCENTILE_PROPERTY,
+            CoreWorkload.EXPONENTIAL_PERCENTILE_DEFAULT));
+        double fraction = Double.parseDouble(p.getProperty(CoreWorkload.EXPONENTIAL_FRAC_PROPERTY,
+            CoreWorkload.EXPONENTIAL_FRAC_DEFAULT));
+        generators = () -> new ExponentialGenerator(percentile, items * fraction);
+        fromEnd = true;
+        break;
+      default:
+        throw new WorkloadException("Unknown request distribution \"" + distribution + "\"");
+    }
+    return new IdChooser(ids, first, items, generators, fromEnd);
+  }
+
+  /**
+   * @return A chooser over the same IDs and distribution, with a generator of its own.
+   */
+  IdChooser forThread() {
+    return new IdChooser(ids, first, items, generators, fromEnd);
+  }
+
+  /**
+   * @return The ID of the next element to operate on, or null if the range is empty.
+   */
+  String next() {
+    if (items == 0) {
+      return null;
+    }
+    long index;
+    do {
+      long value = generator.nextValue().longValue();
+      index = fromEnd ? items - 1 - value : value;
+    } while (index < 0 || index >= items);
+    return ids.get(first + index);
+  }
+}
@@ -0,0 +1,208 @@
+/**
+ * Copyright (c) 2025 YCSB contributors. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+
+package site.ycsb.workloads;
+
+import site.ycsb.WorkloadException;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * The resume points of a partitioned load, one per load thread and record type, persisted as
+ * a properties file. A resume point is only recorded at a batch boundary, once every record
+ * before it was sent to the database and its ID synced to the thread's ID registry, so a
+ * resumed load repeats at most the records of one checkpoint interval.
+ * <p>
+ * The file also records the parameters that determine the slices of the threads; a load can
+ * only be resumed with the same files, insert range and thread count.
+ */
+final class LoadCheckpoint {
+  /**
+   * How far a thread got through its slice of one file.
+   */
+  static final class Cursor {
+    /** Records of the slice read and sent to the database. */
+    private long records;
+    /** Byte offset in the load file just past the last of these records. */
+    private long position;
+    /** Records the database acknowledged. */
+    private long acknowledged;
+    /** IDs in the thread's ID registry. */
+    private long ids;
+    /** Bytes of these IDs in the registry. */
+    private long idBytes;
+
+    long getRecords() {
+      return records;
+    }
+
+    long getPosition() {
+      return position;
+    }
+
+    long getAcknowledged() {
+      return acknowledged;
+    }
+
+    long getIds() {
+      return ids;
+    }
+
+    long getIdBytes() {
+      return idBytes;
+    }
+
+    private void set(long newRecords, long newPosition, long newAcknowledged, long newIds, long newIdBytes) {
+      this.records = newRecords;
+      this.position = newPosition;
+      this.acknowledged = newAcknowledged;
+      this.ids = newIds;
+      this.idBytes = newIdBytes;
+    }
+  }
+
+  private final File file;
+  private final Properties parameters;
+  private final Cursor[] vertices;
+  private final Cursor[] edges;
+
+  private LoadCheckpoint(File file, Properties parameters, int threads) {
+    this.file = file;
+    this.parameters = parameters;
+    this.vertices = new Cursor[threads];
+    this.edges = new Cursor[threads];
+    for (int i = 0; i < threads; i++) {
+      vertices[i] = new Cursor();
+      edges[i] = new Cursor();
+    }
+  }
+
+  /**
+   * Start a new checkpoint, with every thread at the beginning of its slices.
+   *
+   * @param filename The checkpoint file.
+   * @param parameters The load parameters the slices depend on.
+   * @param threads The number of load threads.
+   */
+  static LoadCheckpoint create(String filename, Properties parameters, int threads) {
+    return new LoadCheckpoint(new File(filename), parameters, threads);
+  }
+
+  /**
+   * Read a checkpoint to resume from.
+   *
+   * @param filename The checkpoint file.
+   * @param parameters The load parameters of this run, which must match the checkpointed ones.
+   * @param threads The number of load threads of this run.
+   * @throws WorkloadException if the file is missing or belongs to a different load.
+   */
+  static LoadCheckpoint resume(String filename, Properties parameters, int threads) throws WorkloadException {
+    Properties saved = new Properties();
+    try (InputStream in = new FileInputStream(filename)) {
+      saved.load(in);
+    } catch (IOException e) {
+      throw new WorkloadException("Cannot read the load checkpoint " + filename, e);
+    }
+    for (String name : parameters.stringPropertyNames()) {
+      if (!parameters.getProperty(name).equals(saved.getProperty(name))) {
+        throw new WorkloadException("Cannot resume from " + filename + ": " + name + " was "
+            + saved.getProperty(name) + ", now " + parameters.getProperty(name));
+      }
+    }
+    if (!String.valueOf(threads).equals(saved.getProperty("threads"))) {
+      throw new WorkloadException("Cannot resume from " + filename + ": the load used "
+          + saved.getProperty("threads") + " threads, now " + threads);
+    }
+    LoadCheckpoint checkpoint = new LoadCheckpoint(new File(filename), parameters, threads);
+    for (int i = 0; i < threads; i++) {
+      read(saved, "thread." + i + ".vertex.", checkpoint.vertices[i]);
+      read(saved, "thread." + i + ".edge.", checkpoint.edges[i]);
+    }
+    return checkpoint;
+  }
+
+  private static void read(Properties saved, String prefix, Cursor cursor) {
+    cursor.set(Long.parseLong(saved.getProperty(prefix + "records", "0")),
+        Long.parseLong(saved.getProperty(prefix + "position", "0")),
+        Long.parseLong(saved.getProperty(prefix + "acknowledged", "0")),
+        Long.parseLong(saved.getProperty(prefix + "ids", "0")),
+        Long.parseLong(saved.getProperty(prefix + "idbytes", "0")));
+  }
+
+  private static void write(Properties out, String prefix, Cursor cursor) {
+    out.setProperty(prefix + "records", String.valueOf(cursor.records));
+    out.setProperty(prefix + "position", String.valueOf(cursor.position));
+    out.setProperty(prefix + "acknowledged", String.valueOf(cursor.acknowledged));
+    out.setProperty(prefix + "ids", String.valueOf(cursor.ids));
+    out.setProperty(prefix + "idbytes", String.valueOf(cursor.idBytes));
+  }
+
+  /**
+   * @return The resume point of a thread in the vertex or edge file.
+   */
+  Cursor get(int thread, boolean edge) {
+    return edge ? edges[thread] : vertices[thread];
+  }
+
+  /**
+   * Move the resume point of a thread and persist the checkpoint.
+   */
+  synchronized void update(int thread, boolean edge, long records, long position, long acknowledged, long ids,
+                           long idBytes) throws IOException {
+    get(thread, edge).set(records, position, acknowledged, ids, idBytes);
+    save();
+  }
+
+  /**
+   * Persist every cursor. The file is replaced atomically, so a crash while saving leaves the
+   * previous checkpoint in place.
+   */
+  synchronized void save() throws IOException {
+    Properties out = new Properties();
+    for (Map.Entry<Object, Object> parameter : parameters.entrySet()) {
+      out.put(parameter.getKey(), parameter.getValue());
+    }
+    out.setProperty("threads", String.valueOf(vertices.length));
+    for (int i = 0; i < vertices.length; i++) {
+      write(out, "thread." + i + ".vertex.", vertices[i]);
+      write(out, "thread." + i + ".edge.", edges[i]);
+    }
+    File temp = new File(file.getPath() + ".tmp");
+    try (FileOutputStream stream = new FileOutputStream(temp)) {
+      out.store(stream, "YCSB load checkpoint");
+      stream.getFD().sync();
+    }
+    Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+  }
+
+  /**
+   * Remove the checkpoint once the load is complete.
+   */
+  void delete() {
+    if (file.exists() && !file.delete()) {
+      System.err.println("Failed to delete " + file);
+    }
+  }
+}
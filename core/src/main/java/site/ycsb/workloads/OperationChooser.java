@@ -0,0 +1,117 @@
+/**
+ * Copyright (c) 2025 YCSB contributors. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+
+package site.ycsb.workloads;
+
+import site.ycsb.Workload.Operation;
+import site.ycsb.generator.AliasTable;
+
+import java.util.Properties;
+import java.util.SplittableRandom;
+
+/**
+ * Picks the next {@link Operation} of the transaction phase in constant time and without
+ * allocating, from an {@link AliasTable} over the weights of all operations. The weight of an
+ * operation is its {@code op.<NAME>.proportion} if set, otherwise the proportion of its group:
+ * createproportion, readproportion, updateproportion or deleteproportion.
+ */
+public final class OperationChooser {
+  private static final Operation[] OPERATIONS = Operation.values();
+
+  private final AliasTable table;
+  private final double[] weights;
+
+  /**
+   * @param p The workload properties.
+   * @throws IllegalArgumentException if a proportion is negative or all of them are zero.
+   */
+  public OperationChooser(Properties p) {
+    weights = new double[OPERATIONS.length];
+    for (Operation operation : OPERATIONS) {
+      String weight = p.getProperty(proportionProperty(operation));
+      if (weight == null) {
+        String group = groupProperty(operation);
+        weight = group == null ? "0" : p.getProperty(group, groupDefault(group));
+      }
+      weights[operation.ordinal()] = Double.parseDouble(weight);
+    }
+    table = new AliasTable(weights);
+  }
+
+  /**
+   * @return The name of the property for the weight of an operation alone.
+   */
+  public static String proportionProperty(Operation operation) {
+    return "op." + operation.name() + ".proportion";
+  }
+
+  /**
+   * @return The name of the property for the weight of the group of an operation, or
+   *     {@code null} for PROBE_VISIBILITY, which is in no group and only runs when its own
+   *     proportion is set.
+   */
+  public static String groupProperty(Operation operation) {
+    switch (operation) {
+      case ADD_VERTEX:
+      case ADD_EDGE:
+        return CoreWorkload.CREATE_PROPORTION_PROPERTY;
+      case SET_VERTEX_PROPERTY:
+      case SET_EDGE_PROPERTY:
+        return CoreWorkload.UPDATE_PROPORTION_PROPERTY;
+      case REMOVE_VERTEX:
+      case REMOVE_EDGE:
+      case REMOVE_VERTEX_PROPERTY:
+      case REMOVE_EDGE_PROPERTY:
+        return CoreWorkload.DELETE_PROPORTION_PROPERTY;
+      case PROBE_VISIBILITY:
+        return null;
+      default:
+        return CoreWorkload.READ_PROPORTION_PROPERTY;
+    }
+  }
+
+  private static String groupDefault(String group) {
+    switch (group) {
+      case CoreWorkload.CREATE_PROPORTION_PROPERTY:
+        return CoreWorkload.CREATE_PROPORTION_PROPERTY_DEFAULT;
+      case CoreWorkload.UPDATE_PROPORTION_PROPERTY:
+        return CoreWorkload.UPDATE_PROPORTION_PROPERTY_DEFAULT;
+      case CoreWorkload.DELETE_PROPORTION_PROPERTY:
+        return CoreWorkload.DELETE_PROPORTION_PROPERTY_DEFAULT;
+      default:
+        return CoreWorkload.READ_PROPORTION_PROPERTY_DEFAULT;
+    }
+  }
+
+  /**
+   * @return The next operation, drawn with the random number generator of the calling thread.
+   */
+  public Operation next(SplittableRandom random) {
+    return OPERATIONS[table.next(random)];
+  }
+
+  /**
+   * @return The weight of an operation, relative to the sum of all weights.
+   */
+  public double proportion(Operation operation) {
+    double sum = 0;
+    for (double weight : weights) {
+      sum += weight;
+    }
+    return weights[operation.ordinal()] / sum;
+  }
+}
@@ -0,0 +1,283 @@
+/**
+ * Copyright (c) 2025 YCSB contributors. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+
+
+package site.ycsb.workloads;
+
+import site.ycsb.PropertyMap;
+import site.ycsb.Workload;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+/**
+ * A binary trace of the operations one client thread sent to the database, recorded by
+ * {@link CoreWorkload} with <b>trace.record</b> and replayed by {@link TraceReplayWorkload}.
+ * <p>
+ * Every thread writes its own file, {@code <prefix>.<thread>}, starting with a header holding
+ * {@link #MAGIC}, {@link #VERSION}, the thread and the number of threads of the recording.
+ * Each record is the operation ordinal as one byte, the nanoseconds since the previous record
+ * (or since the start of the run) as a variable length integer, the string arguments of the
+ * operation and, for the additions, the properties. Counts and lengths are variable length
+ * integers and strings are UTF-8, with a length of 0 for {@code null} and the byte length plus
+ * one otherwise.
+ */
+final class OperationTrace {
+  static final int MAGIC = 0x59545243; // "YTRC"
+  static final int VERSION = 1;
+
+  /** The most string arguments of an operation, those of ADD_EDGE. */
+  static final int MAX_ARGUMENTS = 4;
+
+  private static final Workload.Operation[] OPERATIONS = Workload.Operation.values();
+
+  private OperationTrace() {
+  }
+
+  /**
+   * @return The trace file of one thread.
+   */
+  static String filename(String prefix, int thread) {
+    return prefix + "." + thread;
+  }
+
+  /**
+   * One decoded record, refilled by {@link Reader#next(Record)}.
+   */
+  static final class Record {
+    private Workload.Operation operation;
+    private long offset;
+    private final String[] arguments = new String[MAX_ARGUMENTS];
+    private int argumentCount;
+    private final PropertyMap properties = new PropertyMap();
+
+    Workload.Operation getOperation() {
+      return operation;
+    }
+
+    /**
+     * @return The nanoseconds between the start of the run and the operation.
+     */
+    long getOffset() {
+      return offset;
+    }
+
+    String argument(int i) {
+      if (i >= argumentCount) {
+        throw new IndexOutOfBoundsException("Argument " + i + " of " + operation);
+      }
+      return arguments[i];
+    }
+
+    int getArgumentCount() {
+      return argumentCount;
+    }
+
+    /**
+     * @return The properties of an added vertex or edge, reused for the next record.
+     */
+    PropertyMap getProperties() {
+      return properties;
+    }
+  }
+
+  /**
+   * Writes the trace of one thread. A writer is not thread safe.
+   */
+  static final class Writer implements Closeable {
+    private final DataOutputStream out;
+    private long offset;
+
+    Writer(String filename, int thread, int threadCount) throws IOException {
+      this.out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(filename, false), 1 << 16));
+      out.writeInt(MAGIC);
+      out.writeInt(VERSION);
+      out.writeInt(thread);
+      out.writeInt(threadCount);
+    }
+
+    /**
+     * Append one operation.
+     *
+     * @param operation The operation.
+     * @param offset The nanoseconds between the start of the run and the operation.
+     * @param properties The properties of an addition, or {@code null}.
+     * @param arguments The string arguments, in the order of the {@link site.ycsb.DB} method.
+     */
+    void write(Workload.Operation operation, long offset, Map<String, String> properties,
+               String... arguments) throws IOException {
+      out.writeByte(operation.ordinal());
+      writeVarLong(Math.max(0, offset - this.offset));
+      this.offset = Math.max(this.offset, offset);
+      writeVarLong(arguments.length);
+      for (String argument : arguments) {
+        writeString(argument);
+      }
+      if (properties == null) {
+        writeVarLong(0);
+      } else {
+        writeVarLong(properties.size());
+        for (Map.Entry<String, String> property : properties.entrySet()) {
+          writeString(property.getKey());
+          writeString(property.getValue());
+        }
+      }
+    }
+
+    private void writeString(String s) throws IOException {
+      if (s == null) {
+        writeVarLong(0);
+        return;
+      }
+      byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+      writeVarLong(bytes.length + 1L);
+      out.write(bytes);
+    }
+
+    private void writeVarLong(long value) throws IOException {
+      while ((value & ~0x7FL) != 0) {
+        out.writeByte((int) (value & 0x7F) | 0x80);
+        value >>>= 7;
+      }
+      out.writeByte((int) value);
+    }
+
+    @Override
+    public void close() throws IOException {
+      out.close();
+    }
+  }
+
+  /**
+   * Reads the trace of one thread. A reader is not thread safe.
+   */
+  static final class Reader implements Closeable {
+    private final String filename;
+    private final DataInputStream in;
+    private final int thread;
+    private final int threadCount;
+    private byte[] buffer = new byte[256];
+    private long offset;
+
+    Reader(String filename) throws IOException {
+      this.filename = filename;
+      this.in = new DataInputStream(new BufferedInputStream(new FileInputStream(filename), 1 << 16));
+      try {
+        if (in.readInt() != MAGIC) {
+          throw new IOException(filename + " is not an operation trace");
+        }
+        int version = in.readInt();
+        if (version != VERSION) {
+          throw new IOException("Unsupported operation trace version " + version + " in " + filename);
+        }
+        thread = in.readInt();
+        threadCount = in.readInt();
+      } catch (IOException e) {
+        in.close();
+        throw e;
+      }
+    }
+
+    /**
+     * @return The thread that recorded the trace.
+     */
+    int getThread() {
+      return thread;
+    }
+
+    /**
+     * @return The number of threads of the recording.
+     */
+    int getThreadCount() {
+      return threadCount;
+    }
+
+    /**
+     * Read the next record.
+     *
+     * @param into The record to fill.
+     * @return false at the end of the trace.
+     */
+    boolean next(Record into) throws IOException {
+      int op = in.read();
+      if (op < 0) {
+        return false;
+      }
+      if (op >= OPERATIONS.length) {
+        throw new IOException("Unknown operation " + op + " in " + filename);
+      }
+      into.operation = OPERATIONS[op];
+      offset += readVarLong();
+      into.offset = offset;
+      int arguments = (int) readVarLong();
+      if (arguments > MAX_ARGUMENTS) {
+        throw new IOException("Too many arguments for " + into.operation + " in " + filename);
+      }
+      for (int i = 0; i < arguments; i++) {
+        into.arguments[i] = readString();
+      }
+      into.argumentCount = arguments;
+      into.properties.clear();
+      for (long i = readVarLong(); i > 0; i--) {
+        into.properties.put(PropertyMap.symbol(readString()), readString());
+      }
+      return true;
+    }
+
+    private String readString() throws IOException {
+      long length = readVarLong();
+      if (length == 0) {
+        return null;
+      }
+      int bytes = (int) (length - 1);
+      if (bytes > buffer.length) {
+        buffer = new byte[Math.max(bytes, buffer.length * 2)];
+      }
+      in.readFully(buffer, 0, bytes);
+      return new String(buffer, 0, bytes, StandardCharsets.UTF_8);
+    }
+
+    private long readVarLong() throws IOException {
+      long value = 0;
+      for (int shift = 0; shift < 64; shift += 7) {
+        int b = in.read();
+        if (b < 0) {
+          throw new EOFException("Truncated record in " + filename);
+        }
+        value |= (long) (b & 0x7F) << shift;
+        if ((b & 0x80) == 0) {
+          return value;
+        }
+      }
+      throw new IOException("Malformed variable length integer in " + filename);
+    }
+
+    @Override
+    public void close() throws IOException {
+      in.close();
+    }
+  }
+}
@@ -0,0 +1,179 @@
+/**
+ * Copyright (c) 2025 YCSB contributors. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+
+
+package site.ycsb.workloads;
+
+import site.ycsb.DB;
+import site.ycsb.Status;
+import site.ycsb.Workload.Operation;
+import site.ycsb.measurements.Measurements;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Records every transaction operation sent to a thread's database in its
+ * {@link OperationTrace}, then forwards it. The offset of a record is the intended start time
+ * of the operation when the client throttles, its actual start time otherwise.
+ * <p>
+ * A failure to write the trace stops the recording but not the run, it is reported by
+ * {@link #getFailure()} once the thread is done.
+ */
+final class TraceRecordingDB extends DB {
+  private final DB db;
+  private final OperationTrace.Writer writer;
+  private final long start;
+  private final Measurements measurements = Measurements.getMeasurements();
+  private IOException failure;
+
+  /**
+   * @param db The database of the thread.
+   * @param writer The trace of the thread.
+   * @param start The {@link System#nanoTime()} all threads measure their offsets from.
+   */
+  TraceRecordingDB(DB db, OperationTrace.Writer writer, long start) {
+    this.db = db;
+    this.writer = writer;
+    this.start = start;
+  }
+
+  IOException getFailure() {
+    return failure;
+  }
+
+  private void record(Operation operation, Map<String, String> properties, String... arguments) {
+    if (failure != null) {
+      return;
+    }
+    long intended = measurements.getIntendedStartTimeNs();
+    if (intended == 0) {
+      intended = System.nanoTime();
+    }
+    try {
+      writer.write(operation, intended - start, properties, arguments);
+    } catch (IOException e) {
+      failure = e;
+    }
+  }
+
+  @Override
+  public void setProperties(Properties p) {
+    db.setProperties(p);
+  }
+
+  @Override
+  public Properties getProperties() {
+    return db.getProperties();
+  }
+
+  @Override
+  public Status addVertex(String label, String id, Map<String, String> properties) {
+    record(Operation.ADD_VERTEX, properties, label, id);
+    return db.addVertex(label, id, properties);
+  }
+
+  @Override
+  public Status addEdge(String label, String id, String from, String to, Map<String, String> properties) {
+    record(Operation.ADD_EDGE, properties, label, id, from, to);
+    return db.addEdge(label, id, from, to, properties);
+  }
+
+  @Override
+  public Status getVertexCount() {
+    record(Operation.GET_VERTEX_COUNT, null);
+    return db.getVertexCount();
+  }
+
+  @Override
+  public Status getEdgeCount() {
+    record(Operation.GET_EDGE_COUNT, null);
+    return db.getEdgeCount();
+  }
+
+  @Override
+  public Status getEdgeLabels() {
+    record(Operation.GET_EDGE_LABELS, null);
+    return db.getEdgeLabels();
+  }
+
+  @Override
+  public Status getVertexWithProperty(String key, String value) {
+    record(Operation.GET_VERTEX_WITH_PROPERTY, null, key, value);
+    return db.getVertexWithProperty(key, value);
+  }
+
+  @Override
+  public Status getEdgeWithProperty(String key, String value) {
+    record(Operation.GET_EDGE_WITH_PROPERTY, null, key, value);
+    return db.getEdgeWithProperty(key, value);
+  }
+
+  @Override
+  public Status getEdgesWithLabel(String label) {
+    record(Operation.GET_EDGES_WITH_LABEL, null, label);
+    return db.getEdgesWithLabel(label);
+  }
+
+  @Override
+  public Status setVertexProperty(String id, String key, String value) {
+    record(Operation.SET_VERTEX_PROPERTY, null, id, key, value);
+    return db.setVertexProperty(id, key, value);
+  }
+
+  @Override
+  public Status setEdgeProperty(String id, String key, String value) {
+    record(Operation.SET_EDGE_PROPERTY, null, id, key, value);
+    return db.setEdgeProperty(id, key, value);
+  }
+
+  @Override
+  public Status removeVertex(String id) {
+    record(Operation.REMOVE_VERTEX, null, id);
+    return db.removeVertex(id);
+  }
+
+  @Override
+  public Status removeEdge(String id) {
+    record(Operation.REMOVE_EDGE, null, id);
+    return db.removeEdge(id);
+  }
+
+  @Override
+  public Status removeVertexProperty(String id, String key) {
+    record(Operation.REMOVE_VERTEX_PROPERTY, null, id, key);
+    return db.removeVertexProperty(id, key);
+  }
+
+  @Override
+  public Status removeEdgeProperty(String id, String key) {
+    record(Operation.REMOVE_EDGE_PROPERTY, null, id, key);
+    return db.removeEdgeProperty(id, key);
+  }
+
+  @Override
+  public Status awaitVertexProperty(String id, String key, String value) {
+    record(Operation.PROBE_VISIBILITY, null, id, key, value);
+    return db.awaitVertexProperty(id, key, value);
+  }
+
+  @Override
+  public void awaitWrites(String id) {
+    db.awaitWrites(id);
+  }
+}
@@ -0,0 +1,279 @@
+/**
+ * Copyright (c) 2025 YCSB contributors. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+
+
+package site.ycsb.workloads;
+
+import site.ycsb.DB;
+import site.ycsb.Workload;
+import site.ycsb.WorkloadException;
+import site.ycsb.measurements.Measurements;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Sends the operations recorded by {@link CoreWorkload} with <b>trace.record</b> to the
+ * database again, so that several databases can be run against exactly the same operation
+ * sequence. Replaying only decodes the trace, it generates nothing.
+ * <p>
+ * The trace of recording thread {@code i} is replayed in order by client thread
+ * {@code i % threadcount}; a client thread given several traces interleaves them by their
+ * recorded start times. A client thread stops at the end of its traces, or after
+ * <b>operationcount</b> operations.
+ * <p>
+ * Properties to control the client:
+ * <UL>
+ * <LI><b>trace.file</b>: the prefix of the traces, the <b>trace.record</b> of the recording
+ * (required)
+ * <LI><b>trace.timing</b>: "fast" to send the operations as fast as possible, or "recorded" to
+ * start every operation at its recorded offset from the start of the run; late operations are
+ * then measured from their recorded start time (default: fast)
+ * </ul>
+ */
+public class TraceReplayWorkload extends Workload {
+  /**
+   * The name of the property for the prefix of the traces to replay.
+   */
+  public static final String TRACE_FILE_PROPERTY = "trace.file";
+
+  /**
+   * The name of the property for the timing of the replay.
+   */
+  public static final String TRACE_TIMING_PROPERTY = "trace.timing";
+
+  /**
+   * The default timing of the replay.
+   */
+  public static final String TRACE_TIMING_PROPERTY_DEFAULT = "fast";
+
+  private String prefix;
+  private int traces;
+  private boolean recordedTiming;
+  private final AtomicLong start = new AtomicLong();
+  private final Queue<ThreadState> threads = new ConcurrentLinkedQueue<>();
+
+  /**
+   * The traces of one client thread, each with its next record.
+   */
+  private static final class ThreadState {
+    private final OperationTrace.Reader[] readers;
+    private final OperationTrace.Record[] records;
+    private int remaining;
+    private IOException failure;
+
+    ThreadState(OperationTrace.Reader[] readers) {
+      this.readers = readers;
+      this.records = new OperationTrace.Record[readers.length];
+      for (int i = 0; i < readers.length; i++) {
+        records[i] = new OperationTrace.Record();
+      }
+    }
+
+    /**
+     * Read the next record of a trace, dropping the trace at its end.
+     */
+    private void advance(int trace) {
+      try {
+        if (readers[trace].next(records[trace])) {
+          return;
+        }
+      } catch (IOException e) {
+        failure = e;
+        remaining = 0;
+        return;
+      }
+      remaining--;
+      OperationTrace.Reader reader = readers[trace];
+      OperationTrace.Record record = records[trace];
+      readers[trace] = readers[remaining];
+      records[trace] = records[remaining];
+      readers[remaining] = reader;
+      records[remaining] = record;
+    }
+
+    /**
+     * @return The trace whose next record starts first, or -1 at the end of all of them.
+     */
+    private int earliest() {
+      int earliest = remaining > 0 ? 0 : -1;
+      for (int i = 1; i < remaining; i++) {
+        if (records[i].getOffset() < records[earliest].getOffset()) {
+          earliest = i;
+        }
+      }
+      return earliest;
+    }
+  }
+
+  @Override
+  public void init(Properties p) throws WorkloadException {
+    prefix = p.getProperty(TRACE_FILE_PROPERTY);
+    if (prefix == null) {
+      throw new WorkloadException(TRACE_FILE_PROPERTY + " must be provided to replay a trace");
+    }
+    String timing = p.getProperty(TRACE_TIMING_PROPERTY, TRACE_TIMING_PROPERTY_DEFAULT);
+    if (!timing.equals("fast") && !timing.equals("recorded")) {
+      throw new WorkloadException("Unknown " + TRACE_TIMING_PROPERTY + " \"" + timing + "\"");
+    }
+    recordedTiming = timing.equals("recorded");
+    try (OperationTrace.Reader first = new OperationTrace.Reader(OperationTrace.filename(prefix, 0))) {
+      traces = first.getThreadCount();
+    } catch (IOException e) {
+      throw new WorkloadException("Failed to open the operation trace " + prefix, e);
+    }
+    for (int i = 1; i < traces; i++) {
+      if (!new File(OperationTrace.filename(prefix, i)).isFile()) {
+        throw new WorkloadException("The operation trace " + OperationTrace.filename(prefix, i) + " is missing");
+      }
+    }
+  }
+
+  @Override
+  public Object initThread(Properties p, int mythreadid, int threadcount) throws WorkloadException {
+    if (mythreadid == 0 && threadcount != traces) {
+      System.err.println("Replaying the traces of " + traces + " threads with " + threadcount + " threads");
+    }
+    List<OperationTrace.Reader> readers = new ArrayList<>();
+    try {
+      for (int i = mythreadid; i < traces; i += threadcount) {
+        readers.add(new OperationTrace.Reader(OperationTrace.filename(prefix, i)));
+      }
+    } catch (IOException e) {
+      for (OperationTrace.Reader reader : readers) {
+        try {
+          reader.close();
+        } catch (IOException ignored) {
+          // Already failing.
+        }
+      }
+      throw new WorkloadException("Failed to open the operation trace " + prefix, e);
+    }
+    ThreadState state = new ThreadState(readers.toArray(new OperationTrace.Reader[0]));
+    state.remaining = readers.size();
+    for (int i = state.remaining - 1; i >= 0; i--) {
+      state.advance(i);
+    }
+    threads.add(state);
+    return state;
+  }
+
+  @Override
+  public void loadData(DB db, Properties props, Object threadstate) {
+    System.err.println("TraceReplayWorkload only replays transactions, run the load with CoreWorkload");
+  }
+
+  @Override
+  public boolean doTransaction(DB db, Object threadstate) {
+    ThreadState state = (ThreadState) threadstate;
+    int trace = state.earliest();
+    if (trace < 0) {
+      return false;
+    }
+    OperationTrace.Record record = state.records[trace];
+    if (recordedTiming) {
+      start.compareAndSet(0, System.nanoTime());
+      long deadline = start.get() + record.getOffset();
+      long now;
+      while ((now = System.nanoTime()) < deadline && !isStopRequested()) {
+        LockSupport.parkNanos(deadline - now);
+      }
+      Measurements.getMeasurements().setIntendedStartTimeNs(deadline);
+    }
+    replay(db, record);
+    state.advance(trace);
+    return true;
+  }
+
+  private static void replay(DB db, OperationTrace.Record record) {
+    switch (record.getOperation()) {
+      case ADD_VERTEX:
+        db.addVertex(record.argument(0), record.argument(1), record.getProperties());
+        break;
+      case ADD_EDGE:
+        db.addEdge(record.argument(0), record.argument(1), record.argument(2), record.argument(3),
+            record.getProperties());
+        break;
+      case GET_VERTEX_COUNT:
+        db.getVertexCount();
+        break;
+      case GET_EDGE_COUNT:
+        db.getEdgeCount();
+        break;
+      case GET_EDGE_LABELS:
+        db.getEdgeLabels();
+        break;
+      case GET_VERTEX_WITH_PROPERTY:
+        db.getVertexWithProperty(record.argument(0), record.argument(1));
+        break;
+      case GET_EDGE_WITH_PROPERTY:
+        db.getEdgeWithProperty(record.argument(0), record.argument(1));
+        break;
+      case GET_EDGES_WITH_LABEL:
+        db.getEdgesWithLabel(record.argument(0));
+        break;
+      case SET_VERTEX_PROPERTY:
+        db.setVertexProperty(record.argument(0), record.argument(1), record.argument(2));
+        break;
+      case SET_EDGE_PROPERTY:
+        db.setEdgeProperty(record.argument(0), record.argument(1), record.argument(2));
+        break;
+      case REMOVE_VERTEX:
+        db.removeVertex(record.argument(0));
+        break;
+      case REMOVE_EDGE:
+        db.removeEdge(record.argument(0));
+        break;
+      case REMOVE_VERTEX_PROPERTY:
+        db.removeVertexProperty(record.argument(0), record.argument(1));
+        break;
+      case REMOVE_EDGE_PROPERTY:
+        db.removeEdgeProperty(record.argument(0), record.argument(1));
+        break;
+      case PROBE_VISIBILITY:
+        db.awaitVertexProperty(record.argument(0), record.argument(1), record.argument(2));
+        break;
+      default:
+        throw new IllegalStateException("Unexpected operation");
+    }
+  }
+
+  @Override
+  public void cleanup() throws WorkloadException {
+    IOException failure = null;
+    for (ThreadState state : threads) {
+      failure = failure == null ? state.failure : failure;
+      for (OperationTrace.Reader reader : state.readers) {
+        try {
+          reader.close();
+        } catch (IOException e) {
+          failure = failure == null ? e : failure;
+        }
+      }
+    }
+    if (failure != null) {
+      throw new WorkloadException("Failed to read the operation trace " + prefix, failure);
+    }
+  }
+}
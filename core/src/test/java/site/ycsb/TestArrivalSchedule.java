@@ -0,0 +1,87 @@
+/**
+ * Copyright (c) 2025 YCSB contributors. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+
+
+package site.ycsb;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import org.testng.annotations.Test;
+
+public class TestArrivalSchedule {
+  @Test
+  public void fixedArrivalsAreEvenlySpaced() {
+    ArrivalSchedule schedule = new ArrivalSchedule(ArrivalSchedule.Process.FIXED, 4000, 0);
+    long first = schedule.next();
+    for (int i = 1; i < 100; i++) {
+      assertEquals(schedule.next() - first, i * 250000L);
+    }
+  }
+
+  @Test
+  public void poissonArrivalsHaveTheTargetRate() {
+    ArrivalSchedule schedule = new ArrivalSchedule(ArrivalSchedule.Process.POISSON, 1000, 0);
+    int arrivals = 100000;
+    long first = schedule.next();
+    long previous = first;
+    int shortGaps = 0;
+    for (int i = 1; i < arrivals; i++) {
+      long arrival = schedule.next();
+      assertTrue(arrival >= previous);
+      if (arrival - previous < 1000000L * Math.log(2)) {
+        shortGaps++;
+      }
+      previous = arrival;
+    }
+    double meanGap = (previous - first) / (double) (arrivals - 1);
+    assertEquals(meanGap, 1e6, 1e6 * 0.02);
+    // Half of the exponential gaps are below the median, ln 2 times the mean.
+    assertEquals(shortGaps / (double) arrivals, 0.5, 0.01);
+  }
+
+  @Test
+  public void threadsShareTheOperationCount() throws InterruptedException {
+    ArrivalSchedule schedule = new ArrivalSchedule(ArrivalSchedule.Process.FIXED, 1e9, 10000);
+    ConcurrentLinkedQueue<Long> claimed = new ConcurrentLinkedQueue<>();
+    List<Thread> threads = new ArrayList<>();
+    for (int t = 0; t < 8; t++) {
+      Thread thread = new Thread(() -> {
+        long arrival;
+        while ((arrival = schedule.next()) != ArrivalSchedule.END) {
+          claimed.add(arrival);
+        }
+      });
+      threads.add(thread);
+      thread.start();
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    Long[] arrivals = claimed.toArray(new Long[0]);
+    Arrays.sort(arrivals);
+    assertEquals(arrivals.length, 10000);
+    for (int i = 1; i < arrivals.length; i++) {
+      assertEquals(arrivals[i] - arrivals[0], (long) i);
+    }
+  }
+}
@@ -0,0 +1,162 @@
+/**
+ * Copyright (c) 2025 YCSB contributors. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+
+package site.ycsb;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+public class TestBinaryRecordFile {
+  private static final int RECORDS = BinaryRecordFile.STRIDE * 2 + 17;
+
+  private File json;
+  private File binary;
+
+  @BeforeClass
+  public void writeDataset() throws IOException {
+    json = File.createTempFile("binaryrecordfile", ".json");
+    binary = new File(json.getPath() + BinaryRecordFile.EXTENSION);
+    try (Writer w = new OutputStreamWriter(new FileOutputStream(json), StandardCharsets.UTF_8)) {
+      w.write("[\n");
+      for (int i = 0; i < RECORDS; i++) {
+        if (i > 0) {
+          w.write(",\n");
+        }
+        w.write("{\"_id\": \"v" + i + "\", \"name\": \"caf\\u00e9 \\\"" + i + "\\\"\", \"note\": null"
+            + (i % 2 == 0 ? ", \"even\": \"" + i + "\"" : "") + "}");
+      }
+      w.write("\n]\n");
+    }
+    assertEquals(BinaryRecordFile.convert(json.getPath(), binary.getPath()), RECORDS);
+  }
+
+  @AfterClass
+  public void deleteDataset() {
+    json.delete();
+    binary.delete();
+  }
+
+  @Test
+  public void limitsTheKeyDictionary() throws IOException {
+    assertEquals(convertKeys(0xFFFF), 2);
+    try {
+      convertKeys(0xFFFF + 1);
+      throw new AssertionError("converted 65536 distinct property names");
+    } catch (IOException e) {
+      assertTrue(e.getMessage().contains("65535"), e.getMessage());
+    }
+  }
+
+  /**
+   * Convert two records with the given number of distinct property names between them.
+   */
+  private static long convertKeys(int keys) throws IOException {
+    File source = File.createTempFile("binaryrecordkeys", ".json");
+    File target = new File(source.getPath() + BinaryRecordFile.EXTENSION);
+    try {
+      try (Writer w = new OutputStreamWriter(new FileOutputStream(source), StandardCharsets.UTF_8)) {
+        w.write("[{");
+        for (int i = 0; i < keys; i++) {
+          w.write((i == 0 ? "" : i == keys / 2 ? "},\n{" : ", ") + "\"k" + i + "\": \"" + i + "\"");
+        }
+        w.write("}]\n");
+      }
+      long records = BinaryRecordFile.convert(source.getPath(), target.getPath());
+      try (RecordReader reader = BinaryRecordFile.open(target.getPath()).open(0, 1 << 20)) {
+        assertEquals(reader.nextObject().get("k0"), "0");
+        assertEquals(reader.nextObject().get("k" + (keys - 1)), String.valueOf(keys - 1));
+      }
+      return records;
+    } finally {
+      source.delete();
+      target.delete();
+    }
+  }
+
+  private static void assertRecord(Map<String, String> object, long record) {
+    assertEquals(object.get("_id"), "v" + record);
+    assertEquals(object.get("name"), "caf\u00e9 \"" + record + "\"");
+    assertTrue(object.containsKey("note"));
+    assertNull(object.get("note"));
+    assertEquals(object.get("even"), record % 2 == 0 ? String.valueOf(record) : null);
+  }
+
+  @Test
+  public void readsEveryRecord() throws IOException {
+    BinaryRecordFile file = BinaryRecordFile.open(binary.getPath());
+    assertEquals(file.size(), RECORDS);
+    // A tiny window forces a remap for almost every record.
+    try (RecordReader reader = file.open(0, 64)) {
+      for (long i = 0; i < RECORDS; i++) {
+        assertRecord(reader.nextObject(), i);
+      }
+      assertNull(reader.nextObject());
+    }
+  }
+
+  @Test
+  public void readsIntoReusedMap() throws IOException {
+    BinaryRecordFile file = BinaryRecordFile.open(binary.getPath());
+    PropertyMap fields = new PropertyMap();
+    try (RecordReader reader = file.open(0, 64)) {
+      for (long i = 0; i < RECORDS; i++) {
+        assertTrue(reader.nextObject(fields));
+        assertRecord(fields, i);
+      }
+      assertTrue(!reader.nextObject(fields));
+    }
+  }
+
+  @Test
+  public void opensAtAnyRecord() throws IOException {
+    BinaryRecordFile file = BinaryRecordFile.open(binary.getPath());
+    for (long record : new long[]{0, 1, BinaryRecordFile.STRIDE - 1, BinaryRecordFile.STRIDE, RECORDS - 1}) {
+      try (RecordReader reader = file.open(record)) {
+        assertRecord(reader.nextObject(), record);
+      }
+    }
+    try (RecordReader reader = file.open(RECORDS)) {
+      assertNull(reader.nextObject());
+    }
+  }
+
+  @Test
+  public void prefersFreshBinaryCopy() throws IOException {
+    assertTrue(BinaryRecordFile.isBinary(binary.getPath()));
+    assertTrue(!BinaryRecordFile.isBinary(json.getPath()));
+    RecordFile file = RecordFiles.open(json.getPath(), false);
+    assertTrue(file instanceof BinaryRecordFile);
+    assertEquals(file.size(), RECORDS);
+
+    assertTrue(binary.setLastModified(json.lastModified() - 60000));
+    assertTrue(RecordFiles.open(json.getPath(), false) instanceof JsonArrayIndex);
+    assertTrue(RecordFiles.open(json.getPath(), true) instanceof BinaryRecordFile);
+  }
+}
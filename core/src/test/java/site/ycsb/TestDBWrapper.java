@@ -0,0 +1,219 @@
+/**
+ * Copyright (c) 2025 YCSB contributors. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+
+
+package site.ycsb;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import org.apache.htrace.core.HTraceConfiguration;
+import org.apache.htrace.core.Tracer;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import site.ycsb.measurements.Measurements;
+import site.ycsb.measurements.exporter.MeasurementsExporter;
+
+public class TestDBWrapper {
+  private DBWrapper wrapper;
+  private DeferringDB db;
+
+  @BeforeClass
+  public void setUp() {
+    Measurements.setProperties(new Properties());
+    db = new DeferringDB();
+    wrapper = new DBWrapper(db, new Tracer.Builder("test").conf(HTraceConfiguration.EMPTY).build());
+  }
+
+  @Test
+  public void deferredOperationIsMeasuredAtCompletion() throws IOException {
+    long ok = returned("ADD_VERTEX", Status.OK);
+    long failed = returned("ADD_VERTEX", Status.ERROR);
+
+    assertEquals(wrapper.addVertex("person", "v1", Collections.<String, String>emptyMap()), Status.BATCHED_OK);
+    assertEquals(wrapper.addVertex("person", "v2", Collections.<String, String>emptyMap()), Status.BATCHED_OK);
+    assertEquals(returned("ADD_VERTEX", Status.OK), ok);
+
+    db.pending.get(1).complete(Status.OK);
+    assertEquals(returned("ADD_VERTEX", Status.OK), ok + 1);
+    db.pending.get(0).complete(Status.ERROR);
+    assertEquals(returned("ADD_VERTEX", Status.ERROR), failed + 1);
+    assertEquals(returned("ADD_VERTEX", Status.OK), ok + 1);
+  }
+
+  @Test
+  public void undeferredOperationIsMeasuredOnReturn() throws IOException {
+    long ok = returned("ADD_EDGE", Status.OK);
+    assertEquals(wrapper.addEdge(null, "e1", "v1", "v2", Collections.<String, String>emptyMap()), Status.OK);
+    assertEquals(returned("ADD_EDGE", Status.OK), ok + 1);
+  }
+
+  @Test(expectedExceptions = IllegalStateException.class)
+  public void batchCannotBeDeferred() {
+    // The default batch inserts the vertices one at a time through the deferring addVertex().
+    wrapper.addVertices(Collections.singletonList(
+        new VertexRecord("person", "v3", Collections.<String, String>emptyMap())));
+  }
+
+  @Test
+  public void visibilityLagStartsOnceTheWriteIsAcknowledged() throws IOException {
+    long ok = returned("VISIBILITY_LAG", Status.OK);
+    assertEquals(wrapper.awaitVertexProperty("v4", "name", "a"), Status.OK);
+    assertEquals(returned("VISIBILITY_LAG", Status.OK), ok + 1);
+    // The write took 100ms to be acknowledged, the probe itself none.
+    assertTrue(exported("VISIBILITY_LAG", "MaxLatency(us)") < 100000);
+  }
+
+  /**
+   * @return The number of operations reported with a status.
+   */
+  private static long returned(String operation, Status status) throws IOException {
+    return exported(operation, "Return=" + status.getName());
+  }
+
+  /**
+   * @return A measurement exported as a whole number, 0 if it was not exported.
+   */
+  private static long exported(String metric, String measurement) throws IOException {
+    final Map<String, Long> counts = new HashMap<>();
+    Measurements.getMeasurements().exportMeasurements(new MeasurementsExporter() {
+      @Override
+      public void write(String metric, String measurement, int i) {
+        write(metric, measurement, (long) i);
+      }
+
+      @Override
+      public void write(String metric, String measurement, long i) {
+        counts.put(metric + "/" + measurement, i);
+      }
+
+      @Override
+      public void write(String metric, String measurement, double d) {
+      }
+
+      @Override
+      public void close() {
+      }
+    });
+    Long count = counts.get(metric + "/" + measurement);
+    return count == null ? 0 : count;
+  }
+
+  /**
+   * Defers the vertex insertions until the test completes them, and acknowledges the writes
+   * a visibility probe waits for after 100ms.
+   */
+  private static final class DeferringDB extends DB {
+    private final List<Completion> pending = new ArrayList<>();
+    private final List<String> acknowledged = new ArrayList<>();
+
+    @Override
+    public void awaitWrites(String id) {
+      try {
+        Thread.sleep(100);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      acknowledged.add(id);
+    }
+
+    @Override
+    public Status awaitVertexProperty(String id, String key, String value) {
+      return acknowledged.contains(id) ? Status.OK : Status.NOT_FOUND;
+    }
+
+    @Override
+    public Status addVertex(String label, String id, Map<String, String> properties) {
+      pending.add(defer());
+      return Status.BATCHED_OK;
+    }
+
+    @Override
+    public Status addEdge(String label, String id, String from, String to, Map<String, String> properties) {
+      return Status.OK;
+    }
+
+    @Override
+    public Status getVertexCount() {
+      return Status.OK;
+    }
+
+    @Override
+    public Status getEdgeCount() {
+      return Status.OK;
+    }
+
+    @Override
+    public Status getEdgeLabels() {
+      return Status.OK;
+    }
+
+    @Override
+    public Status getVertexWithProperty(String key, String value) {
+      return Status.OK;
+    }
+
+    @Override
+    public Status getEdgeWithProperty(String key, String value) {
+      return Status.OK;
+    }
+
+    @Override
+    public Status getEdgesWithLabel(String label) {
+      return Status.OK;
+    }
+
+    @Override
+    public Status setVertexProperty(String id, String key, String value) {
+      return Status.OK;
+    }
+
+    @Override
+    public Status setEdgeProperty(String id, String key, String value) {
+      return Status.OK;
+    }
+
+    @Override
+    public Status removeVertex(String id) {
+      return Status.OK;
+    }
+
+    @Override
+    public Status removeEdge(String id) {
+      return Status.OK;
+    }
+
+    @Override
+    public Status removeVertexProperty(String id, String key) {
+      return Status.OK;
+    }
+
+    @Override
+    public Status removeEdgeProperty(String id, String key) {
+      return Status.OK;
+    }
+  }
+}
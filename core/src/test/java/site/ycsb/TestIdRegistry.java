@@ -0,0 +1,159 @@
+/**
+ * Copyright (c) 2025 YCSB contributors. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+
+package site.ycsb;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+import org.testng.annotations.Test;
+
+public class TestIdRegistry {
+
+  private static String id(int i) {
+    return i % 3 == 0 ? "v" + i : "caf\u00e9-" + i + "-" + i;
+  }
+
+  @Test
+  public void mergesPartsInOrder() throws IOException {
+    File dir = Files.createTempDirectory("idregistry").toFile();
+    String[] parts = {new File(dir, "p0").getPath(), new File(dir, "p1").getPath(),
+        new File(dir, "missing").getPath(), new File(dir, "p2").getPath()};
+    int[] sizes = {1000, 0, 0, 2500};
+    int next = 0;
+    for (int p = 0; p < parts.length; p++) {
+      if (p == 2) {
+        continue;
+      }
+      try (IdRegistry.Writer writer = new IdRegistry.Writer(parts[p])) {
+        for (int i = 0; i < sizes[p]; i++) {
+          writer.add(id(next++));
+        }
+        assertEquals(writer.size(), sizes[p]);
+      }
+    }
+    String merged = new File(dir, "merged").getPath();
+    IdRegistry.merge(Arrays.asList(parts), merged);
+    try (IdRegistry registry = IdRegistry.open(merged)) {
+      assertEquals(registry.size(), next);
+      for (int i = next - 1; i >= 0; i--) {
+        assertEquals(registry.get(i), id(i));
+      }
+    }
+    for (File f : dir.listFiles()) {
+      f.delete();
+    }
+    dir.delete();
+  }
+
+  @Test
+  public void rejectsUnclosedPart() throws IOException {
+    File dir = Files.createTempDirectory("idregistry").toFile();
+    String closed = new File(dir, "p0").getPath();
+    String unclosed = new File(dir, "p1").getPath();
+    try (IdRegistry.Writer writer = new IdRegistry.Writer(closed)) {
+      writer.add("v0");
+    }
+    // A crashed writer leaves its IDs behind a zero header.
+    IdRegistry.Writer writer = new IdRegistry.Writer(unclosed);
+    writer.add("v1");
+    writer.sync();
+    File merged = new File(dir, "merged");
+    try {
+      IdRegistry.merge(Arrays.asList(closed, unclosed), merged.getPath());
+      fail("merged a part that was not closed");
+    } catch (IOException e) {
+      assertTrue(e.getMessage().contains(unclosed), e.getMessage());
+    }
+    assertFalse(merged.exists());
+    assertFalse(new File(merged.getPath() + ".tmp").exists());
+  }
+
+  @Test
+  public void resumesWriterAtCheckpoint() throws IOException {
+    File dir = Files.createTempDirectory("idregistry").toFile();
+    String part = new File(dir, "p0").getPath();
+    long count;
+    long bytes;
+    try (IdRegistry.Writer writer = new IdRegistry.Writer(part)) {
+      for (int i = 0; i < 100; i++) {
+        writer.add(id(i));
+      }
+      writer.sync();
+      count = writer.size();
+      bytes = writer.bytes();
+      // IDs written after the checkpoint are discarded on resume.
+      for (int i = 100; i < 150; i++) {
+        writer.add("lost-" + i);
+      }
+    }
+    try (IdRegistry.Writer writer = new IdRegistry.Writer(part, count, bytes)) {
+      assertEquals(writer.size(), 100);
+      for (int i = 100; i < 200; i++) {
+        writer.add(id(i));
+      }
+    }
+    try (IdRegistry registry = IdRegistry.open(part)) {
+      assertEquals(registry.size(), 200);
+      for (int i = 0; i < 200; i++) {
+        assertEquals(registry.get(i), id(i));
+      }
+    }
+    for (File f : dir.listFiles()) {
+      f.delete();
+    }
+    dir.delete();
+  }
+
+  @Test
+  public void convertsTextFiles() throws IOException {
+    File file = File.createTempFile("idregistry", ".loaded");
+    try (Writer w = new FileWriter(file)) {
+      w.write("a\nbb\n ccc \n");
+    }
+    try (IdRegistry registry = IdRegistry.open(file.getPath())) {
+      assertEquals(registry.size(), 3);
+      assertEquals(registry.get(0), "a");
+      assertEquals(registry.get(2), "ccc");
+    }
+    try (IdRegistry registry = IdRegistry.open(file.getPath())) {
+      assertEquals(registry.get(1), "bb");
+    }
+    file.delete();
+  }
+
+  @Test
+  public void missingFileIsEmpty() throws IOException {
+    IdRegistry registry = IdRegistry.open(new File("does-not-exist.loaded").getPath());
+    assertTrue(registry.isEmpty());
+    assertEquals(registry.size(), 0);
+  }
+
+  @Test(expectedExceptions = IndexOutOfBoundsException.class)
+  public void rejectsOutOfRange() {
+    IdRegistry.empty().get(0);
+  }
+}
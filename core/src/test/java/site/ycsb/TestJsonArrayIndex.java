@@ -0,0 +1,132 @@
+/**
+ * Copyright (c) 2025 YCSB contributors. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+
+package site.ycsb;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Map;
+
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+public class TestJsonArrayIndex {
+  private static final int RECORDS = JsonArrayIndex.STRIDE * 2 + 17;
+
+  private File file;
+
+  @BeforeClass
+  public void writeArray() throws IOException {
+    file = File.createTempFile("jsonarrayindex", ".json");
+    try (Writer w = new FileWriter(file)) {
+      w.write("[\n");
+      for (int i = 0; i < RECORDS; i++) {
+        if (i > 0) {
+          w.write(",\n");
+        }
+        // Braces, brackets and escaped quotes inside strings must not confuse the scanner.
+        w.write("  {\"_id\": \"v" + i + "\", \"name\": \"a {[\\\"tricky\\\"]} }\"}");
+      }
+      w.write("\n]\n");
+    }
+  }
+
+  @AfterClass
+  public void deleteArray() {
+    file.delete();
+  }
+
+  @Test
+  public void countsObjects() throws IOException {
+    JsonArrayIndex index = JsonArrayIndex.build(file.getPath());
+    assertEquals(index.size(), RECORDS);
+    assertEquals(index.length(), file.length());
+  }
+
+  @Test
+  public void opensAtAnyRecord() throws IOException {
+    JsonArrayIndex index = JsonArrayIndex.build(file.getPath());
+    for (long record : new long[]{0, 1, JsonArrayIndex.STRIDE - 1, JsonArrayIndex.STRIDE, RECORDS - 1}) {
+      JsonObjectStreamer streamer = index.open(record);
+      Map<String, String> object = streamer.nextObject();
+      assertEquals(object.get("_id"), "v" + record);
+      assertEquals(object.get("name"), "a {[\"tricky\"]} }");
+      streamer.close();
+    }
+    JsonObjectStreamer streamer = index.open(RECORDS);
+    assertNull(streamer.nextObject());
+    streamer.close();
+  }
+
+  @Test
+  public void tracksBytePosition() throws IOException {
+    JsonArrayIndex index = JsonArrayIndex.build(file.getPath());
+    JsonObjectStreamer streamer = index.open(JsonArrayIndex.STRIDE);
+    long previous = streamer.position();
+    while (streamer.nextObject() != null) {
+      assertTrue(streamer.position() > previous);
+      previous = streamer.position();
+    }
+    // Just past the brace closing the last object, the file ends with "}\n]\n".
+    assertEquals(previous, index.length() - 3);
+    streamer.close();
+  }
+
+  @Test
+  public void reopensAtPosition() throws IOException {
+    JsonArrayIndex index = JsonArrayIndex.build(file.getPath());
+    JsonObjectStreamer streamer = index.open(3);
+    for (int i = 3; i < 10; i++) {
+      streamer.nextObject();
+    }
+    long position = streamer.position();
+    streamer.close();
+    streamer = index.openAt(position);
+    // The separator before the next object is skipped.
+    assertEquals(streamer.position(), position + ",\n  ".length());
+    assertEquals(streamer.nextObject().get("_id"), "v10");
+    assertTrue(streamer.position() > position);
+    streamer.close();
+  }
+
+  @Test
+  public void slicesCoverRangeExactlyOnce() throws IOException {
+    JsonArrayIndex index = JsonArrayIndex.build(file.getPath());
+    long start = 5;
+    long total = RECORDS - start;
+    int parts = 7;
+    long expected = start;
+    for (int part = 0; part < parts; part++) {
+      long[] slice = JsonArrayIndex.slice(start, total, parts, part);
+      assertEquals(slice[0], expected);
+      JsonObjectStreamer streamer = index.open(slice[0]);
+      for (long i = 0; i < slice[1]; i++) {
+        assertEquals(streamer.nextObject().get("_id"), "v" + (slice[0] + i));
+      }
+      streamer.close();
+      expected += slice[1];
+    }
+    assertEquals(expected, (long) RECORDS);
+  }
+}
@@ -0,0 +1,88 @@
+/**
+ * Copyright (c) 2025 YCSB contributors. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+
+package site.ycsb;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import site.ycsb.generator.SyntheticGraph;
+import site.ycsb.measurements.Measurements;
+
+public class TestPartitionedPrefetcher {
+  private static final int VERTICES = 10007;
+
+  private RecordFile file;
+
+  @BeforeClass
+  public void setUp() {
+    Measurements.setProperties(new Properties());
+    Properties p = new Properties();
+    p.setProperty("synthetic.vertexcount", String.valueOf(VERTICES));
+    file = new SyntheticGraph(p).vertices();
+  }
+
+  @Test
+  public void everyThreadReadsItsOwnSlice() throws Exception {
+    final int parts = 7;
+    final PartitionedPrefetcher prefetcher = new PartitionedPrefetcher(file, parts, 16, "TEST_STALL");
+    final AtomicLongArray seen = new AtomicLongArray(parts);
+    List<Thread> threads = new ArrayList<>();
+    for (int t = 0; t < parts; t++) {
+      final int part = t;
+      threads.add(new Thread(() -> {
+        try {
+          long[] slice = JsonArrayIndex.slice(0, VERTICES, parts, part);
+          RecordReader reader = prefetcher.get(part);
+          Map<String, String> object;
+          long expected = slice[0];
+          while ((object = reader.nextObject()) != null) {
+            assertEquals(object.get("_id"), file.open(expected++).nextObject().get("_id"));
+          }
+          seen.set(part, expected - slice[0]);
+        } catch (IOException e) {
+          throw new IllegalStateException(e);
+        }
+      }));
+    }
+    for (Thread t : threads) {
+      t.start();
+    }
+    for (Thread t : threads) {
+      t.join();
+    }
+    long total = 0;
+    for (int part = 0; part < parts; part++) {
+      assertTrue(seen.get(part) > 0, "part " + part + " read nothing");
+      total += seen.get(part);
+    }
+    assertEquals(total, VERTICES);
+    assertNull(prefetcher.get(0).nextObject());
+    prefetcher.close();
+  }
+}
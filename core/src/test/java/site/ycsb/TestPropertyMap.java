@@ -0,0 +1,105 @@
+/**
+ * Copyright (c) 2025 YCSB contributors. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+
+package site.ycsb;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import org.testng.annotations.Test;
+
+public class TestPropertyMap {
+
+  @Test
+  public void behavesLikeAMap() {
+    PropertyMap map = new PropertyMap(1);
+    Map<String, String> expected = new HashMap<>();
+    for (int i = 0; i < 20; i++) {
+      assertNull(map.put("k" + i, "v" + i));
+      expected.put("k" + i, "v" + i);
+    }
+    assertEquals(map.put("k3", "w"), "v3");
+    expected.put("k3", "w");
+    assertEquals(map.remove("k0"), "v0");
+    expected.remove("k0");
+    assertNull(map.remove("missing"));
+
+    assertEquals(map, expected);
+    assertEquals(expected, map);
+    assertEquals(map.hashCode(), expected.hashCode());
+    assertEquals(map.get(new String("k3")), "w");
+    assertTrue(map.containsKey("k19"));
+    assertEquals(map.getKey(0), "k1");
+  }
+
+  @Test
+  public void keepsInsertionOrderAndReusesArrays() {
+    PropertyMap map = new PropertyMap();
+    map.put("b", "1");
+    map.put("a", "2");
+    List<String> visited = new ArrayList<>();
+    map.forEach((key, value) -> visited.add(key + "=" + value));
+    assertEquals(visited.toString(), "[b=1, a=2]");
+
+    map.clear();
+    assertTrue(map.isEmpty());
+    assertNull(map.get("b"));
+    map.put("c", "3");
+    assertEquals(map.size(), 1);
+    assertEquals(map.getValue(0), "3");
+  }
+
+  @Test
+  public void removesThroughIterator() {
+    PropertyMap map = new PropertyMap();
+    map.put("a", "1");
+    map.put("b", "2");
+    map.put("c", "3");
+    Iterator<Map.Entry<String, String>> it = map.entrySet().iterator();
+    while (it.hasNext()) {
+      if (it.next().getKey().equals("b")) {
+        it.remove();
+      }
+    }
+    assertEquals(map.toString(), "{a=1, c=3}");
+    assertFalse(map.containsKey("b"));
+  }
+
+  @Test
+  public void canonicalizesSymbols() {
+    assertSame(PropertyMap.symbol(new String("name")), "name");
+  }
+
+  @Test
+  public void recordsResetTheirProperties() {
+    VertexRecord vertex = new VertexRecord();
+    vertex.getProperties().put("a", "1");
+    vertex.reset("person", "v1");
+    assertTrue(vertex.getProperties().isEmpty());
+    assertEquals(vertex.getLabel(), "person");
+    assertEquals(vertex.getId(), "v1");
+  }
+}
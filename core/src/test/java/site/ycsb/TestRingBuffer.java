@@ -0,0 +1,91 @@
+/**
+ * Copyright (c) 2025 YCSB contributors. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+
+package site.ycsb;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import org.testng.annotations.Test;
+
+public class TestRingBuffer {
+
+  @Test
+  public void fifoAndBounded() {
+    RingBuffer<Integer> ring = new RingBuffer<>(3);
+    assertEquals(ring.capacity(), 4);
+    assertNull(ring.poll());
+    for (int lap = 0; lap < 3; lap++) {
+      for (int i = 0; i < 4; i++) {
+        assertTrue(ring.offer(i));
+      }
+      assertFalse(ring.offer(4));
+      assertEquals(ring.size(), 4);
+      for (int i = 0; i < 4; i++) {
+        assertEquals(ring.poll(), Integer.valueOf(i));
+      }
+      assertNull(ring.poll());
+    }
+  }
+
+  @Test
+  public void deliversEveryElementOnce() throws InterruptedException {
+    final int producers = 3;
+    final int consumers = 3;
+    final int perProducer = 100000;
+    final RingBuffer<Integer> ring = new RingBuffer<>(64);
+    final AtomicIntegerArray seen = new AtomicIntegerArray(producers * perProducer);
+    List<Thread> threads = new ArrayList<>();
+    for (int p = 0; p < producers; p++) {
+      final int base = p * perProducer;
+      threads.add(new Thread(() -> {
+        for (int i = 0; i < perProducer; i++) {
+          while (!ring.offer(base + i)) {
+            Thread.yield();
+          }
+        }
+      }));
+    }
+    for (int c = 0; c < consumers; c++) {
+      threads.add(new Thread(() -> {
+        for (int i = 0; i < perProducer; i++) {
+          Integer element;
+          while ((element = ring.poll()) == null) {
+            Thread.yield();
+          }
+          seen.incrementAndGet(element);
+        }
+      }));
+    }
+    for (Thread t : threads) {
+      t.start();
+    }
+    for (Thread t : threads) {
+      t.join();
+    }
+    for (int i = 0; i < seen.length(); i++) {
+      assertEquals(seen.get(i), 1, "element " + i);
+    }
+    assertNull(ring.poll());
+  }
+}
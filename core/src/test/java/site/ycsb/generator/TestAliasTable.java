@@ -0,0 +1,62 @@
+/**
+ * Copyright (c) 2025 YCSB contributors. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+
+package site.ycsb.generator;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+import java.util.SplittableRandom;
+
+import org.testng.annotations.Test;
+
+public class TestAliasTable {
+
+  @Test
+  public void drawsInProportionToWeights() {
+    double[] weights = {1, 0, 3, 0.5, 5.5};
+    AliasTable table = new AliasTable(weights);
+    SplittableRandom random = new SplittableRandom(7);
+    int draws = 200000;
+    int[] counts = new int[weights.length];
+    for (int i = 0; i < draws; i++) {
+      counts[table.next(random)]++;
+    }
+    assertEquals(counts[1], 0);
+    for (int i = 0; i < weights.length; i++) {
+      double expected = draws * weights[i] / 10;
+      assertTrue(Math.abs(counts[i] - expected) <= draws * 0.01, i + " drawn " + counts[i] + " times");
+    }
+  }
+
+  @Test
+  public void coversTheWholeUnitInterval() {
+    AliasTable table = new AliasTable(new double[]{1, 1, 1});
+    assertEquals(table.next(0.0), 0);
+    assertEquals(table.next(Math.nextDown(1.0)), 2);
+  }
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void rejectsAllZeroWeights() {
+    new AliasTable(new double[]{0, 0});
+  }
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void rejectsNegativeWeights() {
+    new AliasTable(new double[]{1, -1});
+  }
+}
@@ -0,0 +1,123 @@
+/**
+ * Copyright (c) 2025 YCSB contributors. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+
+package site.ycsb.generator;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+
+import org.testng.annotations.Test;
+
+public class TestLiveIdSet {
+
+  @Test
+  public void emptySetHasNothingToRemove() {
+    LiveIdSet ids = new LiveIdSet();
+    assertNull(ids.remove());
+    assertNull(ids.sample());
+    ids.add("a");
+    assertEquals(ids.sample(), "a");
+    assertEquals(ids.remove(), "a");
+    assertNull(ids.remove());
+    assertTrue(ids.isEmpty());
+  }
+
+  @Test
+  public void removesEveryIdExactlyOnce() {
+    LiveIdSet ids = new LiveIdSet();
+    int count = LiveIdSet.CHUNK_SIZE * 2 + 5;
+    for (int i = 0; i < count; i++) {
+      ids.add("id" + i);
+    }
+    Set<String> removed = new HashSet<>();
+    String id;
+    while ((id = ids.remove()) != null) {
+      assertTrue(removed.add(id), id + " removed twice");
+    }
+    assertEquals(removed.size(), count);
+  }
+
+  @Test
+  public void refillsEmptiedSlots() {
+    LiveIdSet ids = new LiveIdSet();
+    for (int i = 0; i < 1000; i++) {
+      ids.add("a" + i);
+    }
+    for (int i = 0; i < 900; i++) {
+      assertNotNull(ids.remove());
+    }
+    for (int i = 0; i < 900; i++) {
+      ids.add("b" + i);
+    }
+    assertEquals(ids.size(), 1000);
+    Set<String> left = new HashSet<>();
+    String id;
+    while ((id = ids.remove()) != null) {
+      left.add(id);
+    }
+    assertEquals(left.size(), 1000);
+  }
+
+  @Test
+  public void concurrentAddsAndRemovesLoseNothing() throws InterruptedException {
+    final LiveIdSet ids = new LiveIdSet();
+    final int threads = 8;
+    final int perThread = 20000;
+    final Set<String> removed = ConcurrentHashMap.newKeySet();
+    final CountDownLatch start = new CountDownLatch(1);
+    List<Thread> workers = new ArrayList<>();
+    for (int t = 0; t < threads; t++) {
+      final int thread = t;
+      Thread worker = new Thread(() -> {
+        try {
+          start.await();
+        } catch (InterruptedException e) {
+          return;
+        }
+        for (int i = 0; i < perThread; i++) {
+          ids.add(thread + "-" + i);
+          if (i % 3 == 0) {
+            String id = ids.remove();
+            if (id != null && !removed.add(id)) {
+              throw new AssertionError(id + " removed twice");
+            }
+          }
+        }
+      });
+      workers.add(worker);
+      worker.start();
+    }
+    start.countDown();
+    for (Thread worker : workers) {
+      worker.join();
+    }
+    String id;
+    while ((id = ids.remove()) != null) {
+      assertTrue(removed.add(id), id + " removed twice");
+    }
+    assertEquals(removed.size(), threads * perThread);
+  }
+}
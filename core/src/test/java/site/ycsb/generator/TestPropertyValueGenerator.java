@@ -0,0 +1,126 @@
+/**
+ * Copyright (c) 2025 YCSB contributors. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+
+package site.ycsb.generator;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotEquals;
+import static org.testng.Assert.assertTrue;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+import org.testng.annotations.Test;
+
+public class TestPropertyValueGenerator {
+  private static final int ELEMENTS = 100000;
+
+  private static Properties properties(String... pairs) {
+    Properties p = new Properties();
+    for (int i = 0; i < pairs.length; i += 2) {
+      p.setProperty(pairs[i], pairs[i + 1]);
+    }
+    return p;
+  }
+
+  /**
+   * Assign values to generated elements and measure the average number of matches of lookups.
+   */
+  private static double measuredMatches(PropertyValueGenerator values) {
+    Map<String, Integer> counts = new HashMap<>();
+    for (int i = 0; i < ELEMENTS; i++) {
+      counts.merge(values.forElement("v" + i), 1, Integer::sum);
+    }
+    SplittableRandom random = values.threadRandom(0);
+    long matches = 0;
+    int lookups = 20000;
+    for (int i = 0; i < lookups; i++) {
+      matches += counts.getOrDefault(values.next(random), 0);
+    }
+    return (double) matches / lookups;
+  }
+
+  @Test
+  public void defaultsToAThousandValues() {
+    PropertyValueGenerator values = new PropertyValueGenerator(new Properties(), ELEMENTS, 0);
+    assertEquals(values.cardinality(), 1000);
+    assertEquals(values.value(0).length(), 8);
+  }
+
+  @Test
+  public void derivesCardinalityFromSelectivity() {
+    PropertyValueGenerator values = new PropertyValueGenerator(
+        properties(PropertyValueGenerator.SELECTIVITY_PROPERTY, "10"), ELEMENTS, 0);
+    assertEquals(values.cardinality(), ELEMENTS / 10);
+    assertEquals(values.expectedMatches(), 10.0, 1e-9);
+    double measured = measuredMatches(values);
+    assertTrue(measured > 8 && measured < 12, "lookups matched " + measured);
+  }
+
+  @Test
+  public void meetsSelectivityUnderSkew() {
+    PropertyValueGenerator values = new PropertyValueGenerator(
+        properties(PropertyValueGenerator.SELECTIVITY_PROPERTY, "50",
+            PropertyValueGenerator.DISTRIBUTION_PROPERTY, "zipfian",
+            PropertyValueGenerator.ZIPFIAN_CONSTANT_PROPERTY, "0.5"), ELEMENTS, 0);
+    assertTrue(values.expectedMatches() <= 50 && values.expectedMatches() > 49, "" + values.expectedMatches());
+    // Skew needs more values than the uniform ELEMENTS / 50 for the same selectivity.
+    assertTrue(values.cardinality() > ELEMENTS / 50);
+    double measured = measuredMatches(values);
+    assertTrue(measured > 40 && measured < 60, "lookups matched " + measured);
+  }
+
+  @Test
+  public void capsAnUnreachableSelectivity() {
+    PropertyValueGenerator values = new PropertyValueGenerator(
+        properties(PropertyValueGenerator.SELECTIVITY_PROPERTY, "1",
+            PropertyValueGenerator.DISTRIBUTION_PROPERTY, "zipfian"), 1000000000L, 0);
+    assertEquals(values.cardinality(), PropertyValueGenerator.MAX_CARDINALITY);
+    assertTrue(values.expectedMatches() > 1, "" + values.expectedMatches());
+  }
+
+  @Test
+  public void valuesAreDistinctAndReproducible() {
+    Properties p = properties(PropertyValueGenerator.CARDINALITY_PROPERTY, "200000",
+        PropertyValueGenerator.LENGTH_PROPERTY, "2");
+    PropertyValueGenerator values = new PropertyValueGenerator(p, ELEMENTS, 0);
+    Set<String> seen = new HashSet<>();
+    for (int i = 0; i < values.cardinality(); i++) {
+      assertTrue(seen.add(values.value(i)), "duplicate value " + values.value(i));
+    }
+    // Four letters are needed to tell 200000 values apart.
+    assertEquals(values.value(0).length(), 4);
+
+    PropertyValueGenerator again = new PropertyValueGenerator(p, ELEMENTS, 0);
+    assertEquals(again.forElement("v42"), values.forElement("v42"));
+    assertEquals(again.next(again.threadRandom(3)), values.next(values.threadRandom(3)));
+
+    // Letters beyond the ones numbering the values depend on the seed and the stream.
+    PropertyValueGenerator vertices = new PropertyValueGenerator(new Properties(), ELEMENTS, 0);
+    PropertyValueGenerator edges = new PropertyValueGenerator(new Properties(), ELEMENTS, 1);
+    assertNotEquals(edges.value(7), vertices.value(7));
+  }
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void rejectsUnknownDistribution() {
+    new PropertyValueGenerator(properties(PropertyValueGenerator.DISTRIBUTION_PROPERTY, "gaussian"), ELEMENTS, 0);
+  }
+}
@@ -0,0 +1,103 @@
+/**
+ * Copyright (c) 2025 YCSB contributors. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+
+package site.ycsb.generator;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+import org.testng.annotations.Test;
+
+import site.ycsb.RecordFile;
+import site.ycsb.RecordReader;
+
+public class TestSyntheticGraph {
+
+  private static SyntheticGraph graph(String distribution) {
+    Properties p = new Properties();
+    p.setProperty(SyntheticGraph.VERTEX_COUNT_PROPERTY, "1000");
+    p.setProperty(SyntheticGraph.EDGE_COUNT_PROPERTY, "20000");
+    p.setProperty(SyntheticGraph.SEED_PROPERTY, "42");
+    p.setProperty(SyntheticGraph.DEGREE_DISTRIBUTION_PROPERTY, distribution);
+    p.setProperty(SyntheticGraph.VERTEX_LABELS_PROPERTY, "person:3,company:1");
+    return new SyntheticGraph(p);
+  }
+
+  @Test
+  public void slicesMatchSequentialGeneration() throws IOException {
+    SyntheticGraph graph = graph("rmat");
+    RecordFile edges = graph.edges();
+    RecordReader all = edges.open(0);
+    RecordReader slice = edges.open(12345);
+    all.skip(12345);
+    for (int i = 0; i < 100; i++) {
+      assertEquals(slice.nextObject(), all.nextObject());
+    }
+    assertEquals(slice.position(), 12445);
+    assertEquals(edges.openAt(slice.position()).nextObject(), slice.nextObject());
+    assertEquals(graph.generate(true, 7), graph("rmat").generate(true, 7));
+  }
+
+  @Test
+  public void generatesSchema() throws IOException {
+    RecordReader vertices = graph("uniform").vertices().open(999);
+    Map<String, String> vertex = vertices.nextObject();
+    assertEquals(vertex.get("_id"), "v999");
+    assertTrue(vertex.get("_type").equals("person") || vertex.get("_type").equals("company"));
+    assertEquals(vertex.get("name").length(), 16);
+    assertTrue(Integer.parseInt(vertex.get("age")) < 100);
+    assertNull(vertices.nextObject());
+  }
+
+  @Test
+  public void rmatEndpointsAreSkewed() throws IOException {
+    for (String distribution : new String[]{"rmat", "uniform"}) {
+      Map<String, Integer> degrees = new HashMap<>();
+      RecordReader edges = graph(distribution).edges().open(0);
+      Map<String, String> edge;
+      while ((edge = edges.nextObject()) != null) {
+        for (String endpoint : new String[]{edge.get("_outV"), edge.get("_inV")}) {
+          assertTrue(Long.parseLong(endpoint.substring(1)) < 1000);
+          degrees.merge(endpoint, 1, Integer::sum);
+        }
+      }
+      int max = 0;
+      for (int degree : degrees.values()) {
+        max = Math.max(max, degree);
+      }
+      // The mean degree is 40; R-MAT concentrates edges on a few hubs.
+      if (distribution.equals("rmat")) {
+        assertTrue(max > 400, "max degree " + max);
+      } else {
+        assertTrue(max < 100, "max degree " + max);
+      }
+    }
+  }
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void rejectsInvalidSchema() {
+    Properties p = new Properties();
+    p.setProperty(SyntheticGraph.VERTEX_PROPERTIES_PROPERTY, "name:blob:3");
+    new SyntheticGraph(p);
+  }
+}
@@ -58,4 +58,27 @@ public class TestMeasurementsExporter {
         assertEquals(json.get(4).get("measurement").asText(), "MaxLatency(us)");
         assertEquals(json.get(11).get("measurement").asText(), "4");
     }
+
+    @Test
+    public void testGaugeExportsMeanAndMax() throws IOException {
+        Measurements mm = new Measurements(new Properties());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        JSONArrayMeasurementsExporter export = new JSONArrayMeasurementsExporter(out);
+
+        for (int depth = 1; depth <= 4; depth++) {
+            mm.gauge("DEPTH", depth);
+        }
+        mm.exportMeasurements(export);
+        export.close();
+
+        JsonNode json = new ObjectMapper().readTree(out.toString("UTF-8"));
+        assertEquals(json.size(), 3);
+        assertEquals(json.get(0).get("metric").asText(), "DEPTH");
+        assertEquals(json.get(0).get("measurement").asText(), "Samples");
+        assertEquals(json.get(0).get("value").asLong(), 4);
+        assertEquals(json.get(1).get("measurement").asText(), "Mean");
+        assertEquals(json.get(1).get("value").asDouble(), 2.5, 1e-9);
+        assertEquals(json.get(2).get("measurement").asText(), "Max");
+        assertEquals(json.get(2).get("value").asLong(), 4);
+    }
 }
@@ -0,0 +1,155 @@
+/**
+ * Copyright (c) 2025 YCSB contributors. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+
+package site.ycsb.workloads;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import site.ycsb.IdRegistry;
+import site.ycsb.JsonObjectStreamer;
+
+public class TestAdjacencyIndex {
+  /** A star around v0, a triangle v1-v2-v3, v4 isolated and an edge to a vertex never loaded. */
+  private static final String[][] EDGES = {
+      {"v1", "v0"}, {"v2", "v0"}, {"v3", "v0"},
+      {"v1", "v2"}, {"v2", "v3"}, {"v3", "v1"},
+      {"v1", "x9"},
+  };
+
+  private File ids;
+  private File edges;
+  private IdRegistry registry;
+  private AdjacencyIndex index;
+  private final SplittableRandom random = new SplittableRandom(42);
+
+  @BeforeMethod
+  public void buildIndex() throws IOException {
+    ids = File.createTempFile("adjacency", ".loaded");
+    try (IdRegistry.Writer writer = new IdRegistry.Writer(ids.getPath())) {
+      for (int i = 0; i < 5; i++) {
+        writer.add("v" + i);
+      }
+    }
+    edges = File.createTempFile("adjacency", ".json");
+    try (Writer w = new FileWriter(edges)) {
+      w.write("[");
+      for (int i = 0; i < EDGES.length; i++) {
+        w.write((i > 0 ? "," : "") + "{\"_id\": \"e" + i + "\", \"_outV\": \"" + EDGES[i][0]
+            + "\", \"_inV\": \"" + EDGES[i][1] + "\"}");
+      }
+      w.write("]");
+    }
+    registry = IdRegistry.open(ids.getPath());
+    try (JsonObjectStreamer reader = new JsonObjectStreamer(edges.getPath())) {
+      index = AdjacencyIndex.build(registry, reader, EDGES.length, 2, 2);
+    }
+  }
+
+  @AfterMethod
+  public void deleteFiles() throws IOException {
+    registry.close();
+    ids.delete();
+    edges.delete();
+  }
+
+  private Set<String> neighbours(String id) {
+    Set<String> seen = new HashSet<>();
+    for (int i = 0; i < 1000; i++) {
+      String neighbour = index.randomNeighbour(id, random);
+      if (neighbour != null) {
+        seen.add(neighbour);
+      }
+    }
+    return seen;
+  }
+
+  private static Set<String> set(String... ids) {
+    Set<String> set = new HashSet<>();
+    for (String id : ids) {
+      set.add(id);
+    }
+    return set;
+  }
+
+  @Test
+  public void indexesLoadedEdgesInBothDirections() {
+    assertEquals(index.loadedEdges(), EDGES.length - 1);
+    assertEquals(neighbours("v0"), set("v1", "v2", "v3"));
+    assertEquals(neighbours("v1"), set("v0", "v2", "v3"));
+    assertNull(index.randomNeighbour("v4", random));
+    assertNull(index.randomNeighbour("x9", random));
+    assertTrue(index.hasEdges("v0"));
+    assertFalse(index.hasEdges("v4"));
+  }
+
+  @Test
+  public void weightsVerticesByInDegree() {
+    int hub = 0;
+    for (int i = 0; i < 6000; i++) {
+      if (index.weightedVertex(random).equals("v0")) {
+        hub++;
+      }
+    }
+    // v0 is the target of three of the six edges.
+    assertTrue(hub > 2500 && hub < 3500, "v0 drawn " + hub + " times");
+  }
+
+  @Test
+  public void tracksAddedAndRemovedElements() {
+    index.addVertex("n0");
+    index.addEdge("a0", "n0", "v4");
+    assertEquals(neighbours("v4"), set("n0"));
+    assertEquals(neighbours("n0"), set("v4"));
+    assertTrue(index.hasEdges("n0"));
+
+    index.removeEdge("a0");
+    assertFalse(index.hasEdges("n0"));
+    assertNull(index.randomNeighbour("v4", random));
+
+    index.removeVertex("v1");
+    assertEquals(neighbours("v0"), set("v2", "v3"));
+    for (int i = 0; i < 1000; i++) {
+      assertFalse("v1".equals(index.randomVertex(random)));
+    }
+    index.restoreVertex("v1");
+    assertEquals(neighbours("v0"), set("v1", "v2", "v3"));
+  }
+
+  @Test
+  public void ignoresAdditionsBeyondItsRoom() {
+    index.addVertex("n0");
+    index.addVertex("n1");
+    index.addVertex("n2");
+    assertEquals(index.indexOf("n1"), 6);
+    assertEquals(index.indexOf("n2"), AdjacencyIndex.NONE);
+  }
+}
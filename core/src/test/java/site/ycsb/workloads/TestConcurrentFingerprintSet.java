@@ -0,0 +1,84 @@
+/**
+ * Copyright (c) 2025 YCSB contributors. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+
+package site.ycsb.workloads;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.testng.annotations.Test;
+
+public class TestConcurrentFingerprintSet {
+
+  @Test
+  public void addsAndFinds() {
+    ConcurrentFingerprintSet set = new ConcurrentFingerprintSet(1000);
+    for (int i = 0; i < 1000; i++) {
+      assertTrue(set.add("v" + i));
+    }
+    assertTrue(set.add("v0"));
+    assertEquals(set.size(), 1000);
+    for (int i = 0; i < 1000; i++) {
+      assertTrue(set.contains("v" + i));
+      assertFalse(set.contains("e" + i));
+    }
+  }
+
+  @Test
+  public void dropsAdditionsWhenFull() {
+    ConcurrentFingerprintSet set = new ConcurrentFingerprintSet(8);
+    int added = 0;
+    for (int i = 0; i < 100; i++) {
+      if (set.add("v" + i)) {
+        added++;
+      }
+    }
+    assertTrue(added >= 8 && added < 100);
+    assertEquals(set.size(), added);
+    assertFalse(set.contains("v99"));
+  }
+
+  @Test
+  public void concurrentAdds() throws InterruptedException {
+    final int threads = 4;
+    final int perThread = 20000;
+    final ConcurrentFingerprintSet set = new ConcurrentFingerprintSet(threads * perThread);
+    List<Thread> workers = new ArrayList<>();
+    for (int t = 0; t < threads; t++) {
+      final int offset = t;
+      Thread worker = new Thread(() -> {
+        // Every thread adds every other thread's IDs too, so slots are contended.
+        for (int i = 0; i < threads * perThread; i++) {
+          set.add("v" + ((i + offset * perThread) % (threads * perThread)));
+        }
+      });
+      workers.add(worker);
+      worker.start();
+    }
+    for (Thread worker : workers) {
+      worker.join();
+    }
+    assertEquals(set.size(), threads * perThread);
+    for (int i = 0; i < threads * perThread; i++) {
+      assertTrue(set.contains("v" + i));
+    }
+  }
+}
@@ -16,13 +16,16 @@
  */
 package site.ycsb.workloads;
 
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
 import static org.testng.Assert.assertTrue;
 
 import java.util.Properties;
+import java.util.SplittableRandom;
 
 import org.testng.annotations.Test;
 
-import site.ycsb.generator.DiscreteGenerator;
+import site.ycsb.Workload.Operation;
 
 public class TestCoreWorkload {
 
@@ -33,21 +36,22 @@ public class TestCoreWorkload {
     p.setProperty(CoreWorkload.READ_PROPORTION_PROPERTY, "0.20");
     p.setProperty(CoreWorkload.UPDATE_PROPORTION_PROPERTY, "0.20");
     p.setProperty(CoreWorkload.DELETE_PROPORTION_PROPERTY, "0.20");
-    final DiscreteGenerator generator = CoreWorkload.createOperationGenerator(p);
+    final OperationChooser generator = CoreWorkload.createOperationGenerator(p);
+    final SplittableRandom random = new SplittableRandom(1);
     final int[] counts = new int[4];
     
     for (int i = 0; i < 100; ++i) {
-      switch (generator.nextString()) {
-      case "CREATE":
+      switch (OperationChooser.groupProperty(generator.next(random))) {
+      case CoreWorkload.CREATE_PROPORTION_PROPERTY:
         ++counts[0];
         break;
-      case "READ":
+      case CoreWorkload.READ_PROPORTION_PROPERTY:
         ++counts[1];
         break;
-      case "UPDATE":
+      case CoreWorkload.UPDATE_PROPORTION_PROPERTY:
         ++counts[2];
         break;
-      case "DELETE":
+      case CoreWorkload.DELETE_PROPORTION_PROPERTY:
         ++counts[3];
         break;
       default:
@@ -62,6 +66,42 @@ public class TestCoreWorkload {
     }
   }
   
+  @Test
+  public void operationProportionOverridesGroup() {
+    final Properties p = new Properties();
+    p.setProperty(CoreWorkload.READ_PROPORTION_PROPERTY, "0.5");
+    p.setProperty(CoreWorkload.UPDATE_PROPORTION_PROPERTY, "0");
+    p.setProperty(CoreWorkload.CREATE_PROPORTION_PROPERTY, "0");
+    p.setProperty(OperationChooser.proportionProperty(Operation.GET_VERTEX_WITH_PROPERTY), "2");
+    p.setProperty(OperationChooser.proportionProperty(Operation.GET_EDGE_LABELS), "0");
+    final OperationChooser generator = CoreWorkload.createOperationGenerator(p);
+    // Four reads weigh 0.5 each, GET_VERTEX_WITH_PROPERTY 2.
+    assertEquals(generator.proportion(Operation.GET_VERTEX_WITH_PROPERTY), 0.5, 1e-9);
+    assertEquals(generator.proportion(Operation.GET_VERTEX_COUNT), 0.125, 1e-9);
+    assertEquals(generator.proportion(Operation.GET_EDGE_LABELS), 0.0);
+    final SplittableRandom random = new SplittableRandom(2);
+    for (int i = 0; i < 1000; ++i) {
+      final Operation operation = generator.next(random);
+      assertTrue(operation.name().startsWith("GET_") && operation != Operation.GET_EDGE_LABELS,
+          operation + " drawn");
+    }
+  }
+
+  @Test
+  public void visibilityProbeOnlyRunsWhenEnabled() {
+    final Properties p = new Properties();
+    p.setProperty(CoreWorkload.READ_PROPORTION_PROPERTY, "1");
+    p.setProperty(CoreWorkload.CREATE_PROPORTION_PROPERTY, "0");
+    p.setProperty(CoreWorkload.UPDATE_PROPORTION_PROPERTY, "0");
+    p.setProperty(CoreWorkload.DELETE_PROPORTION_PROPERTY, "0");
+    assertNull(OperationChooser.groupProperty(Operation.PROBE_VISIBILITY));
+    assertEquals(CoreWorkload.createOperationGenerator(p).proportion(Operation.PROBE_VISIBILITY), 0.0);
+    p.setProperty(OperationChooser.proportionProperty(Operation.PROBE_VISIBILITY), "6");
+    final OperationChooser generator = CoreWorkload.createOperationGenerator(p);
+    // Six reads weigh 1 each.
+    assertEquals(generator.proportion(Operation.PROBE_VISIBILITY), 0.5, 1e-9);
+  }
+
   @Test (expectedExceptions = IllegalArgumentException.class)
   public void createOperationChooserNullProperties() {
     CoreWorkload.createOperationGenerator(null);
@@ -0,0 +1,141 @@
+/**
+ * Copyright (c) 2025 YCSB contributors. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+
+package site.ycsb.workloads;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Properties;
+
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import site.ycsb.IdRegistry;
+import site.ycsb.WorkloadException;
+
+public class TestIdChooser {
+  private static final int IDS = 1000;
+  private static final int DRAWS = 20000;
+
+  private File file;
+  private IdRegistry registry;
+
+  @BeforeClass
+  public void writeRegistry() throws IOException {
+    file = File.createTempFile("idchooser", ".loaded");
+    try (IdRegistry.Writer writer = new IdRegistry.Writer(file.getPath())) {
+      for (int i = 0; i < IDS; i++) {
+        writer.add("v" + i);
+      }
+    }
+    registry = IdRegistry.open(file.getPath());
+  }
+
+  @AfterClass
+  public void deleteRegistry() throws IOException {
+    registry.close();
+    file.delete();
+  }
+
+  /**
+   * @return How many draws fall in each tenth of the registry.
+   */
+  private int[] histogram(String distribution) throws WorkloadException {
+    Properties p = new Properties();
+    p.setProperty(CoreWorkload.REQUEST_DISTRIBUTION_PROPERTY, distribution);
+    IdChooser chooser = IdChooser.create(registry, p);
+    int[] tenths = new int[10];
+    for (int i = 0; i < DRAWS; i++) {
+      int index = Integer.parseInt(chooser.next().substring(1));
+      assertTrue(index >= 0 && index < IDS, distribution + " chose " + index);
+      tenths[index * 10 / IDS]++;
+    }
+    return tenths;
+  }
+
+  @Test
+  public void uniformSpreadsOverAllIds() throws WorkloadException {
+    for (int count : histogram("uniform")) {
+      assertTrue(count > DRAWS / 20, "tenth drawn " + count + " times");
+    }
+  }
+
+  @Test
+  public void skewedDistributionsFavourTheirEnd() throws WorkloadException {
+    assertTrue(histogram("zipfian")[0] > DRAWS / 2);
+    assertTrue(histogram("latest")[9] > DRAWS / 2);
+    assertTrue(histogram("exponential")[9] > DRAWS / 5);
+    int[] hotspot = histogram("hotspot");
+    assertTrue(hotspot[0] + hotspot[1] > DRAWS * 3 / 4);
+    int[] scrambled = histogram("scrambledzipfian");
+    int max = 0;
+    for (int count : scrambled) {
+      max = Math.max(max, count);
+    }
+    assertTrue(max < DRAWS / 2, "scrambled zipfian concentrated " + max + " draws in one tenth");
+  }
+
+  @Test
+  public void sequentialWalksInOrder() throws WorkloadException {
+    Properties p = new Properties();
+    p.setProperty(CoreWorkload.REQUEST_DISTRIBUTION_PROPERTY, "sequential");
+    IdChooser chooser = IdChooser.create(registry, p);
+    for (int i = 0; i < IDS * 2; i++) {
+      assertEquals(chooser.next(), "v" + (i % IDS));
+    }
+  }
+
+  @Test
+  public void staysInsideItsSlice() throws WorkloadException {
+    Properties p = new Properties();
+    p.setProperty(CoreWorkload.REQUEST_DISTRIBUTION_PROPERTY, "latest");
+    IdChooser chooser = IdChooser.create(registry, 300, 200, p);
+    for (int i = 0; i < DRAWS; i++) {
+      int index = Integer.parseInt(chooser.next().substring(1));
+      assertTrue(index >= 300 && index < 500, "slice chooser chose " + index);
+    }
+  }
+
+  @Test
+  public void threadCopiesKeepTheirOwnPosition() throws WorkloadException {
+    Properties p = new Properties();
+    p.setProperty(CoreWorkload.REQUEST_DISTRIBUTION_PROPERTY, "sequential");
+    IdChooser chooser = IdChooser.create(registry, p);
+    assertEquals(chooser.next(), "v0");
+    assertEquals(chooser.next(), "v1");
+    IdChooser copy = chooser.forThread();
+    assertEquals(copy.next(), "v0");
+    assertEquals(chooser.next(), "v2");
+  }
+
+  @Test
+  public void emptyRegistryHasNothingToChoose() throws WorkloadException {
+    assertNull(IdChooser.create(IdRegistry.empty(), new Properties()).next());
+  }
+
+  @Test(expectedExceptions = WorkloadException.class)
+  public void rejectsUnknownDistribution() throws WorkloadException {
+    Properties p = new Properties();
+    p.setProperty(CoreWorkload.REQUEST_DISTRIBUTION_PROPERTY, "gaussian");
+    IdChooser.create(registry, p);
+  }
+}
@@ -0,0 +1,82 @@
+/**
+ * Copyright (c) 2025 YCSB contributors. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+
+package site.ycsb.workloads;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Properties;
+
+import org.testng.annotations.Test;
+
+import site.ycsb.WorkloadException;
+
+public class TestLoadCheckpoint {
+
+  private static Properties parameters(String vertexCount) {
+    Properties parameters = new Properties();
+    parameters.setProperty("vertexfile", "vertices.json");
+    parameters.setProperty("vertexcount", vertexCount);
+    return parameters;
+  }
+
+  @Test
+  public void resumesSavedCursors() throws IOException, WorkloadException {
+    File file = File.createTempFile("load", ".checkpoint");
+    LoadCheckpoint checkpoint = LoadCheckpoint.create(file.getPath(), parameters("100"), 2);
+    checkpoint.update(1, false, 40, 4096, 38, 40, 400);
+    checkpoint.update(0, true, 7, 512, 7, 7, 70);
+
+    LoadCheckpoint resumed = LoadCheckpoint.resume(file.getPath(), parameters("100"), 2);
+    LoadCheckpoint.Cursor cursor = resumed.get(1, false);
+    assertEquals(cursor.getRecords(), 40);
+    assertEquals(cursor.getPosition(), 4096);
+    assertEquals(cursor.getAcknowledged(), 38);
+    assertEquals(cursor.getIds(), 40);
+    assertEquals(cursor.getIdBytes(), 400);
+    assertEquals(resumed.get(0, true).getPosition(), 512);
+    assertEquals(resumed.get(0, false).getRecords(), 0);
+
+    resumed.delete();
+    assertFalse(file.exists());
+  }
+
+  @Test(expectedExceptions = WorkloadException.class)
+  public void rejectsDifferentLoad() throws IOException, WorkloadException {
+    File file = File.createTempFile("load", ".checkpoint");
+    try {
+      LoadCheckpoint.create(file.getPath(), parameters("100"), 2).save();
+      LoadCheckpoint.resume(file.getPath(), parameters("200"), 2);
+    } finally {
+      file.delete();
+    }
+  }
+
+  @Test(expectedExceptions = WorkloadException.class)
+  public void rejectsDifferentThreadCount() throws IOException, WorkloadException {
+    File file = File.createTempFile("load", ".checkpoint");
+    try {
+      LoadCheckpoint.create(file.getPath(), parameters("100"), 2).save();
+      LoadCheckpoint.resume(file.getPath(), parameters("100"), 4);
+    } finally {
+      file.delete();
+    }
+  }
+}
@@ -0,0 +1,250 @@
+/**
+ * Copyright (c) 2025 YCSB contributors. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+
+
+package site.ycsb.workloads;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import site.ycsb.DB;
+import site.ycsb.Status;
+import site.ycsb.Workload.Operation;
+import site.ycsb.WorkloadException;
+import site.ycsb.measurements.Measurements;
+
+public class TestOperationTrace {
+  private File directory;
+  private String prefix;
+  private final List<List<String>> recorded = new ArrayList<>();
+
+  @BeforeMethod
+  public void record() throws IOException {
+    Measurements.setProperties(new Properties());
+    directory = File.createTempFile("trace", "");
+    directory.delete();
+    directory.mkdir();
+    prefix = new File(directory, "run.trace").getPath();
+    recorded.clear();
+
+    OperationTrace.Writer[] writers = new OperationTrace.Writer[2];
+    TraceRecordingDB[] recorders = new TraceRecordingDB[2];
+    long start = System.nanoTime();
+    for (int i = 0; i < 2; i++) {
+      writers[i] = new OperationTrace.Writer(OperationTrace.filename(prefix, i), i, 2);
+      MockDB db = new MockDB();
+      recorded.add(db.calls);
+      recorders[i] = new TraceRecordingDB(db, writers[i], start);
+    }
+    Map<String, String> properties = new TreeMap<>();
+    properties.put("name", "caf\u00e9");
+    properties.put("searchKey", null);
+    for (int round = 0; round < 50; round++) {
+      // The threads alternate, so that a single replay thread must interleave their traces.
+      for (TraceRecordingDB db : recorders) {
+        db.addVertex("person", "v" + round, properties);
+        db.addEdge(null, "e" + round, "v" + round, "v0", Collections.<String, String>emptyMap());
+        db.getVertexCount();
+        db.getEdgeCount();
+        db.getEdgeLabels();
+        db.getVertexWithProperty("searchKey", "k" + round);
+        db.getEdgeWithProperty("searchKey", "");
+        db.getEdgesWithLabel("knows");
+        db.setVertexProperty("v" + round, "searchKey", "k" + round);
+        db.setEdgeProperty("e" + round, "searchKey", "k" + round);
+        db.removeVertex("v" + round);
+        db.removeEdge("e" + round);
+        db.removeVertexProperty("v" + round, "searchKey");
+        db.removeEdgeProperty("e" + round, "searchKey");
+        db.awaitVertexProperty("v" + round, "visibilityProbe", "probe-" + round);
+      }
+    }
+    for (int i = 0; i < 2; i++) {
+      assertNull(recorders[i].getFailure());
+      writers[i].close();
+    }
+  }
+
+  @AfterMethod
+  public void deleteTraces() {
+    for (File file : directory.listFiles()) {
+      file.delete();
+    }
+    directory.delete();
+  }
+
+  @Test
+  public void replaysEveryThreadInOrder() throws WorkloadException {
+    TraceReplayWorkload workload = new TraceReplayWorkload();
+    workload.init(replayProperties("fast"));
+    for (int i = 0; i < 2; i++) {
+      assertEquals(replay(workload, workload.initThread(new Properties(), i, 2)), recorded.get(i));
+    }
+    workload.cleanup();
+  }
+
+  @Test
+  public void interleavesTracesByStartTime() throws WorkloadException {
+    TraceReplayWorkload workload = new TraceReplayWorkload();
+    workload.init(replayProperties("recorded"));
+    List<String> calls = replay(workload, workload.initThread(new Properties(), 0, 1));
+    workload.cleanup();
+
+    List<String> expected = new ArrayList<>();
+    int perRound = Operation.values().length;
+    for (int op = 0; op < recorded.get(0).size(); op += perRound) {
+      expected.addAll(recorded.get(0).subList(op, op + perRound));
+      expected.addAll(recorded.get(1).subList(op, op + perRound));
+    }
+    assertEquals(calls, expected);
+  }
+
+  @Test
+  public void idleThreadsStopAtOnce() throws WorkloadException {
+    TraceReplayWorkload workload = new TraceReplayWorkload();
+    workload.init(replayProperties("fast"));
+    Object state = workload.initThread(new Properties(), 2, 3);
+    assertFalse(workload.doTransaction(new MockDB(), state));
+    workload.cleanup();
+  }
+
+  @Test(expectedExceptions = WorkloadException.class)
+  public void missingTraceIsRejected() throws WorkloadException {
+    new File(OperationTrace.filename(prefix, 1)).delete();
+    new TraceReplayWorkload().init(replayProperties("fast"));
+  }
+
+  private Properties replayProperties(String timing) {
+    Properties p = new Properties();
+    p.setProperty(TraceReplayWorkload.TRACE_FILE_PROPERTY, prefix);
+    p.setProperty(TraceReplayWorkload.TRACE_TIMING_PROPERTY, timing);
+    return p;
+  }
+
+  private static List<String> replay(TraceReplayWorkload workload, Object state) {
+    MockDB db = new MockDB();
+    while (workload.doTransaction(db, state)) {
+      // Until the end of the traces.
+    }
+    return db.calls;
+  }
+
+  /**
+   * Logs every call with its arguments.
+   */
+  private static final class MockDB extends DB {
+    private final List<String> calls = new ArrayList<>();
+
+    private Status log(Object... call) {
+      StringBuilder sb = new StringBuilder();
+      for (Object o : call) {
+        sb.append(o).append('|');
+      }
+      calls.add(sb.toString());
+      return Status.OK;
+    }
+
+    @Override
+    public Status addVertex(String label, String id, Map<String, String> properties) {
+      return log("addVertex", label, id, new TreeMap<>(properties));
+    }
+
+    @Override
+    public Status addEdge(String label, String id, String from, String to, Map<String, String> properties) {
+      return log("addEdge", label, id, from, to, new TreeMap<>(properties));
+    }
+
+    @Override
+    public Status getVertexCount() {
+      return log("getVertexCount");
+    }
+
+    @Override
+    public Status getEdgeCount() {
+      return log("getEdgeCount");
+    }
+
+    @Override
+    public Status getEdgeLabels() {
+      return log("getEdgeLabels");
+    }
+
+    @Override
+    public Status getVertexWithProperty(String key, String value) {
+      return log("getVertexWithProperty", key, value);
+    }
+
+    @Override
+    public Status getEdgeWithProperty(String key, String value) {
+      return log("getEdgeWithProperty", key, value);
+    }
+
+    @Override
+    public Status getEdgesWithLabel(String label) {
+      return log("getEdgesWithLabel", label);
+    }
+
+    @Override
+    public Status setVertexProperty(String id, String key, String value) {
+      return log("setVertexProperty", id, key, value);
+    }
+
+    @Override
+    public Status setEdgeProperty(String id, String key, String value) {
+      return log("setEdgeProperty", id, key, value);
+    }
+
+    @Override
+    public Status removeVertex(String id) {
+      return log("removeVertex", id);
+    }
+
+    @Override
+    public Status removeEdge(String id) {
+      return log("removeEdge", id);
+    }
+
+    @Override
+    public Status removeVertexProperty(String id, String key) {
+      return log("removeVertexProperty", id, key);
+    }
+
+    @Override
+    public Status removeEdgeProperty(String id, String key) {
+      return log("removeEdgeProperty", id, key);
+    }
+
+    @Override
+    public Status awaitVertexProperty(String id, String key, String value) {
+      return log("awaitVertexProperty", id, key, value);
+    }
+  }
+}
@@ -0,0 +1,87 @@
+package site.ycsb.db;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * The connections of the bounded HTTP/1.1 pool, shared by all the client threads. A request
+ * takes one right before it is sent and gives it back once its exchange is over. A request
+ * chained behind an outstanding write waits for its connection without blocking a thread,
+ * since it is sent by the thread completing that write: an HttpClient or coalescer thread.
+ */
+final class ConnectionPermits {
+  private static final CompletableFuture<Void> GRANTED = CompletableFuture.completedFuture(null);
+
+  /** A lock rather than synchronized, which would pin the carriers of virtual threads. */
+  private final ReentrantLock lock = new ReentrantLock();
+  private final ArrayDeque<CompletableFuture<Void>> waiting = new ArrayDeque<>();
+  private int free;
+
+  /**
+   * @param size The number of connections.
+   */
+  ConnectionPermits(int size) {
+    this.free = size;
+  }
+
+  /**
+   * @return Completes once the caller holds a connection, in the order they were asked for.
+   */
+  CompletableFuture<Void> acquire() {
+    lock.lock();
+    try {
+      if (free > 0) {
+        free--;
+        return GRANTED;
+      }
+      CompletableFuture<Void> permit = new CompletableFuture<>();
+      waiting.add(permit);
+      return permit;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Wait for a connection, blocking the calling thread.
+   */
+  void acquireInterruptibly() throws InterruptedException {
+    CompletableFuture<Void> permit = acquire();
+    try {
+      permit.get();
+    } catch (InterruptedException e) {
+      // Granted in the meantime, the connection goes to the next request.
+      if (!permit.cancel(false)) {
+        release();
+      }
+      throw e;
+    } catch (ExecutionException e) {
+      throw new IllegalStateException("A connection permit never fails", e);
+    }
+  }
+
+  /**
+   * Give a connection back, to the oldest request waiting for one if any.
+   */
+  void release() {
+    while (true) {
+      CompletableFuture<Void> next;
+      lock.lock();
+      try {
+        next = waiting.poll();
+        if (next == null) {
+          free++;
+          return;
+        }
+      } finally {
+        lock.unlock();
+      }
+      // Outside the lock: completing the permit sends the request that waited for it.
+      if (next.complete(null)) {
+        return;
+      }
+    }
+  }
+}
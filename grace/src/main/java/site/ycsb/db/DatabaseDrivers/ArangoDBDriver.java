@@ -111,4 +111,14 @@ public class ArangoDBDriver implements DatabaseClient {
       return false;
     }
   }
+
+  @Override
+  public boolean hasVertexProperty(String id, String key, String value) {
+    Map<String, Object> bindVars = new HashMap<>();
+    bindVars.put("id", id);
+    bindVars.put("key", key);
+    bindVars.put("value", value);
+    return db.query("FOR v IN vertices FILTER v.id == @id AND v[@key] == @value LIMIT 1 RETURN 1",
+        Integer.class, bindVars).hasNext();
+  }
 }
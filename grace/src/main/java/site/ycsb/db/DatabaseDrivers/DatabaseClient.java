@@ -11,4 +11,11 @@ public boolean getEdgeLabels();
 public boolean getVertexWithProperty(String key, String value);
 public boolean getEdgeWithProperty(String key, String value);
 public boolean getEdgesWithLabel(String label);
+
+/**
+ * Check whether a vertex property value is visible yet, for the visibility probe. Unlike the
+ * operations above this one reports a failed query by throwing rather than returning false,
+ * since false means the value is not there yet.
+ */
+public boolean hasVertexProperty(String id, String key, String value);
 }
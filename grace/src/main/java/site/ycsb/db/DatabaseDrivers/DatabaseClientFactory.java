@@ -1,6 +1,9 @@
 package site.ycsb.db.DatabaseDrivers;
 
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
 
 public class DatabaseClientFactory {
 
@@ -13,6 +16,28 @@ public class DatabaseClientFactory {
       "janusgraph", new GremlinDriver()
   );
 
+  /** Guards {@link #connected}; not synchronized, so that waiting virtual threads do not pin their carriers. */
+  private static final ReentrantLock lock = new ReentrantLock();
+  private static final Set<String> connected = new HashSet<>();
+
+  /**
+   * Return the client of a database, connecting it on the first call. The clients are shared
+   * by all the GraceClient instances, which must not connect them again.
+   */
+  public static DatabaseClient connect(String name, String uri) {
+    DatabaseClient client = getDatabaseClient(name);
+    lock.lock();
+    try {
+      if (!connected.contains(name.toLowerCase())) {
+        client.connect(name, uri);
+        connected.add(name.toLowerCase());
+      }
+    } finally {
+      lock.unlock();
+    }
+    return client;
+  }
+
   public static DatabaseClient getDatabaseClient(String name) {
     DatabaseClient client = clients.get(name.toLowerCase());
     if (client == null) {
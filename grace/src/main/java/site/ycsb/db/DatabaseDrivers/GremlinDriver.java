@@ -85,4 +85,9 @@ public class GremlinDriver implements DatabaseClient {
       return false;
     }
   }
+
+  @Override
+  public boolean hasVertexProperty(String id, String key, String value) {
+    return g.V().has("id", id).has(key, value).hasNext();
+  }
 }
@@ -107,4 +107,10 @@ public class MongodbDriver implements DatabaseClient {
     }
     return true;
   }
+
+  @Override
+  public boolean hasVertexProperty(String id, String key, String value) {
+    return this.mongoClient.getDatabase("grace").getCollection("vertices")
+        .find(new org.bson.Document("id", id).append(key, value)).first() != null;
+  }
 }
@@ -4,17 +4,16 @@ package site.ycsb.db.DatabaseDrivers;
 import org.neo4j.driver.Driver;
 import org.neo4j.driver.GraphDatabase;
 import org.neo4j.driver.Session;
+import org.neo4j.driver.Values;
 
 public class Neo4jDriver implements DatabaseClient {
   String name;
   Driver neo4jDriver;
-  Session session;
   @Override
   public void connect(String name, String URI) {
     try {
       this.name = name;
       this.neo4jDriver = GraphDatabase.driver(URI);
-      this.session = neo4jDriver.session();
       neo4jDriver.verifyConnectivity();
     } catch (Exception e) {
       System.out.println("Failed to connect to Neo4j database: " + e.getMessage());
@@ -26,7 +25,7 @@ public class Neo4jDriver implements DatabaseClient {
   public boolean getVertexCount() {
 
     try{
-      session.run("MATCH (n) RETURN count(n)");
+      run("MATCH (n) RETURN count(n)");
       return true;
     }
     catch (Exception e){
@@ -38,7 +37,7 @@ public class Neo4jDriver implements DatabaseClient {
   @Override
   public boolean getEdgeCount() {
     try{
-      session.run("MATCH ()-[r]->() RETURN count(r)");
+      run("MATCH ()-[r]->() RETURN count(r)");
       return true;
     }
     catch (Exception e){
@@ -50,7 +49,7 @@ public class Neo4jDriver implements DatabaseClient {
   @Override
   public boolean getEdgeLabels() {
     try{
-      session.run("MATCH ()-[r]->() RETURN DISTINCT type(r)");
+      run("MATCH ()-[r]->() RETURN DISTINCT type(r)");
       return true;
     }
     catch (Exception e){
@@ -62,7 +61,7 @@ public class Neo4jDriver implements DatabaseClient {
   @Override
   public boolean getVertexWithProperty(String key, String value) {
     try{
-      session.run("MATCH (n) WHERE n." + key + " = '" + value + "' RETURN n");
+      run("MATCH (n) WHERE n." + key + " = '" + value + "' RETURN n");
       return true;
     }
     catch (Exception e){
@@ -74,7 +73,7 @@ public class Neo4jDriver implements DatabaseClient {
   @Override
   public boolean getEdgeWithProperty(String key, String value) {
     try{
-      session.run("MATCH ()-[r]->() WHERE r." + key + " = '" + value + "' RETURN r");
+      run("MATCH ()-[r]->() WHERE r." + key + " = '" + value + "' RETURN r");
       return true;
     }
     catch (Exception e){
@@ -86,7 +85,7 @@ public class Neo4jDriver implements DatabaseClient {
   @Override
   public boolean getEdgesWithLabel(String label) {
     try{
-      session.run("MATCH ()-[r:" + label + "]->() RETURN r");
+      run("MATCH ()-[r:" + label + "]->() RETURN r");
       return true;
     }
     catch (Exception e){
@@ -94,4 +93,22 @@ public class Neo4jDriver implements DatabaseClient {
       return false;
     }
   }
+
+  @Override
+  public boolean hasVertexProperty(String id, String key, String value) {
+    try (Session session = neo4jDriver.session()) {
+      return session.run("MATCH (n) WHERE n.id = $id AND n." + key + " = $value RETURN count(n)",
+          Values.parameters("id", id, "value", value)).single().get(0).asLong() > 0;
+    }
+  }
+
+  /**
+   * Run a query to completion in a session of its own: the driver is shared by all the client
+   * threads and pools the connections, while a session must not be used concurrently.
+   */
+  private void run(String query) {
+    try (Session session = neo4jDriver.session()) {
+      session.run(query).consume();
+    }
+  }
 }
@@ -4,28 +4,199 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import site.ycsb.DB;
 import site.ycsb.DBException;
+import site.ycsb.EdgeRecord;
 import site.ycsb.Status;
+import site.ycsb.VertexRecord;
+import site.ycsb.measurements.Measurements;
 import site.ycsb.db.DatabaseDrivers.DatabaseClient;
 import site.ycsb.db.DatabaseDrivers.DatabaseClientFactory;
 
 import java.net.URI;
+import java.net.URISyntaxException;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Flow;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Pattern;
 
 public class GraceClient extends DB {
 
+  /**
+   * How long, in milliseconds, awaitVertexProperty() polls DBURI for a value written through
+   * HOSTURI before giving up.
+   */
+  public static final String VISIBILITY_TIMEOUT_PROPERTY = "visibility.timeout";
+  public static final String VISIBILITY_TIMEOUT_PROPERTY_DEFAULT = "10000";
+
+  /**
+   * The wait, in microseconds, after the first poll that does not see the value yet; it
+   * doubles after every further miss, up to {@link #VISIBILITY_MAX_BACKOFF_NANOS}.
+   */
+  public static final String VISIBILITY_BACKOFF_PROPERTY = "visibility.backoff";
+  public static final String VISIBILITY_BACKOFF_PROPERTY_DEFAULT = "100";
+
+  private static final long VISIBILITY_MAX_BACKOFF_NANOS = 10000000L;
+
+  /**
+   * Send the writes with HttpClient.sendAsync and measure each one when its response arrives,
+   * instead of blocking the client thread for the round trip. The workload counts a write as
+   * acknowledged once it is queued, see {@link DB#defer()}.
+   */
+  public static final String ASYNC_PROPERTY = "grace.async";
+  public static final String ASYNC_PROPERTY_DEFAULT = "false";
+
+  /**
+   * The maximum number of asynchronous writes a client has outstanding; a write waits for a
+   * slot once the window is full.
+   */
+  public static final String ASYNC_WINDOW_PROPERTY = "grace.async.window";
+  public static final String ASYNC_WINDOW_PROPERTY_DEFAULT = "64";
+
+  /**
+   * The HTTP version to talk to GRACE: 1.1, or 2 to multiplex all the requests over a single
+   * connection (h2c on an http URI, negotiated through an upgrade by the first request).
+   */
+  public static final String HTTP_VERSION_PROPERTY = "grace.http.version";
+  public static final String HTTP_VERSION_PROPERTY_DEFAULT = "1.1";
+
+  /**
+   * With HTTP/1.1, the number of keep-alive connections all the client threads share; a
+   * request waits for a free connection once they are all busy. 0 opens a connection for
+   * every concurrent request.
+   */
+  public static final String HTTP_CONNECTIONS_PROPERTY = "grace.http.connections";
+  public static final String HTTP_CONNECTIONS_PROPERTY_DEFAULT = "0";
+
+  /**
+   * How long, in seconds, an idle connection is kept open. Unset keeps the JDK default.
+   */
+  public static final String HTTP_KEEPALIVE_PROPERTY = "grace.http.keepalive";
+
+  /**
+   * The number of requests in flight, over all the connections, sampled when a request is
+   * sent; exported as a gauge, its mean and maximum.
+   */
+  private static final String IN_FLIGHT_MEASUREMENT = "HTTP_IN_FLIGHT";
+  /**
+   * The outcome of the exchanges: the version of the response, or a failure to get one, from
+   * a refused or reset connection to a timeout.
+   */
+  private static final String TRANSPORT_MEASUREMENT = "HTTP_TRANSPORT";
+  private static final Status HTTP_1_1 = new Status("HTTP_1_1", "The response came over HTTP/1.1.");
+  private static final Status HTTP_2 = new Status("HTTP_2", "The response came over HTTP/2.");
+  private static final Status TRANSPORT_FAILURE = new Status("TRANSPORT_FAILURE",
+      "The exchange failed before a response arrived.");
+
+  /**
+   * Read the body of the responses to check that they do not report an error despite a
+   * successful status code.
+   */
+  public static final String VALIDATE_PROPERTY = "grace.response.validate";
+  public static final String VALIDATE_PROPERTY_DEFAULT = "false";
+
+  /**
+   * The number of bytes of a response body read for the validation; the rest is discarded.
+   */
+  public static final String VALIDATE_MAX_BYTES_PROPERTY = "grace.response.maxbytes";
+  public static final String VALIDATE_MAX_BYTES_PROPERTY_DEFAULT = "4096";
+
+  /**
+   * The regular expression that, found in the body of a successful response, makes the
+   * operation fail with UNEXPECTED_STATE.
+   */
+  public static final String VALIDATE_ERROR_PATTERN_PROPERTY = "grace.response.errorpattern";
+  public static final String VALIDATE_ERROR_PATTERN_PROPERTY_DEFAULT = "\"error\"\\s*:";
+
+  /**
+   * Coalesce the vertex and edge insertions of all the client threads into micro-batches sent
+   * to the bulk endpoints, to compare group commit with a commit per write.
+   */
+  public static final String COALESCE_PROPERTY = "grace.coalesce";
+  public static final String COALESCE_PROPERTY_DEFAULT = "false";
+
+  /**
+   * The maximum number of writes in a coalesced batch.
+   */
+  public static final String COALESCE_MAX_BATCH_PROPERTY = "grace.coalesce.maxbatch";
+  public static final String COALESCE_MAX_BATCH_PROPERTY_DEFAULT = "64";
+
+  /**
+   * How long, in microseconds, the oldest write of a coalesced batch waits for more writes
+   * before the batch is sent.
+   */
+  public static final String COALESCE_LINGER_PROPERTY = "grace.coalesce.linger";
+  public static final String COALESCE_LINGER_PROPERTY_DEFAULT = "100";
+
+  /** The statuses counting the HTTP status codes of the responses, one per code. */
+  private static final Map<Integer, Status> HTTP_STATUSES = new ConcurrentHashMap<>();
+
+  /**
+   * Guards the creation of {@link #httpClient}. A lock rather than synchronized, which would
+   * pin the carriers of the virtual threads waiting for it.
+   */
+  private static final ReentrantLock HTTP_CLIENT_LOCK = new ReentrantLock();
   private static HttpClient httpClient;
+  /** The free connections of the bounded HTTP/1.1 pool, null when it is not bounded. */
+  private static ConnectionPermits connections;
+  private static final AtomicInteger IN_FLIGHT = new AtomicInteger();
+  /**
+   * The last outstanding write on each element. All the instances share it: the workload hands
+   * an element to every client thread as soon as its insertion returns, before GRACE
+   * acknowledged it, so the writes of the other threads must wait for it too.
+   */
+  private static final Map<String, CompletableFuture<?>> OUTSTANDING_WRITES = new ConcurrentHashMap<>();
+  /** Chains the writes on several elements one at a time, see {@link #chain}. */
+  private static final ReentrantLock CHAIN_LOCK = new ReentrantLock();
+  /** Batch the insertions of all the instances, null when they are not coalesced. */
+  private static WriteCoalescer vertexCoalescer;
+  private static WriteCoalescer edgeCoalescer;
   private static Properties props = new Properties();
   private final Logger log = LoggerFactory.getLogger(getClass());
   private DatabaseClient dbDriver;
+  private Measurements measurements;
+  /** Handles the response bodies, discarding them unless they are validated. */
+  private HttpResponse.BodyHandler<byte[]> bodyHandler = HttpResponse.BodyHandlers.replacing(null);
+  private Pattern errorPattern;
+  private long visibilityTimeoutNanos;
+  private long visibilityBackoffNanos;
+  /** The slots of the outstanding asynchronous writes, null when writing synchronously. */
+  private Semaphore window;
+  private int windowSize;
+  /** The body of the request being built, reused by all the requests of this client. */
+  private final JsonBodyWriter json = new JsonBodyWriter();
+  private URI addVertexUri;
+  private URI addEdgeUri;
+  private URI addVerticesUri;
+  private URI addEdgesUri;
+  private URI setVertexPropertyUri;
+  private URI setEdgePropertyUri;
+  private URI deleteVertexUri;
+  private URI deleteEdgeUri;
+  private URI removeVertexPropertyUri;
+  private URI removeEdgePropertyUri;
   private Set<String> Vertices = new HashSet<>();
   private Set<String> Edges = new HashSet<>();
 
   public GraceClient() {
+    this(null);
+  }
+
+  /**
+   * @param dbDriver The read path to poll instead of the driver connected to DBURI, or null.
+   */
+  GraceClient(DatabaseClient dbDriver) {
     System.out.println("GraceClient  Created");
+    this.dbDriver = dbDriver;
   }
 
   @Override
@@ -38,6 +209,21 @@ public class GraceClient extends DB {
       throw new DBException("GRACE HOSTURI must be provided");
     }
     System.out.println("GRACE HOSTURI: " + props.getProperty("HOSTURI"));
+    try {
+      String host = props.getProperty("HOSTURI");
+      addVertexUri = new URI(host + "/api/addVertex");
+      addEdgeUri = new URI(host + "/api/addEdge");
+      addVerticesUri = new URI(host + "/api/addVertices");
+      addEdgesUri = new URI(host + "/api/addEdges");
+      setVertexPropertyUri = new URI(host + "/api/setVertexProperty");
+      setEdgePropertyUri = new URI(host + "/api/setEdgeProperty");
+      deleteVertexUri = new URI(host + "/api/deleteVertex");
+      deleteEdgeUri = new URI(host + "/api/deleteEdge");
+      removeVertexPropertyUri = new URI(host + "/api/removeVertexProperty");
+      removeEdgePropertyUri = new URI(host + "/api/removeEdgeProperty");
+    } catch (URISyntaxException e) {
+      throw new DBException("Invalid GRACE HOSTURI " + props.getProperty("HOSTURI"), e);
+    }
 
     if(props.getProperty("DBTYPE")==null){
       System.out.println("DBTYPE must be provided");
@@ -51,79 +237,208 @@ public class GraceClient extends DB {
     }
     System.out.println("DBURI: "+props.getProperty("DBURI"));
 
-    dbDriver = DatabaseClientFactory.getDatabaseClient(props.getProperty("DBTYPE"));
-    dbDriver.connect(props.getProperty("DBTYPE"), props.getProperty("DBURI"));
+    if (dbDriver == null) {
+      dbDriver = DatabaseClientFactory.connect(props.getProperty("DBTYPE"), props.getProperty("DBURI"));
+    }
+    visibilityTimeoutNanos = 1000000L * Long.parseLong(
+        props.getProperty(VISIBILITY_TIMEOUT_PROPERTY, VISIBILITY_TIMEOUT_PROPERTY_DEFAULT));
+    visibilityBackoffNanos = 1000L * Long.parseLong(
+        props.getProperty(VISIBILITY_BACKOFF_PROPERTY, VISIBILITY_BACKOFF_PROPERTY_DEFAULT));
+    if (Boolean.parseBoolean(props.getProperty(ASYNC_PROPERTY, ASYNC_PROPERTY_DEFAULT))) {
+      windowSize = Integer.parseInt(props.getProperty(ASYNC_WINDOW_PROPERTY, ASYNC_WINDOW_PROPERTY_DEFAULT));
+      if (windowSize < 1) {
+        throw new DBException(ASYNC_WINDOW_PROPERTY + " must be at least 1");
+      }
+      window = new Semaphore(windowSize);
+    }
 
+    if (Boolean.parseBoolean(props.getProperty(VALIDATE_PROPERTY, VALIDATE_PROPERTY_DEFAULT))) {
+      final int maxBytes = Integer.parseInt(
+          props.getProperty(VALIDATE_MAX_BYTES_PROPERTY, VALIDATE_MAX_BYTES_PROPERTY_DEFAULT));
+      bodyHandler = info -> HttpResponse.BodySubscribers.fromSubscriber(new BoundedBody(maxBytes), BoundedBody::bytes);
+      errorPattern = Pattern.compile(
+          props.getProperty(VALIDATE_ERROR_PATTERN_PROPERTY, VALIDATE_ERROR_PATTERN_PROPERTY_DEFAULT));
+    }
+    measurements = Measurements.getMeasurements();
+    createHttpClient();
+    if (Boolean.parseBoolean(props.getProperty(COALESCE_PROPERTY, COALESCE_PROPERTY_DEFAULT))) {
+      createCoalescers();
+    }
+  }
 
-    httpClient = HttpClient.newBuilder()
-        .version(HttpClient.Version.HTTP_1_1)
-        .followRedirects(HttpClient.Redirect.NORMAL)
-        .connectTimeout(Duration.ofSeconds(5))
-        .build();
+  /**
+   * Create the coalescers on the first call; all the instances share them, so that the
+   * writes of all the client threads are batched together.
+   */
+  private void createCoalescers() throws DBException {
+    int maxBatch = Integer.parseInt(
+        props.getProperty(COALESCE_MAX_BATCH_PROPERTY, COALESCE_MAX_BATCH_PROPERTY_DEFAULT));
+    long linger = Long.parseLong(props.getProperty(COALESCE_LINGER_PROPERTY, COALESCE_LINGER_PROPERTY_DEFAULT));
+    if (maxBatch < 1 || linger < 0) {
+      throw new DBException(COALESCE_MAX_BATCH_PROPERTY + " must be at least 1 and "
+          + COALESCE_LINGER_PROPERTY + " not negative");
+    }
+    HTTP_CLIENT_LOCK.lock();
+    try {
+      if (vertexCoalescer == null) {
+        final URI vertices = addVerticesUri;
+        final URI edges = addEdgesUri;
+        vertexCoalescer = new WriteCoalescer("grace-coalesce-vertices", maxBatch, linger,
+            body -> sendBatch("HTTP_ADD_VERTEX", vertices, body));
+        edgeCoalescer = new WriteCoalescer("grace-coalesce-edges", maxBatch, linger,
+            body -> sendBatch("HTTP_ADD_EDGE", edges, body));
+      }
+    } finally {
+      HTTP_CLIENT_LOCK.unlock();
+    }
+  }
 
+  /**
+   * Forget the HTTP client and the coalescers all the instances share, sending the writes the
+   * coalescers still hold, so that the next instance creates them from its own properties. For
+   * the tests, which configure them differently.
+   */
+  static void resetShared() throws InterruptedException {
+    HTTP_CLIENT_LOCK.lock();
+    try {
+      if (vertexCoalescer != null) {
+        vertexCoalescer.close();
+        edgeCoalescer.close();
+      }
+      vertexCoalescer = null;
+      edgeCoalescer = null;
+      httpClient = null;
+      connections = null;
+    } finally {
+      HTTP_CLIENT_LOCK.unlock();
+    }
   }
 
-  @Override
-  public Status addVertex(String label, String id, Map<String, String> properties) {
-//    System.out.println("Add Vertex");
-//    return Status.OK;
-    int status = 0;
+  /**
+   * Create the HttpClient on the first call. All the instances share it, so that thousands of
+   * client threads share one connection pool and selector thread instead of one each.
+   */
+  private static void createHttpClient() throws DBException {
+    HTTP_CLIENT_LOCK.lock();
     try {
-      String vertexProperties = "";
-      for (Map.Entry<String, String> entry : properties.entrySet()) {
-        vertexProperties += "\""+entry.getKey()+"\":\""+ entry.getValue() +"\",";
+      if (httpClient == null) {
+        HttpClient.Version version;
+        String name = props.getProperty(HTTP_VERSION_PROPERTY, HTTP_VERSION_PROPERTY_DEFAULT);
+        if (name.equals("1.1")) {
+          version = HttpClient.Version.HTTP_1_1;
+        } else if (name.equals("2")) {
+          version = HttpClient.Version.HTTP_2;
+        } else {
+          throw new DBException("Unknown " + HTTP_VERSION_PROPERTY + " " + name + ", expected 1.1 or 2");
+        }
+        int size = Integer.parseInt(props.getProperty(HTTP_CONNECTIONS_PROPERTY, HTTP_CONNECTIONS_PROPERTY_DEFAULT));
+        if (size > 0 && version == HttpClient.Version.HTTP_1_1) {
+          connections = new ConnectionPermits(size);
+          // The pool of the JDK client is only sized by these, read when the first client is built.
+          if (System.getProperty("jdk.httpclient.connectionPoolSize") == null) {
+            System.setProperty("jdk.httpclient.connectionPoolSize", Integer.toString(size));
+          }
+        }
+        String keepAlive = props.getProperty(HTTP_KEEPALIVE_PROPERTY);
+        if (keepAlive != null && System.getProperty("jdk.httpclient.keepalive.timeout") == null) {
+          System.setProperty("jdk.httpclient.keepalive.timeout", keepAlive);
+        }
+        httpClient = HttpClient.newBuilder()
+            .version(version)
+            .followRedirects(HttpClient.Redirect.NORMAL)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
       }
+    } finally {
+      HTTP_CLIENT_LOCK.unlock();
+    }
+  }
 
-      String reqBody = " { \"label\": [\"YCSBVertex\"], \"properties\": {"+vertexProperties+"\"id\":\""+id+"\"}}";
-      String targetString = props.getProperty("HOSTURI") + "/api/addVertex";
-//      System.out.println(targetString);
-//      System.out.println(reqBody);
-      URI target = new URI(targetString);
-      HttpRequest request = HttpRequest.newBuilder()
-          .uri(target)
-          .POST(HttpRequest.BodyPublishers.ofString(reqBody))
-          .header("Content-Type", "application/json")
-          .build();
-      HttpResponse<?> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
-//      System.out.println(response.statusCode());
-      status += response.statusCode();
-      return Status.OK;
-    } catch (Exception e) {
-      return Status.ERROR;
+  @Override
+  public Status addVertex(String label, String id, Map<String, String> properties) {
+    json.reset();
+    appendVertexBody(id, properties);
+    if (vertexCoalescer != null) {
+      return coalesce(vertexCoalescer, id);
     }
+    return post("HTTP_ADD_VERTEX", addVertexUri, id);
   }
+
   @Override
   public Status addEdge(String label, String id, String from, String to, Map<String, String> properties) {
-    int status = 0;
-    try {
-      String edgeProperties = "";
-      for (Map.Entry<String, String> entry : properties.entrySet()) {
-        edgeProperties += "\""+entry.getKey()+"\":\""+entry.getValue().toString()+"\",";
+    json.reset();
+    appendEdgeBody(id, from, to, properties);
+    if (edgeCoalescer != null) {
+      return coalesce(edgeCoalescer, id, from, to);
+    }
+    return post("HTTP_ADD_EDGE", addEdgeUri, id, from, to);
+  }
+
+  /**
+   * Insert the batch with a single request to the bulk endpoint; the body is a JSON array of
+   * the bodies addVertex() would have sent.
+   */
+  @Override
+  public Status addVertices(List<VertexRecord> vertices) {
+    json.reset().raw('[');
+    boolean first = true;
+    for (VertexRecord v : vertices) {
+      if (!first) {
+        json.raw(',');
       }
+      first = false;
+      appendVertexBody(v.getId(), v.getProperties());
+    }
+    json.raw(']');
+    return send("HTTP_ADD_VERTEX", addVerticesUri);
+  }
 
-      String reqBody = " { \"sourcePropName\": \"id\"" +
-                            ",\"sourcePropValue\":\"" + from +"\""+
-                            ",\"targetPropName\": \"id\"" +
-                            ",\"targetPropValue\":\"" + to +"\""+
-                            ",\"relationType\": [\"YCSBEdge\"]" +
-                            ",\"properties\": {"+edgeProperties+"\"id\":\""+id+"\"}}";
-      String targetString = props.getProperty("HOSTURI") + "/api/addEdge";
-//      System.out.println(targetString);
-//      System.out.println(reqBody);
-      URI target = new URI(targetString);
-      HttpRequest request = HttpRequest.newBuilder()
-          .uri(target)
-          .POST(HttpRequest.BodyPublishers.ofString(reqBody))
-          .header("Content-Type", "application/json")
-          .build();
-      HttpResponse<?> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
-//      System.out.println(response.statusCode());
-      status += response.statusCode();
-      return Status.OK;
-    } catch (Exception e) {
-      return Status.ERROR;
+  /**
+   * Insert the batch with a single request to the bulk endpoint; the body is a JSON array of
+   * the bodies addEdge() would have sent.
+   */
+  @Override
+  public Status addEdges(List<EdgeRecord> edges) {
+    json.reset().raw('[');
+    boolean first = true;
+    for (EdgeRecord e : edges) {
+      if (!first) {
+        json.raw(',');
+      }
+      first = false;
+      appendEdgeBody(e.getId(), e.getFrom(), e.getTo(), e.getProperties());
     }
+    json.raw(']');
+    return send("HTTP_ADD_EDGE", addEdgesUri);
+  }
+
+  /**
+   * Write the body of a vertex straight into the request buffer; the properties are visited
+   * with forEach, which the reused property maps of the load phase serve without allocating.
+   */
+  private void appendVertexBody(String id, Map<String, String> properties) {
+    json.raw("{\"label\":[\"YCSBVertex\"],\"properties\":{");
+    appendProperties(properties);
+    json.raw("\"id\":").string(id).raw("}}");
+  }
+
+  private void appendEdgeBody(String id, String from, String to, Map<String, String> properties) {
+    json.raw("{\"sourcePropName\":\"id\",\"sourcePropValue\":").string(from)
+        .raw(",\"targetPropName\":\"id\",\"targetPropValue\":").string(to)
+        .raw(",\"relationType\":[\"YCSBEdge\"],\"properties\":{");
+    appendProperties(properties);
+    json.raw("\"id\":").string(id).raw("}}");
+  }
+
+  private void appendProperties(Map<String, String> properties) {
+    properties.forEach((key, value) -> json.string(key).raw(':').string(value).raw(','));
+  }
 
+  /**
+   * Start the body of a write on one property of an element.
+   */
+  private JsonBodyWriter propertyBody(String id, String key) {
+    return json.reset().raw("{\"id\":").string(id).raw(",\"key\":").string(key);
   }
 
   @Override
@@ -190,133 +505,432 @@ public class GraceClient extends DB {
 
   @Override
   public Status setVertexProperty(String id, String key, String value) {
-    try{
-      String reqBody = " { \"id\": \""+id+"\", \"key\": \""+key+"\", \"value\": \""+value.toString()+"\"}";
-      String targetString = props.getProperty("HOSTURI") + "/api/setVertexProperty";
-//      System.out.println(targetString);
-//      System.out.println(reqBody);
-      URI target = new URI(targetString);
-      HttpRequest request = HttpRequest.newBuilder()
-          .uri(target)
-          .POST(HttpRequest.BodyPublishers.ofString(reqBody))
-          .header("Content-Type", "application/json")
-          .build();
-      HttpResponse<?> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
-      return Status.OK;
-    } catch (Exception e){
-      return Status.ERROR;
-    }
+    propertyBody(id, key).raw(",\"value\":").string(value).raw('}');
+    return post("HTTP_SET_VERTEX_PROPERTY", setVertexPropertyUri, id);
   }
 
   @Override
   public Status setEdgeProperty(String id, String key, String value) {
+    propertyBody(id, key).raw(",\"value\":").string(value).raw('}');
+    return post("HTTP_SET_EDGE_PROPERTY", setEdgePropertyUri, id);
+  }
+
+  @Override
+  public Status removeVertex(String id) {
+    json.reset().raw("{\"id\":").string(id).raw('}');
+    return post("HTTP_REMOVE_VERTEX", deleteVertexUri, id);
+  }
+
+  @Override
+  public Status removeEdge(String id) {
+    json.reset().raw("{\"id\":").string(id).raw('}');
+    return post("HTTP_REMOVE_EDGE", deleteEdgeUri, id);
+  }
+
+  @Override
+  public Status removeVertexProperty(String id, String key) {
+    propertyBody(id, key).raw('}');
+    return post("HTTP_REMOVE_VERTEX_PROPERTY", removeVertexPropertyUri, id);
+  }
+
+  @Override
+  public Status removeEdgeProperty(String id, String key) {
+    propertyBody(id, key).raw('}');
+    return post("HTTP_REMOVE_EDGE_PROPERTY", removeEdgePropertyUri, id);
+  }
+
+  /**
+   * Send a write to GRACE. Synchronously, the call returns once the response arrived.
+   * Asynchronously, it returns as soon as the request is queued, blocking only while the
+   * window of outstanding requests is full, and the operation is measured when its response
+   * arrives. A request is only sent once the outstanding requests of all the clients on the
+   * same elements completed, so that the writes to an element reach GRACE in the order they
+   * were made.
+   *
+   * @param measurement The measurement counting the HTTP status codes of the operation.
+   * @param endpoint The endpoint, to which the body built in {@link #json} is sent.
+   * @param ids The elements the write depends on: the element written and, for an edge, its
+   *     endpoints.
+   */
+  private Status post(String measurement, URI endpoint, String... ids) {
+    if (window == null) {
+      return send(measurement, endpoint);
+    }
+    // The writer is reused before the response arrives, so the request gets a copy.
+    HttpRequest request = request(endpoint, json.copyPublisher());
     try {
-      String reqBody = " { \"id\": \"" + id + "\", \"key\": \"" + key + "\", \"value\": \"" + value.toString() + "\"}";
-      String targetString = props.getProperty("HOSTURI") + "/api/setEdgeProperty";
-//      System.out.println(targetString);
-//      System.out.println(reqBody);
-      URI target = new URI(targetString);
-      HttpRequest request = HttpRequest.newBuilder()
-          .uri(target)
-          .POST(HttpRequest.BodyPublishers.ofString(reqBody))
-          .header("Content-Type", "application/json")
-          .build();
-      HttpResponse<?> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
-        return Status.OK;
-    } catch (Exception e) {
+      window.acquire();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
       return Status.ERROR;
     }
+    CompletableFuture<Status> write = new CompletableFuture<>();
+    CompletableFuture<?> previous = chain(write, ids);
+    CompletableFuture<Status> result;
+    if (previous == null) {
+      try {
+        opening();
+      } catch (InterruptedException e) {
+        unchain(write, Status.ERROR, ids);
+        window.release();
+        Thread.currentThread().interrupt();
+        return Status.ERROR;
+      }
+      result = exchange(measurement, request);
+    } else {
+      // The connection is only taken once the writes ahead are done: a request holding one
+      // while it waits could starve them, a coalesced batch in particular, of a connection.
+      result = previous.handle((r, e) -> null)
+          .thenCompose(ignored -> exchangeWhenConnected(measurement, request));
+    }
+    return track(write, result, ids);
   }
 
-  @Override
-  public Status removeVertex(String id) {
-    int status = 0;
+  /**
+   * Queue an insertion built in {@link #json} for the next batch of a coalescer.
+   * Synchronously, the call returns once the batch was acknowledged, while the other client
+   * threads keep filling the batches; asynchronously, the insertion is deferred as in
+   * {@link #post}.
+   */
+  private Status coalesce(WriteCoalescer coalescer, String... ids) {
+    byte[] body = json.toByteArray();
+    if (window == null) {
+      return coalescer.add(body).join();
+    }
     try {
+      window.acquire();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return Status.ERROR;
+    }
+    CompletableFuture<Status> write = new CompletableFuture<>();
+    CompletableFuture<?> previous = chain(write, ids);
+    CompletableFuture<Status> result = previous == null
+        ? coalescer.add(body)
+        : previous.handle((r, e) -> null).thenCompose(ignored -> coalescer.add(body));
+    return track(write, result, ids);
+  }
 
-      String reqBody = "{\"id\":\""+id+"\"}";
-      String targetString = props.getProperty("HOSTURI") + "/api/deleteVertex";
-//      System.out.println(targetString);
-//      System.out.println(reqBody);
-      URI target = new URI(targetString);
-      HttpRequest request = HttpRequest.newBuilder()
-          .uri(target)
-          .POST(HttpRequest.BodyPublishers.ofString(reqBody))
-          .header("Content-Type", "application/json")
-          .build();
-      HttpResponse<?> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
-//      System.out.println(response.statusCode());
-      status += response.statusCode();
-        return Status.OK;
+  /**
+   * Make a write the outstanding one on its elements. Each element is swapped atomically, so
+   * that of two clients writing to the same element at once, one always waits for the other.
+   * A write on several elements swaps them all under one lock: two edges between the same
+   * vertices, chained element by element in a different order, could each wait for the other.
+   *
+   * @param write Completes once the write is acknowledged, see {@link #unchain}.
+   * @return The completion of the outstanding writes on the elements, or null if none.
+   */
+  private static CompletableFuture<?> chain(CompletableFuture<Status> write, String... ids) {
+    if (ids.length == 1) {
+      return swap(write, ids[0]);
+    }
+    CHAIN_LOCK.lock();
+    try {
+      return swapAll(write, ids);
+    } finally {
+      CHAIN_LOCK.unlock();
+    }
+  }
 
-    } catch (Exception e) {
-      return Status.ERROR;
+  private static CompletableFuture<?> swapAll(CompletableFuture<Status> write, String... ids) {
+    CompletableFuture<?> single = null;
+    List<CompletableFuture<?>> several = null;
+    for (String id : ids) {
+      CompletableFuture<?> previous = swap(write, id);
+      // An element named twice, such as both endpoints of a loop, was chained already.
+      if (previous == null || previous == write) {
+        continue;
+      }
+      if (single == null) {
+        single = previous;
+      } else {
+        if (several == null) {
+          several = new ArrayList<>();
+          several.add(single);
+        }
+        several.add(previous);
+      }
     }
+    return several == null ? single : CompletableFuture.allOf(several.toArray(new CompletableFuture<?>[0]));
   }
 
-  @Override
-  public Status removeEdge(String id) {
-    int status = 0;
+  /**
+   * @return The write the given one replaced as the outstanding write on an element, if any.
+   */
+  private static CompletableFuture<?> swap(CompletableFuture<Status> write, String id) {
+    if (id == null) {
+      return null;
+    }
+    CompletableFuture<?>[] previous = new CompletableFuture<?>[1];
+    OUTSTANDING_WRITES.compute(id, (k, pending) -> {
+      previous[0] = pending;
+      return write;
+    });
+    return previous[0];
+  }
+
+  /**
+   * Complete a write chained with {@link #chain}, letting the writes behind it go.
+   */
+  private static void unchain(CompletableFuture<Status> write, Status status, String... ids) {
+    for (String id : ids) {
+      if (id != null) {
+        OUTSTANDING_WRITES.remove(id, write);
+      }
+    }
+    write.complete(status);
+  }
+
+  /**
+   * Defer the operation being called until an asynchronous write completes, holding its slot
+   * of the window and making the later writes to the same elements wait for it.
+   *
+   * @param write The write chained on the elements.
+   * @param result Completes with the response to the write.
+   */
+  private Status track(CompletableFuture<Status> write, CompletableFuture<Status> result, String... ids) {
+    Completion completion = defer();
+    result.whenComplete((status, e) -> {
+      Status done = e == null ? status : Status.ERROR;
+      unchain(write, done, ids);
+      window.release();
+      completion.complete(done);
+    });
+    return Status.BATCHED_OK;
+  }
+
+  /**
+   * Send a request once a connection of the bounded pool, if any, is free, without blocking
+   * the calling thread.
+   */
+  private CompletableFuture<Status> exchangeWhenConnected(String measurement, HttpRequest request) {
+    if (connections == null) {
+      countInFlight();
+      return exchange(measurement, request);
+    }
+    return connections.acquire().thenCompose(ignored -> {
+      countInFlight();
+      return exchange(measurement, request);
+    });
+  }
+
+  /**
+   * Send a request whose connection was already taken with {@link #opening()}.
+   */
+  private CompletableFuture<Status> exchange(String measurement, HttpRequest request) {
+    return httpClient.sendAsync(request, bodyHandler).handle((r, e) -> {
+      closed(r, e);
+      return e == null ? status(measurement, r) : Status.ERROR;
+    });
+  }
+
+  /**
+   * Send a coalesced batch, from the thread of its coalescer.
+   */
+  private CompletableFuture<Status> sendBatch(String measurement, URI endpoint, byte[] body) {
+    try {
+      opening();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return CompletableFuture.completedFuture(Status.ERROR);
+    }
+    return exchange(measurement, request(endpoint, HttpRequest.BodyPublishers.ofByteArray(body)));
+  }
+
+  /**
+   * Send the body built in {@link #json} and wait for the response.
+   */
+  private Status send(String measurement, URI endpoint) {
+    HttpRequest request = request(endpoint, json.publisher());
     try {
-      String reqBody = "{\"id\":\""+id+"\"}";
-      String targetString = props.getProperty("HOSTURI") + "/api/deleteEdge";
-//      System.out.println(targetString);
-//      System.out.println(reqBody);
-      URI target = new URI(targetString);
-      HttpRequest request = HttpRequest.newBuilder()
-          .uri(target)
-          .POST(HttpRequest.BodyPublishers.ofString(reqBody))
-          .header("Content-Type", "application/json")
-          .build();
-      HttpResponse<?> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
-//      System.out.println(response);
-      status += response.statusCode();
-        return Status.OK;
+      opening();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return Status.ERROR;
+    }
+    HttpResponse<byte[]> response = null;
+    Throwable failure = null;
+    try {
+      response = httpClient.send(request, bodyHandler);
+      return status(measurement, response);
+    } catch (InterruptedException e) {
+      failure = e;
+      Thread.currentThread().interrupt();
+      return Status.ERROR;
     } catch (Exception e) {
+      failure = e;
       return Status.ERROR;
+    } finally {
+      closed(response, failure);
     }
   }
 
+  /**
+   * Wait for a connection of the bounded pool, if any, and count the request in flight.
+   */
+  private void opening() throws InterruptedException {
+    if (connections != null) {
+      connections.acquireInterruptibly();
+    }
+    countInFlight();
+  }
+
+  private void countInFlight() {
+    measurements.gauge(IN_FLIGHT_MEASUREMENT, IN_FLIGHT.incrementAndGet());
+  }
+
+  /**
+   * Release the connection of a request, reporting over which transport it completed.
+   */
+  private void closed(HttpResponse<?> response, Throwable failure) {
+    IN_FLIGHT.decrementAndGet();
+    if (connections != null) {
+      connections.release();
+    }
+    if (response != null) {
+      measurements.reportStatus(TRANSPORT_MEASUREMENT,
+          response.version() == HttpClient.Version.HTTP_2 ? HTTP_2 : HTTP_1_1);
+    } else if (!(failure instanceof InterruptedException)) {
+      measurements.reportStatus(TRANSPORT_MEASUREMENT, TRANSPORT_FAILURE);
+    }
+  }
+
+  /**
+   * Count the status code of a response and map it to the status of the operation, so that
+   * only the work GRACE accepted counts as successful.
+   */
+  private Status status(String measurement, HttpResponse<byte[]> response) {
+    int code = response.statusCode();
+    measurements.reportStatus(measurement,
+        HTTP_STATUSES.computeIfAbsent(code, c -> new Status(Integer.toString(c), "HTTP status " + c + ".")));
+    return status(code, response.body(), errorPattern);
+  }
+
+  /**
+   * Map the status code and, if it was read, the body of a response to the status of the
+   * operation.
+   *
+   * @param body The first bytes of the body, or null when the responses are not validated.
+   * @param errorPattern Marks the body of a successful response reporting an error.
+   */
+  static Status status(int code, byte[] body, Pattern errorPattern) {
+    Status status;
+    if (code >= 200 && code < 300) {
+      status = Status.OK;
+    } else if (code == 400 || code == 422) {
+      status = Status.BAD_REQUEST;
+    } else if (code == 401 || code == 403) {
+      status = Status.FORBIDDEN;
+    } else if (code == 404) {
+      status = Status.NOT_FOUND;
+    } else if (code == 501) {
+      status = Status.NOT_IMPLEMENTED;
+    } else if (code == 429 || code == 503) {
+      status = Status.SERVICE_UNAVAILABLE;
+    } else {
+      status = Status.ERROR;
+    }
+    if (status.isOk() && body != null && errorPattern.matcher(new String(body, StandardCharsets.UTF_8)).find()) {
+      status = Status.UNEXPECTED_STATE;
+    }
+    return status;
+  }
+
+  /**
+   * Keeps the first bytes of a response body and discards the rest, so that validating a
+   * response never buffers more than a bounded prefix of it.
+   */
+  private static final class BoundedBody implements Flow.Subscriber<List<ByteBuffer>> {
+    private final byte[] buffer;
+    private int length;
+
+    private BoundedBody(int maxBytes) {
+      buffer = new byte[maxBytes];
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+      subscription.request(Long.MAX_VALUE);
+    }
+
+    @Override
+    public void onNext(List<ByteBuffer> items) {
+      for (ByteBuffer item : items) {
+        int n = Math.min(item.remaining(), buffer.length - length);
+        item.get(buffer, length, n);
+        length += n;
+      }
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+    }
+
+    @Override
+    public void onComplete() {
+    }
+
+    private byte[] bytes() {
+      return Arrays.copyOf(buffer, length);
+    }
+  }
+
+  private static HttpRequest request(URI endpoint, HttpRequest.BodyPublisher body) {
+    return HttpRequest.newBuilder()
+        .uri(endpoint)
+        .POST(body)
+        .header("Content-Type", "application/json")
+        .build();
+  }
+
+  /**
+   * Wait for the asynchronous writes to an element that GRACE has not acknowledged yet, so
+   * that a visibility probe only polls once the write it looks for was acknowledged, as in
+   * synchronous mode.
+   */
   @Override
-  public Status removeVertexProperty(String id, String key) {
-    try{
-      String reqBody = " { \"id\": \""+id+"\", \"key\": \""+key+"\"}";
-      String targetString = props.getProperty("HOSTURI") + "/api/removeVertexProperty";
-//      System.out.println(targetString);
-//      System.out.println(reqBody);
-      URI target = new URI(targetString);
-      HttpRequest request = HttpRequest.newBuilder()
-          .uri(target)
-          .POST(HttpRequest.BodyPublishers.ofString(reqBody))
-          .header("Content-Type", "application/json")
-          .build();
-      HttpResponse<?> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
-     return Status.OK;
-  }catch (Exception e){
-      return Status.ERROR;
+  public void awaitWrites(String id) {
+    CompletableFuture<?> pending = OUTSTANDING_WRITES.get(id);
+    if (pending != null) {
+      pending.handle((r, e) -> null).join();
     }
   }
 
+  /**
+   * Poll the read path, the driver on DBURI, until it returns the value written through
+   * GRACE on HOSTURI, backing off exponentially between the polls.
+   */
   @Override
-  public Status removeEdgeProperty(String id, String key) {
-    try{
-      String reqBody = " { \"id\": \""+id+"\", \"key\": \""+key+"\"}";
-      String targetString = props.getProperty("HOSTURI") + "/api/removeEdgeProperty";
-//      System.out.println(targetString);
-//      System.out.println(reqBody);
-      URI target = new URI(targetString);
-      HttpRequest request = HttpRequest.newBuilder()
-          .uri(target)
-          .POST(HttpRequest.BodyPublishers.ofString(reqBody))
-          .header("Content-Type", "application/json")
-          .build();
-      HttpResponse<?> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
-//      System.out.println(response);
+  public Status awaitVertexProperty(String id, String key, String value) {
+    long deadline = System.nanoTime() + visibilityTimeoutNanos;
+    long backoff = visibilityBackoffNanos;
+    try {
+      while (!dbDriver.hasVertexProperty(id, key, value)) {
+        long remaining = deadline - System.nanoTime();
+        if (remaining <= 0) {
+          return Status.NOT_FOUND;
+        }
+        LockSupport.parkNanos(Math.min(backoff, remaining));
+        backoff = Math.min(backoff * 2, VISIBILITY_MAX_BACKOFF_NANOS);
+      }
       return Status.OK;
-    }catch (Exception e){
+    } catch (Exception e) {
+      System.out.println("Exception in awaitVertexProperty: " + e.getMessage());
       return Status.ERROR;
     }
   }
 
+  /**
+   * Wait for the outstanding asynchronous writes, so that they are measured before the
+   * measurements are exported.
+   */
+  @Override
+  public void cleanup() throws DBException {
+    if (window != null) {
+      window.acquireUninterruptibly(windowSize);
+      window.release(windowSize);
+    }
+  }
 
 //
 //  @Override
@@ -0,0 +1,147 @@
+package site.ycsb.db;
+
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Writes a JSON request body as UTF-8 straight into a byte buffer that is reused from one
+ * request to the next, so that a request costs neither the intermediate strings of
+ * concatenation nor a final encoding pass. Strings are quoted and escaped; the structure
+ * around them is appended verbatim with {@link #raw(String)}.
+ * <p>
+ * A writer is not thread-safe; each GraceClient, hence each client thread, owns one.
+ */
+final class JsonBodyWriter {
+  private static final byte[] HEX = "0123456789abcdef".getBytes();
+
+  private byte[] buffer = new byte[1024];
+  private int length;
+
+  /**
+   * Discard the current body to start a new one.
+   */
+  JsonBodyWriter reset() {
+    length = 0;
+    return this;
+  }
+
+  /**
+   * Append JSON syntax, which must be ASCII, as is.
+   */
+  JsonBodyWriter raw(String ascii) {
+    int n = ascii.length();
+    ensure(n);
+    for (int i = 0; i < n; i++) {
+      buffer[length++] = (byte) ascii.charAt(i);
+    }
+    return this;
+  }
+
+  JsonBodyWriter raw(char ascii) {
+    ensure(1);
+    buffer[length++] = (byte) ascii;
+    return this;
+  }
+
+  /**
+   * Append a string value, quoted and escaped. A null is written as the string "null", as the
+   * bodies built by concatenation did.
+   */
+  JsonBodyWriter string(String value) {
+    String s = String.valueOf(value);
+    int n = s.length();
+    // Every char takes at most 6 bytes, as an escape or as 3 bytes of UTF-8.
+    ensure(6 * n + 2);
+    byte[] b = buffer;
+    int p = length;
+    b[p++] = '"';
+    for (int i = 0; i < n; i++) {
+      char c = s.charAt(i);
+      if (c >= 0x20 && c < 0x80) {
+        if (c == '"' || c == '\\') {
+          b[p++] = '\\';
+        }
+        b[p++] = (byte) c;
+      } else if (c < 0x20) {
+        b[p++] = '\\';
+        switch (c) {
+          case '\n':
+            b[p++] = 'n';
+            break;
+          case '\r':
+            b[p++] = 'r';
+            break;
+          case '\t':
+            b[p++] = 't';
+            break;
+          case '\b':
+            b[p++] = 'b';
+            break;
+          case '\f':
+            b[p++] = 'f';
+            break;
+          default:
+            b[p++] = 'u';
+            b[p++] = '0';
+            b[p++] = '0';
+            b[p++] = HEX[c >> 4];
+            b[p++] = HEX[c & 0xf];
+        }
+      } else if (c < 0x800) {
+        b[p++] = (byte) (0xc0 | c >> 6);
+        b[p++] = (byte) (0x80 | c & 0x3f);
+      } else if (Character.isHighSurrogate(c) && i + 1 < n && Character.isLowSurrogate(s.charAt(i + 1))) {
+        int cp = Character.toCodePoint(c, s.charAt(++i));
+        b[p++] = (byte) (0xf0 | cp >> 18);
+        b[p++] = (byte) (0x80 | cp >> 12 & 0x3f);
+        b[p++] = (byte) (0x80 | cp >> 6 & 0x3f);
+        b[p++] = (byte) (0x80 | cp & 0x3f);
+      } else if (Character.isSurrogate(c)) {
+        // An unpaired surrogate cannot be encoded, replace it as String.getBytes() would.
+        b[p++] = '?';
+      } else {
+        b[p++] = (byte) (0xe0 | c >> 12);
+        b[p++] = (byte) (0x80 | c >> 6 & 0x3f);
+        b[p++] = (byte) (0x80 | c & 0x3f);
+      }
+    }
+    b[p++] = '"';
+    length = p;
+    return this;
+  }
+
+  /**
+   * @return The body as a publisher reading the buffer itself, valid until the next
+   *     {@link #reset()}: only for a request that is sent before the writer is reused.
+   */
+  HttpRequest.BodyPublisher publisher() {
+    return HttpRequest.BodyPublishers.ofByteArray(buffer, 0, length);
+  }
+
+  /**
+   * @return The body as a publisher reading a copy of the buffer, for a request still in
+   *     flight when the writer is reused.
+   */
+  HttpRequest.BodyPublisher copyPublisher() {
+    return HttpRequest.BodyPublishers.ofByteArray(toByteArray());
+  }
+
+  /**
+   * @return A copy of the body.
+   */
+  byte[] toByteArray() {
+    return Arrays.copyOf(buffer, length);
+  }
+
+  @Override
+  public String toString() {
+    return new String(buffer, 0, length, StandardCharsets.UTF_8);
+  }
+
+  private void ensure(int more) {
+    if (length + more > buffer.length) {
+      buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, length + more));
+    }
+  }
+}
@@ -0,0 +1,175 @@
+package site.ycsb.db;
+
+import site.ycsb.Status;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Coalesces the writes of all the client threads to one bulk endpoint into micro-batches. A
+ * batch is sent once it holds the maximum number of writes, or once its oldest write waited
+ * for the linger time, as a JSON array of the bodies the writes would have sent on their own.
+ * Every write completes with the status of the response to its batch, so that the writes
+ * are measured from their enqueue to the acknowledgement of their batch.
+ * <p>
+ * A single daemon thread forms and sends the batches; the responses arrive asynchronously,
+ * so several batches can be in flight at once. Closing the coalescer sends the writes still
+ * queued without waiting for the linger time, and stops the thread.
+ */
+final class WriteCoalescer {
+  /**
+   * Sends a batch and completes with the status of its response.
+   */
+  interface Sender {
+    CompletableFuture<Status> send(byte[] body);
+  }
+
+  /** A write waiting for its batch. */
+  private static final class Pending {
+    private final byte[] body;
+    private final long enqueued;
+    private final CompletableFuture<Status> result = new CompletableFuture<>();
+
+    private Pending(byte[] body, long enqueued) {
+      this.body = body;
+      this.enqueued = enqueued;
+    }
+  }
+
+  private final int maxBatch;
+  private final long lingerNanos;
+  private final Sender sender;
+  /** A lock rather than synchronized, which would pin the carriers of virtual threads. */
+  private final ReentrantLock lock = new ReentrantLock();
+  private final Condition changed = lock.newCondition();
+  private final ArrayDeque<Pending> queue = new ArrayDeque<>();
+  private final Thread flusher;
+  private boolean closed;
+
+  /**
+   * @param name The name of the thread sending the batches.
+   * @param maxBatch The maximum number of writes in a batch.
+   * @param lingerMicros How long the oldest write of a batch waits for more writes.
+   * @param sender Sends the batches.
+   */
+  WriteCoalescer(String name, int maxBatch, long lingerMicros, Sender sender) {
+    this.maxBatch = maxBatch;
+    this.lingerNanos = TimeUnit.MICROSECONDS.toNanos(lingerMicros);
+    this.sender = sender;
+    flusher = new Thread(this::run, name);
+    flusher.setDaemon(true);
+    flusher.start();
+  }
+
+  /**
+   * Queue a write for the next batch.
+   *
+   * @param body The JSON body of the write.
+   * @return The status of the response to the batch of the write, an ERROR once the coalescer
+   *     is closed.
+   */
+  CompletableFuture<Status> add(byte[] body) {
+    Pending pending = new Pending(body, System.nanoTime());
+    lock.lock();
+    try {
+      if (closed) {
+        return CompletableFuture.completedFuture(Status.ERROR);
+      }
+      queue.add(pending);
+      if (queue.size() == 1 || queue.size() >= maxBatch) {
+        changed.signal();
+      }
+    } finally {
+      lock.unlock();
+    }
+    return pending.result;
+  }
+
+  /**
+   * Send the queued writes at once and stop the thread sending the batches, once it sent them.
+   * The responses to the last batches may still be on their way.
+   */
+  void close() throws InterruptedException {
+    lock.lock();
+    try {
+      closed = true;
+      changed.signal();
+    } finally {
+      lock.unlock();
+    }
+    flusher.join();
+  }
+
+  private void run() {
+    try {
+      List<Pending> batch;
+      while ((batch = next()) != null) {
+        flush(batch);
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /**
+   * Wait for a batch to fill up or for its oldest write to linger long enough, and take it.
+   *
+   * @return The batch, or null once the coalescer is closed and all its writes are taken.
+   */
+  private List<Pending> next() throws InterruptedException {
+    lock.lock();
+    try {
+      while (queue.isEmpty()) {
+        if (closed) {
+          return null;
+        }
+        changed.await();
+      }
+      long deadline = queue.peek().enqueued + lingerNanos;
+      long remaining;
+      while (!closed && queue.size() < maxBatch && (remaining = deadline - System.nanoTime()) > 0) {
+        changed.awaitNanos(remaining);
+      }
+      List<Pending> batch = new ArrayList<>(Math.min(queue.size(), maxBatch));
+      while (batch.size() < maxBatch && !queue.isEmpty()) {
+        batch.add(queue.poll());
+      }
+      return batch;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private void flush(List<Pending> batch) {
+    int length = 1 + batch.size();
+    for (Pending pending : batch) {
+      length += pending.body.length;
+    }
+    byte[] body = new byte[length];
+    int position = 0;
+    for (Pending pending : batch) {
+      body[position] = (byte) (position == 0 ? '[' : ',');
+      position++;
+      System.arraycopy(pending.body, 0, body, position, pending.body.length);
+      position += pending.body.length;
+    }
+    body[position] = ']';
+
+    CompletableFuture<Status> response;
+    try {
+      response = sender.send(body);
+    } catch (RuntimeException e) {
+      response = CompletableFuture.completedFuture(Status.ERROR);
+    }
+    response.whenComplete((status, e) -> {
+      for (Pending pending : batch) {
+        pending.result.complete(e == null ? status : Status.ERROR);
+      }
+    });
+  }
+}
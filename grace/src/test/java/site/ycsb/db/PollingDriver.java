@@ -0,0 +1,59 @@
+package site.ycsb.db;
+
+import site.ycsb.db.DatabaseDrivers.DatabaseClient;
+
+/**
+ * Shows the value from the given poll on, or fails every query.
+ */
+final class PollingDriver implements DatabaseClient {
+  private final int visibleAt;
+  int polls;
+  boolean failing;
+
+  PollingDriver(int visibleAt) {
+    this.visibleAt = visibleAt;
+  }
+
+  @Override
+  public boolean hasVertexProperty(String id, String key, String value) {
+    polls++;
+    if (failing) {
+      throw new IllegalStateException("query failed");
+    }
+    return polls >= visibleAt;
+  }
+
+  @Override
+  public void connect(String name, String uri) {
+  }
+
+  @Override
+  public boolean getVertexCount() {
+    return true;
+  }
+
+  @Override
+  public boolean getEdgeCount() {
+    return true;
+  }
+
+  @Override
+  public boolean getEdgeLabels() {
+    return true;
+  }
+
+  @Override
+  public boolean getVertexWithProperty(String key, String value) {
+    return true;
+  }
+
+  @Override
+  public boolean getEdgeWithProperty(String key, String value) {
+    return true;
+  }
+
+  @Override
+  public boolean getEdgesWithLabel(String label) {
+    return true;
+  }
+}
@@ -0,0 +1,78 @@
+package site.ycsb.db;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.Properties;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+import site.ycsb.DBException;
+import site.ycsb.db.DatabaseDrivers.DatabaseClient;
+
+/**
+ * A local HTTP server standing in for GRACE, and the clients sending their writes to it.
+ * The tests reset the state the clients share, see {@link GraceClient#resetShared()}, around
+ * every class, so that each class builds its own HttpClient and coalescers.
+ */
+final class StubServer {
+  private final HttpServer server;
+  private final ExecutorService executor = Executors.newCachedThreadPool();
+
+  StubServer() throws IOException {
+    server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+    server.setExecutor(executor);
+  }
+
+  /**
+   * Answer the requests to a path, and to the paths below it, with a handler.
+   */
+  StubServer respond(String path, HttpHandler handler) {
+    server.createContext(path, handler);
+    return this;
+  }
+
+  void start() {
+    server.start();
+  }
+
+  void stop() {
+    server.stop(0);
+    executor.shutdownNow();
+  }
+
+  /**
+   * @return The address of the server, to which GRACE paths are appended.
+   */
+  String uri() {
+    return "http://localhost:" + server.getAddress().getPort();
+  }
+
+  /**
+   * @param p Properties of the client on top of the connection to this server.
+   */
+  GraceClient client(Properties p) throws DBException {
+    return client(uri(), new PollingDriver(1), p);
+  }
+
+  /**
+   * Connect a client to GRACE and to a stand-in read path.
+   *
+   * @param hostUri The address of GRACE.
+   * @param driver The read path, in place of DBURI.
+   * @param p Properties of the client on top of the connection.
+   */
+  static GraceClient client(String hostUri, DatabaseClient driver, Properties p) throws DBException {
+    Properties properties = new Properties();
+    properties.setProperty("HOSTURI", hostUri);
+    properties.setProperty("DBTYPE", "neo4j");
+    properties.setProperty("DBURI", "bolt://localhost:1");
+    properties.putAll(p);
+    GraceClient client = new GraceClient(driver);
+    client.setProperties(properties);
+    client.init();
+    return client;
+  }
+}
@@ -0,0 +1,71 @@
+package site.ycsb.db;
+
+import static org.testng.Assert.assertEquals;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import site.ycsb.Status;
+import site.ycsb.measurements.Measurements;
+
+public class TestGraceClientConnections {
+  private StubServer server;
+  private final List<String> received = Collections.synchronizedList(new ArrayList<>());
+
+  @BeforeClass
+  public void setUp() throws IOException, InterruptedException {
+    Measurements.setProperties(new Properties());
+    GraceClient.resetShared();
+    server = new StubServer().respond("/api", exchange -> {
+      exchange.getRequestBody().readAllBytes();
+      received.add(exchange.getRequestURI().getPath());
+      exchange.sendResponseHeaders(200, -1);
+      exchange.close();
+    });
+    server.start();
+  }
+
+  @AfterClass
+  public void tearDown() throws InterruptedException {
+    GraceClient.resetShared();
+    server.stop();
+  }
+
+  /**
+   * With a single connection, an update chained behind a coalesced insertion must not take the
+   * connection the batch of the insertion needs.
+   */
+  @Test
+  public void chainedWriteLeavesTheConnectionToTheBatchAhead() throws Exception {
+    Properties p = new Properties();
+    p.setProperty(GraceClient.ASYNC_PROPERTY, "true");
+    p.setProperty(GraceClient.HTTP_CONNECTIONS_PROPERTY, "1");
+    p.setProperty(GraceClient.COALESCE_PROPERTY, "true");
+    // The update is queued long before the batch of the insertion leaves.
+    p.setProperty(GraceClient.COALESCE_LINGER_PROPERTY, Long.toString(TimeUnit.MILLISECONDS.toMicros(200)));
+    GraceClient client = server.client(p);
+
+    assertEquals(client.addVertex("YCSBVertex", "v1", Collections.emptyMap()), Status.BATCHED_OK);
+    assertEquals(client.setVertexProperty("v1", "name", "a"), Status.BATCHED_OK);
+    assertEquals(client.addVertex("YCSBVertex", "v2", Collections.emptyMap()), Status.BATCHED_OK);
+    assertEquals(client.setVertexProperty("v2", "name", "b"), Status.BATCHED_OK);
+    CompletableFuture.runAsync(() -> {
+      try {
+        client.cleanup();
+      } catch (Exception e) {
+        throw new IllegalStateException(e);
+      }
+    }).get(10, TimeUnit.SECONDS);
+
+    assertEquals(received, List.of("/api/addVertices", "/api/setVertexProperty", "/api/setVertexProperty"));
+  }
+}
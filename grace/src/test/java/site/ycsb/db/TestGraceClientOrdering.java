@@ -0,0 +1,134 @@
+package site.ycsb.db;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import site.ycsb.DBException;
+import site.ycsb.Status;
+import site.ycsb.measurements.Measurements;
+
+public class TestGraceClientOrdering {
+  private StubServer server;
+  private final List<String> received = Collections.synchronizedList(new ArrayList<>());
+  private final List<String> hammered = Collections.synchronizedList(new ArrayList<>());
+  private final AtomicInteger hammering = new AtomicInteger();
+  private final AtomicInteger overlaps = new AtomicInteger();
+  private final CountDownLatch firstArrived = new CountDownLatch(1);
+  private final CountDownLatch release = new CountDownLatch(1);
+
+  @BeforeClass
+  public void setUp() throws IOException, InterruptedException {
+    Measurements.setProperties(new Properties());
+    GraceClient.resetShared();
+    server = new StubServer().respond("/api/setVertexProperty", exchange -> {
+      String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+      if (body.contains("\"v2\"")) {
+        if (hammering.incrementAndGet() > 1) {
+          overlaps.incrementAndGet();
+        }
+        hammered.add(body);
+        LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(100));
+        hammering.decrementAndGet();
+        exchange.sendResponseHeaders(200, -1);
+        exchange.close();
+        return;
+      }
+      received.add(body);
+      if (received.size() == 1) {
+        // Hold the first write until the test saw that the second one waits for it.
+        firstArrived.countDown();
+        try {
+          release.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      }
+      exchange.sendResponseHeaders(200, -1);
+      exchange.close();
+    });
+    server.start();
+  }
+
+  @AfterClass
+  public void tearDown() throws InterruptedException {
+    GraceClient.resetShared();
+    server.stop();
+  }
+
+  @Test
+  public void writesOfAllClientsToAnElementStayInOrder() throws Exception {
+    GraceClient first = client();
+    GraceClient second = client();
+    assertEquals(first.setVertexProperty("v1", "name", "first"), Status.BATCHED_OK);
+    assertTrue(firstArrived.await(10, TimeUnit.SECONDS));
+    assertEquals(second.setVertexProperty("v1", "name", "second"), Status.BATCHED_OK);
+    Thread.sleep(200);
+    assertEquals(received.size(), 1, "the second write did not wait for the first");
+
+    release.countDown();
+    first.cleanup();
+    second.cleanup();
+    assertEquals(received.size(), 2);
+    assertTrue(received.get(0).contains("\"first\""), received.get(0));
+    assertTrue(received.get(1).contains("\"second\""), received.get(1));
+  }
+
+  @Test
+  public void concurrentWritesToAnElementStayInOrder() throws Exception {
+    int writes = 500;
+    List<Thread> threads = new ArrayList<>();
+    List<GraceClient> clients = new ArrayList<>();
+    for (int t = 0; t < 2; t++) {
+      GraceClient client = client();
+      clients.add(client);
+      String prefix = "t" + t + "-";
+      threads.add(new Thread(() -> {
+        for (int i = 0; i < writes; i++) {
+          client.setVertexProperty("v2", "name", prefix + i);
+        }
+      }));
+    }
+    for (Thread thread : threads) {
+      thread.start();
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    for (GraceClient client : clients) {
+      client.cleanup();
+    }
+
+    assertEquals(hammered.size(), 2 * writes);
+    assertEquals(overlaps.get(), 0, "writes to the element were sent at the same time");
+    int[] next = new int[2];
+    Matcher value = Pattern.compile("\"t(\\d)-(\\d+)\"").matcher("");
+    for (String body : hammered) {
+      assertTrue(value.reset(body).find(), body);
+      int thread = Integer.parseInt(value.group(1));
+      assertEquals(Integer.parseInt(value.group(2)), next[thread]++, "write of thread " + thread + " out of order");
+    }
+  }
+
+  private GraceClient client() throws DBException {
+    Properties p = new Properties();
+    p.setProperty(GraceClient.ASYNC_PROPERTY, "true");
+    return server.client(p);
+  }
+}
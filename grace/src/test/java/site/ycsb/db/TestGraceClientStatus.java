@@ -0,0 +1,143 @@
+package site.ycsb.db;
+
+import static org.testng.Assert.assertEquals;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Properties;
+import java.util.regex.Pattern;
+
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import site.ycsb.DBException;
+import site.ycsb.Status;
+import site.ycsb.measurements.Measurements;
+
+public class TestGraceClientStatus {
+  private static final Pattern ERROR_PATTERN =
+      Pattern.compile(GraceClient.VALIDATE_ERROR_PATTERN_PROPERTY_DEFAULT);
+
+  private StubServer server;
+
+  @BeforeClass
+  public void setUp() throws IOException, InterruptedException {
+    Measurements.setProperties(new Properties());
+    GraceClient.resetShared();
+    server = new StubServer();
+    respond("/clean", "{\"id\":\"v1\"}");
+    respond("/error", "{\"error\":\"constraint violated\"}");
+    StringBuilder late = new StringBuilder("{\"padding\":\"");
+    for (int i = 0; i < 100; i++) {
+      late.append('.');
+    }
+    respond("/late", late.append("\",\"error\":1}").toString());
+    server.start();
+  }
+
+  @AfterClass
+  public void tearDown() throws InterruptedException {
+    GraceClient.resetShared();
+    server.stop();
+  }
+
+  @DataProvider(name = "codes")
+  public Object[][] codes() {
+    return new Object[][]{
+        {200, Status.OK},
+        {201, Status.OK},
+        {204, Status.OK},
+        {299, Status.OK},
+        {400, Status.BAD_REQUEST},
+        {422, Status.BAD_REQUEST},
+        {401, Status.FORBIDDEN},
+        {403, Status.FORBIDDEN},
+        {404, Status.NOT_FOUND},
+        {501, Status.NOT_IMPLEMENTED},
+        {429, Status.SERVICE_UNAVAILABLE},
+        {503, Status.SERVICE_UNAVAILABLE},
+        {100, Status.ERROR},
+        {199, Status.ERROR},
+        {301, Status.ERROR},
+        {405, Status.ERROR},
+        {409, Status.ERROR},
+        {500, Status.ERROR},
+        {502, Status.ERROR},
+        {504, Status.ERROR},
+    };
+  }
+
+  @Test(dataProvider = "codes")
+  public void mapsStatusCode(int code, Status expected) {
+    assertEquals(GraceClient.status(code, null, null), expected);
+    assertEquals(GraceClient.status(code, bytes("{\"id\":\"v1\"}"), ERROR_PATTERN), expected);
+  }
+
+  @DataProvider(name = "bodies")
+  public Object[][] bodies() {
+    return new Object[][]{
+        {200, "{\"id\":\"v1\"}", Status.OK},
+        {200, "", Status.OK},
+        {200, "{\"error\":\"constraint violated\"}", Status.UNEXPECTED_STATE},
+        {201, "{\"result\":{}, \"error\" : null}", Status.UNEXPECTED_STATE},
+        {200, "{\"message\":\"no error\"}", Status.OK},
+        // Only a successful status is checked against its body.
+        {400, "{\"error\":\"bad body\"}", Status.BAD_REQUEST},
+        {500, "{\"error\":\"failed\"}", Status.ERROR},
+    };
+  }
+
+  @Test(dataProvider = "bodies")
+  public void checksBodyOfSuccessfulResponse(int code, String body, Status expected) {
+    assertEquals(GraceClient.status(code, bytes(body), ERROR_PATTERN), expected);
+  }
+
+  @Test
+  public void checksBodyWithCustomPattern() {
+    Pattern failed = Pattern.compile("\"ok\"\\s*:\\s*false");
+    assertEquals(GraceClient.status(200, bytes("{\"ok\": false}"), failed), Status.UNEXPECTED_STATE);
+    assertEquals(GraceClient.status(200, bytes("{\"ok\": true, \"error\": 0}"), failed), Status.OK);
+  }
+
+  @Test
+  public void validatesResponseBodies() throws DBException {
+    assertEquals(client("/clean", true, 4096).setVertexProperty("v1", "name", "a"), Status.OK);
+    assertEquals(client("/error", true, 4096).setVertexProperty("v1", "name", "a"), Status.UNEXPECTED_STATE);
+    assertEquals(client("/late", true, 4096).setVertexProperty("v1", "name", "a"), Status.UNEXPECTED_STATE);
+  }
+
+  @Test
+  public void ignoresBodiesUnlessValidating() throws DBException {
+    assertEquals(client("/error", false, 4096).setVertexProperty("v1", "name", "a"), Status.OK);
+  }
+
+  @Test
+  public void readsOnlyMaxBytesOfTheBody() throws DBException {
+    assertEquals(client("/late", true, 64).setVertexProperty("v1", "name", "a"), Status.OK);
+  }
+
+  private void respond(String prefix, String body) {
+    server.respond(prefix + "/api/setVertexProperty", exchange -> {
+      exchange.getRequestBody().readAllBytes();
+      byte[] bytes = bytes(body);
+      exchange.sendResponseHeaders(200, bytes.length);
+      try (OutputStream out = exchange.getResponseBody()) {
+        out.write(bytes);
+      }
+    });
+  }
+
+  private GraceClient client(String prefix, boolean validate, int maxBytes) throws DBException {
+    Properties p = new Properties();
+    p.setProperty(GraceClient.VALIDATE_PROPERTY, Boolean.toString(validate));
+    p.setProperty(GraceClient.VALIDATE_MAX_BYTES_PROPERTY, Integer.toString(maxBytes));
+    return StubServer.client(server.uri() + prefix, new PollingDriver(1), p);
+  }
+
+  private static byte[] bytes(String s) {
+    return s.getBytes(StandardCharsets.UTF_8);
+  }
+}
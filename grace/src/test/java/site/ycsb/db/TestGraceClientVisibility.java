@@ -0,0 +1,112 @@
+package site.ycsb.db;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+import org.apache.htrace.core.HTraceConfiguration;
+import org.apache.htrace.core.Tracer;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import site.ycsb.DBException;
+import site.ycsb.DBWrapper;
+import site.ycsb.Status;
+import site.ycsb.db.DatabaseDrivers.DatabaseClient;
+import site.ycsb.measurements.Measurements;
+import site.ycsb.measurements.exporter.MeasurementsExporter;
+
+public class TestGraceClientVisibility {
+
+  @BeforeClass
+  public void setUp() throws InterruptedException {
+    Measurements.setProperties(new Properties());
+    GraceClient.resetShared();
+  }
+
+  @AfterClass
+  public void tearDown() throws InterruptedException {
+    GraceClient.resetShared();
+  }
+
+  @Test
+  public void pollsUntilTheValueIsVisible() throws DBException {
+    PollingDriver driver = new PollingDriver(5);
+    assertEquals(client(driver, 10000).awaitVertexProperty("v1", "name", "a"), Status.OK);
+    assertEquals(driver.polls, 5);
+  }
+
+  @Test
+  public void backsOffUntilTheTimeout() throws DBException {
+    PollingDriver driver = new PollingDriver(Integer.MAX_VALUE);
+    long start = System.nanoTime();
+    assertEquals(client(driver, 100).awaitVertexProperty("v1", "name", "a"), Status.NOT_FOUND);
+    long elapsed = System.nanoTime() - start;
+    assertTrue(elapsed >= 100000000L, "gave up after " + elapsed + "ns");
+    // Polling every 100us would take a thousand polls; doubling the wait up to 10ms takes about 20.
+    assertTrue(driver.polls > 1 && driver.polls < 50, driver.polls + " polls");
+  }
+
+  @Test
+  public void failingQueryIsAnError() throws DBException {
+    PollingDriver driver = new PollingDriver(5);
+    driver.failing = true;
+    assertEquals(client(driver, 10000).awaitVertexProperty("v1", "name", "a"), Status.ERROR);
+    assertEquals(driver.polls, 1);
+  }
+
+  @Test
+  public void lagIsMeasured() throws DBException, IOException {
+    long ok = returned("VISIBILITY_LAG", Status.OK);
+    long missed = returned("VISIBILITY_LAG", Status.NOT_FOUND);
+    DBWrapper wrapper = new DBWrapper(client(new PollingDriver(3), 10000),
+        new Tracer.Builder("test").conf(HTraceConfiguration.EMPTY).build());
+    assertEquals(wrapper.awaitVertexProperty("v1", "name", "a"), Status.OK);
+    assertEquals(returned("VISIBILITY_LAG", Status.OK), ok + 1);
+
+    wrapper = new DBWrapper(client(new PollingDriver(Integer.MAX_VALUE), 10),
+        new Tracer.Builder("test").conf(HTraceConfiguration.EMPTY).build());
+    assertEquals(wrapper.awaitVertexProperty("v1", "name", "a"), Status.NOT_FOUND);
+    assertEquals(returned("VISIBILITY_LAG", Status.NOT_FOUND), missed + 1);
+  }
+
+  private static GraceClient client(DatabaseClient driver, long timeoutMillis) throws DBException {
+    Properties p = new Properties();
+    p.setProperty(GraceClient.VISIBILITY_TIMEOUT_PROPERTY, Long.toString(timeoutMillis));
+    // No write reaches GRACE, only the read path is polled.
+    return StubServer.client("http://localhost:1", driver, p);
+  }
+
+  /**
+   * @return The number of operations reported with a status.
+   */
+  private static long returned(String operation, Status status) throws IOException {
+    final Map<String, Long> counts = new HashMap<>();
+    Measurements.getMeasurements().exportMeasurements(new MeasurementsExporter() {
+      @Override
+      public void write(String metric, String measurement, int i) {
+        write(metric, measurement, (long) i);
+      }
+
+      @Override
+      public void write(String metric, String measurement, long i) {
+        counts.put(metric + "/" + measurement, i);
+      }
+
+      @Override
+      public void write(String metric, String measurement, double d) {
+      }
+
+      @Override
+      public void close() {
+      }
+    });
+    Long count = counts.get(operation + "/Return=" + status.getName());
+    return count == null ? 0 : count;
+  }
+}
@@ -0,0 +1,102 @@
+package site.ycsb.db;
+
+import static org.testng.Assert.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.net.http.HttpRequest;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Flow;
+
+import org.testng.annotations.Test;
+
+public class TestJsonBodyWriter {
+
+  @Test
+  public void escapesQuotesAndBackslashes() {
+    assertEquals(new JsonBodyWriter().string("a\"b\\c/d").toString(), "\"a\\\"b\\\\c/d\"");
+  }
+
+  @Test
+  public void escapesControlCharacters() {
+    assertEquals(new JsonBodyWriter().string("\n\r\t\b\f\u0000\u0001\u001f ").toString(),
+        "\"\\n\\r\\t\\b\\f\\u0000\\u0001\\u001f \"");
+  }
+
+  @Test
+  public void encodesNonAsciiAsUtf8() {
+    // Characters of two, three and four bytes of UTF-8, some at the bounds of their length.
+    String value = "\u00e9\u20ac\ud83d\ude00\uffff\u0080\u07ff";
+    assertEquals(new JsonBodyWriter().string(value).toByteArray(),
+        ("\"" + value + "\"").getBytes(StandardCharsets.UTF_8));
+  }
+
+  @Test
+  public void replacesUnpairedSurrogates() {
+    String value = "a\ud800b\ude00c\ud83d";
+    byte[] body = new JsonBodyWriter().string(value).toByteArray();
+    assertEquals(body, ("\"" + value + "\"").getBytes(StandardCharsets.UTF_8));
+    assertEquals(new String(body, StandardCharsets.UTF_8), "\"a?b?c?\"");
+  }
+
+  @Test
+  public void writesNullAsAString() {
+    assertEquals(new JsonBodyWriter().raw('{').raw("\"id\":").string(null).raw('}').toString(),
+        "{\"id\":\"null\"}");
+  }
+
+  @Test
+  public void growsPastTheInitialBuffer() {
+    StringBuilder value = new StringBuilder();
+    for (int i = 0; i < 1000; i++) {
+      value.append("\u0001\u20ac");
+    }
+    byte[] body = new JsonBodyWriter().string(value.toString()).toByteArray();
+    // Six bytes for each escaped control character and three for each euro sign.
+    assertEquals(body.length, 2 + 1000 * (6 + 3));
+  }
+
+  @Test
+  public void copyOutlivesTheReuseOfTheBuffer() {
+    JsonBodyWriter json = new JsonBodyWriter();
+    json.reset().raw("{\"id\":").string("first vertex").raw('}');
+    HttpRequest.BodyPublisher copy = json.copyPublisher();
+    json.reset().raw("{\"id\":").string("v2").raw('}');
+    HttpRequest.BodyPublisher current = json.publisher();
+
+    assertEquals(read(copy), "{\"id\":\"first vertex\"}");
+    assertEquals(read(current), "{\"id\":\"v2\"}");
+    assertEquals(copy.contentLength(), 21);
+    assertEquals(current.contentLength(), 11);
+  }
+
+  /**
+   * @return The body a publisher sends, as a string.
+   */
+  private static String read(HttpRequest.BodyPublisher publisher) {
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    publisher.subscribe(new Flow.Subscriber<ByteBuffer>() {
+      @Override
+      public void onSubscribe(Flow.Subscription subscription) {
+        subscription.request(Long.MAX_VALUE);
+      }
+
+      @Override
+      public void onNext(ByteBuffer item) {
+        byte[] bytes = new byte[item.remaining()];
+        item.get(bytes);
+        out.write(bytes, 0, bytes.length);
+      }
+
+      @Override
+      public void onError(Throwable throwable) {
+        throw new AssertionError(throwable);
+      }
+
+      @Override
+      public void onComplete() {
+      }
+    });
+    return new String(out.toByteArray(), StandardCharsets.UTF_8);
+  }
+}
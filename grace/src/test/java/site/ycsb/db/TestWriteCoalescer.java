@@ -0,0 +1,119 @@
+package site.ycsb.db;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.testng.annotations.Test;
+
+import site.ycsb.Status;
+
+public class TestWriteCoalescer {
+  /** Long enough that a batch is never sent for its linger time during a test. */
+  private static final long FOREVER_MICROS = TimeUnit.SECONDS.toMicros(60);
+
+  @Test
+  public void sendsFullBatches() throws Exception {
+    RecordingSender sender = new RecordingSender(Status.OK);
+    WriteCoalescer coalescer = new WriteCoalescer("test", 3, FOREVER_MICROS, sender);
+    List<CompletableFuture<Status>> results = add(coalescer, 6);
+    for (CompletableFuture<Status> result : results) {
+      assertEquals(result.get(10, TimeUnit.SECONDS), Status.OK);
+    }
+    assertEquals(sender.batches, List.of("[1,2,3]", "[4,5,6]"));
+    coalescer.close();
+  }
+
+  @Test
+  public void sendsLingeringBatches() throws Exception {
+    RecordingSender sender = new RecordingSender(Status.OK);
+    WriteCoalescer coalescer = new WriteCoalescer("test", 100, TimeUnit.MILLISECONDS.toMicros(50), sender);
+    long start = System.nanoTime();
+    List<CompletableFuture<Status>> results = add(coalescer, 2);
+    for (CompletableFuture<Status> result : results) {
+      assertEquals(result.get(10, TimeUnit.SECONDS), Status.OK);
+    }
+    long elapsed = System.nanoTime() - start;
+    assertTrue(elapsed >= TimeUnit.MILLISECONDS.toNanos(50), "sent after " + elapsed + "ns");
+    assertEquals(sender.batches, List.of("[1,2]"));
+    coalescer.close();
+  }
+
+  @Test
+  public void failedBatchFailsAllItsWrites() throws Exception {
+    RecordingSender sender = new RecordingSender(Status.SERVICE_UNAVAILABLE);
+    WriteCoalescer coalescer = new WriteCoalescer("test", 2, FOREVER_MICROS, sender);
+    for (CompletableFuture<Status> result : add(coalescer, 4)) {
+      assertEquals(result.get(10, TimeUnit.SECONDS), Status.SERVICE_UNAVAILABLE);
+    }
+    coalescer.close();
+
+    coalescer = new WriteCoalescer("test", 2, FOREVER_MICROS, body -> {
+      throw new IllegalStateException("not sent");
+    });
+    for (CompletableFuture<Status> result : add(coalescer, 2)) {
+      assertEquals(result.get(10, TimeUnit.SECONDS), Status.ERROR);
+    }
+    coalescer.close();
+
+    coalescer = new WriteCoalescer("test", 2, FOREVER_MICROS,
+        body -> CompletableFuture.failedFuture(new IllegalStateException("no response")));
+    for (CompletableFuture<Status> result : add(coalescer, 2)) {
+      assertEquals(result.get(10, TimeUnit.SECONDS), Status.ERROR);
+    }
+    coalescer.close();
+  }
+
+  @Test
+  public void closeSendsTheQueuedWrites() throws Exception {
+    RecordingSender sender = new RecordingSender(Status.OK);
+    WriteCoalescer coalescer = new WriteCoalescer("test", 2, FOREVER_MICROS, sender);
+    List<CompletableFuture<Status>> results = add(coalescer, 3);
+    coalescer.close();
+    for (CompletableFuture<Status> result : results) {
+      assertTrue(result.isDone());
+      assertEquals(result.get(), Status.OK);
+    }
+    assertEquals(sender.batches, List.of("[1,2]", "[3]"));
+    assertEquals(coalescer.add(body(4)).get(), Status.ERROR);
+  }
+
+  /**
+   * Queue the writes 1 to n.
+   */
+  private static List<CompletableFuture<Status>> add(WriteCoalescer coalescer, int n) {
+    List<CompletableFuture<Status>> results = new ArrayList<>();
+    for (int i = 1; i <= n; i++) {
+      results.add(coalescer.add(body(i)));
+    }
+    return results;
+  }
+
+  private static byte[] body(int i) {
+    return Integer.toString(i).getBytes(StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Keeps the batches and answers every one with the same status.
+   */
+  private static final class RecordingSender implements WriteCoalescer.Sender {
+    private final List<String> batches = Collections.synchronizedList(new ArrayList<>());
+    private final Status status;
+
+    private RecordingSender(Status status) {
+      this.status = status;
+    }
+
+    @Override
+    public CompletableFuture<Status> send(byte[] body) {
+      batches.add(new String(body, StandardCharsets.UTF_8));
+      return CompletableFuture.completedFuture(status);
+    }
+  }
+}
@@ -5,6 +5,7 @@ import org.apache.tinkerpop.gremlin.driver.Cluster;
 import org.apache.tinkerpop.gremlin.process.remote.RemoteConnection;
 import org.apache.tinkerpop.gremlin.process.traversal.AnonymousTraversalSource;
 import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversal;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__;
 import org.apache.tinkerpop.gremlin.structure.Edge;
 import org.apache.tinkerpop.gremlin.structure.T;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
@@ -13,17 +14,29 @@ import site.ycsb.DB;
 import org.apache.tinkerpop.gremlin.driver.remote.DriverRemoteConnection;
 import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource;
 import site.ycsb.DBException;
+import site.ycsb.EdgeRecord;
 import site.ycsb.Status;
+import site.ycsb.VertexRecord;
 
 import java.net.URI;
+import java.util.List;
 import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.locks.ReentrantLock;
 
 
 public class JanusGraphClient extends DB{
   GraphTraversalSource g;
   private static Properties props = new Properties();
 
+  /**
+   * Guards {@link #sharedG}. A lock rather than synchronized, which would pin the carriers of
+   * the virtual threads waiting for the first connection.
+   */
+  private static final ReentrantLock CONNECT_LOCK = new ReentrantLock();
+  /** The traversal source connected by the first instance, shared by all of them. */
+  private static GraphTraversalSource sharedG;
+
   @Override
   public void init() throws DBException {
     System.out.println("Starting Janusgraph client");
@@ -41,20 +54,26 @@ public class JanusGraphClient extends DB{
       throw new DBException("DBURI must be provided");
     }
     System.out.println("DBURI: "+props.getProperty("DBURI"));
+    CONNECT_LOCK.lock();
     try{
-      URI uri = new URI(props.getProperty("DBURI"));
-      Cluster cluster = Cluster.build()
-              .addContactPoint(uri.getHost())
-              .port(uri.getPort())
-              .create();
-      Client client = cluster.connect();
-      RemoteConnection connection = DriverRemoteConnection.using(client, "g");
-
-      this.g = AnonymousTraversalSource.traversal().withRemote(connection);
-      System.out.println("Connected to Janusgraph successfully");
+      if (sharedG == null) {
+        URI uri = new URI(props.getProperty("DBURI"));
+        Cluster cluster = Cluster.build()
+                .addContactPoint(uri.getHost())
+                .port(uri.getPort())
+                .create();
+        Client client = cluster.connect();
+        RemoteConnection connection = DriverRemoteConnection.using(client, "g");
+
+        sharedG = AnonymousTraversalSource.traversal().withRemote(connection);
+        System.out.println("Connected to Janusgraph successfully");
+      }
+      this.g = sharedG;
     } catch (Exception e) {
       System.out.println("Failed to connect to Janusgraph database: " + e.getMessage());
       throw new DBException(e);
+    } finally {
+      CONNECT_LOCK.unlock();
     }
   }
 
@@ -97,6 +116,68 @@ public class JanusGraphClient extends DB{
 
   }
 
+  /**
+   * Insert the whole batch with a single traversal chaining one addV step per vertex, so the
+   * batch costs one round trip to the server.
+   */
+  @Override
+  public Status addVertices(List<VertexRecord> vertices) {
+    if (vertices.isEmpty()) {
+      return Status.OK;
+    }
+    try {
+      GraphTraversal<Vertex, Vertex> t = null;
+      for (VertexRecord v : vertices) {
+        t = t == null ? this.g.addV(v.getLabel()) : t.addV(v.getLabel());
+        t = t.property(T.id, v.getId());
+        for (Map.Entry<String, String> entry : v.getProperties().entrySet()) {
+          t = t.property(entry.getKey(), entry.getValue());
+        }
+      }
+      t.iterate();
+      return Status.OK;
+    } catch (Exception e) {
+      System.out.println("Exception in addVertices: " + e);
+      return Status.ERROR;
+    }
+  }
+
+  /**
+   * Insert the whole batch with a single traversal. Each edge is a branch of its own under
+   * union(), so that an edge whose endpoints are missing only loses that edge rather than the
+   * traversers of the edges after it; the number of edges created tells whether any was lost.
+   */
+  @Override
+  public Status addEdges(List<EdgeRecord> edges) {
+    if (edges.isEmpty()) {
+      return Status.OK;
+    }
+    try {
+      @SuppressWarnings("unchecked")
+      GraphTraversal<?, Edge>[] branches = new GraphTraversal[edges.size()];
+      int i = 0;
+      for (EdgeRecord e : edges) {
+        String source = "a" + i;
+        GraphTraversal<?, Edge> branch = __.V(e.getFrom()).as(source).V(e.getTo())
+            .addE(e.getLabel()).from(source).property("_id", e.getId());
+        for (Map.Entry<String, String> entry : e.getProperties().entrySet()) {
+          branch = branch.property(entry.getKey(), entry.getValue());
+        }
+        branches[i++] = branch;
+      }
+      long added = this.g.inject(0).union(branches).count().next();
+      if (added != edges.size()) {
+        System.out.println("addEdges: " + (edges.size() - added) + " of " + edges.size()
+            + " edges have a missing endpoint");
+        return Status.ERROR;
+      }
+      return Status.OK;
+    } catch (Exception e) {
+      System.out.println("Exception in addEdges: " + e.getMessage());
+      return Status.ERROR;
+    }
+  }
+
   @Override
   public Status setVertexProperty(String id, String key, String value) {
     try{
@@ -7,6 +7,7 @@ import com.mongodb.client.FindIterable;
 import com.mongodb.client.MongoClient;
 import com.mongodb.client.MongoClients;
 import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.InsertManyOptions;
 import com.mongodb.client.model.Updates;
 import com.mongodb.client.result.InsertOneResult;
 
@@ -14,13 +15,17 @@ import org.bson.Document;
 import org.bson.types.ObjectId;
 import site.ycsb.DB;
 import site.ycsb.DBException;
+import site.ycsb.EdgeRecord;
 import site.ycsb.Status;
+import site.ycsb.VertexRecord;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Random;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.stream.Collectors;
 
 public class MongoDBClient extends DB {
@@ -28,6 +33,14 @@ public class MongoDBClient extends DB {
   private static Properties props = new Properties();
   MongoClient mongoClient;
 
+  /**
+   * Guards {@link #sharedClient}. A lock rather than synchronized, which would pin the carriers of
+   * the virtual threads waiting for the first connection.
+   */
+  private static final ReentrantLock CONNECT_LOCK = new ReentrantLock();
+  /** The client connected by the first instance, shared by all of them. */
+  private static MongoClient sharedClient;
+
   @Override
   public void init() throws DBException {
     System.out.println("Starting Mongodb client");
@@ -45,26 +58,33 @@ public class MongoDBClient extends DB {
       throw new DBException("DBURI must be provided");
     }
     System.out.println("DBURI: "+props.getProperty("DBURI"));
+    CONNECT_LOCK.lock();
     try{
-      this.mongoClient = MongoClients.create(
-          MongoClientSettings.builder()
-              .applyConnectionString(new ConnectionString(props.getProperty("DBURI")))
-              .readConcern(ReadConcern.LOCAL)
-              .writeConcern(com.mongodb.WriteConcern.ACKNOWLEDGED)
-              .build()
-      );
-
-      // Create a database and a vertex and edge collection if they don't exist
-      mongoClient.getDatabase("grace").createCollection("vertices");
-      mongoClient.getDatabase("grace").createCollection("edges");
-
-      // Test connection status and print it
-
-      mongoClient.listDatabaseNames().first();
-      System.out.println("Connected to MongoDB database successfully");
+      if (sharedClient == null) {
+        MongoClient client = MongoClients.create(
+            MongoClientSettings.builder()
+                .applyConnectionString(new ConnectionString(props.getProperty("DBURI")))
+                .readConcern(ReadConcern.LOCAL)
+                .writeConcern(com.mongodb.WriteConcern.ACKNOWLEDGED)
+                .build()
+        );
+
+        // Create a database and a vertex and edge collection if they don't exist
+        client.getDatabase("grace").createCollection("vertices");
+        client.getDatabase("grace").createCollection("edges");
+
+        // Test connection status and print it
+
+        client.listDatabaseNames().first();
+        System.out.println("Connected to MongoDB database successfully");
+        sharedClient = client;
+      }
+      this.mongoClient = sharedClient;
     } catch (Exception e) {
       System.out.println("Failed to connect to MongoDB database: " + e.getMessage());
       throw new DBException(e);
+    } finally {
+      CONNECT_LOCK.unlock();
     }
   }
 
@@ -77,14 +97,7 @@ public class MongoDBClient extends DB {
 
     try {
 //      System.out.println("Adding vertex with id: " + id);
-      Document vertex = new Document();
-      vertex.append("label", label);
-      vertex.append("_id", id);
-      Document props = new Document();
-      for (Map.Entry<String, String> entry : properties.entrySet()) {
-        props.append(entry.getKey(), entry.getValue().toString());
-      }
-      vertex.append("properties", props);
+      Document vertex = vertexDocument(label, id, properties);
       InsertOneResult result = this.mongoClient.getDatabase("grace").getCollection("vertices").insertOne(vertex);
 //      System.out.println("Inserted vertex with id: " + result);
       return Status.OK;
@@ -96,16 +109,7 @@ public class MongoDBClient extends DB {
   public Status addEdge(String label, String id, String from, String to, Map<String, String> properties) {
     int status = 0;
     try {
-      Document edge = new Document();
-      edge.append("label", label);
-      edge.append("_id", id);
-      edge.append("from", from);
-      edge.append("to", to);
-      Document props = new Document();
-      for (Map.Entry<String, String> entry : properties.entrySet()) {
-        props.append(entry.getKey(), entry.getValue().toString());
-      }
-      edge.append("properties", props);
+      Document edge = edgeDocument(label, id, from, to, properties);
       InsertOneResult result = this.mongoClient.getDatabase("grace").getCollection("edges").insertOne(edge);
 //      System.out.println("Inserted edge with id: " + result);
       return Status.OK;
@@ -115,6 +119,61 @@ public class MongoDBClient extends DB {
 
   }
 
+  @Override
+  public Status addVertices(List<VertexRecord> vertices) {
+    try {
+      List<Document> documents = new ArrayList<>(vertices.size());
+      for (VertexRecord v : vertices) {
+        documents.add(vertexDocument(v.getLabel(), v.getId(), v.getProperties()));
+      }
+      this.mongoClient.getDatabase("grace").getCollection("vertices")
+          .insertMany(documents, new InsertManyOptions().ordered(false));
+      return Status.OK;
+    } catch (Exception e) {
+      System.out.println("Exception in addVertices: " + e.getMessage());
+      return Status.ERROR;
+    }
+  }
+
+  @Override
+  public Status addEdges(List<EdgeRecord> edges) {
+    try {
+      List<Document> documents = new ArrayList<>(edges.size());
+      for (EdgeRecord e : edges) {
+        documents.add(edgeDocument(e.getLabel(), e.getId(), e.getFrom(), e.getTo(), e.getProperties()));
+      }
+      this.mongoClient.getDatabase("grace").getCollection("edges")
+          .insertMany(documents, new InsertManyOptions().ordered(false));
+      return Status.OK;
+    } catch (Exception e) {
+      System.out.println("Exception in addEdges: " + e.getMessage());
+      return Status.ERROR;
+    }
+  }
+
+  private static Document vertexDocument(String label, String id, Map<String, String> properties) {
+    Document vertex = new Document();
+    vertex.append("label", label);
+    vertex.append("_id", id);
+    Document props = new Document();
+    properties.forEach(props::append);
+    vertex.append("properties", props);
+    return vertex;
+  }
+
+  private static Document edgeDocument(String label, String id, String from, String to,
+                                       Map<String, String> properties) {
+    Document edge = new Document();
+    edge.append("label", label);
+    edge.append("_id", id);
+    edge.append("from", from);
+    edge.append("to", to);
+    Document props = new Document();
+    properties.forEach(props::append);
+    edge.append("properties", props);
+    return edge;
+  }
+
 
   @Override
   public Status setVertexProperty(String id, String key, String value) {